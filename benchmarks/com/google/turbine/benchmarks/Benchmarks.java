@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+/**
+ * Runs the benchmarks, accepting the same arguments as {@link org.openjdk.jmh.Main}.
+ *
+ * <p>Allocation rates are always reported, using JMH's GC profiler:
+ *
+ * <pre>
+ * mvn -P benchmarks package -DskipTests
+ * java -jar target/turbine-HEAD-SNAPSHOT-benchmarks.jar CompilerBenchmark.parse -p classes=5000
+ * </pre>
+ */
+public final class Benchmarks {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp() || commandLine.shouldList()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    boolean gc = false;
+    for (ProfilerConfig profiler : commandLine.getProfilers()) {
+      gc |=
+          profiler.getKlass().equals(GCProfiler.class.getName())
+              || profiler.getKlass().equals("gc");
+    }
+    if (!gc) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+
+  private Benchmarks() {}
+}
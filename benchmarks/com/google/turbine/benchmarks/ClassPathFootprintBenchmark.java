@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.ClassPath;
+import com.google.turbine.binder.ClassPathBinder;
+import com.google.turbine.binder.bytecode.BytecodeBoundClass;
+import com.google.turbine.binder.sym.ClassSymbol;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the heap retained by a large classpath, of which only a fraction of the classes are
+ * completed, as in a typical compilation.
+ *
+ * <p>The retained size is reported in the {@code retainedBytes} secondary result. It is computed
+ * from the used heap after a full GC, so it is only meaningful with a single benchmark thread. The
+ * primary result includes the time spent in GC, and isn't interesting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+// the footprint is deterministic, and JMH sums secondary results across iterations
+@Measurement(iterations = 1)
+// the parallel collector reports the used heap after a full GC precisely, G1 and serial don't
+@Fork(
+    value = 1,
+    jvmArgsAppend = {"-Xmx4g", "-XX:+UseParallelGC"})
+public class ClassPathFootprintBenchmark {
+
+  /** The number of classpath jars. */
+  @Param("100")
+  int jars;
+
+  /** The number of classes in each classpath jar. */
+  @Param("1000")
+  int classesPerJar;
+
+  /** The percentage of classpath classes that are completed. */
+  @Param({"0", "10"})
+  int completedPercent;
+
+  private Workload workload;
+  private ImmutableList<ClassSymbol> symbols;
+
+  /** The classpath from the last invocation, which is retained until the next one starts. */
+  private ClassPath classpath;
+
+  /** The heap in use before the current invocation. */
+  private long before;
+
+  /** The secondary results. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Footprint {
+    /** The heap retained by the classpath. */
+    public long retainedBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      retainedBytes = 0;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    workload = Workload.create(/* classes= */ 0, jars, classesPerJar);
+    ImmutableList.Builder<ClassSymbol> symbols = ImmutableList.builder();
+    for (String name : workload.classpathClassNames()) {
+      symbols.add(new ClassSymbol(name));
+    }
+    this.symbols = symbols.build();
+  }
+
+  @Setup(Level.Invocation)
+  public void measureBefore() {
+    classpath = null;
+    before = usedHeap();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    workload.close();
+  }
+
+  @Benchmark
+  public void bindClasspath(Footprint footprint) throws IOException {
+    ClassPath classpath = ClassPathBinder.bindClasspath(workload.classpath());
+    if (completedPercent > 0) {
+      int step = 100 / completedPercent;
+      for (int i = 0; i < symbols.size(); i += step) {
+        BytecodeBoundClass info = classpath.env().get(symbols.get(i));
+        info.superClassType();
+        info.interfaceTypes();
+        info.typeParameterTypes();
+        info.fields();
+        info.methods();
+        info.annotations();
+      }
+    }
+    this.classpath = classpath;
+    footprint.retainedBytes += usedHeap() - before;
+  }
+
+  /** Returns the heap in use after a full GC. */
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
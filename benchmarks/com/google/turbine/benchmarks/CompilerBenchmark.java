@@ -0,0 +1,183 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.Binder;
+import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.ClassPath;
+import com.google.turbine.binder.ClassPathBinder;
+import com.google.turbine.binder.JimageClassBinder;
+import com.google.turbine.bytecode.ClassFile;
+import com.google.turbine.bytecode.ClassReader;
+import com.google.turbine.bytecode.ClassWriter;
+import com.google.turbine.diag.SourceFile;
+import com.google.turbine.lower.Lower;
+import com.google.turbine.lower.Lower.LowerOptions;
+import com.google.turbine.lower.Lower.Lowered;
+import com.google.turbine.main.Main;
+import com.google.turbine.parse.Parser;
+import com.google.turbine.tree.Tree.CompUnit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for each phase of a header compilation of a {@link Workload}, and for the whole
+ * compilation.
+ *
+ * <p>The inputs to each phase are computed once, in {@link #setUp}, so each benchmark only measures
+ * its own phase. The classpath is shared by the binding and lowering benchmarks, so the classpath
+ * classes they use are decoded during warmup, as they would be in a persistent worker.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CompilerBenchmark {
+
+  /** The number of source classes. */
+  @Param("1000")
+  int classes;
+
+  /** The number of classpath jars. */
+  @Param("20")
+  int jars;
+
+  /** The number of classes in each classpath jar. */
+  @Param("500")
+  int classesPerJar;
+
+  private Workload workload;
+  private Path output;
+  private ImmutableList<SourceFile> sources;
+  private ImmutableList<CompUnit> units;
+  private ClassPath classpath;
+  private ClassPath bootclasspath;
+  private BindingResult bound;
+  private ImmutableList<Map.Entry<String, byte[]>> lowered;
+  private ImmutableList<ClassFile> classFiles;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    workload = Workload.create(classes, jars, classesPerJar);
+    output = workload.resolve("out.jar");
+
+    ImmutableList.Builder<SourceFile> sources = ImmutableList.builder();
+    for (Path path : workload.sources()) {
+      sources.add(new SourceFile(path.toString(), new String(Files.readAllBytes(path), UTF_8)));
+    }
+    this.sources = sources.build();
+    this.units = parse(this.sources);
+    classpath = ClassPathBinder.bindClasspath(workload.classpath());
+    bootclasspath = JimageClassBinder.bindDefault();
+    bound = bind(units, classpath, bootclasspath);
+    lowered = lower(bound).bytes().entrySet().asList();
+
+    ImmutableList.Builder<ClassFile> classFiles = ImmutableList.builder();
+    for (Map.Entry<String, byte[]> entry : lowered) {
+      classFiles.add(ClassReader.read(entry.getKey(), entry.getValue()));
+    }
+    this.classFiles = classFiles.build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    workload.close();
+  }
+
+  private static ImmutableList<CompUnit> parse(ImmutableList<SourceFile> sources) {
+    ImmutableList.Builder<CompUnit> units = ImmutableList.builder();
+    for (SourceFile source : sources) {
+      units.add(Parser.parse(source));
+    }
+    return units.build();
+  }
+
+  private static BindingResult bind(
+      ImmutableList<CompUnit> units, ClassPath classpath, ClassPath bootclasspath) {
+    BindingResult bound = Binder.bind(units, classpath, bootclasspath, Optional.empty());
+    checkState(bound != null);
+    return bound;
+  }
+
+  private static Lowered lower(BindingResult bound) {
+    return Lower.lowerAll(
+        LowerOptions.createDefault(), bound.units(), bound.modules(), bound.classPathEnv());
+  }
+
+  @Benchmark
+  public ImmutableList<CompUnit> parse() {
+    return parse(sources);
+  }
+
+  @Benchmark
+  public ClassPath bindClasspath() throws IOException {
+    return ClassPathBinder.bindClasspath(workload.classpath());
+  }
+
+  @Benchmark
+  public BindingResult bind() {
+    return bind(units, classpath, bootclasspath);
+  }
+
+  @Benchmark
+  public Lowered lower() {
+    return lower(bound);
+  }
+
+  @Benchmark
+  public void readClass(Blackhole bh) {
+    for (Map.Entry<String, byte[]> entry : lowered) {
+      bh.consume(ClassReader.read(entry.getKey(), entry.getValue()));
+    }
+  }
+
+  @Benchmark
+  public void writeClass(Blackhole bh) {
+    for (ClassFile classFile : classFiles) {
+      bh.consume(ClassWriter.writeClass(classFile));
+    }
+  }
+
+  @Benchmark
+  public Main.Result compile() throws IOException {
+    return Main.compile(workload.options(output));
+  }
+}
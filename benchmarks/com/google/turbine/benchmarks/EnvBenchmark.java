@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.Binder;
+import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.ClassPath;
+import com.google.turbine.binder.ClassPathBinder;
+import com.google.turbine.binder.JimageClassBinder;
+import com.google.turbine.binder.bound.SourceTypeBoundClass;
+import com.google.turbine.binder.bound.TypeBoundClass;
+import com.google.turbine.binder.bound.TypeBoundClass.FieldInfo;
+import com.google.turbine.binder.bytecode.BytecodeBoundClass;
+import com.google.turbine.binder.env.CachingEnv;
+import com.google.turbine.binder.env.CompoundEnv;
+import com.google.turbine.binder.env.Env;
+import com.google.turbine.binder.env.SimpleEnv;
+import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.diag.SourceFile;
+import com.google.turbine.parse.Parser;
+import com.google.turbine.tree.Tree.CompUnit;
+import com.google.turbine.type.Type;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks symbol lookups in the env chains that {@link Binder} builds for a {@link Workload}:
+ * the classpath, then the bootclasspath, then the classes bound from source.
+ *
+ * <p>The symbols looked up are the source classes, the classpath and bootclasspath classes they
+ * reference, and a member class of each of them that doesn't exist, so the lookups include hits in
+ * every env in the chain and misses that fall through all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EnvBenchmark {
+
+  /** The number of source classes. */
+  @Param("1000")
+  int classes;
+
+  /** The number of classpath jars. */
+  @Param("20")
+  int jars;
+
+  /** The number of classes in each classpath jar. */
+  @Param("500")
+  int classesPerJar;
+
+  private Workload workload;
+  private ImmutableList<ClassSymbol> symbols;
+  private CompoundEnv<ClassSymbol, BytecodeBoundClass> classPathEnv;
+  private SimpleEnv<ClassSymbol, SourceTypeBoundClass> sourceEnv;
+  private Env<ClassSymbol, TypeBoundClass> compound;
+  private Env<ClassSymbol, TypeBoundClass> caching;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    workload = Workload.create(classes, jars, classesPerJar);
+    ImmutableList.Builder<CompUnit> units = ImmutableList.builder();
+    for (Path path : workload.sources()) {
+      units.add(
+          Parser.parse(
+              new SourceFile(path.toString(), new String(Files.readAllBytes(path), UTF_8))));
+    }
+    ClassPath classpath = ClassPathBinder.bindClasspath(workload.classpath());
+    ClassPath bootclasspath = JimageClassBinder.bindDefault();
+    BindingResult bound = Binder.bind(units.build(), classpath, bootclasspath, Optional.empty());
+    checkState(bound != null);
+
+    Set<ClassSymbol> symbols = new LinkedHashSet<>();
+    for (Map.Entry<ClassSymbol, SourceTypeBoundClass> e : bound.units().entrySet()) {
+      SourceTypeBoundClass info = e.getValue();
+      symbols.add(e.getKey());
+      ClassSymbol superclass = info.superclass();
+      if (superclass != null) {
+        symbols.add(superclass);
+      }
+      symbols.addAll(info.interfaces());
+      for (FieldInfo field : info.fields()) {
+        if (field.type().tyKind() == Type.TyKind.CLASS_TY) {
+          symbols.add(((Type.ClassTy) field.type()).sym());
+        }
+      }
+    }
+    ImmutableList.Builder<ClassSymbol> lookups = ImmutableList.builder();
+    for (ClassSymbol sym : symbols) {
+      lookups.add(sym);
+      lookups.add(new ClassSymbol(sym.binaryName() + "$Missing"));
+    }
+    this.symbols = lookups.build();
+
+    classPathEnv = CompoundEnv.of(classpath.env()).append(bootclasspath.env());
+    sourceEnv = new SimpleEnv<>(bound.units());
+    compound = CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(sourceEnv);
+    caching = cachingEnv();
+    for (ClassSymbol sym : this.symbols) {
+      // populate the cache
+      TypeBoundClass unused = caching.get(sym);
+    }
+  }
+
+  /** Returns the same env chain as {@link #compound}, with the classpath lookups cached. */
+  private Env<ClassSymbol, TypeBoundClass> cachingEnv() {
+    return CompoundEnv.<ClassSymbol, TypeBoundClass>of(CachingEnv.of(classPathEnv))
+        .append(sourceEnv);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    workload.close();
+  }
+
+  private void lookupAll(Env<ClassSymbol, TypeBoundClass> env, Blackhole bh) {
+    for (ClassSymbol sym : symbols) {
+      bh.consume(env.get(sym));
+    }
+  }
+
+  /** Lookups that walk the chain each time, as {@link CompoundEnv} does. */
+  @Benchmark
+  public void compound(Blackhole bh) {
+    lookupAll(compound, bh);
+  }
+
+  /** Lookups in a {@link CachingEnv} whose cache is already populated. */
+  @Benchmark
+  public void caching(Blackhole bh) {
+    lookupAll(caching, bh);
+  }
+
+  /** Lookups in a new {@link CachingEnv}, including the cost of populating its cache. */
+  @Benchmark
+  public void cachingCold(Blackhole bh) {
+    lookupAll(cachingEnv(), bh);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.diag.SourceFile;
+import com.google.turbine.parse.Parser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks parsing sources where most of the input is in method bodies and initializers, which
+ * header compilation skips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+  /** The number of source files. */
+  @Param("200")
+  int files;
+
+  /** The number of methods in each class. */
+  @Param("50")
+  int methods;
+
+  /** The number of statements in each method body. */
+  @Param("20")
+  int statements;
+
+  private ImmutableList<SourceFile> sources;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ImmutableList.Builder<SourceFile> sources = ImmutableList.builder();
+    for (int i = 0; i < files; i++) {
+      sources.add(new SourceFile("B" + i + ".java", source(i)));
+    }
+    this.sources = sources.build();
+  }
+
+  private String source(int i) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("package bench;\n");
+    sb.append("import java.util.*;\n");
+    sb.append("/** A class with large method bodies. */\n");
+    sb.append("public class B").append(i).append(" {\n");
+    sb.append("  private final Map<String, List<Integer>> values = new HashMap<>();\n");
+    sb.append("  static {\n");
+    sb.append("    System.err.println(\"initializing {\" + '{');\n");
+    sb.append("  }\n");
+    for (int m = 0; m < methods; m++) {
+      sb.append("  /** Returns something. */\n");
+      sb.append("  public int m").append(m).append("(List<String> xs, int n) {\n");
+      sb.append("    int result = 0x").append(Integer.toHexString(m)).append(";\n");
+      for (int s = 0; s < statements; s++) {
+        switch (s % 5) {
+          case 0:
+            sb.append("    // accumulate the values for key ").append(s).append("\n");
+            sb.append("    for (String x : xs) {\n");
+            sb.append("      result += values.getOrDefault(x + \"-")
+                .append(s)
+                .append("\", Collections.emptyList()).size();\n");
+            sb.append("    }\n");
+            break;
+          case 1:
+            sb.append("    if (n > ").append(s).append(" && result % 3 == 0) {\n");
+            sb.append("      result ^= \"a string with a } brace\".hashCode() * 31 + 'x';\n");
+            sb.append("    } else {\n");
+            sb.append("      result -= n << 2;\n");
+            sb.append("    }\n");
+            break;
+          case 2:
+            sb.append("    /* a block comment with {braces} and \"quotes\" */\n");
+            sb.append("    xs.forEach(x -> values.computeIfAbsent(x, k -> new ArrayList<>()).add(")
+                .append(s)
+                .append("));\n");
+            break;
+          case 3:
+            sb.append("    result += new Object() {\n");
+            sb.append("      @Override public int hashCode() { return ")
+                .append(s)
+                .append(" * 1_000_003; }\n");
+            sb.append("    }.hashCode();\n");
+            break;
+          default:
+            sb.append("    try {\n");
+            sb.append("      result += Integer.parseInt(\"\\t")
+                .append(s)
+                .append("\\n\".trim(), 10);\n");
+            sb.append("    } catch (NumberFormatException e) {\n");
+            sb.append("      throw new IllegalStateException(e);\n");
+            sb.append("    }\n");
+            break;
+        }
+      }
+      sb.append("    return result;\n");
+      sb.append("  }\n");
+    }
+    sb.append("}\n");
+    return sb.toString();
+  }
+
+  @Benchmark
+  public void parse(Blackhole bh) {
+    for (SourceFile source : sources) {
+      bh.consume(Parser.parse(source));
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.lookup.LookupKey;
+import com.google.turbine.binder.lookup.SimpleTopLevelIndex;
+import com.google.turbine.binder.lookup.TopLevelIndex;
+import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.tree.Tree.Ident;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks building a {@link SimpleTopLevelIndex}, and qualified name lookups in it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TopLevelIndexBenchmark {
+
+  /** The number of packages. */
+  @Param("1000")
+  int packages;
+
+  /** The number of classes in each package. */
+  @Param("100")
+  int classesPerPackage;
+
+  private ImmutableList<ClassSymbol> symbols;
+  private ImmutableList<LookupKey> keys;
+  private TopLevelIndex index;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ImmutableList.Builder<ClassSymbol> symbols = ImmutableList.builder();
+    ImmutableList.Builder<LookupKey> keys = ImmutableList.builder();
+    for (int p = 0; p < packages; p++) {
+      String pkg = String.format("com/example/module%d/feature%d/impl", p / 10, p % 10);
+      for (int c = 0; c < classesPerPackage; c++) {
+        ClassSymbol sym = new ClassSymbol(pkg + "/Class" + c);
+        symbols.add(sym);
+        // a qualified reference to a nested class, e.g. com.example.Class.Builder
+        ImmutableList.Builder<Ident> names = ImmutableList.builder();
+        for (String name : Splitter.on('/').split(sym.binaryName())) {
+          names.add(new Ident(-1, name));
+        }
+        names.add(new Ident(-1, "Builder"));
+        keys.add(new LookupKey(names.build()));
+      }
+    }
+    this.symbols = symbols.build();
+    this.keys = keys.build();
+    this.index = SimpleTopLevelIndex.of(this.symbols);
+  }
+
+  @Benchmark
+  public TopLevelIndex build() {
+    return SimpleTopLevelIndex.of(symbols);
+  }
+
+  @Benchmark
+  public void lookup(Blackhole bh) {
+    for (LookupKey key : keys) {
+      bh.consume(index.scope().lookup(key));
+    }
+  }
+}
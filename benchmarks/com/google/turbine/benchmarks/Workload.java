@@ -0,0 +1,262 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_SPECIFICATION_VERSION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.turbine.main.Main;
+import com.google.turbine.options.LanguageVersion;
+import com.google.turbine.options.TurbineOptions;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A synthetic compilation: sources with deep generic hierarchies, annotations, constant fields and
+ * wildcard imports, and a classpath of header jars that the sources reference.
+ *
+ * <p>The classpath jars are compiled with turbine from generated library sources, so the workload
+ * doesn't depend on anything except the host JDK.
+ */
+final class Workload implements Closeable {
+
+  /** The number of classes in each chain of subclasses. */
+  private static final int DEPTH = 10;
+
+  /** The number of packages the sources are spread across. */
+  private static final int PACKAGES = 10;
+
+  private final Path root;
+  private final ImmutableList<Path> sources;
+  private final ImmutableList<Path> classpath;
+  private final int classpathClasses;
+
+  private Workload(
+      Path root, ImmutableList<Path> sources, ImmutableList<Path> classpath, int classpathClasses) {
+    this.root = root;
+    this.sources = sources;
+    this.classpath = classpath;
+    this.classpathClasses = classpathClasses;
+  }
+
+  /**
+   * Generates a workload in a new temporary directory.
+   *
+   * @param classes the number of source classes
+   * @param jars the number of classpath jars
+   * @param classesPerJar the number of classes in each classpath jar
+   */
+  static Workload create(int classes, int jars, int classesPerJar) throws IOException {
+    Path root = Files.createTempDirectory("turbine-benchmark");
+    ImmutableList.Builder<Path> classpath = ImmutableList.builder();
+    for (int j = 0; j < jars; j++) {
+      Path src = Files.createDirectories(root.resolve("lib/src/p" + j));
+      List<Path> libSources = new ArrayList<>();
+      for (int i = 0; i < classesPerJar; i++) {
+        libSources.add(write(src.resolve("L" + j + "_" + i + ".java"), libClass(j, i)));
+      }
+      Path jar = root.resolve("lib/lib" + j + ".jar");
+      Main.compile(options(libSources, ImmutableList.of(), jar));
+      classpath.add(jar);
+    }
+    Path src = Files.createDirectories(root.resolve("src/bench"));
+    ImmutableList.Builder<Path> sources = ImmutableList.builder();
+    sources.add(write(src.resolve("Meta.java"), META));
+    for (int p = 0; p < PACKAGES; p++) {
+      Files.createDirectories(src.resolve("p" + p));
+    }
+    for (int i = 0; i < classes; i++) {
+      sources.add(
+          write(
+              src.resolve("p" + i % PACKAGES).resolve("C" + i + ".java"),
+              sourceClass(i, jars, classesPerJar)));
+    }
+    return new Workload(root, sources.build(), classpath.build(), jars * classesPerJar);
+  }
+
+  /** The source files to compile. */
+  ImmutableList<Path> sources() {
+    return sources;
+  }
+
+  /** The classpath jars. */
+  ImmutableList<Path> classpath() {
+    return classpath;
+  }
+
+  /** The binary names of all classes in the classpath jars. */
+  ImmutableList<String> classpathClassNames() {
+    ImmutableList.Builder<String> names = ImmutableList.builder();
+    int classesPerJar = classpathClasses / classpath.size();
+    for (int j = 0; j < classpath.size(); j++) {
+      for (int i = 0; i < classesPerJar; i++) {
+        names.add(String.format("lib/p%d/L%d_%d", j, j, i));
+      }
+    }
+    return names.build();
+  }
+
+  /** Returns the options for compiling the workload's sources to the given output jar. */
+  TurbineOptions options(Path output) {
+    return options(sources, classpath, output);
+  }
+
+  private static TurbineOptions options(List<Path> sources, List<Path> classpath, Path output) {
+    ImmutableList<String> javacopts =
+        ImmutableList.of("--release", JAVA_SPECIFICATION_VERSION.value());
+    return TurbineOptions.builder()
+        .setSources(toStrings(sources))
+        .setClassPath(toStrings(classpath))
+        .setOutput(output.toString())
+        .addAllJavacOpts(javacopts)
+        .setLanguageVersion(LanguageVersion.fromJavacopts(javacopts))
+        .build();
+  }
+
+  private static ImmutableList<String> toStrings(List<Path> paths) {
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (Path path : paths) {
+      result.add(path.toString());
+    }
+    return result.build();
+  }
+
+  /** Returns a path with the given name in the workload's directory. */
+  Path resolve(String name) {
+    return root.resolve(name);
+  }
+
+  @Override
+  public void close() throws IOException {
+    MoreFiles.deleteRecursively(root, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  private static Path write(Path path, String source) throws IOException {
+    Files.write(path, source.getBytes(UTF_8));
+    return path;
+  }
+
+  private static final String META =
+      String.join(
+          "\n",
+          "package bench;",
+          "import java.lang.annotation.*;",
+          "@Retention(RetentionPolicy.RUNTIME)",
+          "@Target({ElementType.TYPE, ElementType.FIELD, ElementType.METHOD})",
+          "public @interface Meta {",
+          "  String value();",
+          "  int priority() default 0;",
+          "  Class<?>[] types() default {};",
+          "  ElementType[] targets() default {};",
+          "}",
+          "");
+
+  private static String libClass(int jar, int i) {
+    String name = "L" + jar + "_" + i;
+    return String.join(
+        "\n",
+        "package lib.p" + jar + ";",
+        "import java.util.*;",
+        "public class "
+            + name
+            + "<T extends Comparable<? super T>> implements java.io.Serializable {",
+        "  public static final int ID = " + (jar * 1000 + i) + ";",
+        "  public static final String NAME = \"" + name + "\";",
+        "  protected Map<String, List<? extends T>> values;",
+        "  public <X extends T> List<X> items(Map<? super T, X> map) {",
+        "    return new ArrayList<>(map.values());",
+        "  }",
+        "  public static <E extends Comparable<? super E>> " + name + "<E> of(E... es) {",
+        "    return null;",
+        "  }",
+        "  public class Inner<U extends T> {",
+        "    public Optional<U> first() { return Optional.empty(); }",
+        "  }",
+        "}",
+        "");
+  }
+
+  private static String sourceClass(int i, int jars, int classesPerJar) {
+    String name = "C" + i;
+    int jar = i % jars;
+    String lib = "L" + jar + "_" + (i / jars) % classesPerJar;
+    StringBuilder sb = new StringBuilder();
+    sb.append("package bench.p").append(i % PACKAGES).append(";\n");
+    sb.append("import bench.*;\n");
+    for (int p = 0; p < PACKAGES; p++) {
+      sb.append("import bench.p").append(p).append(".*;\n");
+    }
+    sb.append("import lib.p").append(jar).append(".*;\n");
+    sb.append("import java.util.*;\n");
+    sb.append("import java.util.function.*;\n");
+    sb.append("import java.lang.annotation.ElementType;\n");
+
+    boolean root = i % DEPTH == 0;
+    String superclass = root ? lib + "<K>" : "C" + (i - 1) + "<K, V>";
+    sb.append("@Meta(value = \"")
+        .append(name)
+        .append("\", priority = ")
+        .append(name)
+        .append(".SIZE, types = {List.class, Map.Entry.class}, targets = ElementType.TYPE)\n");
+    sb.append("public class ")
+        .append(name)
+        .append("<K extends Comparable<? super K>, V extends List<? extends K>>\n");
+    sb.append("    extends ").append(superclass).append("\n");
+    sb.append("    implements Supplier<Map<K, List<Map<String, ? super V>>>>,")
+        .append(" Function<Map<K, ? extends List<V>>, Optional<V>> {\n");
+    if (root) {
+      sb.append("  public static final int SIZE = ").append(lib).append(".ID;\n");
+    } else {
+      sb.append("  public static final int SIZE = C").append(i - 1).append(".SIZE + 1;\n");
+    }
+    sb.append("  public static final String KEY = \"").append(name).append(":\" + SIZE;\n");
+    sb.append("  public static final long MASK = 1L << (SIZE % 64);\n");
+    sb.append("  public static final boolean ENABLED = (MASK & 0x5555) != 0;\n");
+    sb.append("  @Meta(\"field\") protected Map<K, List<? extends V>> cache;\n");
+    sb.append("  @Meta(value = \"get\", priority = SIZE)\n");
+    sb.append("  @Override public Map<K, List<Map<String, ? super V>>> get() {\n");
+    sb.append("    Map<K, List<Map<String, ? super V>>> result = new HashMap<>();\n");
+    sb.append("    for (Map.Entry<K, List<? extends V>> e : cache.entrySet()) {\n");
+    sb.append("      result.put(e.getKey(), new ArrayList<>());\n");
+    sb.append("    }\n");
+    sb.append("    return result;\n");
+    sb.append("  }\n");
+    sb.append("  @Override public Optional<V> apply(Map<K, ? extends List<V>> map) {\n");
+    sb.append("    return map.values().stream().flatMap(List::stream).findFirst();\n");
+    sb.append("  }\n");
+    sb.append("  public <T extends Map<? super K, ? extends List<V>>, R extends Comparable<R>>")
+        .append(" R transform(T t, Function<? super T, R> f, K... keys)")
+        .append(" throws java.io.IOException {\n");
+    sb.append("    return f.apply(t);\n");
+    sb.append("  }\n");
+    sb.append("  public static class Node<E extends ")
+        .append(name)
+        .append("<?, ?>> implements Comparable<Node<E>> {\n");
+    sb.append("    public final E value = null;\n");
+    sb.append("    @Override public int compareTo(Node<E> o) { return 0; }\n");
+    sb.append("  }\n");
+    sb.append("}\n");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.benchmarks;
+
+import com.google.turbine.zip.Zip;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.zip.CRC32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks reading entries from a jar. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipBenchmark {
+
+  /** The number of entries in the jar. */
+  @Param("10000")
+  int entries;
+
+  /** The size of each entry, in bytes. */
+  @Param("2048")
+  int entrySize;
+
+  /** Whether the entries are compressed. */
+  @Param({"true", "false"})
+  boolean deflated;
+
+  private Path jar;
+  private List<String> names;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    jar = Files.createTempFile("turbine-benchmark", ".jar");
+    Random random = new Random(42);
+    byte[] bytes = new byte[entrySize];
+    try (OutputStream os = Files.newOutputStream(jar);
+        JarOutputStream jos = new JarOutputStream(os)) {
+      for (int i = 0; i < entries; i++) {
+        // half random bytes, and half zeros, so the entries compress a little
+        random.nextBytes(bytes);
+        for (int j = bytes.length / 2; j < bytes.length; j++) {
+          bytes[j] = 0;
+        }
+        JarEntry je = new JarEntry("p/C" + i + ".class");
+        if (!deflated) {
+          CRC32 crc = new CRC32();
+          crc.update(bytes);
+          je.setMethod(JarEntry.STORED);
+          je.setSize(bytes.length);
+          je.setCrc(crc.getValue());
+        }
+        jos.putNextEntry(je);
+        jos.write(bytes);
+      }
+    }
+    names = someNames();
+  }
+
+  /** Returns the names of a hundred entries spread across the jar. */
+  private List<String> someNames() {
+    List<String> names = new ArrayList<>();
+    for (int i = 0; i < entries; i += Math.max(1, entries / 100)) {
+      names.add("p/C" + i + ".class");
+    }
+    return names;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.delete(jar);
+  }
+
+  @Benchmark
+  public void data(Blackhole bh) throws IOException {
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(jar)) {
+      for (Zip.Entry entry : zip) {
+        bh.consume(entry.data());
+      }
+    }
+  }
+
+  /** Finds some of the entries by iterating over the central directory. */
+  @Benchmark
+  public void find(Blackhole bh) throws IOException {
+    Set<String> wanted = new HashSet<>(names);
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(jar)) {
+      for (Zip.Entry entry : zip) {
+        if (wanted.contains(entry.name())) {
+          bh.consume(entry);
+        }
+      }
+    }
+  }
+
+  /** Finds some of the entries using the central directory's name table. */
+  @Benchmark
+  public void lookup(Blackhole bh) throws IOException {
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(jar)) {
+      for (String name : names) {
+        bh.consume(zip.lookup(name));
+      }
+    }
+  }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.NoType;
+import javax.lang.model.type.NullType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+
+/**
+ * Counts the calls annotation processors make to the {@link Filer}, {@link Types} and {@link
+ * Elements} of the processing environment, see {@link Binder.ProcessorStatistics#apiCalls}.
+ *
+ * <p>The calls are counted by explicit delegating wrappers, so counting a call is an array update
+ * and doesn't allocate.
+ */
+abstract class ApiCallCounter {
+
+  /** The counted methods. Overloads of a method share a counter. */
+  enum Api {
+    FILER_CREATE_SOURCE_FILE("Filer.createSourceFile"),
+    FILER_CREATE_CLASS_FILE("Filer.createClassFile"),
+    FILER_CREATE_RESOURCE("Filer.createResource"),
+    FILER_GET_RESOURCE("Filer.getResource"),
+    TYPES_AS_ELEMENT("Types.asElement"),
+    TYPES_IS_SAME_TYPE("Types.isSameType"),
+    TYPES_IS_SUBTYPE("Types.isSubtype"),
+    TYPES_IS_ASSIGNABLE("Types.isAssignable"),
+    TYPES_CONTAINS("Types.contains"),
+    TYPES_IS_SUBSIGNATURE("Types.isSubsignature"),
+    TYPES_DIRECT_SUPERTYPES("Types.directSupertypes"),
+    TYPES_ERASURE("Types.erasure"),
+    TYPES_BOXED_CLASS("Types.boxedClass"),
+    TYPES_UNBOXED_TYPE("Types.unboxedType"),
+    TYPES_CAPTURE("Types.capture"),
+    TYPES_GET_PRIMITIVE_TYPE("Types.getPrimitiveType"),
+    TYPES_GET_NULL_TYPE("Types.getNullType"),
+    TYPES_GET_NO_TYPE("Types.getNoType"),
+    TYPES_GET_ARRAY_TYPE("Types.getArrayType"),
+    TYPES_GET_WILDCARD_TYPE("Types.getWildcardType"),
+    TYPES_GET_DECLARED_TYPE("Types.getDeclaredType"),
+    TYPES_AS_MEMBER_OF("Types.asMemberOf"),
+    ELEMENTS_GET_PACKAGE_ELEMENT("Elements.getPackageElement"),
+    ELEMENTS_GET_TYPE_ELEMENT("Elements.getTypeElement"),
+    ELEMENTS_GET_ELEMENT_VALUES_WITH_DEFAULTS("Elements.getElementValuesWithDefaults"),
+    ELEMENTS_GET_DOC_COMMENT("Elements.getDocComment"),
+    ELEMENTS_IS_DEPRECATED("Elements.isDeprecated"),
+    ELEMENTS_GET_BINARY_NAME("Elements.getBinaryName"),
+    ELEMENTS_GET_PACKAGE_OF("Elements.getPackageOf"),
+    ELEMENTS_GET_ALL_MEMBERS("Elements.getAllMembers"),
+    ELEMENTS_GET_ALL_ANNOTATION_MIRRORS("Elements.getAllAnnotationMirrors"),
+    ELEMENTS_HIDES("Elements.hides"),
+    ELEMENTS_OVERRIDES("Elements.overrides"),
+    ELEMENTS_GET_CONSTANT_EXPRESSION("Elements.getConstantExpression"),
+    ELEMENTS_PRINT_ELEMENTS("Elements.printElements"),
+    ELEMENTS_GET_NAME("Elements.getName"),
+    ELEMENTS_IS_FUNCTIONAL_INTERFACE("Elements.isFunctionalInterface");
+
+    private final String displayName;
+
+    Api(String displayName) {
+      this.displayName = displayName;
+    }
+
+    /** The name the calls are reported under, e.g. {@code Types.isSubtype}. */
+    String displayName() {
+      return displayName;
+    }
+
+    /** Returns true if calls to this method generate a file. */
+    boolean createsFile() {
+      return this == FILER_CREATE_SOURCE_FILE
+          || this == FILER_CREATE_CLASS_FILE
+          || this == FILER_CREATE_RESOURCE;
+    }
+  }
+
+  /** Records a call to the given method. */
+  abstract void count(Api api);
+
+  Filer filer(Filer delegate) {
+    return new CountingFiler(delegate);
+  }
+
+  Types types(Types delegate) {
+    return new CountingTypes(delegate);
+  }
+
+  Elements elements(Elements delegate) {
+    return new CountingElements(delegate);
+  }
+
+  private class CountingFiler implements Filer {
+    private final Filer delegate;
+
+    CountingFiler(Filer delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      count(Api.FILER_CREATE_SOURCE_FILE);
+      return delegate.createSourceFile(name, originatingElements);
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements)
+        throws IOException {
+      count(Api.FILER_CREATE_CLASS_FILE);
+      return delegate.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(
+        JavaFileManager.Location location,
+        CharSequence moduleAndPkg,
+        CharSequence relativeName,
+        Element... originatingElements)
+        throws IOException {
+      count(Api.FILER_CREATE_RESOURCE);
+      return delegate.createResource(location, moduleAndPkg, relativeName, originatingElements);
+    }
+
+    @Override
+    public FileObject getResource(
+        JavaFileManager.Location location, CharSequence moduleAndPkg, CharSequence relativeName)
+        throws IOException {
+      count(Api.FILER_GET_RESOURCE);
+      return delegate.getResource(location, moduleAndPkg, relativeName);
+    }
+  }
+
+  private class CountingTypes implements Types {
+    private final Types delegate;
+
+    CountingTypes(Types delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public Element asElement(TypeMirror t) {
+      count(Api.TYPES_AS_ELEMENT);
+      return delegate.asElement(t);
+    }
+
+    @Override
+    public boolean isSameType(TypeMirror t1, TypeMirror t2) {
+      count(Api.TYPES_IS_SAME_TYPE);
+      return delegate.isSameType(t1, t2);
+    }
+
+    @Override
+    public boolean isSubtype(TypeMirror t1, TypeMirror t2) {
+      count(Api.TYPES_IS_SUBTYPE);
+      return delegate.isSubtype(t1, t2);
+    }
+
+    @Override
+    public boolean isAssignable(TypeMirror t1, TypeMirror t2) {
+      count(Api.TYPES_IS_ASSIGNABLE);
+      return delegate.isAssignable(t1, t2);
+    }
+
+    @Override
+    public boolean contains(TypeMirror t1, TypeMirror t2) {
+      count(Api.TYPES_CONTAINS);
+      return delegate.contains(t1, t2);
+    }
+
+    @Override
+    public boolean isSubsignature(ExecutableType m1, ExecutableType m2) {
+      count(Api.TYPES_IS_SUBSIGNATURE);
+      return delegate.isSubsignature(m1, m2);
+    }
+
+    @Override
+    public List<? extends TypeMirror> directSupertypes(TypeMirror t) {
+      count(Api.TYPES_DIRECT_SUPERTYPES);
+      return delegate.directSupertypes(t);
+    }
+
+    @Override
+    public TypeMirror erasure(TypeMirror t) {
+      count(Api.TYPES_ERASURE);
+      return delegate.erasure(t);
+    }
+
+    @Override
+    public TypeElement boxedClass(PrimitiveType p) {
+      count(Api.TYPES_BOXED_CLASS);
+      return delegate.boxedClass(p);
+    }
+
+    @Override
+    public PrimitiveType unboxedType(TypeMirror t) {
+      count(Api.TYPES_UNBOXED_TYPE);
+      return delegate.unboxedType(t);
+    }
+
+    @Override
+    public TypeMirror capture(TypeMirror t) {
+      count(Api.TYPES_CAPTURE);
+      return delegate.capture(t);
+    }
+
+    @Override
+    public PrimitiveType getPrimitiveType(TypeKind kind) {
+      count(Api.TYPES_GET_PRIMITIVE_TYPE);
+      return delegate.getPrimitiveType(kind);
+    }
+
+    @Override
+    public NullType getNullType() {
+      count(Api.TYPES_GET_NULL_TYPE);
+      return delegate.getNullType();
+    }
+
+    @Override
+    public NoType getNoType(TypeKind kind) {
+      count(Api.TYPES_GET_NO_TYPE);
+      return delegate.getNoType(kind);
+    }
+
+    @Override
+    public ArrayType getArrayType(TypeMirror componentType) {
+      count(Api.TYPES_GET_ARRAY_TYPE);
+      return delegate.getArrayType(componentType);
+    }
+
+    @Override
+    public WildcardType getWildcardType(TypeMirror extendsBound, TypeMirror superBound) {
+      count(Api.TYPES_GET_WILDCARD_TYPE);
+      return delegate.getWildcardType(extendsBound, superBound);
+    }
+
+    @Override
+    public DeclaredType getDeclaredType(TypeElement typeElem, TypeMirror... typeArgs) {
+      count(Api.TYPES_GET_DECLARED_TYPE);
+      return delegate.getDeclaredType(typeElem, typeArgs);
+    }
+
+    @Override
+    public DeclaredType getDeclaredType(
+        DeclaredType containing, TypeElement typeElem, TypeMirror... typeArgs) {
+      count(Api.TYPES_GET_DECLARED_TYPE);
+      return delegate.getDeclaredType(containing, typeElem, typeArgs);
+    }
+
+    @Override
+    public TypeMirror asMemberOf(DeclaredType containing, Element element) {
+      count(Api.TYPES_AS_MEMBER_OF);
+      return delegate.asMemberOf(containing, element);
+    }
+  }
+
+  private class CountingElements implements Elements {
+    private final Elements delegate;
+
+    CountingElements(Elements delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public PackageElement getPackageElement(CharSequence name) {
+      count(Api.ELEMENTS_GET_PACKAGE_ELEMENT);
+      return delegate.getPackageElement(name);
+    }
+
+    @Override
+    public TypeElement getTypeElement(CharSequence name) {
+      count(Api.ELEMENTS_GET_TYPE_ELEMENT);
+      return delegate.getTypeElement(name);
+    }
+
+    @Override
+    public Map<? extends ExecutableElement, ? extends AnnotationValue> getElementValuesWithDefaults(
+        AnnotationMirror a) {
+      count(Api.ELEMENTS_GET_ELEMENT_VALUES_WITH_DEFAULTS);
+      return delegate.getElementValuesWithDefaults(a);
+    }
+
+    @Override
+    public String getDocComment(Element e) {
+      count(Api.ELEMENTS_GET_DOC_COMMENT);
+      return delegate.getDocComment(e);
+    }
+
+    @Override
+    public boolean isDeprecated(Element e) {
+      count(Api.ELEMENTS_IS_DEPRECATED);
+      return delegate.isDeprecated(e);
+    }
+
+    @Override
+    public Name getBinaryName(TypeElement type) {
+      count(Api.ELEMENTS_GET_BINARY_NAME);
+      return delegate.getBinaryName(type);
+    }
+
+    @Override
+    public PackageElement getPackageOf(Element type) {
+      count(Api.ELEMENTS_GET_PACKAGE_OF);
+      return delegate.getPackageOf(type);
+    }
+
+    @Override
+    public List<? extends Element> getAllMembers(TypeElement type) {
+      count(Api.ELEMENTS_GET_ALL_MEMBERS);
+      return delegate.getAllMembers(type);
+    }
+
+    @Override
+    public List<? extends AnnotationMirror> getAllAnnotationMirrors(Element e) {
+      count(Api.ELEMENTS_GET_ALL_ANNOTATION_MIRRORS);
+      return delegate.getAllAnnotationMirrors(e);
+    }
+
+    @Override
+    public boolean hides(Element hider, Element hidden) {
+      count(Api.ELEMENTS_HIDES);
+      return delegate.hides(hider, hidden);
+    }
+
+    @Override
+    public boolean overrides(
+        ExecutableElement overrider, ExecutableElement overridden, TypeElement type) {
+      count(Api.ELEMENTS_OVERRIDES);
+      return delegate.overrides(overrider, overridden, type);
+    }
+
+    @Override
+    public String getConstantExpression(Object value) {
+      count(Api.ELEMENTS_GET_CONSTANT_EXPRESSION);
+      return delegate.getConstantExpression(value);
+    }
+
+    @Override
+    public void printElements(Writer w, Element... elements) {
+      count(Api.ELEMENTS_PRINT_ELEMENTS);
+      delegate.printElements(w, elements);
+    }
+
+    @Override
+    public Name getName(CharSequence cs) {
+      count(Api.ELEMENTS_GET_NAME);
+      return delegate.getName(cs);
+    }
+
+    @Override
+    public boolean isFunctionalInterface(TypeElement type) {
+      count(Api.ELEMENTS_IS_FUNCTIONAL_INTERFACE);
+      return delegate.isFunctionalInterface(type);
+    }
+  }
+}
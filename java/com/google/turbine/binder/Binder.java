@@ -16,6 +16,9 @@
 
 package com.google.turbine.binder;
 
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.Objects.requireNonNull;
 
 import com.google.auto.value.AutoValue;
@@ -38,6 +41,7 @@ import com.google.turbine.binder.bound.SourceTypeBoundClass;
 import com.google.turbine.binder.bound.TypeBoundClass;
 import com.google.turbine.binder.bound.TypeBoundClass.FieldInfo;
 import com.google.turbine.binder.bytecode.BytecodeBoundClass;
+import com.google.turbine.binder.env.CachingEnv;
 import com.google.turbine.binder.env.CompoundEnv;
 import com.google.turbine.binder.env.Env;
 import com.google.turbine.binder.env.LazyEnv;
@@ -62,13 +66,33 @@ import com.google.turbine.diag.TurbineError.ErrorKind;
 import com.google.turbine.diag.TurbineLog;
 import com.google.turbine.model.Const;
 import com.google.turbine.model.TurbineFlag;
+import com.google.turbine.parse.Lexer;
+import com.google.turbine.parse.StreamLexer;
+import com.google.turbine.parse.Token;
+import com.google.turbine.parse.UnicodeEscapePreprocessor;
+import com.google.turbine.profile.Metrics;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.tree.Tree;
 import com.google.turbine.tree.Tree.CompUnit;
 import com.google.turbine.tree.Tree.ModDecl;
 import com.google.turbine.type.Type;
+import com.google.turbine.types.Hierarchy;
 import java.time.Duration;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import javax.annotation.processing.Filer;
 import javax.annotation.processing.Processor;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
 import org.jspecify.annotations.Nullable;
 
 /** The entry point for analysis. */
@@ -90,8 +114,32 @@ public final class Binder {
       ProcessorInfo processorInfo,
       ClassPath bootclasspath,
       Optional<String> moduleVersion) {
+    return bind(
+        units,
+        classpath,
+        processorInfo,
+        bootclasspath,
+        moduleVersion,
+        Profiler.disabled(),
+        /* pool= */ null);
+  }
+
+  /**
+   * Binds symbols and types to the given compilation units, and records the time spent in each
+   * phase with the given profiler. If {@code pool} is non-null, the per-class work of each phase
+   * runs in parallel on it; the result is the same as binding sequentially.
+   */
+  public static @Nullable BindingResult bind(
+      ImmutableList<CompUnit> units,
+      ClassPath classpath,
+      ProcessorInfo processorInfo,
+      ClassPath bootclasspath,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
     TurbineLog log = new TurbineLog();
-    BindingResult br = bind(log, units, classpath, processorInfo, bootclasspath, moduleVersion);
+    BindingResult br =
+        bind(log, units, classpath, processorInfo, bootclasspath, moduleVersion, profiler, pool);
     log.maybeThrow();
     return br;
   }
@@ -104,6 +152,26 @@ public final class Binder {
       ProcessorInfo processorInfo,
       ClassPath bootclasspath,
       Optional<String> moduleVersion) {
+    return bind(
+        log,
+        units,
+        classpath,
+        processorInfo,
+        bootclasspath,
+        moduleVersion,
+        Profiler.disabled(),
+        /* pool= */ null);
+  }
+
+  private static @Nullable BindingResult bind(
+      TurbineLog log,
+      ImmutableList<CompUnit> units,
+      ClassPath classpath,
+      ProcessorInfo processorInfo,
+      ClassPath bootclasspath,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
     BindingResult br;
     try {
       br =
@@ -114,11 +182,21 @@ public final class Binder {
               /* generatedClasses= */ ImmutableMap.of(),
               classpath,
               bootclasspath,
-              moduleVersion);
+              moduleVersion,
+              profiler,
+              pool);
       if (!processorInfo.processors().isEmpty() && !units.isEmpty()) {
         br =
             Processing.process(
-                log, units, classpath, processorInfo, bootclasspath, br, moduleVersion);
+                log,
+                units,
+                classpath,
+                processorInfo,
+                bootclasspath,
+                br,
+                moduleVersion,
+                profiler,
+                pool);
       }
     } catch (TurbineError turbineError) {
       throw new TurbineError(
@@ -137,10 +215,45 @@ public final class Binder {
       ImmutableMap<String, byte[]> generatedClasses,
       ClassPath classpath,
       ClassPath bootclasspath,
-      Optional<String> moduleVersion) {
-    ImmutableList<PreprocessedCompUnit> preProcessedUnits = CompUnitPreprocessor.preprocess(units);
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
+    ImmutableList<PreprocessedCompUnit> preProcessedUnits;
+    try (Profiler.Span unused = profiler.span("preprocess")) {
+      preProcessedUnits = CompUnitPreprocessor.preprocess(units);
+    }
+    return bind(
+        log,
+        preProcessedUnits,
+        /* reused= */ ImmutableMap.of(),
+        generatedSources,
+        generatedClasses,
+        classpath,
+        bootclasspath,
+        moduleVersion,
+        profiler,
+        pool);
+  }
 
-    SimpleEnv<ClassSymbol, SourceBoundClass> ienv = bindSourceBoundClasses(preProcessedUnits);
+  /**
+   * Binds the given compilation units. Classes in {@code reused} were bound by an earlier
+   * annotation processing round and are used as-is, the other classes in the units are bound.
+   */
+  private static BindingResult bind(
+      TurbineLog log,
+      ImmutableList<PreprocessedCompUnit> preProcessedUnits,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> reused,
+      ImmutableMap<String, SourceFile> generatedSources,
+      ImmutableMap<String, byte[]> generatedClasses,
+      ClassPath classpath,
+      ClassPath bootclasspath,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
+    SimpleEnv<ClassSymbol, SourceBoundClass> ienv;
+    try (Profiler.Span unused = profiler.span("bindSourceBoundClasses")) {
+      ienv = bindSourceBoundClasses(preProcessedUnits);
+    }
 
     ImmutableSet<ClassSymbol> syms = ienv.asMap().keySet();
 
@@ -156,57 +269,439 @@ public final class Binder {
     CompoundEnv<ModuleSymbol, ModuleInfo> classPathModuleEnv =
         CompoundEnv.of(classpath.moduleEnv()).append(bootclasspath.moduleEnv());
 
-    BindPackagesResult bindPackagesResult =
-        bindPackages(log, ienv, tli, preProcessedUnits, classPathEnv);
-
-    SimpleEnv<ClassSymbol, PackageSourceBoundClass> psenv = bindPackagesResult.classes;
-    SimpleEnv<ModuleSymbol, PackageSourceBoundModule> modules = bindPackagesResult.modules;
-
-    Env<ClassSymbol, SourceHeaderBoundClass> henv = bindHierarchy(log, syms, psenv, classPathEnv);
-
-    Env<ClassSymbol, SourceTypeBoundClass> tenv =
-        bindTypes(
-            log,
-            syms,
-            henv,
-            CompoundEnv.<ClassSymbol, HeaderBoundClass>of(classPathEnv).append(henv));
+    // Every phase looks up classes in the same chain, which searches the bootclasspath first (the
+    // env appended last is searched first) and then the classpath, so cache the flattened chain
+    Env<ClassSymbol, ? extends TypeBoundClass> baseEnv = CachingEnv.of(classPathEnv);
+    ImmutableList<PreprocessedCompUnit> toBind = preProcessedUnits;
+    ImmutableSet<ClassSymbol> toBindSyms = syms;
+    if (!reused.isEmpty()) {
+      baseEnv =
+          CachingEnv.of(
+              CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv)
+                  .append(new SimpleEnv<>(reused)));
+      toBind =
+          preProcessedUnits.stream()
+              .filter(unit -> !isReused(unit, reused))
+              .collect(toImmutableList());
+      toBindSyms =
+          syms.stream().filter(sym -> !reused.containsKey(sym)).collect(toImmutableSet());
+    }
 
-    tenv =
-        constants(
-            syms,
-            tenv,
-            CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
-            log);
-    tenv =
-        disambiguateTypeAnnotations(
-            syms, tenv, CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv));
-    tenv =
-        canonicalizeTypes(
-            syms, tenv, CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv));
-
-    ImmutableList<SourceModuleInfo> boundModules =
-        bindModules(
-            modules,
-            CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
-            classPathModuleEnv,
-            moduleVersion,
-            log);
+    BoundClasses bound = null;
+    if (pool != null) {
+      bound =
+          bindInParallel(
+              log,
+              ienv,
+              tli,
+              toBind,
+              toBindSyms,
+              baseEnv,
+              classPathModuleEnv,
+              moduleVersion,
+              profiler,
+              pool);
+    }
+    if (bound == null) {
+      bound =
+          bindClasses(
+              log,
+              ienv,
+              tli,
+              toBind,
+              toBindSyms,
+              baseEnv,
+              classPathModuleEnv,
+              moduleVersion,
+              profiler,
+              /* pool= */ null);
+    }
+    Env<ClassSymbol, SourceTypeBoundClass> tenv = bound.classes;
 
     ImmutableMap.Builder<ClassSymbol, SourceTypeBoundClass> result = ImmutableMap.builder();
     for (ClassSymbol sym : syms) {
-      result.put(sym, tenv.getNonNull(sym));
+      SourceTypeBoundClass info = reused.get(sym);
+      result.put(sym, info != null ? info : tenv.getNonNull(sym));
     }
+    ImmutableMap<ClassSymbol, SourceTypeBoundClass> units = result.buildOrThrow();
 
     return new BindingResult(
-        result.buildOrThrow(),
-        boundModules,
+        units,
+        bound.modules,
         classPathEnv,
         tli,
+        bound.hierarchy.withEnv(
+            CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv)
+                .append(new SimpleEnv<>(units))),
         generatedSources,
         generatedClasses,
         Statistics.empty());
   }
 
+  private static boolean isReused(
+      PreprocessedCompUnit unit, ImmutableMap<ClassSymbol, SourceTypeBoundClass> reused) {
+    if (unit.types().isEmpty()) {
+      return false;
+    }
+    for (SourceBoundClass type : unit.types()) {
+      if (!reused.containsKey(type.sym())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The classes bound for an annotation processing round, and the compilation units they were bound
+   * from.
+   */
+  static final class BoundRound {
+    private final ImmutableList<RoundUnit> units;
+    private final BindingResult result;
+    private final ImmutableSet<ClassSymbol> bound;
+    private final ImmutableSet<String> errorPaths;
+
+    private BoundRound(
+        ImmutableList<RoundUnit> units,
+        BindingResult result,
+        ImmutableSet<ClassSymbol> bound,
+        ImmutableSet<String> errorPaths) {
+      this.units = units;
+      this.result = result;
+      this.bound = bound;
+      this.errorPaths = errorPaths;
+    }
+
+    /** Creates the state for the first processing round, from a binding of the given units. */
+    static BoundRound create(
+        TurbineLog log, ImmutableList<CompUnit> units, BindingResult result) {
+      ImmutableList.Builder<RoundUnit> roundUnits = ImmutableList.builder();
+      for (PreprocessedCompUnit unit : CompUnitPreprocessor.preprocess(units)) {
+        roundUnits.add(new RoundUnit(unit));
+      }
+      return new BoundRound(
+          roundUnits.build(), result, result.units().keySet(), errorPaths(log));
+    }
+
+    BindingResult result() {
+      return result;
+    }
+
+    /**
+     * The classes that were bound by this round, as opposed to re-used from the previous round.
+     */
+    ImmutableSet<ClassSymbol> bound() {
+      return bound;
+    }
+  }
+
+  /** A compilation unit, and the identifiers it contains. */
+  private static final class RoundUnit {
+    final PreprocessedCompUnit unit;
+    private @Nullable ImmutableSet<String> names;
+
+    RoundUnit(PreprocessedCompUnit unit) {
+      this.unit = unit;
+    }
+
+    /**
+     * Returns every identifier in the compilation unit. The set is a conservative approximation of
+     * the simple names that binding the unit could look up.
+     */
+    ImmutableSet<String> names() {
+      if (names == null) {
+        ImmutableSet.Builder<String> result = ImmutableSet.builder();
+        Lexer lexer = new StreamLexer(new UnicodeEscapePreprocessor(unit.source()));
+        for (Token token = lexer.next(); token != Token.EOF; token = lexer.next()) {
+          if (token == Token.IDENT) {
+            result.add(lexer.stringValue());
+          }
+        }
+        names = result.build();
+      }
+      return names;
+    }
+
+    String path() {
+      return unit.source().path() != null ? unit.source().path() : "<>";
+    }
+  }
+
+  /**
+   * Binds the compilation units of an annotation processing round, given the units generated since
+   * the previous round. Classes bound by the previous round are re-used if the generated units
+   * can't affect them.
+   *
+   * <p>A generated class can only change the binding of an existing compilation unit if the unit
+   * mentions its simple name, e.g. if it shadows an on-demand import or provides a class that was
+   * previously missing. Units that mention the simple name of a generated class are re-bound, and
+   * so are units that mention the simple name of any other class that is re-bound, since its
+   * supertypes and constant values may have changed. Units that had errors are always re-bound, so
+   * the errors are reported again if they haven't been fixed by the generated code.
+   */
+  static BoundRound bindRound(
+      TurbineLog log,
+      BoundRound previous,
+      ImmutableList<CompUnit> generated,
+      ImmutableMap<String, SourceFile> generatedSources,
+      ImmutableMap<String, byte[]> generatedClasses,
+      ClassPath classpath,
+      ClassPath bootclasspath,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
+    ImmutableList.Builder<RoundUnit> units = ImmutableList.builder();
+    units.addAll(previous.units);
+    Set<String> changed = new HashSet<>();
+    try (Profiler.Span unused = profiler.span("preprocess")) {
+      for (PreprocessedCompUnit unit : CompUnitPreprocessor.preprocess(generated)) {
+        units.add(new RoundUnit(unit));
+        addSimpleNames(changed, unit);
+      }
+    }
+
+    Map<ClassSymbol, SourceTypeBoundClass> reused = new LinkedHashMap<>();
+    try (Profiler.Span unused = profiler.span("invalidate")) {
+      Set<RoundUnit> rebind = new HashSet<>();
+      boolean done = false;
+      while (!done) {
+        done = true;
+        for (RoundUnit unit : previous.units) {
+          if (rebind.contains(unit)) {
+            continue;
+          }
+          if (unit.unit.module().isPresent()
+              || previous.errorPaths.contains(unit.path())
+              || !Collections.disjoint(unit.names(), changed)) {
+            rebind.add(unit);
+            addSimpleNames(changed, unit.unit);
+            done = false;
+          }
+        }
+      }
+      for (RoundUnit unit : previous.units) {
+        if (rebind.contains(unit)) {
+          continue;
+        }
+        for (SourceBoundClass type : unit.unit.types()) {
+          reused.put(type.sym(), previous.result.units().get(type.sym()));
+        }
+      }
+    }
+    profiler.count("classes reused", reused.size());
+
+    ImmutableList<RoundUnit> allUnits = units.build();
+    BindingResult result =
+        bind(
+            log,
+            allUnits.stream().map(u -> u.unit).collect(toImmutableList()),
+            ImmutableMap.copyOf(reused),
+            generatedSources,
+            generatedClasses,
+            classpath,
+            bootclasspath,
+            moduleVersion,
+            profiler,
+            pool);
+    ImmutableSet<ClassSymbol> bound =
+        result.units().keySet().stream()
+            .filter(sym -> !reused.containsKey(sym))
+            .collect(toImmutableSet());
+    profiler.count("classes rebound", bound.size());
+    return new BoundRound(allUnits, result, bound, errorPaths(log));
+  }
+
+  private static void addSimpleNames(Set<String> names, PreprocessedCompUnit unit) {
+    for (SourceBoundClass type : unit.types()) {
+      names.add(type.decl().name().value());
+    }
+  }
+
+  /** Returns the paths of sources with errors, or {@code "<>"} for sources without a path. */
+  private static ImmutableSet<String> errorPaths(TurbineLog log) {
+    return log.diagnostics().stream()
+        .filter(d -> d.severity().equals(Diagnostic.Kind.ERROR))
+        .map(TurbineDiagnostic::path)
+        .collect(toImmutableSet());
+  }
+
+  static class BoundClasses {
+    final Env<ClassSymbol, SourceTypeBoundClass> classes;
+    final ImmutableList<SourceModuleInfo> modules;
+    final Hierarchy hierarchy;
+
+    BoundClasses(
+        Env<ClassSymbol, SourceTypeBoundClass> classes,
+        ImmutableList<SourceModuleInfo> modules,
+        Hierarchy hierarchy) {
+      this.classes = classes;
+      this.modules = modules;
+      this.hierarchy = hierarchy;
+    }
+  }
+
+  /**
+   * Binds the classes and modules in the compilation on the given pool, or returns {@code null} if
+   * that reports any errors.
+   *
+   * <p>The order in which errors are reported by a parallel binding isn't deterministic, so they
+   * are discarded and the caller re-binds sequentially to report them. The log is rolled back and
+   * scopes are re-created by the sequential binding, so it reports exactly the same diagnostics in
+   * the same order as if the parallel binding was never attempted. Other diagnostics don't require
+   * re-binding, and are sorted by position instead.
+   */
+  private static @Nullable BoundClasses bindInParallel(
+      TurbineLog log,
+      Env<ClassSymbol, SourceBoundClass> ienv,
+      TopLevelIndex tli,
+      ImmutableList<PreprocessedCompUnit> units,
+      ImmutableSet<ClassSymbol> syms,
+      Env<ClassSymbol, ? extends TypeBoundClass> classPathEnv,
+      CompoundEnv<ModuleSymbol, ModuleInfo> classPathModuleEnv,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      ForkJoinPool pool) {
+    int size = log.size();
+    try {
+      BoundClasses bound =
+          bindClasses(
+              log,
+              ienv,
+              tli,
+              units,
+              syms,
+              classPathEnv,
+              classPathModuleEnv,
+              moduleVersion,
+              profiler,
+              pool);
+      if (!log.anyErrorsSince(size)) {
+        log.sortSince(size);
+        return bound;
+      }
+    } catch (TurbineError e) {
+      // re-bound sequentially below
+    }
+    log.truncate(size);
+    return null;
+  }
+
+  /**
+   * Binds the classes and modules in the compilation, running the per-class work of each phase on
+   * the given pool if it is non-null.
+   */
+  private static BoundClasses bindClasses(
+      TurbineLog log,
+      Env<ClassSymbol, SourceBoundClass> ienv,
+      TopLevelIndex tli,
+      ImmutableList<PreprocessedCompUnit> units,
+      ImmutableSet<ClassSymbol> syms,
+      Env<ClassSymbol, ? extends TypeBoundClass> classPathEnv,
+      CompoundEnv<ModuleSymbol, ModuleInfo> classPathModuleEnv,
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
+    BindPackagesResult bindPackagesResult;
+    try (Profiler.Span unused = profiler.span("bindPackages")) {
+      bindPackagesResult = bindPackages(log, ienv, tli, units, classPathEnv);
+    }
+
+    SimpleEnv<ClassSymbol, PackageSourceBoundClass> psenv = bindPackagesResult.classes;
+    SimpleEnv<ModuleSymbol, PackageSourceBoundModule> modules = bindPackagesResult.modules;
+
+    Env<ClassSymbol, SourceHeaderBoundClass> henv;
+    try (Profiler.Span unused = profiler.span("bindHierarchy")) {
+      henv = bindHierarchy(log, syms, psenv, classPathEnv, pool);
+    }
+
+    // Supertypes and member types don't change after hierarchy binding, so the later phases can
+    // share a cache of them.
+    CompoundEnv<ClassSymbol, HeaderBoundClass> hierarchyEnv =
+        CompoundEnv.<ClassSymbol, HeaderBoundClass>of(classPathEnv).append(henv);
+    Hierarchy hierarchy = Hierarchy.create(hierarchyEnv);
+
+    Env<ClassSymbol, SourceTypeBoundClass> tenv;
+    try (Profiler.Span unused = profiler.span("bindTypes")) {
+      tenv = bindTypes(log, syms, henv, hierarchyEnv, hierarchy, pool);
+    }
+
+    try (Profiler.Span unused = profiler.span("constants")) {
+      tenv =
+          constants(
+              syms,
+              tenv,
+              CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
+              hierarchy,
+              log,
+              profiler,
+              pool);
+    }
+    try (Profiler.Span unused = profiler.span("disambiguateTypeAnnotations")) {
+      tenv =
+          disambiguateTypeAnnotations(
+              syms,
+              tenv,
+              CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
+              pool);
+    }
+    try (Profiler.Span unused = profiler.span("canonicalizeTypes")) {
+      tenv =
+          canonicalizeTypes(
+              syms,
+              tenv,
+              CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
+              hierarchy,
+              pool);
+    }
+
+    ImmutableList<SourceModuleInfo> boundModules;
+    try (Profiler.Span unused = profiler.span("bindModules")) {
+      boundModules =
+          bindModules(
+              modules,
+              CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv),
+              classPathModuleEnv,
+              moduleVersion,
+              log);
+    }
+    return new BoundClasses(tenv, boundModules, hierarchy);
+  }
+
+  /**
+   * Applies {@code fn} to each symbol, and returns an env of the results in the iteration order of
+   * {@code syms}. If {@code pool} is non-null the symbols are processed in parallel on it.
+   */
+  static <V> SimpleEnv<ClassSymbol, V> bindEach(
+      ImmutableSet<ClassSymbol> syms, @Nullable ForkJoinPool pool, Function<ClassSymbol, V> fn) {
+    SimpleEnv.Builder<ClassSymbol, V> builder = SimpleEnv.builder();
+    if (pool == null) {
+      for (ClassSymbol sym : syms) {
+        builder.put(sym, fn.apply(sym));
+      }
+      return builder.build();
+    }
+    ImmutableList<ClassSymbol> list = syms.asList();
+    Function<ClassSymbol, V> task = Profiler.inCurrentSpan(fn);
+    ImmutableList<V> results =
+        getDone(pool.submit(() -> list.parallelStream().map(task).collect(toImmutableList())));
+    for (int i = 0; i < list.size(); i++) {
+      builder.put(list.get(i), results.get(i));
+    }
+    return builder.build();
+  }
+
+  private static <T> T getDone(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   /** Records enclosing declarations of member classes, and group classes by compilation unit. */
   static SimpleEnv<ClassSymbol, SourceBoundClass> bindSourceBoundClasses(
       ImmutableList<PreprocessedCompUnit> units) {
@@ -241,7 +736,7 @@ public final class Binder {
       Env<ClassSymbol, SourceBoundClass> ienv,
       TopLevelIndex tli,
       ImmutableList<PreprocessedCompUnit> units,
-      CompoundEnv<ClassSymbol, BytecodeBoundClass> classPathEnv) {
+      Env<ClassSymbol, ? extends TypeBoundClass> classPathEnv) {
 
     SimpleEnv.Builder<ClassSymbol, PackageSourceBoundClass> env = SimpleEnv.builder();
     SimpleEnv.Builder<ModuleSymbol, PackageSourceBoundModule> modules = SimpleEnv.builder();
@@ -287,9 +782,10 @@ public final class Binder {
   /** Binds the type hierarchy (superclasses and interfaces) for all classes in the compilation. */
   private static Env<ClassSymbol, SourceHeaderBoundClass> bindHierarchy(
       TurbineLog log,
-      Iterable<ClassSymbol> syms,
+      ImmutableSet<ClassSymbol> syms,
       final SimpleEnv<ClassSymbol, PackageSourceBoundClass> psenv,
-      CompoundEnv<ClassSymbol, BytecodeBoundClass> classPathEnv) {
+      Env<ClassSymbol, ? extends TypeBoundClass> classPathEnv,
+      @Nullable ForkJoinPool pool) {
     ImmutableMap.Builder<
             ClassSymbol, LazyEnv.Completer<ClassSymbol, HeaderBoundClass, SourceHeaderBoundClass>>
         completers = ImmutableMap.builder();
@@ -305,32 +801,39 @@ public final class Binder {
             }
           });
     }
-    return new LazyEnv<>(completers.buildOrThrow(), classPathEnv);
+    LazyEnv<ClassSymbol, HeaderBoundClass, SourceHeaderBoundClass> henv =
+        new LazyEnv<>(completers.buildOrThrow(), classPathEnv);
+    if (pool != null) {
+      // Complete the hierarchy up front, instead of on demand during type binding
+      Env<ClassSymbol, SourceHeaderBoundClass> unused = bindEach(syms, pool, henv::getNonNull);
+    }
+    return henv;
   }
 
   private static Env<ClassSymbol, SourceTypeBoundClass> bindTypes(
       TurbineLog log,
       ImmutableSet<ClassSymbol> syms,
       Env<ClassSymbol, SourceHeaderBoundClass> shenv,
-      Env<ClassSymbol, HeaderBoundClass> henv) {
-    SimpleEnv.Builder<ClassSymbol, SourceTypeBoundClass> builder = SimpleEnv.builder();
-    for (ClassSymbol sym : syms) {
-      SourceHeaderBoundClass base = shenv.getNonNull(sym);
-      builder.put(sym, TypeBinder.bind(log.withSource(base.source()), henv, sym, base));
-    }
-    return builder.build();
+      Env<ClassSymbol, HeaderBoundClass> henv,
+      Hierarchy hierarchy,
+      @Nullable ForkJoinPool pool) {
+    return bindEach(
+        syms,
+        pool,
+        sym -> {
+          SourceHeaderBoundClass base = shenv.getNonNull(sym);
+          return TypeBinder.bind(log.withSource(base.source()), henv, hierarchy, sym, base);
+        });
   }
 
   private static Env<ClassSymbol, SourceTypeBoundClass> canonicalizeTypes(
       ImmutableSet<ClassSymbol> syms,
       Env<ClassSymbol, SourceTypeBoundClass> stenv,
-      Env<ClassSymbol, TypeBoundClass> tenv) {
-    SimpleEnv.Builder<ClassSymbol, SourceTypeBoundClass> builder = SimpleEnv.builder();
-    for (ClassSymbol sym : syms) {
-      SourceTypeBoundClass base = stenv.getNonNull(sym);
-      builder.put(sym, CanonicalTypeBinder.bind(sym, base, tenv));
-    }
-    return builder.build();
+      Env<ClassSymbol, TypeBoundClass> tenv,
+      Hierarchy hierarchy,
+      @Nullable ForkJoinPool pool) {
+    return bindEach(
+        syms, pool, sym -> CanonicalTypeBinder.bind(sym, stenv.getNonNull(sym), tenv, hierarchy));
   }
 
   private static ImmutableList<SourceModuleInfo> bindModules(
@@ -375,7 +878,10 @@ public final class Binder {
       ImmutableSet<ClassSymbol> syms,
       Env<ClassSymbol, SourceTypeBoundClass> env,
       CompoundEnv<ClassSymbol, TypeBoundClass> baseEnv,
-      TurbineLog log) {
+      Hierarchy hierarchy,
+      TurbineLog log,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
 
     // Prepare to lazily evaluate constant fields in each compilation unit.
     // The laziness is necessary since constant fields can reference other
@@ -403,6 +909,7 @@ public final class Binder {
                           info.scope(),
                           env1,
                           baseEnv,
+                          hierarchy,
                           log.withSource(info.source()))
                       .evalFieldInitializer(
                           // we're processing fields bound from sources in the compilation
@@ -420,17 +927,25 @@ public final class Binder {
     // Create an environment of constant field values that combines
     // lazily evaluated fields in the current compilation unit with
     // constant fields in the classpath (which don't require evaluation).
+    ImmutableMap<FieldSymbol, LazyEnv.Completer<FieldSymbol, Const.Value, Const.Value>>
+        constantFields = completers.buildOrThrow();
     Env<FieldSymbol, Const.Value> constenv =
-        new LazyEnv<>(
-            completers.buildOrThrow(), SimpleEnv.<FieldSymbol, Const.Value>builder().build());
+        new LazyEnv<>(constantFields, SimpleEnv.<FieldSymbol, Const.Value>builder().build());
 
-    SimpleEnv.Builder<ClassSymbol, SourceTypeBoundClass> builder = SimpleEnv.builder();
-    for (ClassSymbol sym : syms) {
-      SourceTypeBoundClass base = env.getNonNull(sym);
-      builder.put(
-          sym, new ConstBinder(constenv, sym, baseEnv, base, log.withSource(base.source())).bind());
-    }
-    return builder.build();
+    SimpleEnv<ClassSymbol, SourceTypeBoundClass> result =
+        bindEach(
+            syms,
+            pool,
+            sym -> {
+              SourceTypeBoundClass base = env.getNonNull(sym);
+              return new ConstBinder(
+                      constenv, sym, baseEnv, hierarchy, base, log.withSource(base.source()))
+                  .bind();
+            });
+    // Binding looks up the value of every constant field, so each one has been published exactly
+    // once. Counting in the completers would also count evaluations that lost a publishing race.
+    profiler.count("constant fields evaluated", constantFields.size());
+    return result;
   }
 
   static boolean isConst(FieldInfo field) {
@@ -465,13 +980,10 @@ public final class Binder {
   private static Env<ClassSymbol, SourceTypeBoundClass> disambiguateTypeAnnotations(
       ImmutableSet<ClassSymbol> syms,
       Env<ClassSymbol, SourceTypeBoundClass> stenv,
-      Env<ClassSymbol, TypeBoundClass> tenv) {
-    SimpleEnv.Builder<ClassSymbol, SourceTypeBoundClass> builder = SimpleEnv.builder();
-    for (ClassSymbol sym : syms) {
-      SourceTypeBoundClass base = stenv.getNonNull(sym);
-      builder.put(sym, DisambiguateTypeAnnotations.bind(base, tenv));
-    }
-    return builder.build();
+      Env<ClassSymbol, TypeBoundClass> tenv,
+      @Nullable ForkJoinPool pool) {
+    return bindEach(
+        syms, pool, sym -> DisambiguateTypeAnnotations.bind(stenv.getNonNull(sym), tenv));
   }
 
   /** Statistics about annotation processing. */
@@ -489,14 +1001,46 @@ public final class Binder {
      */
     public abstract ImmutableMap<String, byte[]> processorMetrics();
 
+    /** A breakdown of the cost of each annotation processor, keyed by class name. */
+    public abstract ImmutableMap<String, ProcessorStatistics> processors();
+
     public static Statistics create(
         ImmutableMap<String, Duration> processingTime,
-        ImmutableMap<String, byte[]> processorMetrics) {
-      return new AutoValue_Binder_Statistics(processingTime, processorMetrics);
+        ImmutableMap<String, byte[]> processorMetrics,
+        ImmutableMap<String, ProcessorStatistics> processors) {
+      return new AutoValue_Binder_Statistics(processingTime, processorMetrics, processors);
     }
 
     public static Statistics empty() {
-      return create(ImmutableMap.of(), ImmutableMap.of());
+      return create(ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of());
+    }
+  }
+
+  /** The cost of an annotation processor, and how much it used the processing environment. */
+  @AutoValue
+  public abstract static class ProcessorStatistics {
+
+    /**
+     * The cost of each phase the processor ran in: {@code init}, {@code round <n>} for each round
+     * of {@link Processor#process}, and {@code final round}.
+     */
+    public abstract ImmutableMap<String, Metrics.Phase> phases();
+
+    /** The number of files the processor created with the {@link Filer}. */
+    public abstract long filesGenerated();
+
+    /**
+     * The number of calls the processor made to each method of the {@link Filer}, {@link Elements}
+     * and {@link Types}, keyed by e.g. {@code Types.isSubtype}. Calls are only counted if the
+     * compilation collects metrics.
+     */
+    public abstract ImmutableMap<String, Long> apiCalls();
+
+    public static ProcessorStatistics create(
+        ImmutableMap<String, Metrics.Phase> phases,
+        long filesGenerated,
+        ImmutableMap<String, Long> apiCalls) {
+      return new AutoValue_Binder_ProcessorStatistics(phases, filesGenerated, apiCalls);
     }
   }
 
@@ -506,6 +1050,7 @@ public final class Binder {
     private final ImmutableList<SourceModuleInfo> modules;
     private final CompoundEnv<ClassSymbol, BytecodeBoundClass> classPathEnv;
     private final TopLevelIndex tli;
+    private final Hierarchy hierarchy;
     private final ImmutableMap<String, SourceFile> generatedSources;
     private final ImmutableMap<String, byte[]> generatedClasses;
     private final Statistics statistics;
@@ -515,6 +1060,7 @@ public final class Binder {
         ImmutableList<SourceModuleInfo> modules,
         CompoundEnv<ClassSymbol, BytecodeBoundClass> classPathEnv,
         TopLevelIndex tli,
+        Hierarchy hierarchy,
         ImmutableMap<String, SourceFile> generatedSources,
         ImmutableMap<String, byte[]> generatedClasses,
         Statistics statistics) {
@@ -522,6 +1068,7 @@ public final class Binder {
       this.modules = modules;
       this.classPathEnv = classPathEnv;
       this.tli = tli;
+      this.hierarchy = hierarchy;
       this.generatedSources = generatedSources;
       this.generatedClasses = generatedClasses;
       this.statistics = statistics;
@@ -545,6 +1092,11 @@ public final class Binder {
       return tli;
     }
 
+    /** The supertypes and member types of the classes in the compilation and on the classpath. */
+    public Hierarchy hierarchy() {
+      return hierarchy;
+    }
+
     public ImmutableMap<String, SourceFile> generatedSources() {
       return generatedSources;
     }
@@ -559,17 +1111,38 @@ public final class Binder {
 
     public BindingResult withGeneratedClasses(ImmutableMap<String, byte[]> generatedClasses) {
       return new BindingResult(
-          units, modules, classPathEnv, tli, generatedSources, generatedClasses, statistics);
+          units,
+          modules,
+          classPathEnv,
+          tli,
+          hierarchy,
+          generatedSources,
+          generatedClasses,
+          statistics);
     }
 
     public BindingResult withGeneratedSources(ImmutableMap<String, SourceFile> generatedSources) {
       return new BindingResult(
-          units, modules, classPathEnv, tli, generatedSources, generatedClasses, statistics);
+          units,
+          modules,
+          classPathEnv,
+          tli,
+          hierarchy,
+          generatedSources,
+          generatedClasses,
+          statistics);
     }
 
     public BindingResult withStatistics(Statistics statistics) {
       return new BindingResult(
-          units, modules, classPathEnv, tli, generatedSources, generatedClasses, statistics);
+          units,
+          modules,
+          classPathEnv,
+          tli,
+          hierarchy,
+          generatedSources,
+          generatedClasses,
+          statistics);
     }
   }
 
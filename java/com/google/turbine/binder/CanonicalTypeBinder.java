@@ -36,6 +36,7 @@ import com.google.turbine.type.Type.ClassTy;
 import com.google.turbine.type.Type.IntersectionTy;
 import com.google.turbine.type.Type.TyKind;
 import com.google.turbine.types.Canonicalize;
+import com.google.turbine.types.Hierarchy;
 import java.util.Map;
 
 /**
@@ -44,27 +45,33 @@ import java.util.Map;
 public final class CanonicalTypeBinder {
 
   static SourceTypeBoundClass bind(
-      ClassSymbol sym, SourceTypeBoundClass base, Env<ClassSymbol, TypeBoundClass> env) {
+      ClassSymbol sym,
+      SourceTypeBoundClass base,
+      Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy) {
     Type superClassType = base.superClassType();
     int pos = base.decl().position();
     if (superClassType != null && superClassType.tyKind() == TyKind.CLASS_TY) {
       superClassType =
           Canonicalize.canonicalizeClassTy(
-              base.source(), pos, env, base.owner(), (ClassTy) superClassType);
+              base.source(), pos, env, hierarchy, base.owner(), (ClassTy) superClassType);
     }
     ImmutableList.Builder<Type> interfaceTypes = ImmutableList.builder();
     for (Type i : base.interfaceTypes()) {
       if (i.tyKind() == TyKind.CLASS_TY) {
-        i = Canonicalize.canonicalizeClassTy(base.source(), pos, env, base.owner(), (ClassTy) i);
+        i =
+            Canonicalize.canonicalizeClassTy(
+                base.source(), pos, env, hierarchy, base.owner(), (ClassTy) i);
       }
       interfaceTypes.add(i);
     }
     ImmutableMap<TyVarSymbol, TyVarInfo> typParamTypes =
-        typeParameters(base.source(), pos, env, sym, base.typeParameterTypes());
+        typeParameters(base.source(), pos, env, hierarchy, sym, base.typeParameterTypes());
     ImmutableList<RecordComponentInfo> components =
-        components(base.source(), env, sym, pos, base.components());
-    ImmutableList<MethodInfo> methods = methods(base.source(), pos, env, sym, base.methods());
-    ImmutableList<FieldInfo> fields = fields(base.source(), env, sym, base.fields());
+        components(base.source(), env, hierarchy, sym, pos, base.components());
+    ImmutableList<MethodInfo> methods =
+        methods(base.source(), pos, env, hierarchy, sym, base.methods());
+    ImmutableList<FieldInfo> fields = fields(base.source(), env, hierarchy, sym, base.fields());
     return new SourceTypeBoundClass(
         interfaceTypes.build(),
         base.permits(),
@@ -90,6 +97,7 @@ public final class CanonicalTypeBinder {
   private static ImmutableList<FieldInfo> fields(
       SourceFile source,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       ImmutableList<FieldInfo> fields) {
     ImmutableList.Builder<FieldInfo> result = ImmutableList.builder();
@@ -102,6 +110,7 @@ public final class CanonicalTypeBinder {
                   // we're processing fields bound from sources in the compilation
                   requireNonNull(base.decl()).position(),
                   env,
+                  hierarchy,
                   sym,
                   base.type()),
               base.access(),
@@ -116,16 +125,19 @@ public final class CanonicalTypeBinder {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       ImmutableList<MethodInfo> methods) {
     ImmutableList.Builder<MethodInfo> result = ImmutableList.builder();
     for (MethodInfo base : methods) {
       int pos = base.decl() != null ? base.decl().position() : position;
       ImmutableMap<TyVarSymbol, TyVarInfo> tps =
-          typeParameters(source, pos, env, sym, base.tyParams());
-      Type ret = Canonicalize.canonicalize(source, pos, env, sym, base.returnType());
-      ImmutableList<ParamInfo> parameters = parameters(source, env, sym, pos, base.parameters());
-      ImmutableList<Type> exceptions = canonicalizeList(source, pos, env, sym, base.exceptions());
+          typeParameters(source, pos, env, hierarchy, sym, base.tyParams());
+      Type ret = Canonicalize.canonicalize(source, pos, env, hierarchy, sym, base.returnType());
+      ImmutableList<ParamInfo> parameters =
+          parameters(source, env, hierarchy, sym, pos, base.parameters());
+      ImmutableList<Type> exceptions =
+          canonicalizeList(source, pos, env, hierarchy, sym, base.exceptions());
       result.add(
           new MethodInfo(
               base.sym(),
@@ -137,7 +149,9 @@ public final class CanonicalTypeBinder {
               base.defaultValue(),
               base.decl(),
               base.annotations(),
-              base.receiver() != null ? param(source, pos, env, sym, base.receiver()) : null));
+              base.receiver() != null
+                  ? param(source, pos, env, hierarchy, sym, base.receiver())
+                  : null));
     }
     return result.build();
   }
@@ -145,12 +159,13 @@ public final class CanonicalTypeBinder {
   private static ImmutableList<ParamInfo> parameters(
       SourceFile source,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       int pos,
       ImmutableList<ParamInfo> parameters) {
     ImmutableList.Builder<ParamInfo> result = ImmutableList.builder();
     for (ParamInfo parameter : parameters) {
-      result.add(param(source, pos, env, sym, parameter));
+      result.add(param(source, pos, env, hierarchy, sym, parameter));
     }
     return result.build();
   }
@@ -159,11 +174,12 @@ public final class CanonicalTypeBinder {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       ParamInfo base) {
     return new ParamInfo(
         base.sym(),
-        Canonicalize.canonicalize(source, position, env, sym, base.type()),
+        Canonicalize.canonicalize(source, position, env, hierarchy, sym, base.type()),
         base.annotations(),
         base.access());
   }
@@ -171,6 +187,7 @@ public final class CanonicalTypeBinder {
   private static ImmutableList<RecordComponentInfo> components(
       SourceFile source,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       int pos,
       ImmutableList<RecordComponentInfo> components) {
@@ -179,7 +196,7 @@ public final class CanonicalTypeBinder {
       result.add(
           new RecordComponentInfo(
               component.sym(),
-              Canonicalize.canonicalize(source, pos, env, sym, component.type()),
+              Canonicalize.canonicalize(source, pos, env, hierarchy, sym, component.type()),
               component.annotations(),
               component.access()));
     }
@@ -190,13 +207,15 @@ public final class CanonicalTypeBinder {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       Map<TyVarSymbol, TyVarInfo> tps) {
     ImmutableMap.Builder<TyVarSymbol, TyVarInfo> result = ImmutableMap.builder();
     for (Map.Entry<TyVarSymbol, TyVarInfo> e : tps.entrySet()) {
       TyVarInfo info = e.getValue();
       IntersectionTy upperBound =
-          (IntersectionTy) Canonicalize.canonicalize(source, position, env, sym, info.upperBound());
+          (IntersectionTy)
+              Canonicalize.canonicalize(source, position, env, hierarchy, sym, info.upperBound());
       result.put(e.getKey(), new TyVarInfo(upperBound, /* lowerBound= */ null, info.annotations()));
     }
     return result.buildOrThrow();
@@ -206,11 +225,12 @@ public final class CanonicalTypeBinder {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       ImmutableList<Type> types) {
     ImmutableList.Builder<Type> result = ImmutableList.builder();
     for (Type type : types) {
-      result.add(Canonicalize.canonicalize(source, position, env, sym, type));
+      result.add(Canonicalize.canonicalize(source, position, env, hierarchy, sym, type));
     }
     return result.build();
   }
@@ -17,6 +17,8 @@
 package com.google.turbine.binder;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.turbine.binder.bound.ModuleInfo;
 import com.google.turbine.binder.bytecode.BytecodeBoundClass;
 import com.google.turbine.binder.env.Env;
@@ -40,4 +42,21 @@ public interface ClassPath {
   TopLevelIndex index();
 
   @Nullable Supplier<byte[]> resource(String path);
+
+  /**
+   * The classes in the classpath, for classpaths that index all of their classes up front. Other
+   * classpaths, e.g. ones that load classes on demand from the platform, return an empty
+   * collection.
+   */
+  default ImmutableCollection<BytecodeBoundClass> classes() {
+    return ImmutableList.of();
+  }
+
+  /**
+   * How much of each jar in the classpath has been used so far, in classpath order, for classpaths
+   * that are backed by jar files. Other classpaths return an empty list.
+   */
+  default ImmutableList<ClassPathUsage> usage() {
+    return ImmutableList.of();
+  }
 }
@@ -16,8 +16,14 @@
 
 package com.google.turbine.binder;
 
+import static com.google.common.base.Throwables.getCausalChain;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.turbine.binder.bound.ModuleInfo;
 import com.google.turbine.binder.bytecode.BytecodeBinder;
@@ -28,13 +34,21 @@ import com.google.turbine.binder.lookup.SimpleTopLevelIndex;
 import com.google.turbine.binder.lookup.TopLevelIndex;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.binder.sym.ModuleSymbol;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.zip.Zip;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
@@ -49,12 +63,29 @@ public final class ClassPathBinder {
 
   /** Creates an environment containing symbols in the given classpath. */
   public static ClassPath bindClasspath(Collection<Path> paths) throws IOException {
+    return bindClasspath(paths, /* cache= */ null);
+  }
+
+  /**
+   * Creates an environment containing symbols in the given classpath, using indexes of the
+   * classpath jars from the given cache if it is non-null.
+   */
+  public static ClassPath bindClasspath(Collection<Path> paths, @Nullable JarIndexCache cache)
+      throws IOException {
+    return bindClasspath(paths, cache, /* pool= */ null);
+  }
+
+  /**
+   * Creates an environment containing symbols in the given classpath, using indexes of the
+   * classpath jars from the given cache if it is non-null. If {@code pool} is non-null the jars are
+   * indexed in parallel on it; the result is the same as indexing them sequentially.
+   */
+  public static ClassPath bindClasspath(
+      Collection<Path> paths, @Nullable JarIndexCache cache, @Nullable ForkJoinPool pool)
+      throws IOException {
     // TODO(cushon): this is going to require an env eventually,
     // e.g. to look up type parameters in enclosing declarations
-    Map<ClassSymbol, BytecodeBoundClass> transitive = new LinkedHashMap<>();
     Map<ClassSymbol, BytecodeBoundClass> map = new HashMap<>();
-    Map<ModuleSymbol, ModuleInfo> modules = new HashMap<>();
-    Map<String, Supplier<byte[]>> resources = new HashMap<>();
     Env<ClassSymbol, BytecodeBoundClass> benv =
         new Env<ClassSymbol, BytecodeBoundClass>() {
           @Override
@@ -62,12 +93,22 @@ public final class ClassPathBinder {
             return map.get(sym);
           }
         };
-    for (Path path : paths) {
-      try {
-        bindJar(path, map, modules, benv, transitive, resources);
-      } catch (IOException e) {
-        throw new IOException("error reading " + path, e);
+    ImmutableList<BoundJar> jars = bindJars(paths, cache, benv, pool);
+
+    // Merge the jars in classpath order: the first definition of a class wins, and repackaged
+    // transitive dependencies are only used if no jar contains the class itself.
+    Map<ClassSymbol, BytecodeBoundClass> transitive = new HashMap<>();
+    Map<ModuleSymbol, ModuleInfo> modules = new HashMap<>();
+    Map<String, Supplier<byte[]>> resources = new HashMap<>();
+    for (BoundJar jar : jars) {
+      for (Map.Entry<ClassSymbol, BytecodeBoundClass> entry : jar.classes.entrySet()) {
+        map.putIfAbsent(entry.getKey(), entry.getValue());
+      }
+      for (Map.Entry<ClassSymbol, BytecodeBoundClass> entry : jar.transitive.entrySet()) {
+        transitive.putIfAbsent(entry.getKey(), entry.getValue());
       }
+      modules.putAll(jar.modules);
+      resources.putAll(jar.resources);
     }
     for (Map.Entry<ClassSymbol, BytecodeBoundClass> entry : transitive.entrySet()) {
       ClassSymbol symbol = entry.getKey();
@@ -96,56 +137,212 @@ public final class ClassPathBinder {
       public @Nullable Supplier<byte[]> resource(String path) {
         return resources.get(path);
       }
+
+      @Override
+      public ImmutableCollection<BytecodeBoundClass> classes() {
+        return env.asMap().values();
+      }
+
+      @Override
+      public ImmutableList<ClassPathUsage> usage() {
+        ImmutableList.Builder<ClassPathUsage> usage =
+            ImmutableList.builderWithExpectedSize(jars.size());
+        for (BoundJar jar : jars) {
+          usage.add(jar.usage());
+        }
+        return usage.build();
+      }
     };
   }
 
-  private static void bindJar(
-      Path path,
-      Map<ClassSymbol, BytecodeBoundClass> env,
-      Map<ModuleSymbol, ModuleInfo> modules,
+  /**
+   * Indexes and binds each jar, in parallel on {@code pool} if it is non-null. The results are
+   * returned in classpath order, and if multiple jars can't be read the error for the first of
+   * them is reported.
+   */
+  private static ImmutableList<BoundJar> bindJars(
+      Collection<Path> paths,
+      @Nullable JarIndexCache cache,
       Env<ClassSymbol, BytecodeBoundClass> benv,
-      Map<ClassSymbol, BytecodeBoundClass> transitive,
-      Map<String, Supplier<byte[]>> resources)
+      @Nullable ForkJoinPool pool)
+      throws IOException {
+    ImmutableList.Builder<BoundJar> jars = ImmutableList.builderWithExpectedSize(paths.size());
+    if (pool == null) {
+      for (Path path : paths) {
+        jars.add(bindJar(path, cache, benv));
+      }
+      return jars.build();
+    }
+    List<Future<BoundJar>> futures = new ArrayList<>(paths.size());
+    try {
+      for (Path path : paths) {
+        futures.add(pool.submit(Profiler.inCurrentSpan(() -> bindJar(path, cache, benv))));
+      }
+      for (Future<BoundJar> future : futures) {
+        jars.add(getDone(future));
+      }
+    } finally {
+      for (Future<BoundJar> future : futures) {
+        future.cancel(/* mayInterruptIfRunning= */ true);
+      }
+    }
+    return jars.build();
+  }
+
+  private static <T> T getDone(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    } catch (ExecutionException e) {
+      // ForkJoinPool wraps checked exceptions thrown by the task in RuntimeExceptions
+      for (Throwable cause : getCausalChain(e)) {
+        throwIfInstanceOf(cause, IOException.class);
+      }
+      Throwable cause = e.getCause();
+      throwIfUnchecked(cause);
+      throw new AssertionError(cause);
+    }
+  }
+
+  /** The symbols and resources defined by a single classpath jar. */
+  private static final class BoundJar {
+    final ImmutableMap<ClassSymbol, BytecodeBoundClass> classes;
+    final ImmutableMap<ClassSymbol, BytecodeBoundClass> transitive;
+    final ImmutableMap<ModuleSymbol, ModuleInfo> modules;
+    final ImmutableMap<String, Supplier<byte[]>> resources;
+    final EntryReader reader;
+
+    BoundJar(
+        ImmutableMap<ClassSymbol, BytecodeBoundClass> classes,
+        ImmutableMap<ClassSymbol, BytecodeBoundClass> transitive,
+        ImmutableMap<ModuleSymbol, ModuleInfo> modules,
+        ImmutableMap<String, Supplier<byte[]>> resources,
+        EntryReader reader) {
+      this.classes = classes;
+      this.transitive = transitive;
+      this.modules = modules;
+      this.resources = resources;
+      this.reader = reader;
+    }
+
+    ClassPathUsage usage() {
+      int decoded = 0;
+      for (BytecodeBoundClass info : classes.values()) {
+        if (info.completed()) {
+          decoded++;
+        }
+      }
+      for (BytecodeBoundClass info : transitive.values()) {
+        if (info.completed()) {
+          decoded++;
+        }
+      }
+      return ClassPathUsage.create(
+          reader.path,
+          reader.entries,
+          reader.entriesRead.intValue(),
+          reader.bytesInflated.sum(),
+          decoded);
+    }
+  }
+
+  /**
+   * Reads the data of a jar's entries, and records how many were read. The entries of a jar from a
+   * {@link JarIndexCache} are shared between compilations, so usage is recorded here rather than
+   * in the entries.
+   */
+  private static final class EntryReader {
+    final String path;
+    final int entries;
+    final LongAdder entriesRead = new LongAdder();
+    final LongAdder bytesInflated = new LongAdder();
+
+    EntryReader(String path, int entries) {
+      this.path = path;
+      this.entries = entries;
+    }
+
+    byte[] read(Zip.Entry ze) {
+      byte[] data = ze.data();
+      entriesRead.increment();
+      if (ze.compression() != 0) {
+        bytesInflated.add(data.length);
+      }
+      return data;
+    }
+  }
+
+  private static BoundJar bindJar(
+      Path path, @Nullable JarIndexCache cache, Env<ClassSymbol, BytecodeBoundClass> benv)
       throws IOException {
-    // TODO(cushon): don't leak file descriptors
-    for (Zip.Entry ze : new Zip.ZipIterable(path)) {
-      String name = ze.name();
-      if (!name.endsWith(".class")) {
-        resources.put(name, toByteArrayOrDie(ze));
-        continue;
-      }
-      if (name.startsWith(TRANSITIVE_PREFIX)) {
-        ClassSymbol sym =
-            new ClassSymbol(
-                name.substring(TRANSITIVE_PREFIX.length(), name.length() - ".class".length()));
-        transitive.computeIfAbsent(
-            sym,
-            new Function<ClassSymbol, BytecodeBoundClass>() {
-              @Override
-              public BytecodeBoundClass apply(ClassSymbol sym) {
-                return new BytecodeBoundClass(sym, toByteArrayOrDie(ze), benv, path.toString());
-              }
-            });
-        continue;
-      }
-      if (name.substring(name.lastIndexOf('/') + 1).equals("module-info.class")) {
-        ModuleInfo moduleInfo =
-            BytecodeBinder.bindModuleInfo(path.toString(), toByteArrayOrDie(ze));
-        modules.put(new ModuleSymbol(moduleInfo.name()), moduleInfo);
-        continue;
-      }
-      ClassSymbol sym = new ClassSymbol(name.substring(0, name.length() - ".class".length()));
-      env.putIfAbsent(
-          sym, new BytecodeBoundClass(sym, toByteArrayOrDie(ze), benv, path.toString()));
+    try {
+      return bindJar(cache != null ? cache.index(path) : JarIndex.read(path), benv);
+    } catch (IOException e) {
+      throw new IOException("error reading " + path, e);
+    }
+  }
+
+  private static BoundJar bindJar(JarIndex index, Env<ClassSymbol, BytecodeBoundClass> benv) {
+    String path = index.path().toString();
+    EntryReader reader = new EntryReader(path, index.size());
+    Map<ClassSymbol, BytecodeBoundClass> classes = new LinkedHashMap<>();
+    Map<ClassSymbol, BytecodeBoundClass> transitive = new LinkedHashMap<>();
+    Map<ModuleSymbol, ModuleInfo> modules = new LinkedHashMap<>();
+    Map<String, Supplier<byte[]>> resources = new LinkedHashMap<>();
+    for (int i = 0; i < index.size(); i++) {
+      // entries are only created when they're read, and most classpath entries never are
+      int entry = i;
+      switch (index.kind(i)) {
+        case RESOURCE:
+          resources.put(index.name(i), toByteArrayOrDie(reader, index, i));
+          break;
+        case TRANSITIVE_CLASS:
+          {
+            ClassSymbol sym = ClassSymbol.intern(index.binaryName(i));
+            transitive.computeIfAbsent(
+                sym,
+                new Function<ClassSymbol, BytecodeBoundClass>() {
+                  @Override
+                  public BytecodeBoundClass apply(ClassSymbol sym) {
+                    return new BytecodeBoundClass(
+                        sym, () -> reader.read(index.entry(entry)), benv, path);
+                  }
+                });
+            break;
+          }
+        case MODULE_INFO:
+          {
+            ModuleInfo moduleInfo =
+                BytecodeBinder.bindModuleInfo(path, toByteArrayOrDie(reader, index, i));
+            modules.put(new ModuleSymbol(moduleInfo.name()), moduleInfo);
+            break;
+          }
+        case CLASS:
+          {
+            ClassSymbol sym = ClassSymbol.intern(index.binaryName(i));
+            classes.putIfAbsent(
+                sym,
+                new BytecodeBoundClass(sym, () -> reader.read(index.entry(entry)), benv, path));
+            break;
+          }
+      }
     }
+    return new BoundJar(
+        ImmutableMap.copyOf(classes),
+        ImmutableMap.copyOf(transitive),
+        ImmutableMap.copyOf(modules),
+        ImmutableMap.copyOf(resources),
+        reader);
   }
 
-  private static Supplier<byte[]> toByteArrayOrDie(Zip.Entry ze) {
+  private static Supplier<byte[]> toByteArrayOrDie(EntryReader reader, JarIndex index, int i) {
     return Suppliers.memoize(
         new Supplier<byte[]>() {
           @Override
           public byte[] get() {
-            return ze.data();
+            return reader.read(index.entry(i));
           }
         });
   }
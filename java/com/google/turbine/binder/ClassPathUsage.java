@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import com.google.auto.value.AutoValue;
+
+/**
+ * How much of a classpath jar a compilation used. Most entries are indexed but never read, so this
+ * shows which jars could be pruned from the classpath, and how well lazy loading is working.
+ */
+@AutoValue
+public abstract class ClassPathUsage {
+
+  /** The path to the jar. */
+  public abstract String path();
+
+  /** The number of entries in the jar. */
+  public abstract int entriesIndexed();
+
+  /** The number of entries whose data was read. */
+  public abstract int entriesRead();
+
+  /** The uncompressed size of the compressed entries whose data was read. */
+  public abstract long bytesInflated();
+
+  /** The number of classes whose class files were decoded. */
+  public abstract int classesDecoded();
+
+  public static ClassPathUsage create(
+      String path, int entriesIndexed, int entriesRead, long bytesInflated, int classesDecoded) {
+    return new AutoValue_ClassPathUsage(
+        path, entriesIndexed, entriesRead, bytesInflated, classesDecoded);
+  }
+}
@@ -116,7 +116,7 @@ public final class CompUnitPreprocessor {
     ImmutableList.Builder<SourceBoundClass> types = ImmutableList.builder();
     for (TyDecl decl : decls) {
       ClassSymbol sym =
-          new ClassSymbol((!packageName.isEmpty() ? packageName + "/" : "") + decl.name());
+          ClassSymbol.intern((!packageName.isEmpty() ? packageName + "/" : "") + decl.name());
       int access = access(decl.mods(), decl.tykind());
       ImmutableMap<String, ClassSymbol> children =
           preprocessChildren(unit.source(), types, sym, decl.members(), access);
@@ -149,7 +149,7 @@ public final class CompUnitPreprocessor {
     for (Tree member : members) {
       if (member.kind() == Tree.Kind.TY_DECL) {
         Tree.TyDecl decl = (Tree.TyDecl) member;
-        ClassSymbol sym = new ClassSymbol(owner.binaryName() + '$' + decl.name());
+        ClassSymbol sym = ClassSymbol.intern(owner.binaryName() + '$' + decl.name());
         if (!seen.add(decl.name().value())) {
           throw TurbineError.format(
               source, member.position(), ErrorKind.DUPLICATE_DECLARATION, sym);
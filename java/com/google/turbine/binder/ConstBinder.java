@@ -56,6 +56,7 @@ import com.google.turbine.type.Type.WildLowerBoundedTy;
 import com.google.turbine.type.Type.WildTy;
 import com.google.turbine.type.Type.WildUnboundedTy;
 import com.google.turbine.type.Type.WildUpperBoundedTy;
+import com.google.turbine.types.Hierarchy;
 import java.lang.annotation.RetentionPolicy;
 import java.util.Map;
 import org.jspecify.annotations.Nullable;
@@ -67,6 +68,7 @@ public class ConstBinder {
   private final ClassSymbol origin;
   private final SourceTypeBoundClass base;
   private final CompoundEnv<ClassSymbol, TypeBoundClass> env;
+  private final Hierarchy hierarchy;
   private final ConstEvaluator constEvaluator;
   private final TurbineLogWithSource log;
 
@@ -74,12 +76,14 @@ public class ConstBinder {
       Env<FieldSymbol, Value> constantEnv,
       ClassSymbol origin,
       CompoundEnv<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       SourceTypeBoundClass base,
       TurbineLogWithSource log) {
     this.constantEnv = constantEnv;
     this.origin = origin;
     this.base = base;
     this.env = env;
+    this.hierarchy = hierarchy;
     this.log = log;
     this.constEvaluator =
         new ConstEvaluator(
@@ -90,6 +94,7 @@ public class ConstBinder {
             base.scope(),
             constantEnv,
             env,
+            hierarchy,
             log);
   }
 
@@ -103,6 +108,7 @@ public class ConstBinder {
                 base.enclosingScope(),
                 constantEnv,
                 env,
+                hierarchy,
                 log)
             .evaluateAnnotations(base.annotations());
     ImmutableList<RecordComponentInfo> components = bindRecordComponents(base.components());
@@ -70,6 +70,7 @@ import com.google.turbine.tree.Tree.Unary;
 import com.google.turbine.tree.TurbineOperatorKind;
 import com.google.turbine.type.AnnoInfo;
 import com.google.turbine.type.Type;
+import com.google.turbine.types.Hierarchy;
 import java.util.ArrayDeque;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -101,6 +102,9 @@ public strictfp class ConstEvaluator {
   /** The class environment. */
   private final CompoundEnv<ClassSymbol, TypeBoundClass> env;
 
+  /** The class hierarchy, for member type lookups. */
+  private final Hierarchy hierarchy;
+
   private final Scope scope;
 
   private final TurbineLogWithSource log;
@@ -113,6 +117,7 @@ public strictfp class ConstEvaluator {
       Scope scope,
       Env<FieldSymbol, Value> values,
       CompoundEnv<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       TurbineLogWithSource log) {
 
     this.origin = origin;
@@ -121,6 +126,7 @@ public strictfp class ConstEvaluator {
     this.source = source;
     this.values = values;
     this.env = env;
+    this.hierarchy = hierarchy;
     this.scope = scope;
     this.log = log;
   }
@@ -225,7 +231,7 @@ public strictfp class ConstEvaluator {
   }
 
   private ClassSymbol resolveNext(int position, ClassSymbol sym, Ident bit) {
-    ClassSymbol next = Resolve.resolve(env, origin, sym, bit);
+    ClassSymbol next = Resolve.resolve(hierarchy, origin, sym, bit);
     if (next == null) {
       throw error(
           position, ErrorKind.SYMBOL_NOT_FOUND, new ClassSymbol(sym.binaryName() + '$' + bit));
@@ -298,7 +304,7 @@ public strictfp class ConstEvaluator {
     }
     ClassSymbol sym = (ClassSymbol) result.sym();
     for (int i = 0; i < result.remaining().size() - 1; i++) {
-      sym = Resolve.resolve(env, sym, sym, result.remaining().get(i));
+      sym = Resolve.resolve(hierarchy, sym, sym, result.remaining().get(i));
       if (sym == null) {
         return null;
       }
@@ -1284,7 +1290,7 @@ public strictfp class ConstEvaluator {
     }
     ClassSymbol sym = (ClassSymbol) result.sym();
     for (Ident name : result.remaining()) {
-      sym = Resolve.resolve(env, sym, sym, name);
+      sym = Resolve.resolve(hierarchy, sym, sym, name);
       if (sym == null) {
         throw error(name.position(), ErrorKind.CANNOT_RESOLVE, name.value());
       }
@@ -48,6 +48,11 @@ public final class CtSymClassBinder {
   private static final int FEATURE_VERSION = Runtime.version().feature();
 
   public static @Nullable ClassPath bind(int version) throws IOException {
+    return bind(ctSymPath(), version);
+  }
+
+  /** Returns the ct.sym file that platform classpaths are read from. */
+  public static Path ctSymPath() {
     Path ctSym;
     String explicitCtSymPath = System.getProperty("turbine.ctSymPath");
     if (explicitCtSymPath == null) {
@@ -63,6 +68,14 @@ public final class CtSymClassBinder {
         throw new IllegalStateException("ct.sym does not exist at " + ctSym);
       }
     }
+    return ctSym;
+  }
+
+  /**
+   * Returns a platform classpath for the given release from the given ct.sym file, or {@code null}
+   * if the release is not supported. The classpath is fully bound, and safe for concurrent use.
+   */
+  public static @Nullable ClassPath bind(Path ctSym, int version) throws IOException {
     Map<ClassSymbol, BytecodeBoundClass> map = new HashMap<>();
     Map<ModuleSymbol, ModuleInfo> modules = new HashMap<>();
     Env<ClassSymbol, BytecodeBoundClass> benv =
@@ -98,9 +111,9 @@ public final class CtSymClassBinder {
         modules.put(new ModuleSymbol(moduleInfo.name()), moduleInfo);
         continue;
       }
-      ClassSymbol sym = new ClassSymbol(name.substring(idx + 1, name.length() - ".sig".length()));
-      map.putIfAbsent(
-          sym, new BytecodeBoundClass(sym, toByteArrayOrDie(ze), benv, ctSym + "!" + ze.name()));
+      ClassSymbol sym =
+          ClassSymbol.intern(name.substring(idx + 1, name.length() - ".sig".length()));
+      map.putIfAbsent(sym, new BytecodeBoundClass(sym, ze::data, benv, ctSym + "!" + ze.name()));
     }
     if (map.isEmpty()) {
       // we didn't find any classes for the desired release
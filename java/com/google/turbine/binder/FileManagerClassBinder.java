@@ -35,6 +35,7 @@ import java.io.UncheckedIOException;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
@@ -84,7 +85,8 @@ public final class FileManagerClassBinder {
 
   private static class PackageLookup {
 
-    private final Map<String, Map<ClassSymbol, BytecodeBoundClass>> packages = new HashMap<>();
+    private final Map<String, Map<ClassSymbol, BytecodeBoundClass>> packages =
+        new ConcurrentHashMap<>();
     private final StandardJavaFileManager fileManager;
     private final StandardLocation location;
 
@@ -103,7 +105,7 @@ public final class FileManagerClassBinder {
               EnumSet.of(JavaFileObject.Kind.CLASS),
               false)) {
         String binaryName = fileManager.inferBinaryName(location, jfo);
-        ClassSymbol sym = new ClassSymbol(binaryName.replace('.', '/'));
+        ClassSymbol sym = ClassSymbol.intern(binaryName.replace('.', '/'));
         result.putIfAbsent(
             sym,
             new BytecodeBoundClass(
@@ -187,7 +189,7 @@ public final class FileManagerClassBinder {
         public @Nullable LookupResult lookup(LookupKey lookupKey) {
           for (int i = lookupKey.simpleNames().size(); i > 0; i--) {
             String p = Joiner.on('/').join(lookupKey.simpleNames().subList(0, i));
-            ClassSymbol sym = new ClassSymbol(p);
+            ClassSymbol sym = ClassSymbol.intern(p);
             BytecodeBoundClass r = env.get(sym);
             if (r != null) {
               return new LookupResult(
@@ -220,7 +222,7 @@ public final class FileManagerClassBinder {
           if (!packageName.isEmpty()) {
             className = packageName + "/" + className;
           }
-          ClassSymbol sym = new ClassSymbol(className);
+          ClassSymbol sym = ClassSymbol.intern(className);
           if (!pkg.containsKey(sym)) {
             return null;
           }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import static com.google.turbine.binder.ClassPathBinder.TRANSITIVE_PREFIX;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.zip.Zip;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** The entries of a classpath jar, classified by how {@link ClassPathBinder} handles them. */
+abstract class JarIndex {
+
+  /** The kind of a jar entry. */
+  enum Kind {
+    /** A class file. */
+    CLASS,
+    /** A repackaged transitive dependency under {@link ClassPathBinder#TRANSITIVE_PREFIX}. */
+    TRANSITIVE_CLASS,
+    /** A {@code module-info.class} file. */
+    MODULE_INFO,
+    /** Any other entry. */
+    RESOURCE;
+
+    static Kind of(String name) {
+      if (!name.endsWith(".class")) {
+        return RESOURCE;
+      }
+      if (name.startsWith(TRANSITIVE_PREFIX)) {
+        return TRANSITIVE_CLASS;
+      }
+      if (name.substring(name.lastIndexOf('/') + 1).equals("module-info.class")) {
+        return MODULE_INFO;
+      }
+      return CLASS;
+    }
+  }
+
+  /** Indexes the given jar by reading its central directory. */
+  static JarIndex read(Path path) throws IOException {
+    ImmutableList.Builder<Zip.Entry> entries = ImmutableList.builder();
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(path)) {
+      for (Zip.Entry ze : zip) {
+        entries.add(ze);
+      }
+      // entries are read lazily, from a mapping of the jar that outlives the file descriptor
+      zip.detach();
+    }
+    return new ReadIndex(path, entries.build());
+  }
+
+  private final Path path;
+
+  JarIndex(Path path) {
+    this.path = path;
+  }
+
+  /** The path to the jar. */
+  Path path() {
+    return path;
+  }
+
+  /** The number of entries in the jar. */
+  abstract int size();
+
+  /** The kind of the entry at the given index, in central directory order. */
+  abstract Kind kind(int i);
+
+  /** The name of the entry at the given index. */
+  abstract String name(int i);
+
+  /**
+   * The binary name of the class file entry at the given index, without the {@link
+   * ClassPathBinder#TRANSITIVE_PREFIX} of repackaged transitive classes.
+   */
+  String binaryName(int i) {
+    String name = name(i);
+    int start = kind(i) == Kind.TRANSITIVE_CLASS ? TRANSITIVE_PREFIX.length() : 0;
+    return name.substring(start, name.length() - ".class".length());
+  }
+
+  /** The entry at the given index, which may be created on demand. */
+  abstract Zip.Entry entry(int i);
+
+  /** An index of the entries read from a jar's central directory. */
+  private static final class ReadIndex extends JarIndex {
+    private final ImmutableList<Zip.Entry> entries;
+    private final Kind[] kinds;
+
+    ReadIndex(Path path, ImmutableList<Zip.Entry> entries) {
+      super(path);
+      this.entries = entries;
+      this.kinds = new Kind[entries.size()];
+      for (int i = 0; i < kinds.length; i++) {
+        kinds[i] = Kind.of(entries.get(i).name());
+      }
+    }
+
+    @Override
+    int size() {
+      return entries.size();
+    }
+
+    @Override
+    Kind kind(int i) {
+      return kinds[i];
+    }
+
+    @Override
+    String name(int i) {
+      return entries.get(i).name();
+    }
+
+    @Override
+    Zip.Entry entry(int i) {
+      return entries.get(i);
+    }
+  }
+}
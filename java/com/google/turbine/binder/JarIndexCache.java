@@ -0,0 +1,339 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import static com.google.turbine.binder.ClassPathBinder.TRANSITIVE_PREFIX;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.hash.Hashing;
+import com.google.turbine.binder.JarIndex.Kind;
+import com.google.turbine.zip.Zip;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A cache of classpath jar indexes, which is optionally persisted on disk.
+ *
+ * <p>Indexing a jar requires decoding every entry in its central directory. For large classpaths
+ * that are mostly unchanged between compilations, the cache allows the saved index of each jar to
+ * be memory-mapped instead.
+ *
+ * <p>Each jar's index is stored in a separate file, named by a hash of the jar's absolute path. A
+ * cached index is only used if the jar's size and last-modified time match the values recorded when
+ * it was written; otherwise the jar is re-indexed and the cache entry is replaced. Cache entries
+ * are written to a temporary file and then moved into place, so concurrent compilations sharing a
+ * cache directory never observe partially written entries.
+ *
+ * <p>Indexes are also retained in memory, so a cache that is shared by multiple compilations in the
+ * same process only indexes each jar once. Callers that know a jar's contents have changed without
+ * affecting its size or last-modified time should {@link #invalidate} it.
+ */
+public final class JarIndexCache {
+
+  private static final int MAGIC = 0x54424a49; // "TBJI"
+  private static final int VERSION = 1;
+
+  private static final Kind[] KINDS = Kind.values();
+
+  /** The length of the fields that precede an entry's name: its kind, and its name's length. */
+  private static final int ENTRY_HEADER_LENGTH = 1 + 4;
+
+  /**
+   * The length of the fixed-size fields that follow an entry's name: the offset, name length, extra
+   * field length, compression method, compressed size and size.
+   */
+  private static final int ENTRY_FIELDS_LENGTH = 8 + 2 + 2 + 2 + 8 + 8;
+
+  private final @Nullable Path directory;
+  private final Map<Path, CachedIndex> indexes = new ConcurrentHashMap<>();
+
+  /** Creates a cache that persists indexes in the given directory. */
+  public JarIndexCache(Path directory) {
+    this.directory = directory;
+  }
+
+  private JarIndexCache() {
+    this.directory = null;
+  }
+
+  /** Creates a cache that only retains indexes in memory. */
+  public static JarIndexCache inMemory() {
+    return new JarIndexCache();
+  }
+
+  /** An in-memory index, and the size and last-modified time of the jar it was read from. */
+  private static final class CachedIndex {
+    final long size;
+    final long lastModified;
+    final JarIndex index;
+
+    CachedIndex(long size, long lastModified, JarIndex index) {
+      this.size = size;
+      this.lastModified = lastModified;
+      this.index = index;
+    }
+  }
+
+  /** Returns the index for the given jar, from the cache if it is up to date. */
+  JarIndex index(Path jar) throws IOException {
+    BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+    long size = attributes.size();
+    long lastModified = attributes.lastModifiedTime().toMillis();
+    Path key = jar.toAbsolutePath().normalize();
+    CachedIndex inMemory = indexes.get(key);
+    if (inMemory != null && inMemory.size == size && inMemory.lastModified == lastModified) {
+      return inMemory.index;
+    }
+    JarIndex index = readOrLoad(jar, size, lastModified);
+    indexes.put(key, new CachedIndex(size, lastModified, index));
+    return index;
+  }
+
+  private JarIndex readOrLoad(Path jar, long size, long lastModified) throws IOException {
+    if (directory == null) {
+      return JarIndex.read(jar);
+    }
+    Path cached = cacheFile(directory, jar);
+    if (Files.exists(cached)) {
+      JarIndex index = load(cached, jar, size, lastModified);
+      if (index != null) {
+        return index;
+      }
+    }
+    JarIndex index = JarIndex.read(jar);
+    try {
+      save(directory, cached, index, size, lastModified);
+    } catch (IOException e) {
+      // the cache is only an optimization, so if the entry can't be written (e.g. because the
+      // directory is read-only or the disk is full) the compilation continues without it
+    }
+    return index;
+  }
+
+  /** Discards any cached index for the given jar. */
+  public void invalidate(Path jar) throws IOException {
+    indexes.remove(jar.toAbsolutePath().normalize());
+    if (directory != null) {
+      Files.deleteIfExists(cacheFile(directory, jar));
+    }
+  }
+
+  private static Path cacheFile(Path directory, Path jar) {
+    String key = jar.toAbsolutePath().normalize().toString();
+    return directory.resolve(Hashing.sha256().hashString(key, UTF_8) + ".idx");
+  }
+
+  /**
+   * Loads a cached index, or returns {@code null} if the cache entry is stale, corrupt, or was
+   * written for a different jar.
+   */
+  private static @Nullable JarIndex load(Path cached, Path jar, long size, long lastModified)
+      throws IOException {
+    MappedByteBuffer buf;
+    try (FileChannel chan = FileChannel.open(cached, StandardOpenOption.READ)) {
+      buf = chan.map(MapMode.READ_ONLY, 0, chan.size());
+    }
+    try {
+      if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+        return null;
+      }
+      if (!readString(buf).equals(jar.toAbsolutePath().normalize().toString())
+          || buf.getLong() != size
+          || buf.getLong() != lastModified) {
+        return null;
+      }
+      int count = buf.getInt();
+      if (count < 0) {
+        return null;
+      }
+      // Check that every entry is well-formed, and record where it starts; the names and entries
+      // are only decoded when they're used.
+      int position = buf.position();
+      int limit = buf.limit();
+      if (count > (limit - position) / (ENTRY_HEADER_LENGTH + ENTRY_FIELDS_LENGTH)) {
+        return null;
+      }
+      int[] positions = new int[count];
+      for (int i = 0; i < count; i++) {
+        int remaining = limit - position - ENTRY_HEADER_LENGTH - ENTRY_FIELDS_LENGTH;
+        if (remaining < 0) {
+          return null;
+        }
+        int kind = buf.get(position);
+        int nameLength = buf.getInt(position + 1);
+        if (kind < 0 || kind >= KINDS.length || nameLength < 0 || nameLength > remaining) {
+          return null;
+        }
+        positions[i] = position;
+        position += ENTRY_HEADER_LENGTH + nameLength + ENTRY_FIELDS_LENGTH;
+      }
+      return new MappedIndex(jar, Zip.Archive.open(jar), buf, positions);
+    } catch (BufferUnderflowException e) {
+      // a truncated or otherwise corrupt cache entry; re-index the jar
+      return null;
+    }
+  }
+
+  private static void save(
+      Path directory, Path cached, JarIndex index, long size, long lastModified)
+      throws IOException {
+    Path tmp = null;
+    try {
+      Files.createDirectories(directory);
+      tmp = Files.createTempFile(directory, cached.getFileName().toString(), ".tmp");
+      try (OutputStream os = Files.newOutputStream(tmp);
+          DataOutputStream out = new DataOutputStream(new BufferedOutputStream(os))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeString(out, index.path().toAbsolutePath().normalize().toString());
+        out.writeLong(size);
+        out.writeLong(lastModified);
+        out.writeInt(index.size());
+        for (int i = 0; i < index.size(); i++) {
+          Zip.Entry ze = index.entry(i);
+          out.writeByte(index.kind(i).ordinal());
+          writeString(out, ze.name());
+          out.writeLong(ze.offset());
+          out.writeChar(ze.nameLength());
+          out.writeChar(ze.extLength());
+          out.writeChar(ze.compression());
+          out.writeLong(ze.compressedSize());
+          out.writeLong(ze.size());
+        }
+      }
+      try {
+        Files.move(
+            tmp, cached, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmp, cached, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      if (tmp != null) {
+        deleteQuietly(tmp);
+      }
+    }
+  }
+
+  /** Deletes a partially written cache entry, if it still exists. */
+  private static void deleteQuietly(Path tmp) {
+    try {
+      Files.deleteIfExists(tmp);
+    } catch (IOException e) {
+      // a stray temp file is harmless, and never read as a cache entry
+    }
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * An index read from a memory-mapped cache entry. The entries' names are only decoded, and their
+   * {@link Zip.Entry}s created, when they're used; the buffer is only read with absolute gets, so
+   * the index is safe for concurrent use.
+   */
+  private static final class MappedIndex extends JarIndex {
+    private final Zip.Archive archive;
+    private final ByteBuffer buf;
+    private final int[] positions;
+
+    MappedIndex(Path path, Zip.Archive archive, ByteBuffer buf, int[] positions) {
+      super(path);
+      this.archive = archive;
+      this.buf = buf;
+      this.positions = positions;
+    }
+
+    @Override
+    int size() {
+      return positions.length;
+    }
+
+    @Override
+    Kind kind(int i) {
+      return KINDS[buf.get(positions[i])];
+    }
+
+    private int nameLength(int i) {
+      return buf.getInt(positions[i] + 1);
+    }
+
+    @Override
+    String name(int i) {
+      return decode(positions[i] + ENTRY_HEADER_LENGTH, nameLength(i));
+    }
+
+    @Override
+    String binaryName(int i) {
+      // the prefix and suffix are ASCII, so their length in bytes is the same as in chars
+      int prefix = kind(i) == Kind.TRANSITIVE_CLASS ? TRANSITIVE_PREFIX.length() : 0;
+      return decode(
+          positions[i] + ENTRY_HEADER_LENGTH + prefix,
+          nameLength(i) - prefix - ".class".length());
+    }
+
+    @Override
+    Zip.Entry entry(int i) {
+      int fields = positions[i] + ENTRY_HEADER_LENGTH + nameLength(i);
+      return new Zip.Entry(
+          archive,
+          name(i),
+          /* offset= */ buf.getLong(fields),
+          /* nameLength= */ buf.getChar(fields + 8),
+          /* extLength= */ buf.getChar(fields + 10),
+          /* compression= */ buf.getChar(fields + 12),
+          /* compressedSize= */ buf.getLong(fields + 14),
+          /* size= */ buf.getLong(fields + 22));
+    }
+
+    private String decode(int start, int length) {
+      byte[] bytes = new byte[length];
+      for (int j = 0; j < length; j++) {
+        bytes[j] = buf.get(start + j);
+      }
+      return new String(bytes, UTF_8);
+    }
+  }
+
+  private static String readString(ByteBuffer buf) {
+    int length = buf.getInt();
+    if (length < 0 || length > buf.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    byte[] bytes = new byte[length];
+    buf.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+}
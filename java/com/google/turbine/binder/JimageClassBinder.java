@@ -22,12 +22,10 @@ import static java.util.Objects.requireNonNull;
 import com.google.common.base.Joiner;
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
-import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Table;
 import com.google.turbine.binder.bound.ModuleInfo;
 import com.google.turbine.binder.bytecode.BytecodeBinder;
 import com.google.turbine.binder.bytecode.BytecodeBoundClass;
@@ -40,6 +38,7 @@ import com.google.turbine.binder.lookup.TopLevelIndex;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.binder.sym.ModuleSymbol;
 import com.google.turbine.tree.Tree.Ident;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
@@ -49,10 +48,9 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jspecify.annotations.Nullable;
 
 /** Constructs a platform {@link ClassPath} from the current JDK's jimage file using jrtfs. */
@@ -77,28 +75,86 @@ public class JimageClassBinder {
 
   /** Returns a platform classpath for the host JDK's jimage file. */
   public static ClassPath bindDefault() throws IOException {
-    return JimageClassBinder.create(FileSystems.getFileSystem(URI.create("jrt:/")))
-    .new JimageClassPath();
+    return create(FileSystems.getFileSystem(URI.create("jrt:/"))).new JimageClassPath();
   }
 
-  /** Returns a platform classpath for the given JDK's jimage file. */
+  /**
+   * Returns a platform classpath for the given JDK's jimage file. The file system it is read from
+   * is never closed, see {@link #open} for a classpath that can be closed.
+   */
   public static ClassPath bind(String javaHome) throws IOException {
+    return open(javaHome).classPath();
+  }
+
+  /** Opens a platform classpath for the given JDK's jimage file. */
+  public static Image open(String javaHome) throws IOException {
     if (javaHome.equals(JAVA_HOME.value())) {
-      return bindDefault();
+      return new Image(bindDefault(), /* fileSystem= */ null);
     }
     FileSystem fileSystem =
         FileSystems.newFileSystem(URI.create("jrt:/"), ImmutableMap.of("java.home", javaHome));
-    return JimageClassBinder.create(fileSystem).new JimageClassPath();
+    try {
+      return new Image(create(fileSystem).new JimageClassPath(), fileSystem);
+    } catch (IOException | RuntimeException e) {
+      fileSystem.close();
+      throw e;
+    }
+  }
+
+  /**
+   * A platform classpath for a JDK's jimage file. The classpath is safe for concurrent use, so it
+   * can be shared by compilations in the same process.
+   *
+   * <p>Closing the image closes the file system the classpath reads from if it was opened for a JDK
+   * other than the host JDK, after which the classpath can't load any more classes.
+   */
+  public static final class Image implements Closeable {
+    private final ClassPath classPath;
+    private final @Nullable FileSystem fileSystem;
+
+    private Image(ClassPath classPath, @Nullable FileSystem fileSystem) {
+      this.classPath = classPath;
+      this.fileSystem = fileSystem;
+    }
+
+    public ClassPath classPath() {
+      return classPath;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (fileSystem != null) {
+        fileSystem.close();
+      }
+    }
+  }
+
+  /** The classes in a package, which are all bound the first time the package is accessed. */
+  private static final class PackageContents {
+    final ImmutableMap<String, ClassSymbol> bySimpleName;
+    final ImmutableMap<ClassSymbol, BytecodeBoundClass> classes;
+
+    PackageContents(
+        ImmutableMap<String, ClassSymbol> bySimpleName,
+        ImmutableMap<ClassSymbol, BytecodeBoundClass> classes) {
+      this.bySimpleName = bySimpleName;
+      this.classes = classes;
+    }
   }
 
   private final Multimap<String, String> packageMap;
   private final Path modulesRoot;
 
-  private final Set<String> loadedPackages = new HashSet<>();
-  private final Table<String, String, ClassSymbol> packageClassesBySimpleName =
-      HashBasedTable.create();
-  private final Map<String, ModuleInfo> moduleMap = new HashMap<>();
-  private final Map<ClassSymbol, BytecodeBoundClass> env = new HashMap<>();
+  private final Map<String, PackageContents> packages = new ConcurrentHashMap<>();
+  private final Map<String, ModuleInfo> moduleMap = new ConcurrentHashMap<>();
+  private final Env<ClassSymbol, BytecodeBoundClass> env =
+      new Env<ClassSymbol, BytecodeBoundClass>() {
+        @Override
+        public @Nullable BytecodeBoundClass get(ClassSymbol sym) {
+          PackageContents contents = initPackage(sym.packageName());
+          return contents != null ? contents.classes.get(sym) : null;
+        }
+      };
 
   public JimageClassBinder(ImmutableMultimap<String, String> packageMap, Path modules) {
     this.packageMap = packageMap;
@@ -117,28 +173,36 @@ public class JimageClassBinder {
       if (path == null) {
         return null;
       }
-      path = path.resolve("module-info.class");
-      result = BytecodeBinder.bindModuleInfo(path.toString(), toByteArrayOrDie(path));
-      moduleMap.put(moduleName, result);
+      Path moduleInfo = path.resolve("module-info.class");
+      result =
+          moduleMap.computeIfAbsent(
+              moduleName,
+              k ->
+                  BytecodeBinder.bindModuleInfo(
+                      moduleInfo.toString(), toByteArrayOrDie(moduleInfo)));
     }
     return result;
   }
 
-  boolean initPackage(String packageName) {
+  /**
+   * Returns the contents of the given package, or {@code null} if there is no such package. Each
+   * package is bound at most once; concurrent lookups of a package that is being bound wait for it.
+   */
+  private @Nullable PackageContents initPackage(String packageName) {
     Collection<String> moduleNames = packageMap.get(packageName);
     if (moduleNames.isEmpty()) {
-      return false;
+      return null;
     }
-    if (!loadedPackages.add(packageName)) {
-      return true;
+    PackageContents contents = packages.get(packageName);
+    if (contents != null) {
+      return contents;
     }
-    Env<ClassSymbol, BytecodeBoundClass> env =
-        new Env<ClassSymbol, BytecodeBoundClass>() {
-          @Override
-          public @Nullable BytecodeBoundClass get(ClassSymbol sym) {
-            return JimageClassBinder.this.env.get(sym);
-          }
-        };
+    return packages.computeIfAbsent(packageName, k -> bindPackage(k, moduleNames));
+  }
+
+  private PackageContents bindPackage(String packageName, Collection<String> moduleNames) {
+    Map<String, ClassSymbol> bySimpleName = new LinkedHashMap<>();
+    Map<ClassSymbol, BytecodeBoundClass> classes = new LinkedHashMap<>();
     for (String moduleName : moduleNames) {
       if (moduleName != null) {
         // TODO(cushon): is this requireNonNull safe?
@@ -152,9 +216,9 @@ public class JimageClassBinder {
             }
             String binaryName = modulePath.relativize(path).toString();
             binaryName = binaryName.substring(0, binaryName.length() - ".class".length());
-            ClassSymbol sym = new ClassSymbol(binaryName);
-            packageClassesBySimpleName.put(packageName, sym.simpleName(), sym);
-            JimageClassBinder.this.env.put(
+            ClassSymbol sym = ClassSymbol.intern(binaryName);
+            bySimpleName.put(sym.simpleName(), sym);
+            classes.put(
                 sym, new BytecodeBoundClass(sym, toByteArrayOrDie(path), env, path.toString()));
           }
         } catch (IOException e) {
@@ -162,7 +226,7 @@ public class JimageClassBinder {
         }
       }
     }
-    return true;
+    return new PackageContents(ImmutableMap.copyOf(bySimpleName), ImmutableMap.copyOf(classes));
   }
 
   private static Supplier<byte[]> toByteArrayOrDie(Path path) {
@@ -216,36 +280,32 @@ public class JimageClassBinder {
     @Override
     public @Nullable PackageScope lookupPackage(Iterable<String> name) {
       String packageName = Joiner.on('/').join(name);
-      if (!initPackage(packageName)) {
+      PackageContents contents = initPackage(packageName);
+      if (contents == null) {
         return null;
       }
       return new PackageScope() {
         @Override
         public @Nullable LookupResult lookup(LookupKey lookupKey) {
-          ClassSymbol sym = packageClassesBySimpleName.get(packageName, lookupKey.first().value());
+          ClassSymbol sym = contents.bySimpleName.get(lookupKey.first().value());
           return sym != null ? new LookupResult(sym, lookupKey) : null;
         }
 
         @Override
         public Iterable<ClassSymbol> classes() {
-          return packageClassesBySimpleName.row(packageName).values();
+          return contents.bySimpleName.values();
         }
       };
     }
   }
 
-  private class JimageClassPath implements ClassPath {
+  class JimageClassPath implements ClassPath {
 
     final TopLevelIndex index = new JimageTopLevelIndex();
 
     @Override
     public Env<ClassSymbol, BytecodeBoundClass> env() {
-      return new Env<ClassSymbol, BytecodeBoundClass>() {
-        @Override
-        public @Nullable BytecodeBoundClass get(ClassSymbol sym) {
-          return initPackage(sym.packageName()) ? env.get(sym) : null;
-        }
-      };
+      return env;
     }
 
     @Override
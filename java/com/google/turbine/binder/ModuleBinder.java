@@ -50,6 +50,7 @@ import com.google.turbine.tree.Tree.ModRequires;
 import com.google.turbine.tree.Tree.ModUses;
 import com.google.turbine.tree.TurbineModifier;
 import com.google.turbine.type.AnnoInfo;
+import com.google.turbine.types.Hierarchy;
 import java.util.Optional;
 
 /** Binding pass for modules. */
@@ -96,6 +97,7 @@ public class ModuleBinder {
             scope,
             /* values= */ new SimpleEnv<>(ImmutableMap.of()),
             env,
+            Hierarchy.create(env),
             log);
     ImmutableList.Builder<AnnoInfo> annoInfos = ImmutableList.builder();
     for (Tree.Anno annoTree : module.module().annos()) {
@@ -19,7 +19,6 @@ package com.google.turbine.binder;
 import static java.util.Objects.requireNonNull;
 
 import com.google.auto.value.AutoValue;
-import com.google.common.base.Joiner;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Supplier;
 import com.google.common.base.Throwables;
@@ -27,12 +26,16 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Sets;
 import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.Binder.ProcessorStatistics;
 import com.google.turbine.binder.Binder.Statistics;
 import com.google.turbine.binder.bound.SourceTypeBoundClass;
 import com.google.turbine.binder.bound.TypeBoundClass;
 import com.google.turbine.binder.bound.TypeBoundClass.FieldInfo;
+import com.google.turbine.binder.bytecode.BytecodeBoundClass;
+import com.google.turbine.binder.env.CachingEnv;
 import com.google.turbine.binder.env.CompoundEnv;
 import com.google.turbine.binder.env.Env;
 import com.google.turbine.binder.env.SimpleEnv;
@@ -48,28 +51,36 @@ import com.google.turbine.processing.TurbineMessager;
 import com.google.turbine.processing.TurbineProcessingEnvironment;
 import com.google.turbine.processing.TurbineRoundEnvironment;
 import com.google.turbine.processing.TurbineTypes;
+import com.google.turbine.profile.Metrics;
+import com.google.turbine.profile.Profiler;
+import com.google.turbine.profile.ThreadCost;
 import com.google.turbine.tree.Tree.CompUnit;
 import com.google.turbine.type.AnnoInfo;
+import com.google.turbine.types.Hierarchy;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
-import java.util.regex.Pattern;
+import javax.annotation.processing.Filer;
 import javax.annotation.processing.Processor;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import org.jspecify.annotations.Nullable;
 
@@ -83,7 +94,9 @@ public class Processing {
       ProcessorInfo processorInfo,
       ClassPath bootclasspath,
       BindingResult result,
-      Optional<String> moduleVersion) {
+      Optional<String> moduleVersion,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool) {
 
     Set<String> seen = new HashSet<>();
     for (CompUnit u : initialSources) {
@@ -107,27 +120,29 @@ public class Processing {
             },
             processorInfo.loader());
 
+    // the classpath is the same in every round, so lookups in it are cached across rounds
+    Env<ClassSymbol, BytecodeBoundClass> classPathEnv = CachingEnv.of(result.classPathEnv());
     Env<ClassSymbol, SourceTypeBoundClass> tenv = new SimpleEnv<>(result.units());
     CompoundEnv<ClassSymbol, TypeBoundClass> env =
-        CompoundEnv.<ClassSymbol, TypeBoundClass>of(result.classPathEnv()).append(tenv);
+        CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv);
     ModelFactory factory = new ModelFactory(env, processorInfo.loader(), result.tli());
 
     Map<String, byte[]> statistics = new LinkedHashMap<>();
 
+    Timers timers = new Timers(profiler);
     TurbineTypes turbineTypes = new TurbineTypes(factory);
     TurbineProcessingEnvironment processingEnv =
         new TurbineProcessingEnvironment(
-            filer,
-            turbineTypes,
-            new TurbineElements(factory, turbineTypes),
+            timers.counting(filer),
+            timers.counting(turbineTypes),
+            timers.counting(new TurbineElements(factory, turbineTypes)),
             new TurbineMessager(factory, log),
             processorInfo.options(),
             processorInfo.sourceVersion(),
             processorInfo.loader(),
             statistics);
-    Timers timers = new Timers();
     for (Processor processor : processorInfo.processors()) {
-      try (Timers.Timer unused = timers.start(processor)) {
+      try (Timers.Timer unused = timers.start(processor, "init")) {
         processor.init(processingEnv);
       } catch (Throwable t) {
         logProcessorCrash(log, processor, t);
@@ -135,18 +150,17 @@ public class Processing {
       }
     }
 
-    ImmutableMap<Processor, SupportedAnnotationTypes> wanted =
-        initializeSupportedAnnotationTypes(processorInfo);
+    SupportedAnnotationIndex wanted = SupportedAnnotationIndex.create(processorInfo.processors());
 
     Set<ClassSymbol> allSymbols = new HashSet<>();
 
-    ImmutableList.Builder<CompUnit> units =
-        ImmutableList.<CompUnit>builder().addAll(initialSources);
+    Binder.BoundRound bound = Binder.BoundRound.create(log, initialSources, result);
 
     Set<Processor> toRun = new LinkedHashSet<>();
 
     boolean errorRaised = false;
 
+    int round = 0;
     while (true) {
       ImmutableSet<ClassSymbol> syms =
           Sets.difference(result.units().keySet(), allSymbols).immutableCopy();
@@ -154,60 +168,74 @@ public class Processing {
       if (syms.isEmpty()) {
         break;
       }
-      ImmutableSetMultimap<ClassSymbol, Symbol> allAnnotations = getAllAnnotations(env, syms);
-      TurbineRoundEnvironment roundEnv = null;
-      for (Map.Entry<Processor, SupportedAnnotationTypes> e : wanted.entrySet()) {
-        Processor processor = e.getKey();
-        SupportedAnnotationTypes supportedAnnotationTypes = e.getValue();
-        Set<TypeElement> annotations = new HashSet<>();
-        boolean run = supportedAnnotationTypes.everything() || toRun.contains(processor);
+      round++;
+      try (Profiler.Span roundSpan =
+          profiler.span(
+              "round " + round,
+              "processing",
+              ImmutableMap.of("classes", String.valueOf(syms.size())))) {
+        ImmutableSetMultimap<ClassSymbol, Symbol> allAnnotations =
+            getAllAnnotations(env, result.hierarchy(), syms, pool);
+        Map<Processor, Set<TypeElement>> supported = new HashMap<>();
         for (ClassSymbol a : allAnnotations.keySet()) {
-          if (supportedAnnotationTypes.everything()
-              || supportedAnnotationTypes.pattern().matcher(a.toString()).matches()) {
-            annotations.add(factory.typeElement(a));
-            run = true;
+          for (Processor processor : wanted.processors(a)) {
+            supported.computeIfAbsent(processor, k -> new HashSet<>()).add(factory.typeElement(a));
           }
         }
-        if (run) {
-          toRun.add(processor);
-          if (roundEnv == null) {
-            roundEnv =
-                new TurbineRoundEnvironment(factory, syms, false, errorRaised, allAnnotations);
-          }
-          try (Timers.Timer unused = timers.start(processor)) {
-            // discard the result of Processor#process because 'claiming' annotations is a bad idea
-            // TODO(cushon): consider disallowing this, or reporting a diagnostic
-            processor.process(annotations, roundEnv);
-          } catch (Throwable t) {
-            logProcessorCrash(log, processor, t);
-            return null;
+        TurbineRoundEnvironment roundEnv = null;
+        for (Processor processor : processorInfo.processors()) {
+          Set<TypeElement> annotations = supported.getOrDefault(processor, new HashSet<>());
+          boolean run =
+              wanted.supportsEverything(processor)
+                  || toRun.contains(processor)
+                  || !annotations.isEmpty();
+          if (run) {
+            toRun.add(processor);
+            if (roundEnv == null) {
+              roundEnv =
+                  new TurbineRoundEnvironment(factory, syms, false, errorRaised, allAnnotations);
+            }
+            try (Timers.Timer unused = timers.start(processor, "round " + round)) {
+              // discard the result of Processor#process because 'claiming' annotations is a
+              // bad idea
+              // TODO(cushon): consider disallowing this, or reporting a diagnostic
+              processor.process(annotations, roundEnv);
+            } catch (Throwable t) {
+              logProcessorCrash(log, processor, t);
+              return null;
+            }
           }
         }
+        Collection<SourceFile> files = filer.finishRound();
+        if (files.isEmpty()) {
+          break;
+        }
+        ImmutableList.Builder<CompUnit> generated = ImmutableList.builder();
+        for (SourceFile file : files) {
+          generated.add(Parser.parse(file));
+        }
+        errorRaised = log.errorRaised();
+        if (errorRaised) {
+          break;
+        }
+        log.clear();
+        bound =
+            Binder.bindRound(
+                log,
+                bound,
+                generated.build(),
+                filer.generatedSources(),
+                filer.generatedClasses(),
+                classpath,
+                bootclasspath,
+                moduleVersion,
+                profiler,
+                pool);
+        result = bound.result();
+        tenv = new SimpleEnv<>(result.units());
+        env = CompoundEnv.<ClassSymbol, TypeBoundClass>of(classPathEnv).append(tenv);
+        factory.round(env, result.tli(), bound.bound());
       }
-      Collection<SourceFile> files = filer.finishRound();
-      if (files.isEmpty()) {
-        break;
-      }
-      for (SourceFile file : files) {
-        units.add(Parser.parse(file));
-      }
-      errorRaised = log.errorRaised();
-      if (errorRaised) {
-        break;
-      }
-      log.clear();
-      result =
-          Binder.bind(
-              log,
-              units.build(),
-              filer.generatedSources(),
-              filer.generatedClasses(),
-              classpath,
-              bootclasspath,
-              moduleVersion);
-      tenv = new SimpleEnv<>(result.units());
-      env = CompoundEnv.<ClassSymbol, TypeBoundClass>of(result.classPathEnv()).append(tenv);
-      factory.round(env, result.tli());
     }
 
     TurbineRoundEnvironment roundEnv = null;
@@ -221,7 +249,7 @@ public class Processing {
                 errorRaised,
                 ImmutableSetMultimap.of());
       }
-      try (Timers.Timer unused = timers.start(processor)) {
+      try (Timers.Timer unused = timers.start(processor, "final round")) {
         processor.process(ImmutableSet.of(), roundEnv);
       } catch (Throwable t) {
         logProcessorCrash(log, processor, t);
@@ -234,18 +262,23 @@ public class Processing {
       // processors aren't supposed to generate sources on the final processing round, but javac
       // tolerates it anyway
       // TODO(cushon): consider disallowing this, or reporting a diagnostic
+      ImmutableList.Builder<CompUnit> generated = ImmutableList.builder();
       for (SourceFile file : files) {
-        units.add(Parser.parse(file));
+        generated.add(Parser.parse(file));
       }
-      result =
-          Binder.bind(
+      bound =
+          Binder.bindRound(
               log,
-              units.build(),
+              bound,
+              generated.build(),
               filer.generatedSources(),
               filer.generatedClasses(),
               classpath,
               bootclasspath,
-              moduleVersion);
+              moduleVersion,
+              profiler,
+              pool);
+      result = bound.result();
       if (log.anyErrors()) {
         return null;
       }
@@ -261,43 +294,13 @@ public class Processing {
     }
 
     result =
-        result.withStatistics(Statistics.create(timers.build(), ImmutableMap.copyOf(statistics)));
+        result.withStatistics(
+            Statistics.create(
+                timers.build(), ImmutableMap.copyOf(statistics), timers.processorStatistics()));
 
     return result;
   }
 
-  private static ImmutableMap<Processor, SupportedAnnotationTypes>
-      initializeSupportedAnnotationTypes(ProcessorInfo processorInfo) {
-    ImmutableMap.Builder<Processor, SupportedAnnotationTypes> result = ImmutableMap.builder();
-    for (Processor processor : processorInfo.processors()) {
-      result.put(processor, SupportedAnnotationTypes.create(processor));
-    }
-    return result.buildOrThrow();
-  }
-
-  @AutoValue
-  abstract static class SupportedAnnotationTypes {
-
-    abstract boolean everything();
-
-    abstract Pattern pattern();
-
-    static SupportedAnnotationTypes create(Processor processor) {
-      List<String> patterns = new ArrayList<>();
-      boolean everything = false;
-      for (String supportedAnnotationType : processor.getSupportedAnnotationTypes()) {
-        if (supportedAnnotationType.equals("*")) {
-          everything = true;
-        } else {
-          // TODO(b/139026291): this handling of getSupportedAnnotationTypes isn't correct
-          patterns.add(supportedAnnotationType);
-        }
-      }
-      return new AutoValue_Processing_SupportedAnnotationTypes(
-          everything, Pattern.compile(Joiner.on('|').join(patterns)));
-    }
-  }
-
   private static void logProcessorCrash(TurbineLog log, Processor processor, Throwable t) {
     log.diagnostic(
         Diagnostic.Kind.ERROR,
@@ -306,48 +309,76 @@ public class Processing {
             processor.getClass().getCanonicalName(), Throwables.getStackTraceAsString(t)));
   }
 
-  /** Returns a map from annotations present in the compilation to the annotated elements. */
+  /**
+   * Returns a map from annotations present in the given classes to the annotated elements. If
+   * {@code pool} is non-null the classes are scanned in parallel on it.
+   */
   private static ImmutableSetMultimap<ClassSymbol, Symbol> getAllAnnotations(
-      Env<ClassSymbol, TypeBoundClass> env, Iterable<ClassSymbol> syms) {
+      Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
+      ImmutableSet<ClassSymbol> syms,
+      @Nullable ForkJoinPool pool) {
+    Map<ClassSymbol, Boolean> inherited = new ConcurrentHashMap<>();
+    SimpleEnv<ClassSymbol, ImmutableSetMultimap<ClassSymbol, Symbol>> annotations =
+        Binder.bindEach(syms, pool, sym -> getAnnotations(env, hierarchy, inherited, sym));
+    // merge the results in the iteration order of syms, so the result is deterministic
     ImmutableSetMultimap.Builder<ClassSymbol, Symbol> result = ImmutableSetMultimap.builder();
-    for (ClassSymbol sym : syms) {
-      TypeBoundClass info = env.getNonNull(sym);
-      for (AnnoInfo annoInfo : info.annotations()) {
-        if (sym.simpleName().equals("package-info")) {
-          addAnno(result, annoInfo, sym.owner());
-        } else {
-          addAnno(result, annoInfo, sym);
-        }
+    for (ImmutableSetMultimap<ClassSymbol, Symbol> classAnnotations :
+        annotations.asMap().values()) {
+      result.putAll(classAnnotations);
+    }
+    return result.build();
+  }
+
+  /** Returns a map from annotations present in the given class to the annotated elements. */
+  private static ImmutableSetMultimap<ClassSymbol, Symbol> getAnnotations(
+      Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
+      Map<ClassSymbol, Boolean> inherited,
+      ClassSymbol sym) {
+    ImmutableSetMultimap.Builder<ClassSymbol, Symbol> result = ImmutableSetMultimap.builder();
+    TypeBoundClass info = env.getNonNull(sym);
+    for (AnnoInfo annoInfo : info.annotations()) {
+      if (sym.simpleName().equals("package-info")) {
+        addAnno(result, annoInfo, sym.owner());
+      } else {
+        addAnno(result, annoInfo, sym);
       }
+    }
+    if (info.superclass() != null) {
       for (ClassSymbol inheritedAnno :
-          inheritedAnnotations(new HashSet<>(), info.superclass(), env)) {
+          inheritedAnnotations(hierarchy.superclasses(info.superclass()), env, inherited)) {
         result.put(inheritedAnno, sym);
       }
-      for (TypeBoundClass.MethodInfo method : info.methods()) {
-        for (AnnoInfo annoInfo : method.annotations()) {
-          addAnno(result, annoInfo, method.sym());
-        }
-        for (TypeBoundClass.ParamInfo param : method.parameters()) {
-          for (AnnoInfo annoInfo : param.annotations()) {
-            addAnno(result, annoInfo, param.sym());
-          }
-        }
+    }
+    for (TypeBoundClass.MethodInfo method : info.methods()) {
+      for (AnnoInfo annoInfo : method.annotations()) {
+        addAnno(result, annoInfo, method.sym());
       }
-      for (FieldInfo field : info.fields()) {
-        for (AnnoInfo annoInfo : field.annotations()) {
-          addAnno(result, annoInfo, field.sym());
+      for (TypeBoundClass.ParamInfo param : method.parameters()) {
+        for (AnnoInfo annoInfo : param.annotations()) {
+          addAnno(result, annoInfo, param.sym());
         }
       }
     }
+    for (FieldInfo field : info.fields()) {
+      for (AnnoInfo annoInfo : field.annotations()) {
+        addAnno(result, annoInfo, field.sym());
+      }
+    }
     return result.build();
   }
 
-  // TODO(cushon): consider memoizing this (or isAnnotationInherited) if they show up in profiles
+  /**
+   * Returns the {@code @Inherited} annotations of the given superclasses. {@code inherited} caches
+   * whether each annotation is {@code @Inherited}.
+   */
   private static ImmutableSet<ClassSymbol> inheritedAnnotations(
-      Set<ClassSymbol> seen, @Nullable ClassSymbol sym, Env<ClassSymbol, TypeBoundClass> env) {
+      ImmutableSet<ClassSymbol> superclasses,
+      Env<ClassSymbol, TypeBoundClass> env,
+      Map<ClassSymbol, Boolean> inherited) {
     ImmutableSet.Builder<ClassSymbol> result = ImmutableSet.builder();
-    ClassSymbol curr = sym;
-    while (curr != null && seen.add(curr)) {
+    for (ClassSymbol curr : superclasses) {
       TypeBoundClass info = env.get(curr);
       if (info == null) {
         break;
@@ -357,11 +388,15 @@ public class Processing {
         if (annoSym == null) {
           continue;
         }
-        if (isAnnotationInherited(env, annoSym)) {
+        Boolean isInherited = inherited.get(annoSym);
+        if (isInherited == null) {
+          isInherited = isAnnotationInherited(env, annoSym);
+          inherited.put(annoSym, isInherited);
+        }
+        if (isInherited) {
           result.add(annoSym);
         }
       }
-      curr = info.superclass();
     }
     return result.build();
   }
@@ -512,39 +547,136 @@ public class Processing {
     }
   }
 
-  private static class Timers {
-    private final Map<Class<?>, Stopwatch> processorTimers = new LinkedHashMap<>();
+  /**
+   * Measures the cost of each annotation processor, and counts the calls it makes to the processing
+   * environment, see {@link ProcessorStatistics}.
+   */
+  private static class Timers extends ApiCallCounter {
+    private final Map<Class<?>, ProcessorTimer> processorTimers = new LinkedHashMap<>();
+    private final Profiler profiler;
+
+    /** The processor that is currently running, which calls to the environment are counted for. */
+    private volatile @Nullable ProcessorTimer current;
+
+    Timers(Profiler profiler) {
+      this.profiler = profiler;
+    }
+
+    /** The cost of one processor class, summed over its instances. */
+    private static class ProcessorTimer {
+      final Stopwatch sw = Stopwatch.createUnstarted();
+      final Map<String, Metrics.Phase> phases = new LinkedHashMap<>();
+      final LongAdder[] apiCalls = new LongAdder[Api.values().length];
+      final LongAdder filesGenerated = new LongAdder();
+
+      ProcessorTimer() {
+        for (int i = 0; i < apiCalls.length; i++) {
+          apiCalls[i] = new LongAdder();
+        }
+      }
+    }
 
-    Timer start(Processor processor) {
+    Timer start(Processor processor, String phase) {
       Class<? extends Processor> clazz = processor.getClass();
-      Stopwatch sw = processorTimers.get(clazz);
-      if (sw == null) {
-        sw = Stopwatch.createUnstarted();
-        processorTimers.put(clazz, sw);
+      ProcessorTimer timer = processorTimers.get(clazz);
+      if (timer == null) {
+        timer = new ProcessorTimer();
+        processorTimers.put(clazz, timer);
       }
-      sw.start();
-      return new Timer(sw);
+      timer.sw.start();
+      current = timer;
+      return new Timer(
+          timer,
+          phase,
+          profiler.span(clazz.getName(), "processor", ImmutableMap.of("phase", phase)));
     }
 
-    private static class Timer implements AutoCloseable {
+    private class Timer implements AutoCloseable {
 
-      private final Stopwatch sw;
+      private final ProcessorTimer timer;
+      private final String phase;
+      private final Profiler.Span span;
+      private final long startNanos = System.nanoTime();
+      private final long startCpuNanos = ThreadCost.cpuNanos();
+      private final long startAllocatedBytes = ThreadCost.allocatedBytes();
 
-      public Timer(Stopwatch sw) {
-        this.sw = sw;
+      public Timer(ProcessorTimer timer, String phase, Profiler.Span span) {
+        this.timer = timer;
+        this.phase = phase;
+        this.span = span;
       }
 
       @Override
       public void close() {
-        sw.stop();
+        long allocatedBytes = ThreadCost.allocatedBytes();
+        Metrics.Phase cost =
+            Metrics.Phase.create(
+                Duration.ofNanos(System.nanoTime() - startNanos),
+                Duration.ofNanos(ThreadCost.cpuNanos() - startCpuNanos),
+                allocatedBytes >= 0 ? allocatedBytes - startAllocatedBytes : -1,
+                /* count= */ 1);
+        timer.phases.merge(phase, cost, Metrics.Phase::plus);
+        current = null;
+        timer.sw.stop();
+        span.close();
       }
     }
 
+    @Override
+    void count(Api api) {
+      ProcessorTimer timer = current;
+      if (timer != null) {
+        timer.apiCalls[api.ordinal()].increment();
+        if (api.createsFile()) {
+          timer.filesGenerated.increment();
+        }
+      }
+    }
+
+    /**
+     * Returns a wrapper for {@code delegate} that counts the calls made to it while a processor is
+     * running, or {@code delegate} itself if the compilation doesn't collect metrics.
+     */
+    Filer counting(Filer delegate) {
+      return profiler.collectsMetrics() ? filer(delegate) : delegate;
+    }
+
+    /** See {@link #counting(Filer)}. */
+    Types counting(Types delegate) {
+      return profiler.collectsMetrics() ? types(delegate) : delegate;
+    }
+
+    /** See {@link #counting(Filer)}. */
+    Elements counting(Elements delegate) {
+      return profiler.collectsMetrics() ? elements(delegate) : delegate;
+    }
+
     ImmutableMap<String, Duration> build() {
       ImmutableMap.Builder<String, Duration> result = ImmutableMap.builder();
-      for (Map.Entry<Class<?>, Stopwatch> e : processorTimers.entrySet()) {
+      for (Map.Entry<Class<?>, ProcessorTimer> e : processorTimers.entrySet()) {
         // requireNonNull is safe, barring bizarre processor implementations (e.g., anonymous class)
-        result.put(requireNonNull(e.getKey().getCanonicalName()), e.getValue().elapsed());
+        result.put(requireNonNull(e.getKey().getCanonicalName()), e.getValue().sw.elapsed());
+      }
+      return result.buildOrThrow();
+    }
+
+    ImmutableMap<String, ProcessorStatistics> processorStatistics() {
+      ImmutableMap.Builder<String, ProcessorStatistics> result = ImmutableMap.builder();
+      for (Map.Entry<Class<?>, ProcessorTimer> e : processorTimers.entrySet()) {
+        ProcessorTimer timer = e.getValue();
+        ImmutableSortedMap.Builder<String, Long> apiCalls = ImmutableSortedMap.naturalOrder();
+        for (Api api : Api.values()) {
+          long calls = timer.apiCalls[api.ordinal()].sum();
+          if (calls > 0) {
+            apiCalls.put(api.displayName(), calls);
+          }
+        }
+        result.put(
+            requireNonNull(e.getKey().getCanonicalName()),
+            ProcessorStatistics.create(
+                ImmutableMap.copyOf(timer.phases),
+                timer.filesGenerated.sum(),
+                apiCalls.buildOrThrow()));
       }
       return result.buildOrThrow();
     }
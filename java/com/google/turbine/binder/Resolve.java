@@ -28,9 +28,10 @@ import com.google.turbine.binder.lookup.ImportScope.ResolveFunction;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.model.TurbineVisibility;
 import com.google.turbine.tree.Tree;
+import com.google.turbine.types.Hierarchy;
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
 import org.jspecify.annotations.Nullable;
 
 /** Qualified name resolution. */
@@ -46,41 +47,13 @@ public final class Resolve {
       @Nullable ClassSymbol origin,
       ClassSymbol sym,
       Tree.Ident simpleName) {
-    return resolve(env, origin, sym, simpleName, new HashSet<>());
+    return Hierarchy.memberType(env, origin, sym, simpleName.value());
   }
 
-  private static @Nullable ClassSymbol resolve(
-      Env<ClassSymbol, ? extends HeaderBoundClass> env,
-      @Nullable ClassSymbol origin,
-      ClassSymbol sym,
-      Tree.Ident simpleName,
-      Set<ClassSymbol> seen) {
-    ClassSymbol result;
-    if (!seen.add(sym)) {
-      // Optimize multiple-interface-inheritance, and don't get stuck in cycles.
-      return null;
-    }
-    HeaderBoundClass bound = env.get(sym);
-    if (bound == null) {
-      return null;
-    }
-    result = bound.children().get(simpleName.value());
-    if (result != null) {
-      return result;
-    }
-    if (bound.superclass() != null) {
-      result = resolve(env, origin, bound.superclass(), simpleName, seen);
-      if (result != null && visible(origin, result, env.getNonNull(result))) {
-        return result;
-      }
-    }
-    for (ClassSymbol i : bound.interfaces()) {
-      result = resolve(env, origin, i, simpleName, seen);
-      if (result != null && visible(origin, result, env.getNonNull(result))) {
-        return result;
-      }
-    }
-    return null;
+  /** A {@link #resolve} that uses the given hierarchy's cache of member types. */
+  public static @Nullable ClassSymbol resolve(
+      Hierarchy hierarchy, @Nullable ClassSymbol origin, ClassSymbol sym, Tree.Ident simpleName) {
+    return hierarchy.memberType(origin, sym, simpleName.value());
   }
 
   /**
@@ -89,11 +62,27 @@ public final class Resolve {
    */
   public static ResolveFunction resolveFunction(
       Env<ClassSymbol, ? extends HeaderBoundClass> env, @Nullable ClassSymbol origin) {
+    return resolveFunction(env, origin, (base, name) -> resolve(env, origin, base, name));
+  }
+
+  /**
+   * Partially applied {@link #resolve}, returning a {@link ResolveFunction} that uses the given
+   * hierarchy's cache of member types.
+   */
+  public static ResolveFunction resolveFunction(Hierarchy hierarchy, @Nullable ClassSymbol origin) {
+    return resolveFunction(
+        hierarchy.env(), origin, (base, name) -> resolve(hierarchy, origin, base, name));
+  }
+
+  private static ResolveFunction resolveFunction(
+      Env<ClassSymbol, ? extends HeaderBoundClass> env,
+      @Nullable ClassSymbol origin,
+      BiFunction<ClassSymbol, Tree.Ident, @Nullable ClassSymbol> resolve) {
     return new ResolveFunction() {
       @Override
       public @Nullable ClassSymbol resolveOne(ClassSymbol base, Tree.Ident name) {
         try {
-          return Resolve.resolve(env, origin, base, name);
+          return resolve.apply(base, name);
         } catch (LazyBindingError e) {
           // This is only used for non-canonical import resolution, and if we discover a cycle
           // while processing imports we want to continue and only error out if the symbol is
@@ -149,7 +138,7 @@ public final class Resolve {
         return true;
       case PROTECTED:
       case PACKAGE:
-        return Objects.equals(sym.packageName(), packagename);
+        return packagename != null && sym.isInPackage(packagename);
       case PRIVATE:
         return false;
     }
@@ -208,12 +197,6 @@ public final class Resolve {
     return visible(origin, info.sym().owner(), info.access());
   }
 
-  /** Is the given type visible when inherited into class origin? */
-  private static boolean visible(
-      @Nullable ClassSymbol origin, ClassSymbol sym, HeaderBoundClass info) {
-    return visible(origin, sym, info.access());
-  }
-
   private static boolean visible(@Nullable ClassSymbol origin, ClassSymbol owner, int access) {
     TurbineVisibility visibility = TurbineVisibility.fromAccess(access);
     switch (visibility) {
@@ -223,7 +206,7 @@ public final class Resolve {
       case PACKAGE:
         // origin can be null if we aren't in a package scope (e.g. we're processing a module
         // declaration), in which case package-visible members aren't visible
-        return origin != null && Objects.equals(owner.packageName(), origin.packageName());
+        return origin != null && owner.inSamePackageAs(origin);
       case PRIVATE:
         // Private members of lexically enclosing declarations are not handled,
         // since this visibility check is only used for inherited members.
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.turbine.binder.sym.ClassSymbol;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import javax.annotation.processing.Processor;
+import javax.lang.model.SourceVersion;
+
+/**
+ * An index from annotation types to the processors that support them, see {@link
+ * Processor#getSupportedAnnotationTypes}.
+ *
+ * <p>Supported types that are names or prefix wildcards ({@code com.foo.*}) are looked up by name,
+ * so the cost of finding the processors for an annotation doesn't grow with the number of
+ * processors. The result for each annotation is cached.
+ */
+final class SupportedAnnotationIndex {
+
+  static SupportedAnnotationIndex create(ImmutableList<Processor> processors) {
+    ImmutableSet.Builder<Processor> everything = ImmutableSet.builder();
+    ImmutableListMultimap.Builder<String, Processor> names = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<String, Processor> prefixes = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<Pattern, Processor> patterns = ImmutableListMultimap.builder();
+    for (Processor processor : processors) {
+      for (String supportedAnnotationType : processor.getSupportedAnnotationTypes()) {
+        if (supportedAnnotationType.equals("*")) {
+          everything.add(processor);
+          continue;
+        }
+        // annotation types are matched by name, regardless of the module they are in
+        String name = supportedAnnotationType.substring(supportedAnnotationType.indexOf('/') + 1);
+        if (name.endsWith(".*") && SourceVersion.isName(name.substring(0, name.length() - 2))) {
+          prefixes.put(name.substring(0, name.length() - 2), processor);
+        } else if (SourceVersion.isName(name)) {
+          names.put(name, processor);
+        } else {
+          // TODO(b/139026291): this handling of getSupportedAnnotationTypes isn't correct
+          patterns.put(Pattern.compile(supportedAnnotationType), processor);
+        }
+      }
+    }
+    return new SupportedAnnotationIndex(
+        processors,
+        everything.build(),
+        names.build(),
+        prefixes.build(),
+        patterns.build());
+  }
+
+  private final ImmutableList<Processor> processors;
+  private final ImmutableSet<Processor> everything;
+  private final ImmutableListMultimap<String, Processor> names;
+  private final ImmutableListMultimap<String, Processor> prefixes;
+  private final ImmutableListMultimap<Pattern, Processor> patterns;
+  private final Map<ClassSymbol, ImmutableSet<Processor>> cache = new HashMap<>();
+
+  private SupportedAnnotationIndex(
+      ImmutableList<Processor> processors,
+      ImmutableSet<Processor> everything,
+      ImmutableListMultimap<String, Processor> names,
+      ImmutableListMultimap<String, Processor> prefixes,
+      ImmutableListMultimap<Pattern, Processor> patterns) {
+    this.processors = processors;
+    this.everything = everything;
+    this.names = names;
+    this.prefixes = prefixes;
+    this.patterns = patterns;
+  }
+
+  /** Returns true if the processor supports all annotation types, i.e. {@code "*"}. */
+  boolean supportsEverything(Processor processor) {
+    return everything.contains(processor);
+  }
+
+  /**
+   * Returns the processors that support the given annotation type, in the order the processors
+   * were discovered.
+   */
+  ImmutableSet<Processor> processors(ClassSymbol annotation) {
+    ImmutableSet<Processor> result = cache.get(annotation);
+    if (result == null) {
+      result = lookup(annotation);
+      cache.put(annotation, result);
+    }
+    return result;
+  }
+
+  private ImmutableSet<Processor> lookup(ClassSymbol annotation) {
+    Set<Processor> found = new HashSet<>(everything);
+    // supported types are canonical names, so the separators for packages and nested classes are
+    // both '.'
+    String name = annotation.binaryName().replace('/', '.').replace('$', '.');
+    found.addAll(names.get(name));
+    for (int i = name.indexOf('.'); i != -1; i = name.indexOf('.', i + 1)) {
+      found.addAll(prefixes.get(name.substring(0, i)));
+    }
+    if (!patterns.isEmpty()) {
+      String binaryName = annotation.toString();
+      for (Map.Entry<Pattern, Processor> e : patterns.entries()) {
+        if (e.getKey().matcher(binaryName).matches()) {
+          found.add(e.getValue());
+        }
+      }
+    }
+    if (found.isEmpty()) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet.Builder<Processor> result = ImmutableSet.builder();
+    for (Processor processor : processors) {
+      if (found.contains(processor)) {
+        result.add(processor);
+      }
+    }
+    return result.build();
+  }
+}
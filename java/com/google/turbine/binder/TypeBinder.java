@@ -61,6 +61,7 @@ import com.google.turbine.type.AnnoInfo;
 import com.google.turbine.type.Type;
 import com.google.turbine.type.Type.IntersectionTy;
 import com.google.turbine.types.Deannotate;
+import com.google.turbine.types.Hierarchy;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -115,17 +116,20 @@ public class TypeBinder {
   private static class ClassMemberScope implements Scope {
     private final ClassSymbol sym;
     private final Env<ClassSymbol, HeaderBoundClass> env;
+    private final Hierarchy hierarchy;
 
-    public ClassMemberScope(ClassSymbol sym, Env<ClassSymbol, HeaderBoundClass> env) {
+    public ClassMemberScope(
+        ClassSymbol sym, Env<ClassSymbol, HeaderBoundClass> env, Hierarchy hierarchy) {
       this.sym = sym;
       this.env = env;
+      this.hierarchy = hierarchy;
     }
 
     @Override
     public @Nullable LookupResult lookup(LookupKey lookup) {
       ClassSymbol curr = sym;
       while (curr != null) {
-        Symbol result = Resolve.resolve(env, sym, curr, lookup.first());
+        Symbol result = Resolve.resolve(hierarchy, sym, curr, lookup.first());
         if (result != null) {
           return new LookupResult(result, lookup);
         }
@@ -144,23 +148,27 @@ public class TypeBinder {
   public static SourceTypeBoundClass bind(
       TurbineLogWithSource log,
       Env<ClassSymbol, HeaderBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       SourceHeaderBoundClass base) {
-    return new TypeBinder(log, env, sym, base).bind();
+    return new TypeBinder(log, env, hierarchy, sym, base).bind();
   }
 
   private final TurbineLogWithSource log;
   private final Env<ClassSymbol, HeaderBoundClass> env;
+  private final Hierarchy hierarchy;
   private final ClassSymbol owner;
   private final SourceHeaderBoundClass base;
 
   private TypeBinder(
       TurbineLogWithSource log,
       Env<ClassSymbol, HeaderBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol owner,
       SourceHeaderBoundClass base) {
     this.log = log;
     this.env = env;
+    this.hierarchy = hierarchy;
     this.owner = owner;
     this.base = base;
   }
@@ -173,10 +181,10 @@ public class TypeBinder {
     // once the signature is fully determined.
     CompoundScope enclosingScope =
         base.scope()
-            .toScope(Resolve.resolveFunction(env, owner))
+            .toScope(Resolve.resolveFunction(hierarchy, owner))
             .append(new SingletonScope(base.decl().name().value(), owner));
     if (base.owner() != null) {
-      enclosingScope = enclosingScope.append(new ClassMemberScope(base.owner(), env));
+      enclosingScope = enclosingScope.append(new ClassMemberScope(base.owner(), env, hierarchy));
     }
 
     ImmutableList<AnnoInfo> annotations = bindAnnotations(enclosingScope, base.decl().annos());
@@ -248,9 +256,9 @@ public class TypeBinder {
 
     CompoundScope scope =
         base.scope()
-            .toScope(Resolve.resolveFunction(env, owner))
+            .toScope(Resolve.resolveFunction(hierarchy, owner))
             .append(new SingletonScope(base.decl().name().value(), owner))
-            .append(new ClassMemberScope(owner, env));
+            .append(new ClassMemberScope(owner, env, hierarchy));
 
     SyntheticMethods syntheticMethods = new SyntheticMethods();
 
@@ -892,7 +900,7 @@ public class TypeBinder {
   }
 
   private @Nullable ClassSymbol resolveNext(ClassSymbol sym, Ident bit) {
-    ClassSymbol next = Resolve.resolve(env, owner, sym, bit);
+    ClassSymbol next = Resolve.resolve(hierarchy, owner, sym, bit);
     if (next == null) {
       log.error(
           bit.position(),
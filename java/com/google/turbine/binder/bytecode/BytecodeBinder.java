@@ -94,7 +94,7 @@ public final class BytecodeBinder {
         sb.append('$');
       }
       sb.append(s.simpleName());
-      ClassSymbol sym = new ClassSymbol(sb.toString());
+      ClassSymbol sym = ClassSymbol.intern(sb.toString());
       syms.put(sym, s);
       first = false;
     }
@@ -281,7 +281,7 @@ public final class BytecodeBinder {
   }
 
   private static ClassSymbol asClassSymbol(String s) {
-    return new ClassSymbol(s.substring(1, s.length() - 1));
+    return ClassSymbol.intern(s.substring(1, s.length() - 1));
   }
 
   private static Const bindArrayValue(ArrayValue value, Scope scope) {
@@ -22,7 +22,6 @@ import static com.google.turbine.binder.bytecode.BytecodeBinder.asNonParametricC
 import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -74,9 +73,12 @@ public class BytecodeBoundClass implements TypeBoundClass {
 
   private final ClassSymbol sym;
   private final Env<ClassSymbol, BytecodeBoundClass> env;
-  private final Supplier<ClassFile> classFile;
+  private final Supplier<byte[]> bytes;
   private final @Nullable String jarFile;
 
+  /** The state decoded from the class file, or {@code null} if it has not been read yet. */
+  private volatile @Nullable Decoded decoded;
+
   public BytecodeBoundClass(
       ClassSymbol sym,
       Supplier<byte[]> bytes,
@@ -84,237 +86,218 @@ public class BytecodeBoundClass implements TypeBoundClass {
       @Nullable String jarFile) {
     this.sym = sym;
     this.env = env;
+    this.bytes = bytes;
     this.jarFile = jarFile;
-    this.classFile =
-        Suppliers.memoize(
-            new Supplier<ClassFile>() {
-              @Override
-              public ClassFile get() {
-                ClassFile cf = ClassReader.read(jarFile + "!" + sym.binaryName(), bytes.get());
-                verify(
-                    cf.name().equals(sym.binaryName()),
-                    "expected class data for %s, saw %s instead",
-                    sym.binaryName(),
-                    cf.name());
-                return cf;
-              }
-            });
-  }
-
-  private final Supplier<TurbineTyKind> kind =
-      Suppliers.memoize(
-          new Supplier<TurbineTyKind>() {
-            @Override
-            public TurbineTyKind get() {
-              int access = access();
-              if ((access & TurbineFlag.ACC_ANNOTATION) == TurbineFlag.ACC_ANNOTATION) {
-                return TurbineTyKind.ANNOTATION;
-              }
-              if ((access & TurbineFlag.ACC_INTERFACE) == TurbineFlag.ACC_INTERFACE) {
-                return TurbineTyKind.INTERFACE;
-              }
-              if ((access & TurbineFlag.ACC_ENUM) == TurbineFlag.ACC_ENUM) {
-                return TurbineTyKind.ENUM;
-              }
-              return TurbineTyKind.CLASS;
-            }
-          });
+  }
+
+  /** Returns true if the class file has been read, i.e. the class was used by the compilation. */
+  public boolean completed() {
+    return decoded != null;
+  }
+
+  private Decoded decoded() {
+    Decoded result = decoded;
+    if (result == null) {
+      synchronized (this) {
+        result = decoded;
+        if (result == null) {
+          ClassFile cf = ClassReader.read(jarFile + "!" + sym.binaryName(), bytes.get());
+          verify(
+              cf.name().equals(sym.binaryName()),
+              "expected class data for %s, saw %s instead",
+              sym.binaryName(),
+              cf.name());
+          decoded = result = new Decoded(cf);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The state decoded from the class file.
+   *
+   * <p>Most classes on the classpath are never accessed, so none of this is computed until the
+   * first access to the class. The information that only depends on the class file is then computed
+   * in one step. The information that requires resolving other classes is computed on demand; it is
+   * immutable and idempotent, so racing threads may compute it more than once but will always
+   * observe a fully constructed value.
+   */
+  private final class Decoded {
+    final ClassFile classFile;
+    final int access;
+    final TurbineTyKind kind;
+    final @Nullable ClassSymbol owner;
+    final ImmutableMap<String, ClassSymbol> children;
+    final ImmutableMap<ClassSymbol, ClassFile.InnerClass> innerClasses;
+    final @Nullable ClassSig sig;
+    final ImmutableMap<String, TyVarSymbol> tyParams;
+    final @Nullable ClassSymbol superclass;
+    final ImmutableList<ClassSymbol> interfaces;
+
+    volatile @Nullable ClassTy superClassType;
+    volatile @Nullable ImmutableList<Type> interfaceTypes;
+    volatile @Nullable ImmutableMap<TyVarSymbol, TyVarInfo> typeParameterTypes;
+    volatile @Nullable ImmutableList<FieldInfo> fields;
+    volatile @Nullable ImmutableList<MethodInfo> methods;
+    volatile @Nullable AnnotationMetadata annotationMetadata;
+    volatile @Nullable ImmutableList<AnnoInfo> annotations;
+
+    Decoded(ClassFile classFile) {
+      this.classFile = classFile;
+
+      int access = classFile.access();
+      ClassSymbol owner = null;
+      ImmutableMap.Builder<String, ClassSymbol> children = ImmutableMap.builder();
+      ImmutableMap.Builder<ClassSymbol, ClassFile.InnerClass> innerClasses = ImmutableMap.builder();
+      for (ClassFile.InnerClass inner : classFile.innerClasses()) {
+        innerClasses.put(ClassSymbol.intern(inner.innerClass()), inner);
+        if (sym.binaryName().equals(inner.innerClass())) {
+          access = inner.access();
+          if (owner == null) {
+            owner = ClassSymbol.intern(inner.outerClass());
+          }
+        }
+        if (inner.innerName() == null) {
+          // anonymous class
+          continue;
+        }
+        if (sym.binaryName().equals(inner.outerClass())) {
+          children.put(inner.innerName(), ClassSymbol.intern(inner.innerClass()));
+        }
+      }
+      this.access = access;
+      this.kind = kind(access);
+      this.owner = owner;
+      this.children = children.buildOrThrow();
+      this.innerClasses = innerClasses.buildOrThrow();
+
+      String signature = classFile.signature();
+      this.sig = signature != null ? new SigParser(signature).parseClassSig() : null;
+      if (sig == null || sig.tyParams().isEmpty()) {
+        this.tyParams = ImmutableMap.of();
+      } else {
+        ImmutableMap.Builder<String, TyVarSymbol> tyParams = ImmutableMap.builder();
+        for (Sig.TyParamSig p : sig.tyParams()) {
+          tyParams.put(p.name(), new TyVarSymbol(sym, p.name()));
+        }
+        this.tyParams = tyParams.buildOrThrow();
+      }
+
+      String superName = classFile.superName();
+      this.superclass = superName != null ? ClassSymbol.intern(superName) : null;
+      ImmutableList.Builder<ClassSymbol> interfaces = ImmutableList.builder();
+      for (String i : classFile.interfaces()) {
+        interfaces.add(ClassSymbol.intern(i));
+      }
+      this.interfaces = interfaces.build();
+    }
+  }
+
+  private static TurbineTyKind kind(int access) {
+    if ((access & TurbineFlag.ACC_ANNOTATION) == TurbineFlag.ACC_ANNOTATION) {
+      return TurbineTyKind.ANNOTATION;
+    }
+    if ((access & TurbineFlag.ACC_INTERFACE) == TurbineFlag.ACC_INTERFACE) {
+      return TurbineTyKind.INTERFACE;
+    }
+    if ((access & TurbineFlag.ACC_ENUM) == TurbineFlag.ACC_ENUM) {
+      return TurbineTyKind.ENUM;
+    }
+    return TurbineTyKind.CLASS;
+  }
 
   @Override
   public TurbineTyKind kind() {
-    return kind.get();
-  }
-
-  private final Supplier<@Nullable ClassSymbol> owner =
-      Suppliers.memoize(
-          new Supplier<@Nullable ClassSymbol>() {
-            @Override
-            public @Nullable ClassSymbol get() {
-              for (ClassFile.InnerClass inner : classFile.get().innerClasses()) {
-                if (sym.binaryName().equals(inner.innerClass())) {
-                  return new ClassSymbol(inner.outerClass());
-                }
-              }
-              return null;
-            }
-          });
+    return decoded().kind;
+  }
 
   @Override
   public @Nullable ClassSymbol owner() {
-    return owner.get();
-  }
-
-  private final Supplier<ImmutableMap<String, ClassSymbol>> children =
-      Suppliers.memoize(
-          new Supplier<ImmutableMap<String, ClassSymbol>>() {
-            @Override
-            public ImmutableMap<String, ClassSymbol> get() {
-              ImmutableMap.Builder<String, ClassSymbol> result = ImmutableMap.builder();
-              for (ClassFile.InnerClass inner : classFile.get().innerClasses()) {
-                if (inner.innerName() == null) {
-                  // anonymous class
-                  continue;
-                }
-                if (sym.binaryName().equals(inner.outerClass())) {
-                  result.put(inner.innerName(), new ClassSymbol(inner.innerClass()));
-                }
-              }
-              return result.buildOrThrow();
-            }
-          });
+    return decoded().owner;
+  }
 
   @Override
   public ImmutableMap<String, ClassSymbol> children() {
-    return children.get();
-  }
-
-  private final Supplier<Integer> access =
-      Suppliers.memoize(
-          new Supplier<Integer>() {
-            @Override
-            public Integer get() {
-              int access = classFile.get().access();
-              for (ClassFile.InnerClass inner : classFile.get().innerClasses()) {
-                if (sym.binaryName().equals(inner.innerClass())) {
-                  access = inner.access();
-                }
-              }
-              return access;
-            }
-          });
+    return decoded().children;
+  }
 
   @Override
   public int access() {
-    return access.get();
-  }
-
-  private final Supplier<@Nullable ClassSig> sig =
-      Suppliers.memoize(
-          new Supplier<@Nullable ClassSig>() {
-            @Override
-            public @Nullable ClassSig get() {
-              String signature = classFile.get().signature();
-              if (signature == null) {
-                return null;
-              }
-              return new SigParser(signature).parseClassSig();
-            }
-          });
-
-  private final Supplier<ImmutableMap<String, TyVarSymbol>> tyParams =
-      Suppliers.memoize(
-          new Supplier<ImmutableMap<String, TyVarSymbol>>() {
-            @Override
-            public ImmutableMap<String, TyVarSymbol> get() {
-              ClassSig csig = sig.get();
-              if (csig == null || csig.tyParams().isEmpty()) {
-                return ImmutableMap.of();
-              }
-              ImmutableMap.Builder<String, TyVarSymbol> result = ImmutableMap.builder();
-              for (Sig.TyParamSig p : csig.tyParams()) {
-                result.put(p.name(), new TyVarSymbol(sym, p.name()));
-              }
-              return result.buildOrThrow();
-            }
-          });
+    return decoded().access;
+  }
 
   @Override
   public ImmutableMap<String, TyVarSymbol> typeParameters() {
-    return tyParams.get();
-  }
-
-  private final Supplier<@Nullable ClassSymbol> superclass =
-      Suppliers.memoize(
-          new Supplier<@Nullable ClassSymbol>() {
-            @Override
-            public @Nullable ClassSymbol get() {
-              String superclass = classFile.get().superName();
-              if (superclass == null) {
-                return null;
-              }
-              return new ClassSymbol(superclass);
-            }
-          });
+    return decoded().tyParams;
+  }
 
   @Override
   public @Nullable ClassSymbol superclass() {
-    return superclass.get();
-  }
-
-  private final Supplier<ImmutableList<ClassSymbol>> interfaces =
-      Suppliers.memoize(
-          new Supplier<ImmutableList<ClassSymbol>>() {
-            @Override
-            public ImmutableList<ClassSymbol> get() {
-              ImmutableList.Builder<ClassSymbol> result = ImmutableList.builder();
-              for (String i : classFile.get().interfaces()) {
-                result.add(new ClassSymbol(i));
-              }
-              return result.build();
-            }
-          });
+    return decoded().superclass;
+  }
 
   @Override
   public ImmutableList<ClassSymbol> interfaces() {
-    return interfaces.get();
-  }
-
-  private final Supplier<@Nullable ClassTy> superClassType =
-      Suppliers.memoize(
-          new Supplier<@Nullable ClassTy>() {
-            @Override
-            public @Nullable ClassTy get() {
-              if (superclass() == null) {
-                return null;
-              }
-              ImmutableList<TypeAnnotationInfo> typeAnnotations =
-                  typeAnnotationsForSupertype(65535);
-              if (sig.get() == null || sig.get().superClass() == null) {
-                return asNonParametricClassTy(
-                    superclass(), typeAnnotations, makeScope(env, sym, ImmutableMap.of()));
-              }
-              return BytecodeBinder.bindClassTy(
-                  sig.get().superClass(), makeScope(env, sym, ImmutableMap.of()), typeAnnotations);
-            }
-          });
+    return decoded().interfaces;
+  }
 
   @Override
   public @Nullable ClassTy superClassType() {
-    return superClassType.get();
-  }
-
-  private final Supplier<ImmutableList<Type>> interfaceTypes =
-      Suppliers.memoize(
-          new Supplier<ImmutableList<Type>>() {
-            @Override
-            public ImmutableList<Type> get() {
-              ImmutableList<ClassSymbol> interfaces = interfaces();
-              if (interfaces.isEmpty()) {
-                return ImmutableList.of();
-              }
-              ImmutableList.Builder<Type> result = ImmutableList.builder();
-              BytecodeBinder.Scope scope = makeScope(env, sym, ImmutableMap.of());
-              ImmutableList<ClassTySig> sigs = sig.get() == null ? null : sig.get().interfaces();
-              if (sigs == null) {
-                for (int i = 0; i < interfaces.size(); i++) {
-                  result.add(
-                      asNonParametricClassTy(
-                          interfaces.get(i), typeAnnotationsForSupertype(i), scope));
-                }
-              } else {
-                for (int i = 0; i < sigs.size(); i++) {
-                  result.add(
-                      BytecodeBinder.bindClassTy(
-                          sigs.get(i), scope, typeAnnotationsForSupertype(i)));
-                }
-              }
-              return result.build();
-            }
-          });
+    Decoded d = decoded();
+    if (d.superclass == null) {
+      return null;
+    }
+    ClassTy result = d.superClassType;
+    if (result == null) {
+      d.superClassType = result = bindSuperClassType(d, d.superclass);
+    }
+    return result;
+  }
+
+  private ClassTy bindSuperClassType(Decoded d, ClassSymbol superclass) {
+    ImmutableList<TypeAnnotationInfo> typeAnnotations =
+        typeAnnotationsForSupertype(d.classFile, 65535);
+    if (d.sig == null || d.sig.superClass() == null) {
+      return asNonParametricClassTy(
+          superclass, typeAnnotations, makeScope(env, sym, ImmutableMap.of()));
+    }
+    return BytecodeBinder.bindClassTy(
+        d.sig.superClass(), makeScope(env, sym, ImmutableMap.of()), typeAnnotations);
+  }
 
   @Override
   public ImmutableList<Type> interfaceTypes() {
-    return interfaceTypes.get();
+    Decoded d = decoded();
+    ImmutableList<Type> result = d.interfaceTypes;
+    if (result == null) {
+      d.interfaceTypes = result = bindInterfaceTypes(d);
+    }
+    return result;
+  }
+
+  private ImmutableList<Type> bindInterfaceTypes(Decoded d) {
+    ImmutableList<ClassSymbol> interfaces = d.interfaces;
+    if (interfaces.isEmpty()) {
+      return ImmutableList.of();
+    }
+    ImmutableList.Builder<Type> result = ImmutableList.builder();
+    BytecodeBinder.Scope scope = makeScope(env, sym, ImmutableMap.of());
+    ImmutableList<ClassTySig> sigs = d.sig == null ? null : d.sig.interfaces();
+    if (sigs == null) {
+      for (int i = 0; i < interfaces.size(); i++) {
+        result.add(
+            asNonParametricClassTy(
+                interfaces.get(i), typeAnnotationsForSupertype(d.classFile, i), scope));
+      }
+    } else {
+      for (int i = 0; i < sigs.size(); i++) {
+        result.add(
+            BytecodeBinder.bindClassTy(
+                sigs.get(i), scope, typeAnnotationsForSupertype(d.classFile, i)));
+      }
+    }
+    return result.build();
   }
 
   @Override
@@ -322,24 +305,29 @@ public class BytecodeBoundClass implements TypeBoundClass {
     return ImmutableList.of();
   }
 
-  private final Supplier<ImmutableMap<TyVarSymbol, TyVarInfo>> typeParameterTypes =
-      Suppliers.memoize(
-          new Supplier<ImmutableMap<TyVarSymbol, TyVarInfo>>() {
-            @Override
-            public ImmutableMap<TyVarSymbol, TyVarInfo> get() {
-              if (sig.get() == null) {
-                return ImmutableMap.of();
-              }
-              BytecodeBinder.Scope scope = makeScope(env, sym, typeParameters());
-              return bindTypeParams(
-                  sig.get().tyParams(),
-                  typeParameters(),
-                  scope,
-                  TargetType.CLASS_TYPE_PARAMETER,
-                  TargetType.CLASS_TYPE_PARAMETER_BOUND,
-                  classFile.get().typeAnnotations());
-            }
-          });
+  @Override
+  public ImmutableMap<TyVarSymbol, TyVarInfo> typeParameterTypes() {
+    Decoded d = decoded();
+    ImmutableMap<TyVarSymbol, TyVarInfo> result = d.typeParameterTypes;
+    if (result == null) {
+      d.typeParameterTypes = result = bindTypeParameterTypes(d);
+    }
+    return result;
+  }
+
+  private ImmutableMap<TyVarSymbol, TyVarInfo> bindTypeParameterTypes(Decoded d) {
+    if (d.sig == null) {
+      return ImmutableMap.of();
+    }
+    BytecodeBinder.Scope scope = makeScope(env, sym, d.tyParams);
+    return bindTypeParams(
+        d.sig.tyParams(),
+        d.tyParams,
+        scope,
+        TargetType.CLASS_TYPE_PARAMETER,
+        TargetType.CLASS_TYPE_PARAMETER_BOUND,
+        d.classFile.typeAnnotations());
+  }
 
   private static ImmutableMap<TyVarSymbol, TyVarInfo> bindTypeParams(
       ImmutableList<Sig.TyParamSig> tyParamSigs,
@@ -414,61 +402,58 @@ public class BytecodeBoundClass implements TypeBoundClass {
   }
 
   @Override
-  public ImmutableMap<TyVarSymbol, TyVarInfo> typeParameterTypes() {
-    return typeParameterTypes.get();
-  }
-
-  private final Supplier<ImmutableList<FieldInfo>> fields =
-      Suppliers.memoize(
-          new Supplier<ImmutableList<FieldInfo>>() {
-            @Override
-            public ImmutableList<FieldInfo> get() {
-              ImmutableList.Builder<FieldInfo> fields = ImmutableList.builder();
-              for (ClassFile.FieldInfo cfi : classFile.get().fields()) {
-                FieldSymbol fieldSym = new FieldSymbol(sym, cfi.name());
-                Type type =
-                    BytecodeBinder.bindTy(
-                        new SigParser(firstNonNull(cfi.signature(), cfi.descriptor())).parseType(),
-                        makeScope(env, sym, ImmutableMap.of()),
-                        typeAnnotationsForTarget(cfi.typeAnnotations(), TargetType.FIELD));
-                int access = cfi.access();
-                Const.Value value = cfi.value();
-                if (value != null) {
-                  value = BytecodeBinder.bindConstValue(type, value);
-                }
-                ImmutableList<AnnoInfo> annotations =
-                    BytecodeBinder.bindAnnotations(
-                        cfi.annotations(), makeScope(env, sym, ImmutableMap.of()));
-                fields.add(
-                    new FieldInfo(fieldSym, type, access, annotations, /* decl= */ null, value));
-              }
-              return fields.build();
-            }
-          });
+  public ImmutableList<FieldInfo> fields() {
+    Decoded d = decoded();
+    ImmutableList<FieldInfo> result = d.fields;
+    if (result == null) {
+      d.fields = result = bindFields(d.classFile);
+    }
+    return result;
+  }
+
+  private ImmutableList<FieldInfo> bindFields(ClassFile classFile) {
+    ImmutableList.Builder<FieldInfo> fields = ImmutableList.builder();
+    for (ClassFile.FieldInfo cfi : classFile.fields()) {
+      FieldSymbol fieldSym = new FieldSymbol(sym, cfi.name());
+      Type type =
+          BytecodeBinder.bindTy(
+              new SigParser(firstNonNull(cfi.signature(), cfi.descriptor())).parseType(),
+              makeScope(env, sym, ImmutableMap.of()),
+              typeAnnotationsForTarget(cfi.typeAnnotations(), TargetType.FIELD));
+      int access = cfi.access();
+      Const.Value value = cfi.value();
+      if (value != null) {
+        value = BytecodeBinder.bindConstValue(type, value);
+      }
+      ImmutableList<AnnoInfo> annotations =
+          BytecodeBinder.bindAnnotations(cfi.annotations(), makeScope(env, sym, ImmutableMap.of()));
+      fields.add(new FieldInfo(fieldSym, type, access, annotations, /* decl= */ null, value));
+    }
+    return fields.build();
+  }
 
   @Override
-  public ImmutableList<FieldInfo> fields() {
-    return fields.get();
-  }
-
-  private final Supplier<ImmutableList<MethodInfo>> methods =
-      Suppliers.memoize(
-          new Supplier<ImmutableList<MethodInfo>>() {
-            @Override
-            public ImmutableList<MethodInfo> get() {
-              ImmutableList.Builder<MethodInfo> methods = ImmutableList.builder();
-              int idx = 0;
-              ClassFile cf = classFile.get();
-              for (ClassFile.MethodInfo m : cf.methods()) {
-                if (m.name().equals("<clinit>")) {
-                  // Don't bother reading class initializers, which we don't need
-                  continue;
-                }
-                methods.add(bindMethod(cf, idx++, m));
-              }
-              return methods.build();
-            }
-          });
+  public ImmutableList<MethodInfo> methods() {
+    Decoded d = decoded();
+    ImmutableList<MethodInfo> result = d.methods;
+    if (result == null) {
+      d.methods = result = bindMethods(d.classFile);
+    }
+    return result;
+  }
+
+  private ImmutableList<MethodInfo> bindMethods(ClassFile cf) {
+    ImmutableList.Builder<MethodInfo> methods = ImmutableList.builder();
+    int idx = 0;
+    for (ClassFile.MethodInfo m : cf.methods()) {
+      if (m.name().equals("<clinit>")) {
+        // Don't bother reading class initializers, which we don't need
+        continue;
+      }
+      methods.add(bindMethod(cf, idx++, m));
+    }
+    return methods.build();
+  }
 
   private MethodInfo bindMethod(ClassFile classFile, int methodIdx, ClassFile.MethodInfo m) {
     MethodSymbol methodSymbol = new MethodSymbol(methodIdx, sym, m.name());
@@ -550,7 +535,7 @@ public class BytecodeBoundClass implements TypeBoundClass {
       for (int i = 0; i < m.exceptions().size(); i++) {
         exceptions.add(
             asNonParametricClassTy(
-                new ClassSymbol(exceptionTypes.get(i)),
+                ClassSymbol.intern(exceptionTypes.get(i)),
                 typeAnnotationsForThrows(m.typeAnnotations(), i),
                 scope));
       }
@@ -592,45 +577,45 @@ public class BytecodeBoundClass implements TypeBoundClass {
         receiver);
   }
 
-  @Override
-  public ImmutableList<MethodInfo> methods() {
-    return methods.get();
-  }
-
   @Override
   public ImmutableList<RecordComponentInfo> components() {
     return ImmutableList.of();
   }
 
-  private final Supplier<@Nullable AnnotationMetadata> annotationMetadata =
-      Suppliers.memoize(
-          new Supplier<@Nullable AnnotationMetadata>() {
-            @Override
-            public @Nullable AnnotationMetadata get() {
-              if ((access() & TurbineFlag.ACC_ANNOTATION) != TurbineFlag.ACC_ANNOTATION) {
-                return null;
-              }
-              RetentionPolicy retention = null;
-              ImmutableSet<TurbineElementType> target = null;
-              ClassSymbol repeatable = null;
-              for (ClassFile.AnnotationInfo annotation : classFile.get().annotations()) {
-                switch (annotation.typeName()) {
-                  case "Ljava/lang/annotation/Retention;":
-                    retention = bindRetention(annotation);
-                    break;
-                  case "Ljava/lang/annotation/Target;":
-                    target = bindTarget(annotation);
-                    break;
-                  case "Ljava/lang/annotation/Repeatable;":
-                    repeatable = bindRepeatable(annotation);
-                    break;
-                  default:
-                    break;
-                }
-              }
-              return new AnnotationMetadata(retention, target, repeatable);
-            }
-          });
+  @Override
+  public @Nullable AnnotationMetadata annotationMetadata() {
+    Decoded d = decoded();
+    if ((d.access & TurbineFlag.ACC_ANNOTATION) != TurbineFlag.ACC_ANNOTATION) {
+      return null;
+    }
+    AnnotationMetadata result = d.annotationMetadata;
+    if (result == null) {
+      d.annotationMetadata = result = bindAnnotationMetadata(d.classFile);
+    }
+    return result;
+  }
+
+  private static AnnotationMetadata bindAnnotationMetadata(ClassFile classFile) {
+    RetentionPolicy retention = null;
+    ImmutableSet<TurbineElementType> target = null;
+    ClassSymbol repeatable = null;
+    for (ClassFile.AnnotationInfo annotation : classFile.annotations()) {
+      switch (annotation.typeName()) {
+        case "Ljava/lang/annotation/Retention;":
+          retention = bindRetention(annotation);
+          break;
+        case "Ljava/lang/annotation/Target;":
+          target = bindTarget(annotation);
+          break;
+        case "Ljava/lang/annotation/Repeatable;":
+          repeatable = bindRepeatable(annotation);
+          break;
+        default:
+          break;
+      }
+    }
+    return new AnnotationMetadata(retention, target, repeatable);
+  }
 
   private static @Nullable RetentionPolicy bindRetention(AnnotationInfo annotation) {
     ElementValue val = annotation.elementValuePairs().get("value");
@@ -683,31 +668,24 @@ public class BytecodeBoundClass implements TypeBoundClass {
     switch (val.kind()) {
       case CLASS:
         String className = ((ConstTurbineClassValue) val).className();
-        return new ClassSymbol(className.substring(1, className.length() - 1));
+        return ClassSymbol.intern(className.substring(1, className.length() - 1));
       default:
         break;
     }
     return null;
   }
 
-  @Override
-  public @Nullable AnnotationMetadata annotationMetadata() {
-    return annotationMetadata.get();
-  }
-
-  private final Supplier<ImmutableList<AnnoInfo>> annotations =
-      Suppliers.memoize(
-          new Supplier<ImmutableList<AnnoInfo>>() {
-            @Override
-            public ImmutableList<AnnoInfo> get() {
-              return BytecodeBinder.bindAnnotations(
-                  classFile.get().annotations(), makeScope(env, sym, ImmutableMap.of()));
-            }
-          });
-
   @Override
   public ImmutableList<AnnoInfo> annotations() {
-    return annotations.get();
+    Decoded d = decoded();
+    ImmutableList<AnnoInfo> result = d.annotations;
+    if (result == null) {
+      d.annotations =
+          result =
+              BytecodeBinder.bindAnnotations(
+                  d.classFile.annotations(), makeScope(env, sym, ImmutableMap.of()));
+    }
+    return result;
   }
 
   private static ImmutableList<TypeAnnotationInfo> typeAnnotationsForThrows(
@@ -716,9 +694,10 @@ public class BytecodeBoundClass implements TypeBoundClass {
         typeAnnotations, TargetType.METHOD_THROWS, TypeAnnotationInfo.ThrowsTarget.create(index));
   }
 
-  private ImmutableList<TypeAnnotationInfo> typeAnnotationsForSupertype(int index) {
+  private static ImmutableList<TypeAnnotationInfo> typeAnnotationsForSupertype(
+      ClassFile classFile, int index) {
     return typeAnnotationsForTarget(
-        classFile.get().typeAnnotations(),
+        classFile.typeAnnotations(),
         TargetType.SUPERTYPE,
         TypeAnnotationInfo.SuperTypeTarget.create(index));
   }
@@ -742,20 +721,6 @@ public class BytecodeBoundClass implements TypeBoundClass {
     return result.build();
   }
 
-  private final Supplier<ImmutableMap<ClassSymbol, ClassFile.InnerClass>> innerClasses =
-      Suppliers.memoize(
-          new Supplier<ImmutableMap<ClassSymbol, ClassFile.InnerClass>>() {
-            @Override
-            public ImmutableMap<ClassSymbol, ClassFile.InnerClass> get() {
-              ImmutableMap.Builder<ClassSymbol, ClassFile.InnerClass> result =
-                  ImmutableMap.builder();
-              for (ClassFile.InnerClass inner : classFile.get().innerClasses()) {
-                result.put(new ClassSymbol(inner.innerClass()), inner);
-              }
-              return result.buildOrThrow();
-            }
-          });
-
   /**
    * Create a scope for resolving type variable symbols declared in the class, and any enclosing
    * instances.
@@ -788,21 +753,21 @@ public class BytecodeBoundClass implements TypeBoundClass {
 
       @Override
       public @Nullable ClassSymbol outer(ClassSymbol sym) {
-        ClassFile.InnerClass inner = innerClasses.get().get(sym);
+        ClassFile.InnerClass inner = decoded().innerClasses.get(sym);
         if (inner == null) {
           return null;
         }
         if ((inner.access() & TurbineFlag.ACC_STATIC) == TurbineFlag.ACC_STATIC) {
           return null;
         }
-        return new ClassSymbol(inner.outerClass());
+        return ClassSymbol.intern(inner.outerClass());
       }
     };
   }
 
   /** The jar file the symbol was loaded from. */
   public @Nullable String jarFile() {
-    String transitiveJar = classFile.get().transitiveJar();
+    String transitiveJar = decoded().classFile.transitiveJar();
     if (transitiveJar != null) {
       return transitiveJar;
     }
@@ -811,6 +776,6 @@ public class BytecodeBoundClass implements TypeBoundClass {
 
   /** The class file the symbol was loaded from. */
   public ClassFile classFile() {
-    return classFile.get();
+    return decoded().classFile;
   }
 }
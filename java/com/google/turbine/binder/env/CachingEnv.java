@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder.env;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.sym.Symbol;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An {@link Env} that searches the same envs as a {@link CompoundEnv} chain, in the same order, and
+ * caches the result of each lookup.
+ *
+ * <p>A lookup in a {@link CompoundEnv} asks each env in the chain in turn, which is expensive for
+ * symbols that are found late in the chain or not at all, e.g. classpath classes, which are only
+ * found after the bootclasspath misses. Repeated lookups in a {@link CachingEnv} are a single map
+ * lookup, including for symbols that aren't found. The envs it searches must not change.
+ */
+public final class CachingEnv<S extends Symbol, V> implements Env<S, V> {
+
+  /** The cached result of a lookup for a symbol that wasn't found. */
+  private static final Object MISSING = new Object();
+
+  private final ImmutableList<Env<S, ? extends V>> envs;
+  private final Map<S, Object> cache = new ConcurrentHashMap<>();
+
+  private CachingEnv(ImmutableList<Env<S, ? extends V>> envs) {
+    this.envs = envs;
+  }
+
+  /**
+   * Returns a caching env for {@code env}. If {@code env} is a {@link CompoundEnv}, the chain is
+   * flattened into the list of envs it searches.
+   */
+  public static <S extends Symbol, V> CachingEnv<S, V> of(Env<S, ? extends V> env) {
+    List<Env<S, ? extends V>> envs = new ArrayList<>();
+    CompoundEnv.flatten(envs, env);
+    return new CachingEnv<>(ImmutableList.copyOf(envs));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // only values from the envs, and MISSING, are cached
+  public @Nullable V get(S sym) {
+    Object result = cache.get(sym);
+    if (result == null) {
+      result = MISSING;
+      for (Env<S, ? extends V> env : envs) {
+        V value = env.get(sym);
+        if (value != null) {
+          result = value;
+          break;
+        }
+      }
+      // lookups may be re-entrant, so computeIfAbsent can't be used
+      Object prev = cache.putIfAbsent(sym, result);
+      if (prev != null) {
+        result = prev;
+      }
+    }
+    return result != MISSING ? (V) result : null;
+  }
+}
@@ -19,6 +19,7 @@ package com.google.turbine.binder.env;
 import static java.util.Objects.requireNonNull;
 
 import com.google.turbine.binder.sym.Symbol;
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 
 /** An {@link Env} that chains two existing envs together. */
@@ -50,4 +51,20 @@ public class CompoundEnv<S extends Symbol, V> implements Env<S, V> {
   public CompoundEnv<S, V> append(Env<S, ? extends V> env) {
     return new CompoundEnv<>(this, env);
   }
+
+  /** Adds the envs that {@code env} searches to {@code envs}, in the order they are searched. */
+  @SuppressWarnings("unchecked") // the envs in a chain of Vs only contain Vs
+  static <S extends Symbol, V> void flatten(
+      List<Env<S, ? extends V>> envs, Env<S, ? extends V> env) {
+    if (env instanceof CompoundEnv) {
+      CompoundEnv<S, V> compound = (CompoundEnv<S, V>) env;
+      flatten(envs, compound.env);
+      Env<S, ? extends V> base = compound.base;
+      if (base != null) {
+        flatten(envs, base);
+      }
+    } else {
+      envs.add(env);
+    }
+  }
 }
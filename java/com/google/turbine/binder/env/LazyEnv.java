@@ -19,9 +19,10 @@ package com.google.turbine.binder.env;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
 import com.google.turbine.binder.sym.Symbol;
-import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jspecify.annotations.Nullable;
 
 /**
@@ -39,17 +40,27 @@ import org.jspecify.annotations.Nullable;
  *     analysis of a given symbol may require looking up {@code HeaderBoundClass} nodes that will
  *     either be backed by other {@code SourceHeaderBoundClass} nodes or {@code BytecodeBoundClass}
  *     nodes. So the phase uses an {@code LazyEnv<HeaderBoundClass, SourceHeaderBoundClass>}.
+ *     <p>The env is safe for concurrent use. Cycles are detected per thread, so a thread only fails
+ *     if its own chain of completions is cyclic. If two threads complete the same symbol
+ *     concurrently both values are computed, but only the first one to finish is published, and
+ *     every caller sees that value. Any other side effects of a completer, like the diagnostics
+ *     the binder's completers report, may happen more than once; {@code TurbineLog} discards
+ *     duplicate diagnostics, and the binder re-binds sequentially if a parallel binding reports
+ *     errors.
  */
 public class LazyEnv<S extends Symbol, T, V extends T> implements Env<S, V> {
 
-  /** The list of symbols that are currently being processed, used to check for cycles. */
-  private final LinkedHashSet<S> seen = new LinkedHashSet<>();
+  /**
+   * The list of symbols that are currently being processed by each thread, used to check for
+   * cycles.
+   */
+  private final ThreadLocal<LinkedHashSet<S>> seen = ThreadLocal.withInitial(LinkedHashSet::new);
 
   /** Lazy value providers for the symbols in the environment. */
   private final ImmutableMap<S, Completer<S, T, V>> completers;
 
-  /** Values that have already been computed. */
-  private final Map<S, @Nullable V> cache = new LinkedHashMap<>();
+  /** Values that have already been computed, with {@code null} values stored as empty. */
+  private final Map<S, Optional<V>> cache = new ConcurrentHashMap<>();
 
   /** An underlying env of already-computed {@code T}s that can be queried during completion. */
   private final Env<S, T> rec;
@@ -61,19 +72,24 @@ public class LazyEnv<S extends Symbol, T, V extends T> implements Env<S, V> {
 
   @Override
   public @Nullable V get(S sym) {
-    V v = cache.get(sym);
-    if (v != null) {
-      return v;
+    Optional<V> cached = cache.get(sym);
+    if (cached != null) {
+      return cached.orElse(null);
     }
     Completer<S, T, V> completer = completers.get(sym);
     if (completer != null) {
+      LinkedHashSet<S> seen = this.seen.get();
       if (!seen.add(sym)) {
         throw new LazyBindingError(Joiner.on(" -> ").join(seen) + " -> " + sym);
       }
-      v = completer.complete(rec, sym);
-      seen.remove(sym);
-      cache.put(sym, v);
-      return v;
+      V v;
+      try {
+        v = completer.complete(rec, sym);
+      } finally {
+        seen.remove(sym);
+      }
+      Optional<V> prev = cache.putIfAbsent(sym, Optional.ofNullable(v));
+      return prev != null ? prev.orElse(null) : v;
     }
     return null;
   }
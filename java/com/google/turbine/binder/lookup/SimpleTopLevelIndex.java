@@ -16,37 +16,45 @@
 
 package com.google.turbine.binder.lookup;
 
+import static java.util.Comparator.naturalOrder;
+
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.tree.Tree.Ident;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import org.jspecify.annotations.Nullable;
 
 /**
  * An index of canonical type names where all members are known statically.
  *
  * <p>Qualified names are represented internally as a tree, where each package name part or class
- * name is a node.
+ * name is a node. The tree is stored in flat arrays: nodes are numbered in breadth-first order, and
+ * the children of each node are numbered consecutively, sorted by the hash codes of their names. A
+ * lookup binary searches the children's hash codes at each step, and doesn't allocate until it
+ * finds a class.
+ *
+ * <p>Class nodes don't store their simple names separately; they are compared against the tail of
+ * the class's binary name. For large classpaths that avoids retaining a substring for every class.
  */
 public class SimpleTopLevelIndex implements TopLevelIndex {
 
-  /** A class symbol or package. */
-  public static class Node {
-
-    public @Nullable Node lookup(String bit) {
-      return children.get(bit);
-    }
+  /** A mutable node in the tree built by a {@link Builder}. */
+  private static class BuilderNode {
 
     private final @Nullable ClassSymbol sym;
 
-    // TODO(cushon): the set of children is typically going to be small, consider optimizing this
-    // to use a denser representation where appropriate.
-    private final Map<String, Node> children = new HashMap<>();
+    /** The children of a package, or {@code null} for classes and empty packages. */
+    private @Nullable Map<String, BuilderNode> children;
 
-    Node(@Nullable ClassSymbol sym) {
+    BuilderNode(@Nullable ClassSymbol sym) {
       this.sym = sym;
     }
 
@@ -56,14 +64,18 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
      *
      * @return {@code null} if an existing symbol with the same name has already been inserted.
      */
-    private @Nullable Node insert(String name, @Nullable ClassSymbol sym) {
-      Node child = children.get(name);
+    @CanIgnoreReturnValue
+    private @Nullable BuilderNode insert(String name, @Nullable ClassSymbol sym) {
+      if (children == null) {
+        children = new HashMap<>();
+      }
+      BuilderNode child = children.get(name);
       if (child != null) {
         if (child.sym != null) {
           return null;
         }
       } else {
-        child = new Node(sym);
+        child = new BuilderNode(sym);
         children.put(name, child);
       }
       return child;
@@ -74,20 +86,18 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
   public static class Builder {
 
     public TopLevelIndex build() {
-      // Freeze the index. The immutability of nodes is enforced by making insert private, doing
-      // a deep copy here isn't necessary.
-      return new SimpleTopLevelIndex(root);
+      return flatten(root);
     }
 
     /** The root of the lookup tree, effectively the package node of the default package. */
-    final Node root = new Node(null);
+    final BuilderNode root = new BuilderNode(null);
 
     /** Inserts a {@link ClassSymbol} into the index, creating any needed packages. */
     public void insert(ClassSymbol sym) {
       String binaryName = sym.binaryName();
       int start = 0;
       int end = binaryName.indexOf('/');
-      Node curr = root;
+      BuilderNode curr = root;
       while (end != -1) {
         String simpleName = binaryName.substring(start, end);
         curr = curr.insert(simpleName, null);
@@ -101,11 +111,7 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
         end = binaryName.indexOf('/', start);
       }
       String simpleName = binaryName.substring(start);
-      curr = curr.insert(simpleName, sym);
-      if (curr == null || !Objects.equals(curr.sym, sym)) {
-        return;
-      }
-      return;
+      curr.insert(simpleName, sym);
     }
   }
 
@@ -123,31 +129,135 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
     return builder.build();
   }
 
-  private SimpleTopLevelIndex(Node root) {
-    this.root = root;
+  /** Numbers the nodes of the tree breadth-first, and stores them in arrays. */
+  private static SimpleTopLevelIndex flatten(BuilderNode root) {
+    List<BuilderNode> nodes = new ArrayList<>();
+    List<String> names = new ArrayList<>();
+    nodes.add(root);
+    names.add("");
+    int[] firstChild = new int[0];
+    for (int i = 0; i < nodes.size(); i++) {
+      if (firstChild.length <= i + 1) {
+        firstChild = Arrays.copyOf(firstChild, Math.max(16, (i + 2) * 2));
+      }
+      firstChild[i] = nodes.size();
+      Map<String, BuilderNode> children = nodes.get(i).children;
+      if (children != null) {
+        List<String> sorted = new ArrayList<>(children.keySet());
+        sorted.sort(Comparator.comparingInt(String::hashCode).thenComparing(naturalOrder()));
+        for (String name : sorted) {
+          nodes.add(children.get(name));
+          names.add(name);
+        }
+      }
+    }
+    int size = nodes.size();
+    firstChild = Arrays.copyOf(firstChild, size + 1);
+    firstChild[size] = size;
+    ClassSymbol[] syms = new ClassSymbol[size];
+    String[] nameStrings = new String[size];
+    int[] nameStarts = new int[size];
+    int[] hashes = new int[size];
+    for (int i = 0; i < size; i++) {
+      ClassSymbol sym = nodes.get(i).sym;
+      syms[i] = sym;
+      hashes[i] = names.get(i).hashCode();
+      if (sym != null) {
+        // share the binary name instead of retaining the simple name
+        nameStrings[i] = sym.binaryName();
+        nameStarts[i] = sym.binaryName().length() - names.get(i).length();
+      } else {
+        nameStrings[i] = names.get(i);
+      }
+    }
+    return new SimpleTopLevelIndex(firstChild, hashes, syms, nameStrings, nameStarts);
+  }
+
+  /**
+   * The index of each node's first child. The children of node {@code i} are the nodes from {@code
+   * firstChild[i]} (inclusive) to {@code firstChild[i + 1]} (exclusive).
+   */
+  private final int[] firstChild;
+
+  /** The hash code of each node's simple name. */
+  private final int[] hashes;
+
+  /** The class symbol of each node, or {@code null} for packages. */
+  private final @Nullable ClassSymbol[] syms;
+
+  /**
+   * Strings containing each node's simple name, starting at the corresponding offset in {@link
+   * #nameStarts}.
+   */
+  private final String[] names;
+
+  private final int[] nameStarts;
+
+  private SimpleTopLevelIndex(
+      int[] firstChild,
+      int[] hashes,
+      @Nullable ClassSymbol[] syms,
+      String[] names,
+      int[] nameStarts) {
+    this.firstChild = firstChild;
+    this.hashes = hashes;
+    this.syms = syms;
+    this.names = names;
+    this.nameStarts = nameStarts;
+  }
+
+  /** The root of the tree, effectively the package node of the default package. */
+  private static final int ROOT = 0;
+
+  /** Returns the child of the given node with the given simple name, or {@code -1}. */
+  private int lookup(int node, String name) {
+    int hash = name.hashCode();
+    // find the first child whose name has the given hash code
+    int lo = firstChild[node];
+    int end = firstChild[node + 1];
+    int hi = end;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (hashes[mid] < hash) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    for (int i = lo; i < end && hashes[i] == hash; i++) {
+      if (nameEquals(i, name)) {
+        return i;
+      }
+    }
+    return -1;
   }
 
-  final Node root;
+  private boolean nameEquals(int node, String name) {
+    String s = names[node];
+    int start = nameStarts[node];
+    return s.length() - start == name.length() && s.startsWith(name, start);
+  }
 
   /** Looks up top-level qualified type names. */
   final Scope scope =
       new Scope() {
         @Override
         public @Nullable LookupResult lookup(LookupKey lookupKey) {
-          Node curr = root;
-          while (true) {
-            curr = curr.lookup(lookupKey.first().value());
-            if (curr == null) {
+          ImmutableList<Ident> simpleNames = lookupKey.simpleNames();
+          int curr = ROOT;
+          for (int i = 0; i < simpleNames.size(); i++) {
+            curr = SimpleTopLevelIndex.this.lookup(curr, simpleNames.get(i).value());
+            if (curr == -1) {
               return null;
             }
-            if (curr.sym != null) {
-              return new LookupResult(curr.sym, lookupKey);
-            }
-            if (!lookupKey.hasNext()) {
-              return null;
+            ClassSymbol sym = syms[curr];
+            if (sym != null) {
+              return new LookupResult(
+                  sym,
+                  i == 0 ? lookupKey : new LookupKey(simpleNames.subList(i, simpleNames.size())));
             }
-            lookupKey = lookupKey.rest();
           }
+          return null;
         }
       };
 
@@ -159,29 +269,29 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
   /** Returns a {@link Scope} that performs lookups in the given qualified package name. */
   @Override
   public @Nullable PackageScope lookupPackage(Iterable<String> packagename) {
-    Node curr = root;
+    int curr = ROOT;
     for (String bit : packagename) {
-      curr = curr.lookup(bit);
-      if (curr == null || curr.sym != null) {
+      curr = lookup(curr, bit);
+      if (curr == -1 || syms[curr] != null) {
         return null;
       }
     }
     return new PackageIndex(curr);
   }
 
-  static class PackageIndex implements PackageScope {
+  class PackageIndex implements PackageScope {
 
-    private final Node node;
+    private final int node;
 
-    public PackageIndex(Node node) {
+    public PackageIndex(int node) {
       this.node = node;
     }
 
     @Override
     public @Nullable LookupResult lookup(LookupKey lookupKey) {
-      Node result = node.lookup(lookupKey.first().value());
-      if (result != null && result.sym != null) {
-        return new LookupResult(result.sym, lookupKey);
+      int result = SimpleTopLevelIndex.this.lookup(node, lookupKey.first().value());
+      if (result != -1 && syms[result] != null) {
+        return new LookupResult(syms[result], lookupKey);
       }
       return null;
     }
@@ -192,9 +302,10 @@ public class SimpleTopLevelIndex implements TopLevelIndex {
               @Override
               public ImmutableList<ClassSymbol> get() {
                 ImmutableList.Builder<ClassSymbol> result = ImmutableList.builder();
-                for (Node child : node.children.values()) {
-                  if (child.sym != null) {
-                    result.add(child.sym);
+                for (int i = firstChild[node]; i < firstChild[node + 1]; i++) {
+                  ClassSymbol sym = syms[i];
+                  if (sym != null) {
+                    result.add(sym);
                   }
                 }
                 return result.build();
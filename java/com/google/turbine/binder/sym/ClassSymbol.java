@@ -16,6 +16,8 @@
 
 package com.google.turbine.binder.sym;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.errorprone.annotations.Immutable;
 import org.jspecify.annotations.Nullable;
 
@@ -25,43 +27,63 @@ import org.jspecify.annotations.Nullable;
  * <p>Turbine identifies classes by their binary string name. Symbols are immutable and do not hold
  * any semantic information: the information that has been determined at the current phase (e.g.
  * about super-types and members) is held externally.
+ *
+ * <p>Symbols for the same class are equal, but not necessarily identical. Symbols that are created
+ * repeatedly for the same class, e.g. when reading class files, should be obtained from {@link
+ * #intern} instead of being constructed directly, so maps keyed by symbols can compare them by
+ * identity.
  */
-// TODO(cushon): investigate performance impact of interning names/symbols
 @Immutable
 public class ClassSymbol implements Symbol {
 
-  public static final ClassSymbol OBJECT = new ClassSymbol("java/lang/Object");
-  public static final ClassSymbol STRING = new ClassSymbol("java/lang/String");
-  public static final ClassSymbol ENUM = new ClassSymbol("java/lang/Enum");
-  public static final ClassSymbol RECORD = new ClassSymbol("java/lang/Record");
-  public static final ClassSymbol ANNOTATION = new ClassSymbol("java/lang/annotation/Annotation");
-  public static final ClassSymbol INHERITED = new ClassSymbol("java/lang/annotation/Inherited");
-  public static final ClassSymbol CLONEABLE = new ClassSymbol("java/lang/Cloneable");
-  public static final ClassSymbol SERIALIZABLE = new ClassSymbol("java/io/Serializable");
-  public static final ClassSymbol DEPRECATED = new ClassSymbol("java/lang/Deprecated");
-  public static final ClassSymbol PROFILE_ANNOTATION = new ClassSymbol("jdk/Profile+Annotation");
-  public static final ClassSymbol PROPRIETARY_ANNOTATION =
-      new ClassSymbol("sun/Proprietary+Annotation");
-  public static final ClassSymbol ERROR = new ClassSymbol("<error>");
-
-  public static final ClassSymbol CHARACTER = new ClassSymbol("java/lang/Character");
-  public static final ClassSymbol SHORT = new ClassSymbol("java/lang/Short");
-  public static final ClassSymbol INTEGER = new ClassSymbol("java/lang/Integer");
-  public static final ClassSymbol LONG = new ClassSymbol("java/lang/Long");
-  public static final ClassSymbol FLOAT = new ClassSymbol("java/lang/Float");
-  public static final ClassSymbol DOUBLE = new ClassSymbol("java/lang/Double");
-  public static final ClassSymbol BOOLEAN = new ClassSymbol("java/lang/Boolean");
-  public static final ClassSymbol BYTE = new ClassSymbol("java/lang/Byte");
+  /**
+   * The canonical symbols. The interner holds them weakly, so symbols from classpaths that are no
+   * longer in use can still be collected.
+   */
+  private static final Interner<ClassSymbol> INTERNER = Interners.newWeakInterner();
+
+  public static final ClassSymbol OBJECT = intern("java/lang/Object");
+  public static final ClassSymbol STRING = intern("java/lang/String");
+  public static final ClassSymbol ENUM = intern("java/lang/Enum");
+  public static final ClassSymbol RECORD = intern("java/lang/Record");
+  public static final ClassSymbol ANNOTATION = intern("java/lang/annotation/Annotation");
+  public static final ClassSymbol INHERITED = intern("java/lang/annotation/Inherited");
+  public static final ClassSymbol CLONEABLE = intern("java/lang/Cloneable");
+  public static final ClassSymbol SERIALIZABLE = intern("java/io/Serializable");
+  public static final ClassSymbol DEPRECATED = intern("java/lang/Deprecated");
+  public static final ClassSymbol PROFILE_ANNOTATION = intern("jdk/Profile+Annotation");
+  public static final ClassSymbol PROPRIETARY_ANNOTATION = intern("sun/Proprietary+Annotation");
+  public static final ClassSymbol ERROR = intern("<error>");
+
+  public static final ClassSymbol CHARACTER = intern("java/lang/Character");
+  public static final ClassSymbol SHORT = intern("java/lang/Short");
+  public static final ClassSymbol INTEGER = intern("java/lang/Integer");
+  public static final ClassSymbol LONG = intern("java/lang/Long");
+  public static final ClassSymbol FLOAT = intern("java/lang/Float");
+  public static final ClassSymbol DOUBLE = intern("java/lang/Double");
+  public static final ClassSymbol BOOLEAN = intern("java/lang/Boolean");
+  public static final ClassSymbol BYTE = intern("java/lang/Byte");
 
   private final String className;
+  private final int hash;
+
+  /** The index of the last {@code /} in the binary name, or {@code -1} in the unnamed package. */
+  private final int packageEnd;
 
   public ClassSymbol(String className) {
     this.className = className;
+    this.hash = className.hashCode();
+    this.packageEnd = className.lastIndexOf('/');
+  }
+
+  /** Returns the canonical symbol for the class with the given binary name. */
+  public static ClassSymbol intern(String className) {
+    return INTERNER.intern(new ClassSymbol(className));
   }
 
   @Override
   public int hashCode() {
-    return className.hashCode();
+    return hash;
   }
 
   @Override
@@ -71,7 +93,14 @@ public class ClassSymbol implements Symbol {
 
   @Override
   public boolean equals(@Nullable Object o) {
-    return o instanceof ClassSymbol && className.equals(((ClassSymbol) o).className);
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ClassSymbol)) {
+      return false;
+    }
+    ClassSymbol other = (ClassSymbol) o;
+    return hash == other.hash && className.equals(other.className);
   }
 
   /** The JVMS 4.2.1 binary name of the class. */
@@ -85,12 +114,25 @@ public class ClassSymbol implements Symbol {
   }
 
   public String simpleName() {
-    return binaryName().substring(binaryName().lastIndexOf('/') + 1);
+    return className.substring(packageEnd + 1);
   }
 
   public String packageName() {
-    int idx = binaryName().lastIndexOf('/');
-    return idx != -1 ? binaryName().substring(0, idx) : "";
+    return packageEnd != -1 ? className.substring(0, packageEnd) : "";
+  }
+
+  /**
+   * Returns true if the class is in the package with the given binary name. Equivalent to {@code
+   * packageName().equals(packageName)}, without allocating.
+   */
+  public boolean isInPackage(String packageName) {
+    return Math.max(packageEnd, 0) == packageName.length() && className.startsWith(packageName);
+  }
+
+  /** Returns true if the given class is in the same package as this class. */
+  public boolean inSamePackageAs(ClassSymbol other) {
+    return packageEnd == other.packageEnd
+        && className.regionMatches(0, other.className, 0, Math.max(packageEnd, 0));
   }
 
   public PackageSymbol owner() {
@@ -100,7 +100,7 @@ public final class Dependencies {
       for (FieldInfo field : info.fields()) {
         addAnnotations(closure, field.annotations());
       }
-      addSuperTypes(closure, env, info);
+      closure.addAll(bound.hierarchy().supertypes(sym));
     }
     return closure;
   }
@@ -143,28 +143,6 @@ public final class Dependencies {
     }
   }
 
-  private static void addSuperTypes(
-      Set<ClassSymbol> closure, Env<ClassSymbol, TypeBoundClass> env, ClassSymbol sym) {
-    if (!closure.add(sym)) {
-      return;
-    }
-    TypeBoundClass info = env.get(sym);
-    if (info == null) {
-      return;
-    }
-    addSuperTypes(closure, env, info);
-  }
-
-  private static void addSuperTypes(
-      Set<ClassSymbol> closure, Env<ClassSymbol, TypeBoundClass> env, TypeBoundClass info) {
-    if (info.superclass() != null) {
-      addSuperTypes(closure, env, info.superclass());
-    }
-    for (ClassSymbol i : info.interfaces()) {
-      addSuperTypes(closure, env, i);
-    }
-  }
-
   private static void addPackageInfos(Set<ClassSymbol> closure, BindingResult bound) {
     Set<ClassSymbol> packages = new LinkedHashSet<>();
     for (ClassSymbol sym : closure) {
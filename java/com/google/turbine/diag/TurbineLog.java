@@ -18,11 +18,15 @@ package com.google.turbine.diag;
 
 import com.google.common.collect.ImmutableList;
 import com.google.turbine.diag.TurbineError.ErrorKind;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import javax.tools.Diagnostic;
 
-/** A log that collects diagnostics. */
+/** A log that collects diagnostics. The log is safe for concurrent use. */
 public class TurbineLog {
 
   private final Set<TurbineDiagnostic> diagnostics = new LinkedHashSet<>();
@@ -31,7 +35,7 @@ public class TurbineLog {
     return new TurbineLogWithSource(source);
   }
 
-  public ImmutableList<TurbineDiagnostic> diagnostics() {
+  public synchronized ImmutableList<TurbineDiagnostic> diagnostics() {
     return ImmutableList.copyOf(diagnostics);
   }
 
@@ -41,7 +45,7 @@ public class TurbineLog {
     }
   }
 
-  public boolean anyErrors() {
+  public synchronized boolean anyErrors() {
     for (TurbineDiagnostic error : diagnostics) {
       if (error.severity().equals(Diagnostic.Kind.ERROR)) {
         return true;
@@ -57,7 +61,7 @@ public class TurbineLog {
    * <p>Errors reported by turbine (e.g. missing symbols) are non-fatal, since they may be fixed by
    * code generated in later processing rounds.
    */
-  public boolean errorRaised() {
+  public synchronized boolean errorRaised() {
     for (TurbineDiagnostic error : diagnostics) {
       if (error.kind().equals(ErrorKind.PROC) && error.severity().equals(Diagnostic.Kind.ERROR)) {
         return true;
@@ -67,13 +71,57 @@ public class TurbineLog {
   }
 
   /** Reset the log between annotation processing rounds. */
-  public void clear() {
+  public synchronized void clear() {
     diagnostics.removeIf(TurbineDiagnostic::isError);
   }
 
+  /** Returns the number of diagnostics that have been reported. */
+  public synchronized int size() {
+    return diagnostics.size();
+  }
+
+  /**
+   * Discards all but the first {@code size} diagnostics, e.g. to roll back the diagnostics reported
+   * by work that is going to be re-done.
+   */
+  public synchronized void truncate(int size) {
+    Iterator<TurbineDiagnostic> it = diagnostics.iterator();
+    for (int i = 0; it.hasNext(); i++) {
+      it.next();
+      if (i >= size) {
+        it.remove();
+      }
+    }
+  }
+
+  /** Returns true if any errors were reported after the first {@code size} diagnostics. */
+  public synchronized boolean anyErrorsSince(int size) {
+    return diagnostics.stream().skip(size).anyMatch(TurbineDiagnostic::isError);
+  }
+
+  /**
+   * Sorts the diagnostics reported after the first {@code size} diagnostics by their position, e.g.
+   * so diagnostics reported by concurrent work appear in a deterministic order.
+   */
+  public synchronized void sortSince(int size) {
+    List<TurbineDiagnostic> reported = new ArrayList<>(diagnostics);
+    reported = reported.subList(size, reported.size());
+    reported.sort(
+        Comparator.comparing(TurbineDiagnostic::path)
+            .thenComparingInt(TurbineDiagnostic::line)
+            .thenComparingInt(TurbineDiagnostic::column)
+            .thenComparing(TurbineDiagnostic::message));
+    truncate(size);
+    diagnostics.addAll(reported);
+  }
+
   /** Reports an annotation processing diagnostic with no position information. */
   public void diagnostic(Diagnostic.Kind severity, String message) {
-    diagnostics.add(TurbineDiagnostic.format(severity, ErrorKind.PROC, message));
+    add(TurbineDiagnostic.format(severity, ErrorKind.PROC, message));
+  }
+
+  private synchronized void add(TurbineDiagnostic diagnostic) {
+    diagnostics.add(diagnostic);
   }
 
   /** A log for a specific source file. */
@@ -86,7 +134,7 @@ public class TurbineLog {
     }
 
     public void diagnostic(Diagnostic.Kind severity, int position, ErrorKind kind, Object... args) {
-      diagnostics.add(TurbineDiagnostic.format(severity, source, position, kind, args));
+      add(TurbineDiagnostic.format(severity, source, position, kind, args));
     }
 
     public void error(int position, ErrorKind kind, Object... args) {
@@ -16,7 +16,9 @@
 
 package com.google.turbine.lower;
 
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.turbine.binder.DisambiguateTypeAnnotations.groupRepeated;
 import static java.lang.Math.max;
 import static java.util.Objects.requireNonNull;
@@ -25,6 +27,8 @@ import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.turbine.binder.bound.EnumConstantValue;
 import com.google.turbine.binder.bound.ModuleInfo.ExportInfo;
 import com.google.turbine.binder.bound.ModuleInfo.OpenInfo;
@@ -42,6 +46,7 @@ import com.google.turbine.binder.bound.TypeBoundClass.ParamInfo;
 import com.google.turbine.binder.bound.TypeBoundClass.RecordComponentInfo;
 import com.google.turbine.binder.bound.TypeBoundClass.TyVarInfo;
 import com.google.turbine.binder.bytecode.BytecodeBoundClass;
+import com.google.turbine.binder.env.CachingEnv;
 import com.google.turbine.binder.env.CompoundEnv;
 import com.google.turbine.binder.env.Env;
 import com.google.turbine.binder.env.SimpleEnv;
@@ -71,6 +76,7 @@ import com.google.turbine.model.TurbineFlag;
 import com.google.turbine.model.TurbineTyKind;
 import com.google.turbine.model.TurbineVisibility;
 import com.google.turbine.options.LanguageVersion;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.type.AnnoInfo;
 import com.google.turbine.type.Type;
 import com.google.turbine.type.Type.ArrayTy;
@@ -81,11 +87,20 @@ import com.google.turbine.type.Type.TyVar;
 import com.google.turbine.type.Type.WildTy;
 import com.google.turbine.types.Erasure;
 import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import org.jspecify.annotations.Nullable;
 
@@ -142,30 +157,197 @@ public class Lower {
       ImmutableMap<ClassSymbol, SourceTypeBoundClass> units,
       ImmutableList<SourceModuleInfo> modules,
       Env<ClassSymbol, BytecodeBoundClass> classpath) {
-    CompoundEnv<ClassSymbol, TypeBoundClass> env =
-        CompoundEnv.<ClassSymbol, TypeBoundClass>of(classpath).append(new SimpleEnv<>(units));
+    return lowerAll(options, units, modules, classpath, directExecutor());
+  }
+
+  /**
+   * Lowers all given classes to bytecode, using the given executor to lower classes concurrently.
+   *
+   * <p>Each class is lowered independently, and the output is identical to sequential lowering: the
+   * bytecode is returned in the iteration order of {@code units}, and the referenced symbols in the
+   * order they would have been discovered if the classes were lowered one at a time.
+   */
+  public static Lowered lowerAll(
+      LowerOptions options,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> units,
+      ImmutableList<SourceModuleInfo> modules,
+      Env<ClassSymbol, BytecodeBoundClass> classpath,
+      Executor executor) {
     ImmutableMap.Builder<String, byte[]> result = ImmutableMap.builder();
+    Lowered lowered = lowerAll(options, units, modules, classpath, executor, result::put);
+    return Lowered.create(result.buildOrThrow(), lowered.symbols());
+  }
+
+  /**
+   * Lowers all given classes to bytecode, and passes the bytecode for each class to {@code sink} as
+   * soon as it and all of the classes before it are available, in the same order as {@link
+   * #lowerAll(LowerOptions, ImmutableMap, ImmutableList, Env, Executor)}. The sink is called on the
+   * calling thread, and the bytecode is not retained, so {@link Lowered#bytes} of the result is
+   * empty.
+   */
+  public static Lowered lowerAll(
+      LowerOptions options,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> units,
+      ImmutableList<SourceModuleInfo> modules,
+      Env<ClassSymbol, BytecodeBoundClass> classpath,
+      Executor executor,
+      BiConsumer<String, byte[]> sink) {
+    CompoundEnv<ClassSymbol, TypeBoundClass> env =
+        CompoundEnv.<ClassSymbol, TypeBoundClass>of(CachingEnv.of(classpath))
+            .append(new SimpleEnv<>(units));
+    int majorVersion = majorVersion(options);
+    InOrderLowering lowering =
+        new InOrderLowering(options, units, units.keySet(), env, majorVersion, executor);
     Set<ClassSymbol> symbols = new LinkedHashSet<>();
-    // Output Java 8 bytecode at minimum, for type annotations
-    int majorVersion = max(options.languageVersion().majorVersion(), 52);
     for (ClassSymbol sym : units.keySet()) {
-      result.put(
-          sym.binaryName(),
-          lower(units.get(sym), env, sym, symbols, majorVersion, options.emitPrivateFields()));
+      // Wait for the classes in order, so the output and reported error (if any) are deterministic.
+      // Each result is dropped once it has been consumed, so its bytecode can be collected.
+      LoweredClass lowered = lowering.next();
+      sink.accept(sym.binaryName(), lowered.bytes());
+      symbols.addAll(lowered.symbols());
     }
     if (modules.size() == 1) {
       // single module mode: the module-info.class file is at the root
-      result.put("module-info", lower(getOnlyElement(modules), env, symbols, majorVersion));
+      sink.accept("module-info", lower(getOnlyElement(modules), env, symbols, majorVersion));
     } else {
       // multi-module mode: the output module-info.class are in a directory corresponding to their
       // package
       for (SourceModuleInfo module : modules) {
-        result.put(
+        sink.accept(
             module.name().replace('.', '/') + "/module-info",
             lower(module, env, symbols, majorVersion));
       }
     }
-    return Lowered.create(result.buildOrThrow(), ImmutableSet.copyOf(symbols));
+    return Lowered.create(ImmutableMap.of(), ImmutableSet.copyOf(symbols));
+  }
+
+  /**
+   * Lowers the given classes to bytecode, concurrently using the given executor. The classes may be
+   * a subset of the compilation's {@code units}, which are all visible while lowering them.
+   *
+   * @return the bytecode and referenced symbols of each class, in the iteration order of {@code
+   *     syms}
+   */
+  public static ImmutableMap<ClassSymbol, LoweredClass> lowerClasses(
+      LowerOptions options,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> units,
+      Collection<ClassSymbol> syms,
+      Env<ClassSymbol, BytecodeBoundClass> classpath,
+      Executor executor) {
+    CompoundEnv<ClassSymbol, TypeBoundClass> env =
+        CompoundEnv.<ClassSymbol, TypeBoundClass>of(CachingEnv.of(classpath))
+            .append(new SimpleEnv<>(units));
+    InOrderLowering lowering =
+        new InOrderLowering(options, units, syms, env, majorVersion(options), executor);
+    ImmutableMap.Builder<ClassSymbol, LoweredClass> result =
+        ImmutableMap.builderWithExpectedSize(syms.size());
+    for (ClassSymbol sym : syms) {
+      result.put(sym, lowering.next());
+    }
+    return result.buildOrThrow();
+  }
+
+  private static int majorVersion(LowerOptions options) {
+    // Output Java 8 bytecode at minimum, for type annotations
+    return max(options.languageVersion().majorVersion(), 52);
+  }
+
+  /**
+   * Lowers classes concurrently, and returns the results in order. At most a small multiple of the
+   * executor's parallelism are in flight at once: another class is only submitted when a result is
+   * consumed, so the bytecode of classes that the caller hasn't consumed yet doesn't accumulate.
+   */
+  private static final class InOrderLowering {
+    private final LowerOptions options;
+    private final ImmutableMap<ClassSymbol, SourceTypeBoundClass> units;
+    private final Iterator<ClassSymbol> syms;
+    private final Env<ClassSymbol, TypeBoundClass> env;
+    private final int majorVersion;
+    private final Executor executor;
+    private final Queue<ListenableFuture<LoweredClass>> futures = new ArrayDeque<>();
+
+    InOrderLowering(
+        LowerOptions options,
+        ImmutableMap<ClassSymbol, SourceTypeBoundClass> units,
+        Collection<ClassSymbol> syms,
+        Env<ClassSymbol, TypeBoundClass> env,
+        int majorVersion,
+        Executor executor) {
+      this.options = options;
+      this.units = units;
+      this.syms = syms.iterator();
+      this.env = env;
+      this.majorVersion = majorVersion;
+      this.executor = executor;
+      // twice the parallelism, so the workers stay busy while the results are consumed
+      int window = 2 * parallelism(executor);
+      for (int i = 0; i < window && this.syms.hasNext(); i++) {
+        submitNext();
+      }
+    }
+
+    /** Returns the next class's result, waiting for it if necessary. */
+    LoweredClass next() {
+      ListenableFuture<LoweredClass> future = futures.remove();
+      if (syms.hasNext()) {
+        submitNext();
+      }
+      return getDone(future);
+    }
+
+    private void submitNext() {
+      ClassSymbol sym = syms.next();
+      SourceTypeBoundClass info = requireNonNull(units.get(sym), sym.binaryName());
+      futures.add(
+          Futures.submit(
+              Profiler.inCurrentSpan(
+                  () -> {
+                    Set<ClassSymbol> symbols = new LinkedHashSet<>();
+                    byte[] bytes =
+                        lower(info, env, sym, symbols, majorVersion, options.emitPrivateFields());
+                    return new LoweredClass(bytes, ImmutableSet.copyOf(symbols));
+                  }),
+              executor));
+    }
+
+    private static int parallelism(Executor executor) {
+      return executor instanceof ForkJoinPool
+          ? ((ForkJoinPool) executor).getParallelism()
+          : Runtime.getRuntime().availableProcessors();
+    }
+  }
+
+  /** The bytecode for a single class, and the symbols it references. */
+  public static final class LoweredClass {
+    private final byte[] bytes;
+    private final ImmutableSet<ClassSymbol> symbols;
+
+    LoweredClass(byte[] bytes, ImmutableSet<ClassSymbol> symbols) {
+      this.bytes = bytes;
+      this.symbols = symbols;
+    }
+
+    /** Returns the bytecode for the class. */
+    public byte[] bytes() {
+      return bytes;
+    }
+
+    /** Returns the symbols referenced by the class, in the order they were discovered. */
+    public ImmutableSet<ClassSymbol> symbols() {
+      return symbols;
+    }
+  }
+
+  private static <T> T getDone(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (ExecutionException e) {
+      throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
   }
 
   /** Lowers a class to bytecode. */
@@ -190,6 +372,12 @@ public class Lower {
   private final LowerSignature sig = new LowerSignature();
   private final Env<ClassSymbol, TypeBoundClass> env;
 
+  /**
+   * Annotations whose retention was checked, including source-retention annotations that aren't
+   * referenced by the class file, since the output depends on their retention.
+   */
+  private final Set<ClassSymbol> annotationSymbols = new LinkedHashSet<>();
+
   public Lower(Env<ClassSymbol, TypeBoundClass> env) {
     this.env = env;
   }
@@ -230,6 +418,7 @@ public class Lower {
             /* record= */ null,
             /* transitiveJar= */ null);
     symbols.addAll(sig.classes);
+    symbols.addAll(annotationSymbols);
     return ClassWriter.writeClass(classfile);
   }
 
@@ -357,6 +546,7 @@ public class Lower {
             /* transitiveJar= */ null);
 
     symbols.addAll(sig.classes);
+    symbols.addAll(annotationSymbols);
 
     return ClassWriter.writeClass(classfile);
   }
@@ -650,6 +840,7 @@ public class Lower {
    * and {@code null} if it should not be retained in bytecode.
    */
   private @Nullable RuntimeVisibility getVisibility(ClassSymbol sym) {
+    annotationSymbols.add(sym);
     RetentionPolicy retention =
         requireNonNull(env.getNonNull(sym).annotationMetadata()).retention();
     switch (retention) {
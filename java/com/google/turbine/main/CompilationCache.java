@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_HOME;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.turbine.binder.ClassPath;
+import com.google.turbine.binder.ClassPathBinder;
+import com.google.turbine.binder.CtSymClassBinder;
+import com.google.turbine.binder.JarIndexCache;
+import com.google.turbine.binder.JimageClassBinder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Platform classpaths, bootclasspaths and classpath jar indexes that can be reused by multiple
+ * compilations in the same process, e.g. by a persistent {@link Worker}. The cached classpaths are
+ * safe for concurrent use, so concurrent compilations share them.
+ *
+ * <p>Cached bootclasspaths and jar indexes are revalidated against the size and last-modified time
+ * of the files they were read from. Callers that learn of changes by other means, such as content
+ * digests, should {@link #invalidate} the changed files; that is the only way platform classpaths
+ * are discarded. A discarded platform classpath is only closed once every {@link Session} that is
+ * reading from it has been closed.
+ */
+final class CompilationCache implements Closeable {
+
+  private static final String HOST_JAVA_HOME = "";
+
+  private final Map<String, CachedImage> jimages = new ConcurrentHashMap<>();
+  private final Map<Integer, CachedCtSym> ctSymClassPaths = new ConcurrentHashMap<>();
+  private final Map<ImmutableList<Path>, CachedClassPath> bootClassPaths =
+      new ConcurrentHashMap<>();
+  private final Map<Optional<String>, JarIndexCache> jarIndexCaches = new ConcurrentHashMap<>();
+
+  /** A bound {@code --bootclasspath}, and the size and last-modified time of each of its jars. */
+  private static final class CachedClassPath {
+    final ImmutableList<Long> stamps;
+    final ClassPath classPath;
+
+    CachedClassPath(ImmutableList<Long> stamps, ClassPath classPath) {
+      this.stamps = stamps;
+      this.classPath = classPath;
+    }
+  }
+
+  /**
+   * A jimage, and the number of references to it: one held by the cache until the image is
+   * discarded, and one for each compilation that is reading from it. The image is closed once the
+   * last reference is released.
+   */
+  private static final class CachedImage {
+    final JimageClassBinder.Image image;
+    private int references = 1;
+
+    CachedImage(JimageClassBinder.Image image) {
+      this.image = image;
+    }
+
+    /** Adds a reference, or returns false if the image has already been closed. */
+    synchronized boolean retain() {
+      if (references == 0) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    synchronized void release() throws IOException {
+      if (--references == 0) {
+        image.close();
+      }
+    }
+  }
+
+  /**
+   * The cached state a single compilation is reading from, which isn't closed before the session is
+   * even if it's discarded from the cache.
+   */
+  static final class Session implements Closeable {
+    private final List<CachedImage> images = new ArrayList<>();
+    private boolean closed;
+
+    private void add(CachedImage image) throws IOException {
+      synchronized (this) {
+        if (!closed) {
+          images.add(image);
+          return;
+        }
+      }
+      // the compilation already finished, e.g. because it failed while this image was being opened
+      image.release();
+    }
+
+    @Override
+    public void close() throws IOException {
+      List<CachedImage> toRelease;
+      synchronized (this) {
+        closed = true;
+        toRelease = new ArrayList<>(images);
+        images.clear();
+      }
+      for (CachedImage image : toRelease) {
+        image.release();
+      }
+    }
+  }
+
+  /** A platform classpath for a release, and the ct.sym file it was read from. */
+  private static final class CachedCtSym {
+    final Path ctSym;
+    final @Nullable ClassPath classPath;
+
+    CachedCtSym(Path ctSym, @Nullable ClassPath classPath) {
+      this.ctSym = ctSym;
+      this.classPath = classPath;
+    }
+  }
+
+  /**
+   * Returns a platform classpath for the jimage file of the given JDK, or of the host JDK if {@code
+   * javaHome} is empty. The classpath stays open until {@code session} is closed, even if the cache
+   * is invalidated or closed before then.
+   */
+  ClassPath jimage(Optional<String> javaHome, Session session) throws IOException {
+    while (true) {
+      CachedImage cached;
+      try {
+        cached =
+            jimages.computeIfAbsent(
+                javaHome.orElse(HOST_JAVA_HOME),
+                k -> {
+                  try {
+                    return new CachedImage(
+                        JimageClassBinder.open(
+                            javaHome.orElseGet(() -> requireNonNull(JAVA_HOME.value()))));
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      if (cached.retain()) {
+        session.add(cached);
+        return cached.image.classPath();
+      }
+      // the image was discarded and closed concurrently, so open it again
+    }
+  }
+
+  /**
+   * Returns a platform classpath for the given release from the host JDK's ct.sym file, or {@code
+   * null} if the release is not supported.
+   */
+  @Nullable ClassPath ctSym(int release) throws IOException {
+    Path ctSym = normalize(CtSymClassBinder.ctSymPath());
+    CachedCtSym cached = ctSymClassPaths.get(release);
+    if (cached != null && cached.ctSym.equals(ctSym)) {
+      return cached.classPath;
+    }
+    ClassPath classPath = CtSymClassBinder.bind(ctSym, release);
+    ctSymClassPaths.put(release, new CachedCtSym(ctSym, classPath));
+    return classPath;
+  }
+
+  /** Returns a classpath for the given {@code --bootclasspath} jars. */
+  ClassPath bootClassPath(ImmutableList<Path> jars, JarIndexCache jarIndexCache)
+      throws IOException {
+    ImmutableList<Path> key = normalize(jars);
+    ImmutableList<Long> stamps = stamps(jars);
+    CachedClassPath cached = bootClassPaths.get(key);
+    if (cached != null && cached.stamps.equals(stamps)) {
+      return cached.classPath;
+    }
+    ClassPath classPath = ClassPathBinder.bindClasspath(jars, jarIndexCache);
+    bootClassPaths.put(key, new CachedClassPath(stamps, classPath));
+    return classPath;
+  }
+
+  /** Returns a jar index cache, which persists indexes in the given directory if it is present. */
+  JarIndexCache jarIndexCache(Optional<String> directory) {
+    return jarIndexCaches.computeIfAbsent(
+        directory,
+        d -> d.isPresent() ? new JarIndexCache(Paths.get(d.get())) : JarIndexCache.inMemory());
+  }
+
+  /** Discards any cached state that was read from the given file. */
+  void invalidate(Path path) throws IOException {
+    Path normalized = normalize(path);
+    for (JarIndexCache jarIndexCache : jarIndexCaches.values()) {
+      jarIndexCache.invalidate(normalized);
+    }
+    bootClassPaths.keySet().removeIf(jars -> jars.contains(normalized));
+    ctSymClassPaths.values().removeIf(cached -> cached.ctSym.equals(normalized));
+    for (String javaHome : jimages.keySet()) {
+      if (!javaHome.equals(HOST_JAVA_HOME)
+          && normalized.startsWith(normalize(Paths.get(javaHome)))) {
+        CachedImage cached = jimages.remove(javaHome);
+        if (cached != null) {
+          cached.release();
+        }
+      }
+    }
+  }
+
+  /**
+   * Closes the file systems of any cached platform classpaths for JDKs other than the host JDK, once
+   * no compilation is reading from them.
+   */
+  @Override
+  public void close() throws IOException {
+    for (String javaHome : jimages.keySet()) {
+      CachedImage cached = jimages.remove(javaHome);
+      if (cached != null) {
+        cached.release();
+      }
+    }
+  }
+
+  private static ImmutableList<Long> stamps(ImmutableList<Path> jars) throws IOException {
+    ImmutableList.Builder<Long> stamps = ImmutableList.builderWithExpectedSize(2 * jars.size());
+    for (Path jar : jars) {
+      BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+      stamps.add(attributes.size()).add(attributes.lastModifiedTime().toMillis());
+    }
+    return stamps.build();
+  }
+
+  private static ImmutableList<Path> normalize(ImmutableList<Path> paths) {
+    ImmutableList.Builder<Path> normalized = ImmutableList.builderWithExpectedSize(paths.size());
+    for (Path path : paths) {
+      normalized.add(normalize(path));
+    }
+    return normalized.build();
+  }
+
+  private static Path normalize(Path path) {
+    return path.toAbsolutePath().normalize();
+  }
+}
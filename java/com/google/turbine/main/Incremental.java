@@ -0,0 +1,605 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_HOME;
+import static com.google.common.base.StandardSystemProperty.JAVA_VERSION;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.bound.SourceTypeBoundClass;
+import com.google.turbine.binder.bound.TypeBoundClass.FieldInfo;
+import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.diag.SourceFile;
+import com.google.turbine.lower.Lower;
+import com.google.turbine.lower.Lower.LoweredClass;
+import com.google.turbine.options.TurbineOptions;
+import com.google.turbine.parse.Lexer;
+import com.google.turbine.parse.StreamLexer;
+import com.google.turbine.parse.Token;
+import com.google.turbine.parse.UnicodeEscapePreprocessor;
+import com.google.turbine.profile.Profiler;
+import com.google.turbine.proto.IncrementalProto.ClassState;
+import com.google.turbine.proto.IncrementalProto.CompilationUnitState;
+import com.google.turbine.proto.IncrementalProto.IncrementalState;
+import com.google.turbine.zip.Zip;
+import com.google.turbine.zip.ZipWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Incremental compilation, using the state recorded by a previous compilation with the same output.
+ *
+ * <p>All sources are still parsed and bound, since binding needs a model of the whole compilation,
+ * but only the classes whose output may have changed are lowered again:
+ *
+ * <ul>
+ *   <li>the classes in compilation units whose source text changed,
+ *   <li>the classes in compilation units that mention the simple name of a class whose supertypes
+ *       or member types changed, or of one of its subclasses, since qualified names like {@code
+ *       B.Foo} may resolve to a member type that {@code B} inherits, and
+ *   <li>transitively, the classes that reference or extend a class whose class file changed.
+ * </ul>
+ *
+ * <p>The class files of all other classes are copied from the previous output jar. The output is
+ * identical to a non-incremental compilation.
+ *
+ * <p>References to constant fields are not tracked per class, since their values are inlined, so if
+ * the value of any constant field in the compilation changes all classes are lowered again. Changes
+ * to the options or to the contents of the classpath and bootclasspath, adding or removing classes
+ * (which may change how names resolve), and changes to the previous outputs also cause all classes
+ * to be lowered again.
+ *
+ * <p>If none of the inputs changed and the outputs of the previous compilation are intact, the
+ * compilation is skipped entirely.
+ */
+final class Incremental {
+
+  /** The version of the state format, which is part of the environment fingerprint. */
+  private static final int VERSION = 2;
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  /**
+   * Returns the incremental compilation state for the given options, or {@code null} if they don't
+   * support incremental compilation. Incremental compilation requires an output jar, and is not
+   * supported with annotation processing or classpath reduction; any stale state for such a
+   * compilation is deleted.
+   */
+  static @Nullable Incremental load(TurbineOptions options) throws IOException {
+    if (!options.incrementalState().isPresent()) {
+      return null;
+    }
+    Path statePath = Paths.get(options.incrementalState().get());
+    if (!options.output().isPresent()
+        || !options.processors().isEmpty()
+        || options.reducedClasspathMode() != TurbineOptions.ReducedClasspathMode.NONE) {
+      Files.deleteIfExists(statePath);
+      return null;
+    }
+    IncrementalState previous = null;
+    if (Files.exists(statePath)) {
+      try (InputStream is = Files.newInputStream(statePath)) {
+        previous = IncrementalState.parseFrom(is);
+      } catch (InvalidProtocolBufferException e) {
+        // ignore corrupt state, and compile from scratch
+      }
+    }
+    ByteString environment = environmentFingerprint(options);
+    ByteString sources = sourcesFingerprint(options);
+    boolean outputsIntact =
+        previous != null
+            && previous.getEnvironmentFingerprint().equals(environment)
+            && previous.getOutputsFingerprint().equals(outputsFingerprint(options));
+    return new Incremental(statePath, outputsIntact ? previous : null, environment, sources);
+  }
+
+  private final Path statePath;
+
+  /**
+   * The state of the previous compilation, or {@code null} if there was none, or if its options,
+   * classpath, or outputs changed since.
+   */
+  private final @Nullable IncrementalState previous;
+
+  private final ByteString environment;
+  private final ByteString sources;
+  private final List<CompilationUnitState> units = new ArrayList<>();
+
+  private Incremental(
+      Path statePath,
+      @Nullable IncrementalState previous,
+      ByteString environment,
+      ByteString sources) {
+    this.statePath = statePath;
+    this.previous = previous;
+    this.environment = environment;
+    this.sources = sources;
+  }
+
+  /** Returns true if none of the inputs changed since the previous compilation. */
+  boolean upToDate() {
+    return previous != null && previous.getSourcesFingerprint().equals(sources);
+  }
+
+  /**
+   * Deletes the state, e.g. if the compilation turns out not to support incremental compilation.
+   */
+  void discard() throws IOException {
+    Files.deleteIfExists(statePath);
+  }
+
+  /**
+   * Lowers the classes in the compilation and adds them to {@code jar}, copying the class files of
+   * classes that don't need to be lowered again from the previous {@code output} jar.
+   */
+  Lower.Lowered lower(
+      Lower.LowerOptions lowerOptions,
+      BindingResult bound,
+      Path output,
+      ZipWriter jar,
+      Executor executor,
+      Profiler profiler)
+      throws IOException {
+    ImmutableMap<ClassSymbol, SourceTypeBoundClass> classes = bound.units();
+    Map<String, List<ClassSymbol>> classesByUnit = new LinkedHashMap<>();
+    Map<ClassSymbol, ByteString> constants = new HashMap<>();
+    Map<ClassSymbol, ByteString> members = new HashMap<>();
+    for (Map.Entry<ClassSymbol, SourceTypeBoundClass> e : classes.entrySet()) {
+      classesByUnit
+          .computeIfAbsent(e.getValue().source().path(), k -> new ArrayList<>())
+          .add(e.getKey());
+      constants.put(e.getKey(), constantsFingerprint(e.getValue()));
+      members.put(e.getKey(), membersFingerprint(e.getValue()));
+    }
+    Map<String, ByteString> unitFingerprints = new HashMap<>();
+    for (SourceTypeBoundClass info : classes.values()) {
+      unitFingerprints.computeIfAbsent(
+          info.source().path(), k -> fingerprint(HASH.hashString(info.source().source(), UTF_8)));
+    }
+
+    Map<ClassSymbol, ClassState> previousClasses = new HashMap<>();
+    Map<ClassSymbol, String> previousUnits = new HashMap<>();
+    Map<String, ByteString> previousUnitFingerprints = new HashMap<>();
+    if (previous != null) {
+      for (CompilationUnitState unit : previous.getCompilationUnitList()) {
+        previousUnitFingerprints.put(unit.getPath(), unit.getFingerprint());
+        for (ClassState state : unit.getDeclaredClassList()) {
+          ClassSymbol sym = new ClassSymbol(state.getBinaryName());
+          previousClasses.put(sym, state);
+          previousUnits.put(sym, unit.getPath());
+        }
+      }
+    }
+
+    // Find the compilation units that need to be lowered again because they changed. If classes
+    // were added or removed, or any constant values changed, all of them do.
+    Set<String> dirty = new LinkedHashSet<>();
+    boolean reuse = previousUnits.size() == classes.size();
+    for (Map.Entry<ClassSymbol, SourceTypeBoundClass> e : classes.entrySet()) {
+      ClassState state = previousClasses.get(e.getKey());
+      if (state == null
+          || !e.getValue().source().path().equals(previousUnits.get(e.getKey()))
+          || !state.getConstantsFingerprint().equals(constants.get(e.getKey()))) {
+        reuse = false;
+        break;
+      }
+    }
+    for (Map.Entry<String, ByteString> e : unitFingerprints.entrySet()) {
+      if (!reuse || !e.getValue().equals(previousUnitFingerprints.get(e.getKey()))) {
+        dirty.add(e.getKey());
+      }
+    }
+
+    // Class files only record the class a qualified name resolved to, not the classes whose
+    // members were searched to find it, so if the supertypes or member types of a class changed,
+    // the units that could have used it or one of its subclasses as a qualifier are dirty too.
+    if (reuse) {
+      Set<ClassSymbol> membersChanged = new LinkedHashSet<>();
+      for (ClassSymbol sym : classes.keySet()) {
+        if (!previousClasses.get(sym).getMembersFingerprint().equals(members.get(sym))) {
+          membersChanged.add(sym);
+        }
+      }
+      if (!membersChanged.isEmpty()) {
+        Set<String> qualifiers = new HashSet<>();
+        for (Map.Entry<ClassSymbol, SourceTypeBoundClass> e : classes.entrySet()) {
+          if (membersChanged.contains(e.getKey())
+              || extendsAny(e.getKey(), classes, membersChanged)) {
+            qualifiers.add(e.getValue().decl().name().value());
+          }
+        }
+        for (Map.Entry<String, List<ClassSymbol>> e : classesByUnit.entrySet()) {
+          if (!dirty.contains(e.getKey())
+              && mentionsAny(classes.get(e.getValue().get(0)).source(), qualifiers)) {
+            dirty.add(e.getKey());
+          }
+        }
+      }
+    }
+
+    // Lower the classes in dirty compilation units. If the class file of any of them changed, the
+    // compilation units that reference or extend it are dirty too.
+    Map<ClassSymbol, LoweredClass> lowered = new HashMap<>();
+    Map<ClassSymbol, ByteString> fingerprints = new HashMap<>();
+    Set<String> pending = new LinkedHashSet<>(dirty);
+    while (!pending.isEmpty()) {
+      List<ClassSymbol> syms = new ArrayList<>();
+      for (String unit : pending) {
+        syms.addAll(classesByUnit.get(unit));
+      }
+      pending.clear();
+      try (Profiler.Span unused =
+          profiler.span(
+              "relower", "incremental", ImmutableMap.of("classes", String.valueOf(syms.size())))) {
+        lowered.putAll(
+            Lower.lowerClasses(lowerOptions, classes, syms, bound.classPathEnv(), executor));
+      }
+      Set<ClassSymbol> changed = new LinkedHashSet<>();
+      for (ClassSymbol sym : syms) {
+        ByteString fingerprint = fingerprint(HASH.hashBytes(lowered.get(sym).bytes()));
+        fingerprints.put(sym, fingerprint);
+        ClassState state = previousClasses.get(sym);
+        if (state == null || !state.getApiFingerprint().equals(fingerprint)) {
+          changed.add(sym);
+        }
+      }
+      if (changed.isEmpty()) {
+        break;
+      }
+      for (Map.Entry<String, List<ClassSymbol>> e : classesByUnit.entrySet()) {
+        if (dirty.contains(e.getKey())) {
+          continue;
+        }
+        for (ClassSymbol sym : e.getValue()) {
+          if (dependsOn(sym, previousClasses.get(sym), classes, changed)) {
+            dirty.add(e.getKey());
+            pending.add(e.getKey());
+            break;
+          }
+        }
+      }
+    }
+
+    // Write the output in the same order as a non-incremental compilation. The previous output is
+    // read instead of mapped, so it can be replaced by the new output once it's closed.
+    Set<ClassSymbol> symbols = new LinkedHashSet<>();
+    try (Zip.ZipIterable previousOutput =
+        lowered.size() < classes.size()
+            ? new Zip.ZipIterable(output, /* map= */ false)
+            : null) {
+      for (ClassSymbol sym : classes.keySet()) {
+        LoweredClass l = lowered.get(sym);
+        if (l != null) {
+          jar.add(sym.binaryName() + ".class", l.bytes());
+          symbols.addAll(l.symbols());
+        } else {
+          String name = sym.binaryName() + ".class";
+          jar.add(name, requireNonNull(requireNonNull(previousOutput).lookup(name)).data());
+          fingerprints.put(sym, previousClasses.get(sym).getApiFingerprint());
+          for (String symbol : previousClasses.get(sym).getSymbolList()) {
+            symbols.add(new ClassSymbol(symbol));
+          }
+        }
+      }
+    }
+
+    for (Map.Entry<String, List<ClassSymbol>> e : classesByUnit.entrySet()) {
+      CompilationUnitState.Builder unit =
+          CompilationUnitState.newBuilder()
+              .setPath(e.getKey())
+              .setFingerprint(unitFingerprints.get(e.getKey()));
+      for (ClassSymbol sym : e.getValue()) {
+        ClassState.Builder state =
+            ClassState.newBuilder()
+                .setBinaryName(sym.binaryName())
+                .setApiFingerprint(fingerprints.get(sym))
+                .setConstantsFingerprint(constants.get(sym))
+                .setMembersFingerprint(members.get(sym));
+        LoweredClass l = lowered.get(sym);
+        if (l != null) {
+          for (ClassSymbol symbol : l.symbols()) {
+            state.addSymbol(symbol.binaryName());
+          }
+        } else {
+          state.addAllSymbol(previousClasses.get(sym).getSymbolList());
+        }
+        unit.addDeclaredClass(state);
+      }
+      units.add(unit.build());
+    }
+    return Lower.Lowered.create(ImmutableMap.of(), ImmutableSet.copyOf(symbols));
+  }
+
+  /**
+   * Returns true if the class file of {@code sym} may depend on any of the {@code changed} classes:
+   * if it referenced any of them when it was previously lowered, or if any of them are supertypes
+   * of it, whose member types are in scope in its declaration.
+   */
+  private static boolean dependsOn(
+      ClassSymbol sym,
+      ClassState state,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> classes,
+      Set<ClassSymbol> changed) {
+    for (String symbol : state.getSymbolList()) {
+      if (changed.contains(new ClassSymbol(symbol))) {
+        return true;
+      }
+    }
+    return extendsAny(sym, classes, changed);
+  }
+
+  /** Returns true if any of the given classes is a supertype of {@code sym}. */
+  private static boolean extendsAny(
+      ClassSymbol sym,
+      ImmutableMap<ClassSymbol, SourceTypeBoundClass> classes,
+      Set<ClassSymbol> supertypes) {
+    Set<ClassSymbol> seen = new LinkedHashSet<>();
+    Deque<ClassSymbol> worklist = new ArrayDeque<>();
+    worklist.add(sym);
+    while (!worklist.isEmpty()) {
+      SourceTypeBoundClass info = classes.get(worklist.removeFirst());
+      if (info == null) {
+        // supertypes on the classpath are part of the environment fingerprint
+        continue;
+      }
+      List<ClassSymbol> direct = new ArrayList<>(info.interfaces());
+      if (info.superclass() != null) {
+        direct.add(info.superclass());
+      }
+      for (ClassSymbol supertype : direct) {
+        if (supertypes.contains(supertype)) {
+          return true;
+        }
+        if (seen.add(supertype)) {
+          worklist.addLast(supertype);
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Records the state of the compilation, after all of its outputs have been written, for use by
+   * the next compilation.
+   */
+  void save(TurbineOptions options) throws IOException {
+    IncrementalState.Builder state =
+        IncrementalState.newBuilder()
+            .setEnvironmentFingerprint(environment)
+            .setSourcesFingerprint(sources)
+            .addAllCompilationUnit(units);
+    ByteString outputs = outputsFingerprint(options);
+    if (outputs != null) {
+      state.setOutputsFingerprint(outputs);
+    }
+    Path tmp = statePath.resolveSibling(statePath.getFileName() + ".tmp");
+    try (OutputStream os = Files.newOutputStream(tmp)) {
+      state.build().writeTo(os);
+    }
+    Files.move(tmp, statePath, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * A fingerprint of everything other than the sources that the output depends on: the options, and
+   * the contents of the bootclasspath and classpath.
+   */
+  private static ByteString environmentFingerprint(TurbineOptions options) throws IOException {
+    Hasher hasher = HASH.newHasher();
+    hasher.putInt(VERSION);
+    putOptions(hasher, options);
+    // --release and --system read the platform classes of a JDK
+    hasher.putString(String.valueOf(JAVA_HOME.value()), UTF_8);
+    hasher.putString(String.valueOf(JAVA_VERSION.value()), UTF_8);
+    if (options.system().isPresent()) {
+      putFile(hasher, Paths.get(options.system().get(), "lib", "modules"));
+    }
+    for (String jar : ImmutableList.copyOf(options.bootClassPath())) {
+      putJar(hasher, Paths.get(jar));
+    }
+    for (String jar : options.classPath()) {
+      putJar(hasher, Paths.get(jar));
+    }
+    return fingerprint(hasher.hash());
+  }
+
+  /**
+   * Adds the options that can affect the contents of the outputs. The sources, classpath and
+   * bootclasspath are added separately, with their contents. Options that only affect how the
+   * compilation runs or what it reports, like {@code --threads}, {@code --profile} and {@code
+   * --output_metrics}, aren't included, so changing them doesn't invalidate the state.
+   */
+  private static void putOptions(Hasher hasher, TurbineOptions options) {
+    putOption(hasher, "javacopts", options.javacOpts());
+    putOption(hasher, "system", options.system());
+    putOption(hasher, "processorpath", options.processorPath());
+    putOption(hasher, "processors", options.processors());
+    putOption(hasher, "builtin_processors", options.builtinProcessors());
+    putOption(hasher, "target_label", options.targetLabel());
+    putOption(hasher, "injecting_rule_kind", options.injectingRuleKind());
+    putOption(hasher, "direct_dependencies", options.directJars());
+    putOption(hasher, "deps_artifacts", options.depsArtifacts());
+  }
+
+  private static void putOption(Hasher hasher, String name, Optional<String> value) {
+    putOption(hasher, name, value.map(ImmutableList::of).orElse(ImmutableList.of()));
+  }
+
+  private static void putOption(Hasher hasher, String name, Iterable<String> values) {
+    hasher.putString(name, UTF_8);
+    for (String value : values) {
+      hasher.putInt(value.length());
+      hasher.putString(value, UTF_8);
+    }
+    hasher.putInt(-1);
+  }
+
+  /**
+   * Adds the central directory of a jar, which includes the CRC of each entry. The jar is read
+   * instead of mapped, so it can be replaced after the fingerprint is computed.
+   */
+  private static void putJar(Hasher hasher, Path jar) throws IOException {
+    hasher.putString(jar.toString(), UTF_8);
+    if (!Files.isRegularFile(jar)) {
+      hasher.putInt(-1);
+      return;
+    }
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(jar, /* map= */ false)) {
+      hasher.putBytes(zip.centralDirectory());
+    }
+  }
+
+  /** Adds the size and last-modified time of a file that is too large to read. */
+  private static void putFile(Hasher hasher, Path path) throws IOException {
+    hasher.putString(path.toString(), UTF_8);
+    if (!Files.isRegularFile(path)) {
+      hasher.putInt(-1);
+      return;
+    }
+    hasher.putLong(Files.size(path));
+    hasher.putLong(Files.getLastModifiedTime(path).toMillis());
+  }
+
+  private static ByteString sourcesFingerprint(TurbineOptions options) throws IOException {
+    Hasher hasher = HASH.newHasher();
+    for (String source : options.sources()) {
+      putContents(hasher, Paths.get(source));
+    }
+    for (String sourceJar : options.sourceJars()) {
+      putContents(hasher, Paths.get(sourceJar));
+    }
+    return fingerprint(hasher.hash());
+  }
+
+  /**
+   * A fingerprint of the contents of the outputs, or {@code null} if any of them is a directory,
+   * and can't be checked.
+   */
+  private static @Nullable ByteString outputsFingerprint(TurbineOptions options)
+      throws IOException {
+    Hasher hasher = HASH.newHasher();
+    for (Optional<String> output :
+        ImmutableList.of(
+            options.output(),
+            options.outputDeps(),
+            options.outputManifest(),
+            options.gensrcOutput(),
+            options.resourceOutput())) {
+      if (!output.isPresent()) {
+        continue;
+      }
+      Path path = Paths.get(output.get());
+      if (Files.isDirectory(path)) {
+        return null;
+      }
+      putContents(hasher, path);
+    }
+    return fingerprint(hasher.hash());
+  }
+
+  private static void putContents(Hasher hasher, Path path) throws IOException {
+    hasher.putString(path.toString(), UTF_8);
+    if (!Files.isRegularFile(path)) {
+      hasher.putInt(-1);
+      return;
+    }
+    byte[] bytes = Files.readAllBytes(path);
+    hasher.putInt(bytes.length);
+    hasher.putBytes(bytes);
+  }
+
+  /**
+   * Returns true if the compilation unit mentions any of the given simple names. Every identifier
+   * in the unit is considered, which is a conservative approximation of the names that resolving
+   * its types could look up.
+   */
+  private static boolean mentionsAny(SourceFile source, Set<String> names) {
+    Lexer lexer = new StreamLexer(new UnicodeEscapePreprocessor(source));
+    for (Token token = lexer.next(); token != Token.EOF; token = lexer.next()) {
+      if (token == Token.IDENT && names.contains(lexer.stringValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A fingerprint of a class's supertypes and member types, which determine how names qualified by
+   * the class and its subclasses resolve.
+   */
+  private static ByteString membersFingerprint(SourceTypeBoundClass info) {
+    Hasher hasher = HASH.newHasher();
+    ClassSymbol superclass = info.superclass();
+    hasher.putString(superclass != null ? superclass.binaryName() : "", UTF_8);
+    hasher.putInt(info.interfaces().size());
+    for (ClassSymbol i : info.interfaces()) {
+      hasher.putString(i.binaryName(), UTF_8);
+    }
+    hasher.putInt(info.children().size());
+    for (Map.Entry<String, ClassSymbol> e : info.children().entrySet()) {
+      hasher.putString(e.getKey(), UTF_8);
+      hasher.putString(e.getValue().binaryName(), UTF_8);
+    }
+    return fingerprint(hasher.hash());
+  }
+
+  /** A fingerprint of the values of a class's constant fields. */
+  private static ByteString constantsFingerprint(SourceTypeBoundClass info) {
+    Hasher hasher = HASH.newHasher();
+    for (FieldInfo field : info.fields()) {
+      if (field.value() == null) {
+        continue;
+      }
+      hasher.putString(field.name(), UTF_8);
+      hasher.putString(field.value().constantTypeKind().name(), UTF_8);
+      hasher.putString(field.value().toString(), UTF_8);
+    }
+    return fingerprint(hasher.hash());
+  }
+
+  private static ByteString fingerprint(HashCode hash) {
+    return ByteString.copyFrom(hash.asBytes());
+  }
+}
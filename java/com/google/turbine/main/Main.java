@@ -17,24 +17,31 @@
 package com.google.turbine.main;
 
 import static com.google.common.base.StandardSystemProperty.JAVA_SPECIFICATION_VERSION;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 import com.google.auto.value.AutoValue;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.hash.Hashing;
+import com.google.common.io.Closer;
 import com.google.common.io.MoreFiles;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.turbine.binder.Binder;
 import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.Binder.ProcessorStatistics;
 import com.google.turbine.binder.Binder.Statistics;
 import com.google.turbine.binder.ClassPath;
 import com.google.turbine.binder.ClassPathBinder;
-import com.google.turbine.binder.CtSymClassBinder;
-import com.google.turbine.binder.JimageClassBinder;
+import com.google.turbine.binder.ClassPathUsage;
+import com.google.turbine.binder.JarIndexCache;
 import com.google.turbine.binder.Processing;
+import com.google.turbine.binder.Processing.ProcessorInfo;
 import com.google.turbine.binder.bound.SourceTypeBoundClass;
+import com.google.turbine.binder.bytecode.BytecodeBoundClass;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.deps.Dependencies;
 import com.google.turbine.deps.Transitive;
@@ -46,36 +53,50 @@ import com.google.turbine.options.TurbineOptions;
 import com.google.turbine.options.TurbineOptions.ReducedClasspathMode;
 import com.google.turbine.options.TurbineOptionsParser;
 import com.google.turbine.parse.Parser;
+import com.google.turbine.profile.Metrics;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.proto.DepsProto;
 import com.google.turbine.proto.ManifestProto;
+import com.google.turbine.proto.MetricsProto;
 import com.google.turbine.proto.ManifestProto.CompilationUnit;
 import com.google.turbine.tree.Tree.CompUnit;
 import com.google.turbine.zip.Zip;
+import com.google.turbine.zip.ZipWriter;
 import java.io.BufferedOutputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
 import java.util.jar.Attributes;
-import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
-import java.util.zip.ZipEntry;
+import org.jspecify.annotations.Nullable;
 
 /** Main entry point for the turbine CLI. */
 public final class Main {
 
-  private static final int BUFFER_SIZE = 65536;
-
   // These attributes are used by JavaBuilder, Turbine, and ijar.
   // They must all be kept in sync.
   static final String MANIFEST_DIR = "META-INF/";
@@ -83,7 +104,20 @@ public final class Main {
   static final Attributes.Name TARGET_LABEL = new Attributes.Name("Target-Label");
   static final Attributes.Name INJECTING_RULE_KIND = new Attributes.Name("Injecting-Rule-Kind");
 
+  /**
+   * The cache used by the public entry points, so callers that compile repeatedly in the same
+   * process reuse platform classpaths and jar indexes. It's never closed.
+   */
+  private static final CompilationCache CACHE = new CompilationCache();
+
   public static void main(String[] args) throws IOException {
+    if (Arrays.asList(args).contains("--persistent_worker")) {
+      // responses are written to stdout, so send anything else that is printed to stderr
+      PrintStream out = System.out;
+      System.setOut(System.err);
+      new Worker(Runtime.getRuntime().availableProcessors()).run(System.in, out);
+      System.exit(0);
+    }
     boolean ok;
     try {
       compile(args);
@@ -115,33 +149,133 @@ public final class Main {
 
     public abstract Statistics processorStatistics();
 
+    /**
+     * The time spent reading and parsing each source file. Source jar entries are keyed by {@code
+     * <jar>!/<entry>}.
+     */
+    public abstract ImmutableMap<String, Duration> parseTimes();
+
+    /**
+     * The cost of each phase of the compilation, and counts of the work it did. Empty unless the
+     * compilation was profiled or wrote metrics.
+     */
+    public abstract Metrics metrics();
+
+    /** How much of each classpath jar the compilation used, in classpath order. */
+    public abstract ImmutableList<ClassPathUsage> classpathUsage();
+
     static Result create(
         boolean transitiveClasspathFallback,
         int transitiveClasspathLength,
         int reducedClasspathLength,
-        Statistics processorStatistics) {
+        Statistics processorStatistics,
+        ImmutableMap<String, Duration> parseTimes,
+        Metrics metrics,
+        ImmutableList<ClassPathUsage> classpathUsage) {
       return new AutoValue_Main_Result(
           transitiveClasspathFallback,
           transitiveClasspathLength,
           reducedClasspathLength,
-          processorStatistics);
+          processorStatistics,
+          parseTimes,
+          metrics,
+          classpathUsage);
     }
   }
 
   @CanIgnoreReturnValue
   public static Result compile(String[] args) throws IOException {
-    return compile(TurbineOptionsParser.parse(Arrays.asList(args)));
+    return compile(Arrays.asList(args), CACHE);
+  }
+
+  /**
+   * Compiles with the given arguments, using the given cache, which may hold state from previous
+   * compilations in the same process.
+   */
+  @CanIgnoreReturnValue
+  static Result compile(Iterable<String> args, CompilationCache cache) throws IOException {
+    long start = System.nanoTime();
+    TurbineOptions options = TurbineOptionsParser.parse(args);
+    Profiler profiler = profiler(options);
+    profiler.record("options", start, System.nanoTime());
+    return compile(options, cache, profiler);
   }
 
   @CanIgnoreReturnValue
   public static Result compile(TurbineOptions options) throws IOException {
+    return compile(options, CACHE, profiler(options));
+  }
+
+  private static Profiler profiler(TurbineOptions options) {
+    if (options.profile().isPresent()) {
+      return Profiler.create();
+    }
+    // collecting metrics instruments annotation processing, so only do it if they are written
+    return options.outputMetrics().isPresent() ? Profiler.metricsOnly() : Profiler.disabled();
+  }
+
+  private static Result compile(TurbineOptions options, CompilationCache cache, Profiler profiler)
+      throws IOException {
     usage(options);
+    ForkJoinPool pool = pool(options.threads());
+    ExecutorService executor = pool != null ? pool : MoreExecutors.newDirectExecutorService();
+    try (CompilationCache.Session session = new CompilationCache.Session()) {
+      Result result = compile(options, cache, session, profiler, executor, pool);
+      if (options.outputMetrics().isPresent()) {
+        writeMetrics(Paths.get(options.outputMetrics().get()), result);
+      }
+      return result;
+    } finally {
+      executor.shutdownNow();
+      if (options.profile().isPresent()) {
+        profiler.writeTo(Paths.get(options.profile().get()));
+      }
+    }
+  }
 
-    ImmutableList<CompUnit> units = parseAll(options);
+  /**
+   * Returns a pool for work that can be parallelized, or {@code null} if {@code threads} is {@code
+   * 1} and all work should run on the calling thread.
+   */
+  private static @Nullable ForkJoinPool pool(int threads) {
+    if (threads == 1) {
+      return null;
+    }
+    return new ForkJoinPool(
+        threads,
+        pool -> {
+          ForkJoinWorkerThread thread =
+              ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+          thread.setName("turbine-" + thread.getPoolIndex());
+          return thread;
+        },
+        /* handler= */ null,
+        /* asyncMode= */ false);
+  }
 
-    ClassPath bootclasspath = bootclasspath(options);
+  private static Result compile(
+      TurbineOptions options,
+      CompilationCache cache,
+      CompilationCache.Session session,
+      Profiler profiler,
+      ExecutorService executor,
+      @Nullable ForkJoinPool pool)
+      throws IOException {
+    Incremental incremental;
+    try (Profiler.Span unused = profiler.span("load incremental state")) {
+      incremental = Incremental.load(options);
+    }
+    if (incremental != null && incremental.upToDate()) {
+      return Result.create(
+          /* transitiveClasspathFallback= */ false,
+          /* transitiveClasspathLength= */ options.classPath().size(),
+          /* reducedClasspathLength= */ options.classPath().size(),
+          Statistics.empty(),
+          /* parseTimes= */ ImmutableMap.of(),
+          profiler.metrics(),
+          /* classpathUsage= */ ImmutableList.of());
+    }
 
-    BindingResult bound;
     ReducedClasspathMode reducedClasspathMode = options.reducedClasspathMode();
     if (reducedClasspathMode == ReducedClasspathMode.JAVABUILDER_REDUCED
         && options.directJars().isEmpty()) {
@@ -149,41 +283,82 @@ public final class Main {
       // TODO(cushon): make this a usage error, see TODO in Dependencies.reduceClasspath
       reducedClasspathMode = ReducedClasspathMode.NONE;
     }
-    boolean transitiveClasspathFallback = false;
     ImmutableList<String> classPath = options.classPath();
+    // the classpath that is bound first, before falling back to the transitive classpath
+    Collection<String> firstClasspath =
+        reducedClasspathMode == ReducedClasspathMode.JAVABUILDER_REDUCED
+            ? Dependencies.reduceClasspath(classPath, options.directJars(), options.depsArtifacts())
+            : classPath;
+
+    // Parsing, bootclasspath loading and classpath indexing don't depend on each other, so the
+    // bootclasspath and classpath are loaded in the background while sources are parsed on this
+    // thread, and the stages are joined when binding starts.
+    JarIndexCache jarIndexCache = cache.jarIndexCache(options.classpathIndexCache());
+    Pipeline pipeline = new Pipeline(profiler);
+    Future<ClassPath> bootclasspathFuture =
+        pipeline.submit(
+            "bootclasspath",
+            executor,
+            () -> bootclasspath(options, cache, session, jarIndexCache));
+    Future<ClassPath> classpathFuture =
+        pipeline.submit(
+            "classpath",
+            executor,
+            () -> ClassPathBinder.bindClasspath(toPaths(firstClasspath), jarIndexCache, pool));
+    ParseResult parsed;
+    ClassPath bootclasspath;
+    ClassPath boundClasspath;
+    try {
+      parsed =
+          pipeline.run(
+              "parse", () -> parseAll(options.sources(), options.sourceJars(), executor, profiler));
+      bootclasspath = pipeline.join(bootclasspathFuture);
+      boundClasspath = pipeline.join(classpathFuture);
+    } finally {
+      bootclasspathFuture.cancel(/* mayInterruptIfRunning= */ true);
+      classpathFuture.cancel(/* mayInterruptIfRunning= */ true);
+    }
+    pipeline.finish();
+    ImmutableList<CompUnit> units = parsed.units();
+
+    BindingResult bound;
+    boolean transitiveClasspathFallback = false;
     int transitiveClasspathLength = classPath.size();
-    int reducedClasspathLength = classPath.size();
+    int reducedClasspathLength = firstClasspath.size();
     switch (reducedClasspathMode) {
       case NONE:
-        bound = bind(options, units, bootclasspath, classPath);
+        bound = bind(options, units, bootclasspath, boundClasspath, profiler, pool);
         break;
       case BAZEL_FALLBACK:
         reducedClasspathLength = options.reducedClasspathLength();
-        bound = bind(options, units, bootclasspath, classPath);
+        bound = bind(options, units, bootclasspath, boundClasspath, profiler, pool);
         transitiveClasspathFallback = true;
         break;
       case JAVABUILDER_REDUCED:
-        Collection<String> reducedClasspath =
-            Dependencies.reduceClasspath(classPath, options.directJars(), options.depsArtifacts());
-        reducedClasspathLength = reducedClasspath.size();
         try {
-          bound = bind(options, units, bootclasspath, reducedClasspath);
+          bound = bind(options, units, bootclasspath, boundClasspath, profiler, pool);
         } catch (TurbineError e) {
-          bound = fallback(options, units, bootclasspath, classPath);
+          try (Profiler.Span unused = profiler.span("classpath")) {
+            boundClasspath = ClassPathBinder.bindClasspath(toPaths(classPath), jarIndexCache, pool);
+          }
+          bound = fallback(options, units, bootclasspath, boundClasspath, profiler, pool);
           transitiveClasspathFallback = true;
         }
         break;
       case BAZEL_REDUCED:
         transitiveClasspathLength = options.fullClasspathLength();
         try {
-          bound = bind(options, units, bootclasspath, classPath);
+          bound = bind(options, units, bootclasspath, boundClasspath, profiler, pool);
         } catch (TurbineError e) {
           writeJdepsForFallback(options);
           return Result.create(
               /* transitiveClasspathFallback= */ true,
               /* transitiveClasspathLength= */ transitiveClasspathLength,
               /* reducedClasspathLength= */ reducedClasspathLength,
-              Statistics.empty());
+              Statistics.empty(),
+              parsed.parseTimes(),
+              profiler.metrics(),
+              boundClasspath.usage());
         }
         break;
       default:
@@ -193,46 +368,168 @@ public final class Main {
     if (options.outputDeps().isPresent()
         || options.output().isPresent()
         || options.outputManifest().isPresent()) {
-      // TODO(cushon): parallelize
-      Lowered lowered =
-          Lower.lowerAll(
-              Lower.LowerOptions.builder()
-                  .languageVersion(options.languageVersion())
-                  .emitPrivateFields(options.javacOpts().contains("-XDturbine.emitPrivateFields"))
-                  .build(),
-              bound.units(),
-              bound.modules(),
-              bound.classPathEnv());
+      Lowered lowered;
+      if (options.output().isPresent()) {
+        Map<String, byte[]> transitive;
+        try (Profiler.Span unused = profiler.span("transitive")) {
+          transitive = Transitive.collectDeps(bootclasspath, bound);
+        }
+        if (incremental != null && !bound.modules().isEmpty()) {
+          // module-info classes depend on the whole compilation
+          incremental.discard();
+          incremental = null;
+        }
+        Path output = Paths.get(options.output().get());
+        // an incremental compilation copies classes from the previous output, so the new output is
+        // written to a temporary file first
+        Path path =
+            incremental != null ? output.resolveSibling(output.getFileName() + ".tmp") : output;
+        // lowered classes are written to the output jar as they are produced, instead of being
+        // collected in memory first; if the compilation fails the partial jar is deleted
+        try (Profiler.Span unused = profiler.span("write output");
+            ZipWriter jar = new ZipWriter(path, DEFAULT_TIMESTAMP)) {
+          if (options.targetLabel().isPresent()) {
+            writeManifest(jar, manifest(options));
+          }
+          for (Map.Entry<String, byte[]> entry : transitive.entrySet()) {
+            jar.add(
+                ClassPathBinder.TRANSITIVE_PREFIX + entry.getKey() + ".class", entry.getValue());
+          }
+          try (Profiler.Span lowerSpan = profiler.span("lower")) {
+            lowered =
+                incremental != null
+                    ? incremental.lower(
+                        lowerOptions(options), bound, output, jar, executor, profiler)
+                    : lower(options, bound, executor, jar);
+          }
+          for (Map.Entry<String, byte[]> entry : bound.generatedClasses().entrySet()) {
+            jar.add(entry.getKey(), entry.getValue());
+          }
+          jar.finish();
+        }
+        if (incremental != null) {
+          Files.move(path, output, StandardCopyOption.REPLACE_EXISTING);
+        }
+      } else {
+        try (Profiler.Span unused = profiler.span("lower")) {
+          lowered = lower(options, bound, executor, /* jar= */ null);
+        }
+      }
 
       if (options.outputDeps().isPresent()) {
-        DepsProto.Dependencies deps =
-            Dependencies.collectDeps(options.targetLabel(), bootclasspath, bound, lowered);
-        Path path = Paths.get(options.outputDeps().get());
-        /*
-         * TODO: cpovirk - Consider checking outputDeps for validity earlier so that anyone who
-         * `--output_deps=/` or similar will get a proper error instead of NPE.
-         */
-        Files.createDirectories(requireNonNull(path.getParent()));
-        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
-          deps.writeTo(os);
+        try (Profiler.Span unused = profiler.span("deps")) {
+          DepsProto.Dependencies deps =
+              Dependencies.collectDeps(options.targetLabel(), bootclasspath, bound, lowered);
+          Path path = Paths.get(options.outputDeps().get());
+          /*
+           * TODO: cpovirk - Consider checking outputDeps for validity earlier so that anyone who
+           * `--output_deps=/` or similar will get a proper error instead of NPE.
+           */
+          Files.createDirectories(requireNonNull(path.getParent()));
+          try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
+            deps.writeTo(os);
+          }
         }
       }
-      if (options.output().isPresent()) {
-        Map<String, byte[]> transitive = Transitive.collectDeps(bootclasspath, bound);
-        writeOutput(options, bound.generatedClasses(), lowered.bytes(), transitive);
-      }
       if (options.outputManifest().isPresent()) {
-        writeManifestProto(options, bound.units(), bound.generatedSources());
+        try (Profiler.Span unused = profiler.span("write manifest")) {
+          writeManifestProto(options, bound.units(), bound.generatedSources());
+        }
       }
     }
 
-    writeSources(options, bound.generatedSources());
-    writeResources(options, bound.generatedClasses());
+    try (Profiler.Span unused = profiler.span("write sources")) {
+      writeSources(options, bound.generatedSources());
+    }
+    try (Profiler.Span unused = profiler.span("write resources")) {
+      writeResources(options, bound.generatedClasses());
+    }
+    if (incremental != null) {
+      incremental.save(options);
+    }
+    countClasspathClasses(profiler, boundClasspath);
     return Result.create(
         /* transitiveClasspathFallback= */ transitiveClasspathFallback,
         /* transitiveClasspathLength= */ transitiveClasspathLength,
         /* reducedClasspathLength= */ reducedClasspathLength,
-        bound.statistics());
+        bound.statistics(),
+        parsed.parseTimes(),
+        profiler.metrics(),
+        boundClasspath.usage());
+  }
+
+  /** Counts the classes on the classpath, and how many of them the compilation completed. */
+  private static void countClasspathClasses(Profiler profiler, ClassPath classpath) {
+    if (!profiler.collectsMetrics()) {
+      return;
+    }
+    long indexed = 0;
+    long completed = 0;
+    for (BytecodeBoundClass info : classpath.classes()) {
+      indexed++;
+      if (info.completed()) {
+        completed++;
+      }
+    }
+    profiler.count("classpath classes indexed", indexed);
+    profiler.count("classpath classes completed", completed);
+  }
+
+  /**
+   * Writes the metrics, classpath usage and annotation processor costs of a compilation as a {@link
+   * MetricsProto.Metrics} proto.
+   */
+  private static void writeMetrics(Path path, Result result) throws IOException {
+    Metrics metrics = result.metrics();
+    MetricsProto.Metrics.Builder proto = MetricsProto.Metrics.newBuilder();
+    for (Map.Entry<String, Metrics.Phase> e : metrics.phases().entrySet()) {
+      proto.addPhase(phase(e.getKey(), e.getValue()));
+    }
+    for (Map.Entry<String, Long> e : metrics.counters().entrySet()) {
+      proto.addCounter(counter(e.getKey(), e.getValue()));
+    }
+    for (ClassPathUsage usage : result.classpathUsage()) {
+      proto.addJar(
+          MetricsProto.JarUsage.newBuilder()
+              .setPath(usage.path())
+              .setEntriesIndexed(usage.entriesIndexed())
+              .setEntriesRead(usage.entriesRead())
+              .setBytesInflated(usage.bytesInflated())
+              .setClassesDecoded(usage.classesDecoded()));
+    }
+    for (Map.Entry<String, ProcessorStatistics> e :
+        result.processorStatistics().processors().entrySet()) {
+      ProcessorStatistics statistics = e.getValue();
+      MetricsProto.Processor.Builder processor =
+          MetricsProto.Processor.newBuilder()
+              .setName(e.getKey())
+              .setFilesGenerated(statistics.filesGenerated());
+      for (Map.Entry<String, Metrics.Phase> phase : statistics.phases().entrySet()) {
+        processor.addPhase(phase(phase.getKey(), phase.getValue()));
+      }
+      for (Map.Entry<String, Long> call : statistics.apiCalls().entrySet()) {
+        processor.addApiCall(counter(call.getKey(), call.getValue()));
+      }
+      proto.addProcessor(processor);
+    }
+    Files.createDirectories(requireNonNull(path.toAbsolutePath().getParent()));
+    try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
+      proto.build().writeTo(os);
+    }
+  }
+
+  private static MetricsProto.Phase phase(String name, Metrics.Phase phase) {
+    return MetricsProto.Phase.newBuilder()
+        .setName(name)
+        .setWallTimeNanos(phase.wallTime().toNanos())
+        .setCpuTimeNanos(phase.cpuTime().toNanos())
+        .setAllocatedBytes(phase.allocatedBytes())
+        .setCount(phase.count())
+        .build();
+  }
+
+  private static MetricsProto.Counter counter(String name, long value) {
+    return MetricsProto.Counter.newBuilder().setName(name).setValue(value).build();
   }
 
   // don't inline this; we want it to show up in profiles
@@ -240,9 +537,11 @@ public final class Main {
       TurbineOptions options,
       ImmutableList<CompUnit> units,
       ClassPath bootclasspath,
-      ImmutableList<String> classPath)
+      ClassPath boundClasspath,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool)
       throws IOException {
-    return bind(options, units, bootclasspath, classPath);
+    return bind(options, units, bootclasspath, boundClasspath, profiler, pool);
   }
 
   /**
@@ -265,20 +564,31 @@ public final class Main {
       TurbineOptions options,
       ImmutableList<CompUnit> units,
       ClassPath bootclasspath,
-      Collection<String> classpath)
+      ClassPath boundClasspath,
+      Profiler profiler,
+      @Nullable ForkJoinPool pool)
       throws IOException {
-    return Binder.bind(
-        units,
-        ClassPathBinder.bindClasspath(toPaths(classpath)),
-        Processing.initializeProcessors(
-            /* sourceVersion= */ options.languageVersion().sourceVersion(),
-            /* javacopts= */ options.javacOpts(),
-            /* processorNames= */ options.processors(),
-            Processing.processorLoader(
-                /* processorPath= */ options.processorPath(),
-                /* builtinProcessors= */ options.builtinProcessors())),
-        bootclasspath,
-        /* moduleVersion= */ Optional.empty());
+    ProcessorInfo processorInfo;
+    try (Profiler.Span unused = profiler.span("initializeProcessors")) {
+      processorInfo =
+          Processing.initializeProcessors(
+              /* sourceVersion= */ options.languageVersion().sourceVersion(),
+              /* javacopts= */ options.javacOpts(),
+              /* processorNames= */ options.processors(),
+              Processing.processorLoader(
+                  /* processorPath= */ options.processorPath(),
+                  /* builtinProcessors= */ options.builtinProcessors()));
+    }
+    try (Profiler.Span unused = profiler.span("bind")) {
+      return Binder.bind(
+          units,
+          boundClasspath,
+          processorInfo,
+          bootclasspath,
+          /* moduleVersion= */ Optional.empty(),
+          profiler,
+          pool);
+    }
   }
 
   private static void usage(TurbineOptions options) {
@@ -291,9 +601,17 @@ public final class Main {
       throw new UsageException(
           "at least one of --output, --gensrc_output, or --resource_output is required");
     }
+    if (options.threads() < 1) {
+      throw new UsageException("--threads must be at least 1, was: " + options.threads());
+    }
   }
 
-  private static ClassPath bootclasspath(TurbineOptions options) throws IOException {
+  private static ClassPath bootclasspath(
+      TurbineOptions options,
+      CompilationCache cache,
+      CompilationCache.Session session,
+      JarIndexCache jarIndexCache)
+      throws IOException {
     // if both --release and --bootclasspath are specified, --release wins
     OptionalInt release = options.languageVersion().release();
     if (release.isPresent() && options.system().isPresent()) {
@@ -303,10 +621,10 @@ public final class Main {
     if (release.isPresent()) {
       if (release.getAsInt() == Integer.parseInt(JAVA_SPECIFICATION_VERSION.value())) {
         // if --release matches the host JDK, use its jimage instead of ct.sym
-        return JimageClassBinder.bindDefault();
+        return cache.jimage(/* javaHome= */ Optional.empty(), session);
       }
       // ... otherwise, search ct.sym for a matching release
-      ClassPath bootclasspath = CtSymClassBinder.bind(release.getAsInt());
+      ClassPath bootclasspath = cache.ctSym(release.getAsInt());
       if (bootclasspath == null) {
         throw new UsageException("not a supported release: " + release);
       }
@@ -315,38 +633,218 @@ public final class Main {
 
     if (options.system().isPresent()) {
       // look for a jimage in the given JDK
-      return JimageClassBinder.bind(options.system().get());
+      return cache.jimage(options.system(), session);
     }
 
     // the bootclasspath might be empty, e.g. when compiling java.lang
-    return ClassPathBinder.bindClasspath(toPaths(options.bootClassPath()));
+    return cache.bootClassPath(toPaths(options.bootClassPath()), jarIndexCache);
   }
 
-  /** Parse all source files and source jars. */
-  // TODO(cushon): parallelize
-  private static ImmutableList<CompUnit> parseAll(TurbineOptions options) throws IOException {
-    return parseAll(options.sources(), options.sourceJars());
+  /** Parsed compilation units, and the time spent reading and parsing each source file. */
+  @AutoValue
+  abstract static class ParseResult {
+    /** The compilation units, in the order the sources and source jar entries were given. */
+    abstract ImmutableList<CompUnit> units();
+
+    abstract ImmutableMap<String, Duration> parseTimes();
+
+    static ParseResult create(
+        ImmutableList<CompUnit> units, ImmutableMap<String, Duration> parseTimes) {
+      return new AutoValue_Main_ParseResult(units, parseTimes);
+    }
   }
 
-  static ImmutableList<CompUnit> parseAll(Iterable<String> sources, Iterable<String> sourceJars)
+  /**
+   * Parses all source files and source jar entries. Files are read and parsed on the given
+   * executor; the results are always returned in input order, and if multiple files fail to parse
+   * the error for the first of them is reported.
+   */
+  static ParseResult parseAll(
+      Iterable<String> sources,
+      Iterable<String> sourceJars,
+      ExecutorService executor,
+      Profiler profiler)
       throws IOException {
-    ImmutableList.Builder<CompUnit> units = ImmutableList.builder();
-    for (String source : sources) {
-      Path path = Paths.get(source);
-      units.add(Parser.parse(new SourceFile(source, MoreFiles.asCharSource(path, UTF_8).read())));
-    }
-    for (String sourceJar : sourceJars) {
-      try (Zip.ZipIterable iterable = new Zip.ZipIterable(Paths.get(sourceJar))) {
+    List<ParseTask> tasks = new ArrayList<>();
+    try (Closer closer = Closer.create()) {
+      for (String source : sources) {
+        Path path = Paths.get(source);
+        tasks.add(
+            new ParseTask(
+                source,
+                profiler,
+                () -> new SourceFile(source, MoreFiles.asCharSource(path, UTF_8).read())));
+      }
+      for (String sourceJar : sourceJars) {
+        Zip.ZipIterable iterable = closer.register(new Zip.ZipIterable(Paths.get(sourceJar)));
         for (Zip.Entry ze : iterable) {
           if (ze.name().endsWith(".java")) {
             String name = ze.name();
-            String source = new String(ze.data(), UTF_8);
-            units.add(Parser.parse(new SourceFile(name, source)));
+            tasks.add(
+                new ParseTask(
+                    sourceJar + "!/" + name,
+                    profiler,
+                    () -> new SourceFile(name, new String(ze.data(), UTF_8))));
           }
         }
       }
+      List<Future<CompUnit>> futures = new ArrayList<>(tasks.size());
+      for (ParseTask task : tasks) {
+        futures.add(executor.submit(Profiler.inCurrentSpan(task)));
+      }
+      // Wait for the tasks in input order, so the reported error (if any) is deterministic.
+      for (Future<CompUnit> future : futures) {
+        await(future);
+      }
+    }
+    ImmutableList.Builder<CompUnit> units = ImmutableList.builderWithExpectedSize(tasks.size());
+    ImmutableMap.Builder<String, Duration> parseTimes = ImmutableMap.builder();
+    for (ParseTask task : tasks) {
+      units.add(requireNonNull(task.unit));
+      parseTimes.put(task.name, requireNonNull(task.elapsed));
+    }
+    return ParseResult.create(units.build(), parseTimes.buildKeepingLast());
+  }
+
+  @CanIgnoreReturnValue
+  private static <T> T await(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException(e.getMessage());
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throwIfInstanceOf(cause, IOException.class);
+      throwIfUnchecked(cause);
+      throw new AssertionError(cause);
+    }
+  }
+
+  /** A stage of the compilation that runs before binding. */
+  private interface StageTask<T> {
+    T call() throws IOException;
+  }
+
+  /**
+   * The stages of the compilation that run concurrently before binding. When the stages are joined
+   * a {@code pipeline} span is recorded, whose arguments show how long each stage took, how long
+   * the driver waited for background stages, and how much of the stages' time overlapped.
+   */
+  private static final class Pipeline {
+
+    private final Profiler profiler;
+    private final long startNanos = System.nanoTime();
+    private final List<Stage> stages = new ArrayList<>();
+    private long waitNanos;
+
+    Pipeline(Profiler profiler) {
+      this.profiler = profiler;
+    }
+
+    private static final class Stage {
+      final String name;
+      volatile long startNanos;
+      volatile long endNanos;
+
+      Stage(String name) {
+        this.name = name;
+      }
+    }
+
+    /** Starts a stage on the given executor. */
+    <T> Future<T> submit(String name, ExecutorService executor, StageTask<T> task) {
+      Stage stage = stage(name);
+      return executor.submit(() -> call(stage, task));
+    }
+
+    /** Runs a stage on the calling thread. */
+    <T> T run(String name, StageTask<T> task) throws IOException {
+      return call(stage(name), task);
+    }
+
+    /** Waits for a stage that was started with {@link #submit}. */
+    <T> T join(Future<T> future) throws IOException {
+      long start = System.nanoTime();
+      try {
+        return await(future);
+      } finally {
+        waitNanos += System.nanoTime() - start;
+      }
+    }
+
+    private Stage stage(String name) {
+      Stage stage = new Stage(name);
+      stages.add(stage);
+      return stage;
+    }
+
+    private <T> T call(Stage stage, StageTask<T> task) throws IOException {
+      try (Profiler.Span unused = profiler.span(stage.name)) {
+        stage.startNanos = System.nanoTime();
+        try {
+          return task.call();
+        } finally {
+          stage.endNanos = System.nanoTime();
+        }
+      }
+    }
+
+    /** Records the pipeline span, once all stages have been joined. */
+    void finish() {
+      if (!profiler.enabled()) {
+        return;
+      }
+      long endNanos = System.nanoTime();
+      ImmutableMap.Builder<String, String> args = ImmutableMap.builder();
+      long busyNanos = 0;
+      for (Stage stage : stages) {
+        long elapsed = stage.endNanos - stage.startNanos;
+        busyNanos += elapsed;
+        args.put(stage.name + " ms", millis(elapsed));
+      }
+      long wallNanos = endNanos - startNanos;
+      args.put("wall ms", millis(wallNanos));
+      args.put("waited ms", millis(waitNanos));
+      args.put("overlap ms", millis(Math.max(0, busyNanos - wallNanos)));
+      profiler.record("pipeline", "phase", args.buildOrThrow(), startNanos, endNanos);
+    }
+
+    private static String millis(long nanos) {
+      return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+  }
+
+  /** Reads the contents of a source file. */
+  private interface SourceReader {
+    SourceFile read() throws IOException;
+  }
+
+  /** Reads and parses a single source file, and records the elapsed time. */
+  private static class ParseTask implements Callable<CompUnit> {
+
+    private final String name;
+    private final Profiler profiler;
+    private final SourceReader reader;
+
+    private @Nullable CompUnit unit;
+    private @Nullable Duration elapsed;
+
+    ParseTask(String name, Profiler profiler, SourceReader reader) {
+      this.name = name;
+      this.profiler = profiler;
+      this.reader = reader;
+    }
+
+    @Override
+    public CompUnit call() throws IOException {
+      try (Profiler.Span unused = profiler.span(name, "parse", /* args= */ ImmutableMap.of())) {
+        Stopwatch sw = Stopwatch.createStarted();
+        unit = Parser.parse(reader.read());
+        elapsed = sw.elapsed();
+        return unit;
+      }
     }
-    return units.build();
   }
 
   /** Writes source files generated by annotation processors. */
@@ -366,13 +864,12 @@ public final class Main {
       }
       return;
     }
-    try (OutputStream os = Files.newOutputStream(path);
-        BufferedOutputStream bos = new BufferedOutputStream(os, BUFFER_SIZE);
-        JarOutputStream jos = new JarOutputStream(bos)) {
-      writeManifest(jos, manifest());
+    try (ZipWriter jar = new ZipWriter(path, DEFAULT_TIMESTAMP)) {
+      writeManifest(jar, manifest());
       for (SourceFile source : generatedSources.values()) {
-        addEntry(jos, source.path(), source.source().getBytes(UTF_8));
+        jar.add(source.path(), source.source().getBytes(UTF_8));
       }
+      jar.finish();
     }
   }
 
@@ -392,39 +889,49 @@ public final class Main {
       }
       return;
     }
-    try (OutputStream os = Files.newOutputStream(path);
-        BufferedOutputStream bos = new BufferedOutputStream(os, BUFFER_SIZE);
-        JarOutputStream jos = new JarOutputStream(bos)) {
+    try (ZipWriter jar = new ZipWriter(path, DEFAULT_TIMESTAMP)) {
       for (Map.Entry<String, byte[]> resource : generatedResources.entrySet()) {
-        addEntry(jos, resource.getKey(), resource.getValue());
+        jar.add(resource.getKey(), resource.getValue());
       }
+      jar.finish();
     }
   }
 
-  /** Writes bytecode to the output jar. */
-  private static void writeOutput(
-      TurbineOptions options,
-      Map<String, byte[]> generated,
-      Map<String, byte[]> lowered,
-      Map<String, byte[]> transitive)
+  private static Lower.LowerOptions lowerOptions(TurbineOptions options) {
+    return Lower.LowerOptions.builder()
+        .languageVersion(options.languageVersion())
+        .emitPrivateFields(options.javacOpts().contains("-XDturbine.emitPrivateFields"))
+        .build();
+  }
+
+  /**
+   * Lowers the compilation to bytecode. If {@code jar} is non-null, each class is added to it as
+   * soon as it is available, and the bytecode is not retained.
+   */
+  private static Lowered lower(
+      TurbineOptions options, BindingResult bound, Executor executor, @Nullable ZipWriter jar)
       throws IOException {
-    Path path = Paths.get(options.output().get());
-    try (OutputStream os = Files.newOutputStream(path);
-        BufferedOutputStream bos = new BufferedOutputStream(os, BUFFER_SIZE);
-        JarOutputStream jos = new JarOutputStream(bos)) {
-      if (options.targetLabel().isPresent()) {
-        writeManifest(jos, manifest(options));
-      }
-      for (Map.Entry<String, byte[]> entry : transitive.entrySet()) {
-        addEntry(
-            jos, ClassPathBinder.TRANSITIVE_PREFIX + entry.getKey() + ".class", entry.getValue());
-      }
-      for (Map.Entry<String, byte[]> entry : lowered.entrySet()) {
-        addEntry(jos, entry.getKey() + ".class", entry.getValue());
-      }
-      for (Map.Entry<String, byte[]> entry : generated.entrySet()) {
-        addEntry(jos, entry.getKey(), entry.getValue());
-      }
+    Lower.LowerOptions lowerOptions = lowerOptions(options);
+    if (jar == null) {
+      return Lower.lowerAll(
+          lowerOptions, bound.units(), bound.modules(), bound.classPathEnv(), executor);
+    }
+    try {
+      return Lower.lowerAll(
+          lowerOptions,
+          bound.units(),
+          bound.modules(),
+          bound.classPathEnv(),
+          executor,
+          (name, bytes) -> {
+            try {
+              jar.add(name + ".class", bytes);
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
   }
 
@@ -454,21 +961,11 @@ public final class Main {
   /** Normalize timestamps. */
   static final LocalDateTime DEFAULT_TIMESTAMP = LocalDateTime.of(2010, 1, 1, 0, 0, 0);
 
-  private static void addEntry(JarOutputStream jos, String name, byte[] bytes) throws IOException {
-    JarEntry je = new JarEntry(name);
-    je.setTimeLocal(DEFAULT_TIMESTAMP);
-    je.setMethod(ZipEntry.STORED);
-    je.setSize(bytes.length);
-    je.setCrc(Hashing.crc32().hashBytes(bytes).padToLong());
-    jos.putNextEntry(je);
-    jos.write(bytes);
-  }
-
-  private static void writeManifest(JarOutputStream jos, Manifest manifest) throws IOException {
-    addEntry(jos, MANIFEST_DIR, new byte[] {});
-    ByteArrayOutputStream out = new ByteArrayOutputStream();
-    manifest.write(out);
-    addEntry(jos, MANIFEST_NAME, out.toByteArray());
+  private static void writeManifest(ZipWriter jar, Manifest manifest) throws IOException {
+    jar.add(MANIFEST_DIR, new byte[] {});
+    try (OutputStream os = jar.newEntry(MANIFEST_NAME)) {
+      manifest.write(os);
+    }
   }
 
   /** Creates a default {@link Manifest}. */
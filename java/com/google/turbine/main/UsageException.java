@@ -38,8 +38,12 @@ class UsageException extends RuntimeException {
     "    The compilation classpath.",
     "  --bootclasspath",
     "    The compilation bootclasspath.",
+    "  --incremental_state",
+    "    A file for incremental compilation state, which is reused by later compilations.",
     "  --help",
     "    Print this usage statement.",
+    "  --persistent_worker",
+    "    Process length-delimited work requests from stdin.",
     "  @<filename>",
     "    Read options and filenames from file.",
     "",
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import com.google.turbine.diag.TurbineError;
+import com.google.turbine.proto.WorkerProtocol.Input;
+import com.google.turbine.proto.WorkerProtocol.WorkRequest;
+import com.google.turbine.proto.WorkerProtocol.WorkResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+
+/**
+ * A persistent worker that reads length-delimited {@link WorkRequest}s, runs a compilation for each
+ * of them, and writes a {@link WorkResponse} for each request.
+ *
+ * <p>The wire format is compatible with Bazel's persistent worker protocol. Requests with a
+ * non-zero id (multiplex requests) are compiled concurrently on a pool of threads, and responses
+ * may be written in any order. Cancellation and sandboxed multiplex requests are not supported.
+ *
+ * <p>Platform classpaths and classpath jar indexes are kept in a {@link CompilationCache} that is
+ * shared by all requests. Bazel reports the digest of each input, and any cached state for an input
+ * whose digest changed since a previous request is discarded.
+ */
+final class Worker {
+
+  private final CompilationCache cache = new CompilationCache();
+  private final Map<Path, ByteString> digests = new ConcurrentHashMap<>();
+  private final ExecutorService executor;
+
+  Worker(int threads) {
+    this.executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setNameFormat("turbine-worker-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Processes requests from {@code in} until it is closed, and then waits for any outstanding
+   * requests to complete and releases the cache.
+   */
+  void run(InputStream in, OutputStream out) throws IOException {
+    // tracks outstanding multiplex requests; the reader thread is registered as one party
+    Phaser pending = new Phaser(1);
+    try {
+      while (true) {
+        WorkRequest request = WorkRequest.parseDelimitedFrom(in);
+        if (request == null) {
+          break;
+        }
+        if (request.getCancel()) {
+          // Bazel only sends cancel requests to workers that advertise support for them with the
+          // supports-worker-cancellation execution requirement, which this worker doesn't, so the
+          // request it names will still get a normal response and no reply is owed for the cancel.
+          continue;
+        }
+        if (request.getRequestId() == 0) {
+          respond(out, handle(request));
+          continue;
+        }
+        pending.register();
+        executor.execute(
+            () -> {
+              try {
+                respond(out, handle(request));
+              } finally {
+                pending.arriveAndDeregister();
+              }
+            });
+      }
+    } finally {
+      pending.arriveAndAwaitAdvance();
+      cache.close();
+    }
+  }
+
+  /** Runs the compilation for a single request. */
+  WorkResponse handle(WorkRequest request) {
+    StringWriter output = new StringWriter();
+    int exitCode;
+    try {
+      invalidateChangedInputs(request);
+      Main.compile(request.getArgumentsList(), cache);
+      exitCode = 0;
+    } catch (TurbineError | UsageException e) {
+      output.write(e.getMessage());
+      exitCode = 1;
+    } catch (Throwable turbineCrash) {
+      turbineCrash.printStackTrace(new PrintWriter(output, true));
+      exitCode = 1;
+    }
+    return WorkResponse.newBuilder()
+        .setRequestId(request.getRequestId())
+        .setExitCode(exitCode)
+        .setOutput(output.toString())
+        .build();
+  }
+
+  private void invalidateChangedInputs(WorkRequest request) throws IOException {
+    for (Input input : request.getInputsList()) {
+      if (input.getDigest().isEmpty()) {
+        continue;
+      }
+      Path path = Paths.get(input.getPath()).toAbsolutePath().normalize();
+      ByteString previous = digests.put(path, input.getDigest());
+      if (previous != null && !previous.equals(input.getDigest())) {
+        cache.invalidate(path);
+      }
+    }
+  }
+
+  private static void respond(OutputStream out, WorkResponse response) {
+    synchronized (out) {
+      try {
+        response.writeDelimitedTo(out);
+        out.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+}
@@ -113,15 +113,40 @@ public abstract class TurbineOptions {
   /** The reduced classpath optimization mode. */
   public abstract ReducedClasspathMode reducedClasspathMode();
 
+  /**
+   * An optional directory for caching indexes of classpath jars between compilations. See {@link
+   * com.google.turbine.binder.JarIndexCache}.
+   */
+  public abstract Optional<String> classpathIndexCache();
+
+  /**
+   * An optional path for the state of incremental compilation. If it is present, a compilation
+   * re-lowers only the classes that may have changed since the compilation that wrote the state,
+   * and reuses the previous output for the rest.
+   */
+  public abstract Optional<String> incrementalState();
+
   /** An optional path for profiling output. */
   public abstract Optional<String> profile();
 
+  /**
+   * An optional path for a {@code MetricsProto.Metrics} proto with the cost of each phase of the
+   * compilation, e.g. next to the {@link #outputDeps} file.
+   */
+  public abstract Optional<String> outputMetrics();
+
   /** An optional path for generated source output. */
   public abstract Optional<String> gensrcOutput();
 
   /** An optional path for generated resource output. */
   public abstract Optional<String> resourceOutput();
 
+  /**
+   * The maximum number of threads to use for compilation phases that can be parallelized. A value
+   * of {@code 1} performs all work on the calling thread.
+   */
+  public abstract int threads();
+
   public abstract int fullClasspathLength();
 
   public abstract int reducedClasspathLength();
@@ -141,6 +166,7 @@ public abstract class TurbineOptions {
         .setLanguageVersion(LanguageVersion.createDefault())
         .setReducedClasspathMode(ReducedClasspathMode.NONE)
         .setHelp(false)
+        .setThreads(1)
         .setFullClasspathLength(0)
         .setReducedClasspathLength(0);
   }
@@ -194,10 +220,18 @@ public abstract class TurbineOptions {
 
     public abstract Builder setProfile(String profile);
 
+    public abstract Builder setOutputMetrics(String outputMetrics);
+
+    public abstract Builder setClasspathIndexCache(String classpathIndexCache);
+
+    public abstract Builder setIncrementalState(String incrementalState);
+
     public abstract Builder setGensrcOutput(String gensrcOutput);
 
     public abstract Builder setResourceOutput(String resourceOutput);
 
+    public abstract Builder setThreads(int threads);
+
     public abstract Builder setFullClasspathLength(int fullClasspathLength);
 
     public abstract Builder setReducedClasspathLength(int reducedClasspathLength);
@@ -129,9 +129,21 @@ public final class TurbineOptionsParser {
         case "--reduced_classpath_length":
           builder.setReducedClasspathLength(Integer.parseInt(readOne(next, argumentDeque)));
           break;
+        case "--threads":
+          builder.setThreads(Integer.parseInt(readOne(next, argumentDeque)));
+          break;
+        case "--classpath_index_cache":
+          builder.setClasspathIndexCache(readOne(next, argumentDeque));
+          break;
+        case "--incremental_state":
+          builder.setIncrementalState(readOne(next, argumentDeque));
+          break;
         case "--profile":
           builder.setProfile(readOne(next, argumentDeque));
           break;
+        case "--output_metrics":
+          builder.setOutputMetrics(readOne(next, argumentDeque));
+          break;
         case "--generated_sources_output":
         case "--gensrc_output":
           builder.setGensrcOutput(readOne(next, argumentDeque));
@@ -63,4 +63,9 @@ public class IteratorLexer implements Lexer {
   public String javadoc() {
     return null;
   }
+
+  @Override
+  public boolean skipBlock() {
+    return false;
+  }
 }
@@ -34,4 +34,11 @@ public interface Lexer {
 
   /** Returns a saved javadoc comment. */
   String javadoc();
+
+  /**
+   * Skips the rest of a block whose opening {@code LBRACE} was the last token returned, so the next
+   * token is the one after the matching {@code RBRACE}. Returns false without consuming any input
+   * if the block has to be tokenized instead.
+   */
+  boolean skipBlock();
 }
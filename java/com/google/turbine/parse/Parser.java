@@ -1199,6 +1199,11 @@ public class Parser {
   }
 
   private void dropBlocks() {
+    if (token == Token.LBRACE && lexer.skipBlock()) {
+      // the lexer skipped the block without tokenizing it
+      next();
+      return;
+    }
     eat(Token.LBRACE);
     int depth = 1;
     while (depth > 0) {
@@ -97,6 +97,16 @@ public class StreamLexer implements Lexer {
     return reader.source();
   }
 
+  @Override
+  public boolean skipBlock() {
+    if (!reader.skipBlock()) {
+      return false;
+    }
+    // the closing brace is the current character
+    eat();
+    return true;
+  }
+
   @Override
   public Token next() {
     OUTER:
@@ -31,6 +31,10 @@ public class UnicodeEscapePreprocessor {
 
   private int idx = 0;
   private int ch;
+
+  /** The index in the raw input of the start of the current character. */
+  private int start;
+
   private boolean evenLeadingSlashes = true;
 
   public UnicodeEscapePreprocessor(SourceFile source) {
@@ -50,6 +54,7 @@ public class UnicodeEscapePreprocessor {
 
   /** Returns the next unescaped Unicode input character. */
   public int next() {
+    start = idx;
     eat();
     if (ch == '\\' && evenLeadingSlashes) {
       unicodeEscape();
@@ -59,6 +64,235 @@ public class UnicodeEscapePreprocessor {
     return ch;
   }
 
+  /**
+   * Skips the rest of a block by scanning the raw input, without unescaping it or tokenizing it.
+   * The current character is the first one after the block's opening brace. Comments and string,
+   * character and text block literals are skipped over, and nested braces are counted until the
+   * closing brace is found, which becomes the current character.
+   *
+   * <p>Returns false without consuming any input if the block can't be skipped this way: if it may
+   * contain a Unicode escape, or if it contains input that the lexer would reject or that might be
+   * part of a non-ASCII identifier. The caller should tokenize the block instead.
+   */
+  boolean skipBlock() {
+    if (idx - start != Character.charCount(ch)) {
+      // the current character is a Unicode escape
+      return false;
+    }
+    String input = this.input;
+    int length = input.length();
+    int depth = 1;
+    int i = start;
+    while (i >= 0 && i < length) {
+      char c = input.charAt(i++);
+      switch (c) {
+        case '{':
+          depth++;
+          break;
+        case '}':
+          if (--depth == 0) {
+            start = i - 1;
+            idx = i;
+            ch = c;
+            evenLeadingSlashes = true;
+            return true;
+          }
+          break;
+        case '/':
+          if (i < length && input.charAt(i) == '/') {
+            i = skipLineComment(i + 1);
+          } else if (i < length && input.charAt(i) == '*') {
+            i = skipBlockComment(i + 1);
+          }
+          break;
+        case '"':
+          if (input.startsWith("\"\"", i)) {
+            i = skipTextBlock(i + 2);
+          } else {
+            i = skipStringLiteral(i);
+          }
+          break;
+        case '\'':
+          i = skipCharLiteral(i);
+          break;
+        case '\\':
+        case '#':
+        case '`':
+        case ASCII_SUB:
+          return false;
+        default:
+          if (c >= 0x7f || (c < 0x20 && c != '\t' && c != '\n' && c != '\r' && c != '\f')) {
+            return false;
+          }
+          break;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Skips a character in a comment or literal at the given index, and returns the index of the next
+   * character, or -1 if the character may start a Unicode escape or is invalid.
+   */
+  private int skipRawChar(int i) {
+    char c = input.charAt(i++);
+    switch (c) {
+      case '\\':
+        return i < input.length() && input.charAt(i) == 'u' ? -1 : i;
+      case ASCII_SUB:
+        return -1;
+      default:
+        if (Character.isHighSurrogate(c)) {
+          return i < input.length() && Character.isLowSurrogate(input.charAt(i)) ? i + 1 : -1;
+        }
+        return Character.isLowSurrogate(c) ? -1 : i;
+    }
+  }
+
+  /**
+   * Skips an escape sequence in a string, character or text block literal, given the index of the
+   * character after the backslash. Returns the index of the next character, or -1 if the escape
+   * sequence is invalid or may be a Unicode escape.
+   */
+  private int skipEscape(int i, boolean textBlock) {
+    if (i >= input.length()) {
+      return -1;
+    }
+    switch (input.charAt(i)) {
+      case 'b':
+      case 't':
+      case 'n':
+      case 'f':
+      case 'r':
+      case 's':
+      case '"':
+      case '\'':
+      case '\\':
+      case '0':
+      case '1':
+      case '2':
+      case '3':
+      case '4':
+      case '5':
+      case '6':
+      case '7':
+        // in strings and text blocks, any further octal digits can be skipped as ordinary
+        // characters
+        return i + 1;
+      case '\r':
+      case '\n':
+        return textBlock ? i + 1 : -1;
+      default:
+        return -1;
+    }
+  }
+
+  /** Skips a line comment, given the index after the leading {@code //}. */
+  private int skipLineComment(int i) {
+    while (i >= 0 && i < input.length()) {
+      char c = input.charAt(i);
+      if (c == '\n' || c == '\r') {
+        return i;
+      }
+      i = skipRawChar(i);
+    }
+    return i;
+  }
+
+  /** Skips a block comment, given the index after the leading {@code /*}. */
+  private int skipBlockComment(int i) {
+    while (i >= 0 && i < input.length()) {
+      if (input.startsWith("*/", i)) {
+        return i + 2;
+      }
+      i = skipRawChar(i);
+    }
+    // the comment is unclosed
+    return -1;
+  }
+
+  /** Skips a string literal, given the index after the opening quote. */
+  private int skipStringLiteral(int i) {
+    while (i >= 0 && i < input.length()) {
+      switch (input.charAt(i)) {
+        case '"':
+          return i + 1;
+        case '\\':
+          i = skipEscape(i + 1, /* textBlock= */ false);
+          break;
+        case '\r':
+        case '\n':
+          return -1;
+        default:
+          i = skipRawChar(i);
+          break;
+      }
+    }
+    return -1;
+  }
+
+  /** Skips a text block, given the index after the opening {@code """}. */
+  private int skipTextBlock(int i) {
+    int length = input.length();
+    while (i < length
+        && (input.charAt(i) == ' ' || input.charAt(i) == '\t' || input.charAt(i) == '\r')) {
+      i++;
+    }
+    if (i >= length || input.charAt(i) != '\n') {
+      // the opening delimiter must be followed by a line terminator
+      return -1;
+    }
+    while (i >= 0 && i < length) {
+      switch (input.charAt(i)) {
+        case '"':
+          if (input.startsWith("\"\"\"", i)) {
+            return i + 3;
+          }
+          i++;
+          break;
+        case '\\':
+          i = skipEscape(i + 1, /* textBlock= */ true);
+          break;
+        default:
+          i = skipRawChar(i);
+          break;
+      }
+    }
+    return -1;
+  }
+
+  /** Skips a character literal, given the index after the opening quote. */
+  private int skipCharLiteral(int i) {
+    if (i >= input.length()) {
+      return -1;
+    }
+    switch (input.charAt(i)) {
+      case '\'':
+      case '\r':
+      case '\n':
+        return -1;
+      case '\\':
+        int first = i + 1;
+        i = skipEscape(first, /* textBlock= */ false);
+        if (i > 0 && isOctalDigit(input.charAt(first))) {
+          // an octal escape has up to three digits, or two if the first is greater than 3
+          int digits = input.charAt(first) <= '3' ? 3 : 2;
+          for (int n = 1; n < digits && i < input.length() && isOctalDigit(input.charAt(i)); n++) {
+            i++;
+          }
+        }
+        break;
+      default:
+        i = skipRawChar(i);
+        break;
+    }
+    return i > 0 && i < input.length() && input.charAt(i) == '\'' ? i + 1 : -1;
+  }
+
+  private static boolean isOctalDigit(char c) {
+    return c >= '0' && c <= '7';
+  }
+
   /** Returns a substring of the raw (escaped) input. */
   public String readString(int from, int to) {
     return input.substring(from, to);
@@ -27,6 +27,7 @@ import com.google.turbine.diag.TurbineError.ErrorKind;
 import com.google.turbine.type.Type;
 import com.google.turbine.type.Type.ClassTy;
 import com.google.turbine.type.Type.TyKind;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -50,6 +51,18 @@ public class ClassHierarchy {
     this.env = env;
   }
 
+  /**
+   * Starts a new round in which only the given classes changed, keeping the hierarchy of classes
+   * that don't have any of them as supertypes.
+   */
+  public void round(CompoundEnv<ClassSymbol, TypeBoundClass> env, Set<ClassSymbol> changed) {
+    cache
+        .values()
+        .removeIf(
+            node -> changed.contains(node.sym) || !Collections.disjoint(node.closure(), changed));
+    this.env = env;
+  }
+
   /** A linked list between two types in the hierarchy. */
   private static class PathNode {
 
@@ -100,13 +100,36 @@ public class ModelFactory {
 
   private final AtomicInteger round = new AtomicInteger(0);
 
+  /** The round in which the bound information for each class last changed. */
+  private final Map<ClassSymbol, Integer> changedInRound = new HashMap<>();
+
+  /** The last round in which the bound information for all classes changed. */
+  private int invalidatedInRound = 0;
+
   public void round(CompoundEnv<ClassSymbol, TypeBoundClass> env, TopLevelIndex tli) {
     this.env = env;
     this.tli = tli;
-    round.getAndIncrement();
+    invalidatedInRound = round.incrementAndGet();
     cha.round(env);
   }
 
+  /**
+   * Starts a new round in which only the bound information for the given classes changed, e.g.
+   * because the other classes were not re-bound after the previous round.
+   */
+  public void round(
+      CompoundEnv<ClassSymbol, TypeBoundClass> env,
+      TopLevelIndex tli,
+      ImmutableSet<ClassSymbol> changed) {
+    this.env = env;
+    this.tli = tli;
+    int r = round.incrementAndGet();
+    for (ClassSymbol sym : changed) {
+      changedInRound.put(sym, r);
+    }
+    cha.round(env, changed);
+  }
+
   private final HashMap<Type, TurbineTypeMirror> typeCache = new HashMap<>();
 
   private final Map<FieldSymbol, TurbineFieldElement> fieldCache = new HashMap<>();
@@ -163,6 +186,44 @@ public class ModelFactory {
     };
   }
 
+  /**
+   * Returns a supplier that memoizes the result of the input supplier, which depends only on the
+   * bound information for the class that declares {@code sym}.
+   *
+   * <p>Unlike {@link #memoize(Supplier)}, the result is kept across annotation processing rounds
+   * until the declaring class changes. Results for packages and modules are invalidated after each
+   * round.
+   */
+  <T> Supplier<T> memoize(Supplier<Symbol> sym, Supplier<T> s) {
+    return new Supplier<T>() {
+      T v;
+      int initializedInRound = -1;
+
+      @Override
+      public T get() {
+        int r = round.get();
+        if (initializedInRound != r && !unchangedSince(sym.get(), initializedInRound)) {
+          v = s.get();
+        }
+        initializedInRound = r;
+        return v;
+      }
+    };
+  }
+
+  private boolean unchangedSince(Symbol sym, int r) {
+    if (r < invalidatedInRound) {
+      return false;
+    }
+    switch (sym.symKind()) {
+      case PACKAGE:
+      case MODULE:
+        return false;
+      default:
+        return changedInRound.getOrDefault(enclosingClass(sym), -1) <= r;
+    }
+  }
+
   /** Creates a {@link TurbineTypeMirror} backed by a {@link Type}. */
   private TurbineTypeMirror createTypeMirror(Type type) {
     switch (type.tyKind()) {
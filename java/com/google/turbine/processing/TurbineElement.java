@@ -102,13 +102,13 @@ public abstract class TurbineElement implements Element {
   private final Supplier<ImmutableList<AnnotationMirror>> annotationMirrors;
 
   protected <T> Supplier<T> memoize(Supplier<T> supplier) {
-    return factory.memoize(supplier);
+    return factory.memoize(this::sym, supplier);
   }
 
   protected TurbineElement(ModelFactory factory) {
     this.factory = requireNonNull(factory);
     this.annotationMirrors =
-        factory.memoize(
+        memoize(
             new Supplier<ImmutableList<AnnotationMirror>>() {
               @Override
               public ImmutableList<AnnotationMirror> get() {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.profile;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+
+/** The cost of each phase of a compilation, and counts of the work it did. */
+@AutoValue
+public abstract class Metrics {
+
+  /** The cost of a phase, summed over every time it ran. */
+  @AutoValue
+  public abstract static class Phase {
+
+    /** The elapsed time. */
+    public abstract Duration wallTime();
+
+    /**
+     * The CPU time of the thread that ran the phase, and of the tasks it ran on other threads with
+     * {@link Profiler#inCurrentSpan}.
+     */
+    public abstract Duration cpuTime();
+
+    /**
+     * The bytes allocated by the phase, counted in the same way as {@link #cpuTime}, or {@code -1}
+     * if the JVM doesn't support measuring allocations.
+     */
+    public abstract long allocatedBytes();
+
+    /** The number of times the phase ran, e.g. once per annotation processing round. */
+    public abstract int count();
+
+    public static Phase create(
+        Duration wallTime, Duration cpuTime, long allocatedBytes, int count) {
+      return new AutoValue_Metrics_Phase(wallTime, cpuTime, allocatedBytes, count);
+    }
+
+    /** Returns the combined cost of this phase and {@code other}. */
+    public Phase plus(Phase other) {
+      return create(
+          wallTime().plus(other.wallTime()),
+          cpuTime().plus(other.cpuTime()),
+          allocatedBytes() >= 0 && other.allocatedBytes() >= 0
+              ? allocatedBytes() + other.allocatedBytes()
+              : -1,
+          count() + other.count());
+    }
+  }
+
+  /**
+   * The cost of each phase, keyed by the phase name used in {@code --profile} traces, in the order
+   * the phases finished. Phases that contain other phases include their cost.
+   */
+  public abstract ImmutableMap<String, Phase> phases();
+
+  /** Counts of the work done by the compilation, e.g. the number of constant fields evaluated. */
+  public abstract ImmutableMap<String, Long> counters();
+
+  public static Metrics create(
+      ImmutableMap<String, Phase> phases, ImmutableMap<String, Long> counters) {
+    return new AutoValue_Metrics(phases, counters);
+  }
+
+  public static Metrics empty() {
+    return create(ImmutableMap.of(), ImmutableMap.of());
+  }
+}
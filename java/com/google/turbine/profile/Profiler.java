@@ -0,0 +1,492 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.profile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records the time spent in each phase of a compilation, and writes it as a trace in the <a
+ * href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">trace
+ * event format</a> that can be loaded by Perfetto or {@code chrome://tracing}.
+ *
+ * <p>Spans may be recorded concurrently from multiple threads; each thread is shown as a separate
+ * track in the trace.
+ *
+ * <p>The profiler can also collect {@link Metrics}: the wall time, CPU time and allocations of each
+ * compilation phase, and named counters. Metrics can be collected without recording a trace, see
+ * {@link #metricsOnly}. Work that a phase hands off to other threads is charged to the phase if the
+ * tasks are wrapped with {@link #inCurrentSpan} when they are submitted.
+ */
+public final class Profiler {
+
+  private static final Profiler DISABLED =
+      new Profiler(/* enabled= */ false, /* collectMetrics= */ false);
+
+  /** The categories of spans that {@link Metrics} are collected for. */
+  private static final ImmutableSet<String> METRIC_CATEGORIES =
+      ImmutableSet.of("phase", "processing");
+
+  /** The innermost span that is open on each thread and collects metrics. */
+  private static final ThreadLocal<@Nullable Span> CURRENT = new ThreadLocal<>();
+
+  /** Returns a profiler that records nothing. */
+  public static Profiler disabled() {
+    return DISABLED;
+  }
+
+  /** Returns a new profiler that records a trace and collects metrics. */
+  public static Profiler create() {
+    return new Profiler(/* enabled= */ true, /* collectMetrics= */ true);
+  }
+
+  /** Returns a new profiler that collects metrics, but doesn't record a trace. */
+  public static Profiler metricsOnly() {
+    return new Profiler(/* enabled= */ false, /* collectMetrics= */ true);
+  }
+
+  private final boolean enabled;
+  private final boolean collectMetrics;
+  private final long originNanos = System.nanoTime();
+  private final ConcurrentLinkedQueue<Event> events = new ConcurrentLinkedQueue<>();
+  private final Map<Long, String> threadNames = new ConcurrentHashMap<>();
+  private final Map<String, PhaseCost> phases = new LinkedHashMap<>();
+  private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+  private Profiler(boolean enabled, boolean collectMetrics) {
+    this.enabled = enabled;
+    this.collectMetrics = collectMetrics;
+  }
+
+  /** Returns true if this profiler records spans. */
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /** Returns true if this profiler collects metrics. */
+  public boolean collectsMetrics() {
+    return collectMetrics;
+  }
+
+  /** A span that is recorded when it is closed. */
+  public static final class Span implements AutoCloseable {
+
+    private static final Span NOOP = new Span(null, "", "", ImmutableMap.of(), false);
+
+    private final @Nullable Profiler profiler;
+    private final String name;
+    private final String category;
+    private final ImmutableMap<String, String> args;
+    private final boolean measure;
+    private final @Nullable Span parent;
+    private final @Nullable Thread thread;
+    private final LongAdder taskCpuNanos = new LongAdder();
+    private final LongAdder taskAllocatedBytes = new LongAdder();
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+    private final long startNanos;
+
+    private Span(
+        @Nullable Profiler profiler,
+        String name,
+        String category,
+        ImmutableMap<String, String> args,
+        boolean measure) {
+      this.profiler = profiler;
+      this.name = name;
+      this.category = category;
+      this.args = args;
+      this.measure = measure;
+      this.parent = measure ? CURRENT.get() : null;
+      this.thread = measure ? Thread.currentThread() : null;
+      if (measure) {
+        CURRENT.set(this);
+      }
+      this.startCpuNanos = measure ? ThreadCost.cpuNanos() : 0;
+      this.startAllocatedBytes = measure ? ThreadCost.allocatedBytes() : 0;
+      this.startNanos = profiler != null ? System.nanoTime() : 0;
+    }
+
+    @Override
+    public void close() {
+      if (profiler == null) {
+        return;
+      }
+      long endNanos = System.nanoTime();
+      if (measure) {
+        long allocatedBytes = ThreadCost.allocatedBytes();
+        long taskCpuNanos = this.taskCpuNanos.sum();
+        long taskAllocatedBytes = this.taskAllocatedBytes.sum();
+        profiler.addPhase(
+            name,
+            endNanos - startNanos,
+            ThreadCost.cpuNanos() - startCpuNanos + taskCpuNanos,
+            allocatedBytes >= 0 ? allocatedBytes - startAllocatedBytes + taskAllocatedBytes : -1);
+        // The enclosing span either ran on this thread, or started the task this span is part of,
+        // and this thread's work is already charged to it. Tasks started by this span aren't.
+        if (parent != null) {
+          parent.taskCpuNanos.add(taskCpuNanos);
+          parent.taskAllocatedBytes.add(taskAllocatedBytes);
+        }
+        setCurrent(parent);
+      }
+      if (profiler.enabled) {
+        profiler.record(name, category, args, startNanos, endNanos);
+      }
+    }
+  }
+
+  /**
+   * Returns a task that charges the cost of running {@code task} on another thread to the innermost
+   * span that collects metrics and is open on the calling thread, e.g. the phase that submits the
+   * task to a pool. Spans that are started by the task are nested in that span.
+   */
+  public static <T> Callable<T> inCurrentSpan(Callable<T> task) {
+    Span span = CURRENT.get();
+    if (span == null) {
+      return task;
+    }
+    return () -> {
+      TaskCost cost = TaskCost.start(span);
+      try {
+        return task.call();
+      } finally {
+        cost.finish();
+      }
+    };
+  }
+
+  /** Returns a function that charges the cost of each call to the current span. */
+  public static <T, R> Function<T, R> inCurrentSpan(Function<T, R> fn) {
+    Span span = CURRENT.get();
+    if (span == null) {
+      return fn;
+    }
+    return arg -> {
+      TaskCost cost = TaskCost.start(span);
+      try {
+        return fn.apply(arg);
+      } finally {
+        cost.finish();
+      }
+    };
+  }
+
+  /** Measures a task that runs on behalf of a span. */
+  private static final class TaskCost {
+
+    private static final TaskCost NOOP = new TaskCost(null, null, 0, 0);
+
+    static TaskCost start(Span span) {
+      if (span.thread == Thread.currentThread()) {
+        // the task runs on the span's own thread, so its cost is already measured
+        return NOOP;
+      }
+      TaskCost cost =
+          new TaskCost(span, CURRENT.get(), ThreadCost.cpuNanos(), ThreadCost.allocatedBytes());
+      CURRENT.set(span);
+      return cost;
+    }
+
+    private final @Nullable Span span;
+    private final @Nullable Span previous;
+    private final long startCpuNanos;
+    private final long startAllocatedBytes;
+
+    private TaskCost(
+        @Nullable Span span,
+        @Nullable Span previous,
+        long startCpuNanos,
+        long startAllocatedBytes) {
+      this.span = span;
+      this.previous = previous;
+      this.startCpuNanos = startCpuNanos;
+      this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    void finish() {
+      if (span == null) {
+        return;
+      }
+      span.taskCpuNanos.add(ThreadCost.cpuNanos() - startCpuNanos);
+      long allocatedBytes = ThreadCost.allocatedBytes();
+      if (allocatedBytes >= 0) {
+        span.taskAllocatedBytes.add(allocatedBytes - startAllocatedBytes);
+      }
+      setCurrent(previous);
+    }
+  }
+
+  private static void setCurrent(@Nullable Span span) {
+    if (span != null) {
+      CURRENT.set(span);
+    } else {
+      CURRENT.remove();
+    }
+  }
+
+  /** Starts a span for a compilation phase. */
+  public Span span(String name) {
+    return span(name, "phase", ImmutableMap.of());
+  }
+
+  /** Starts a span with the given category and arguments, e.g. the file that is being parsed. */
+  public Span span(String name, String category, ImmutableMap<String, String> args) {
+    boolean measure = collectMetrics && METRIC_CATEGORIES.contains(category);
+    return enabled || measure ? new Span(this, name, category, args, measure) : Span.NOOP;
+  }
+
+  /** Adds {@code delta} to the named counter, if this profiler collects metrics. */
+  public void count(String name, long delta) {
+    if (collectMetrics) {
+      counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+  }
+
+  private synchronized void addPhase(
+      String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+    PhaseCost cost = phases.computeIfAbsent(name, k -> new PhaseCost());
+    cost.wallNanos += wallNanos;
+    cost.cpuNanos += cpuNanos;
+    cost.allocatedBytes =
+        cost.allocatedBytes >= 0 && allocatedBytes >= 0 ? cost.allocatedBytes + allocatedBytes : -1;
+    cost.count++;
+  }
+
+  /** The cost of a phase collected so far. */
+  private static final class PhaseCost {
+    long wallNanos;
+    long cpuNanos;
+    long allocatedBytes;
+    int count;
+  }
+
+  /** Returns the metrics collected so far. */
+  public synchronized Metrics metrics() {
+    ImmutableMap.Builder<String, Metrics.Phase> phases = ImmutableMap.builder();
+    for (Map.Entry<String, PhaseCost> e : this.phases.entrySet()) {
+      PhaseCost cost = e.getValue();
+      phases.put(
+          e.getKey(),
+          Metrics.Phase.create(
+              Duration.ofNanos(cost.wallNanos),
+              Duration.ofNanos(cost.cpuNanos),
+              cost.allocatedBytes,
+              cost.count));
+    }
+    ImmutableMap.Builder<String, Long> counters = ImmutableMap.builder();
+    for (String name : ImmutableSortedSet.copyOf(this.counters.keySet())) {
+      counters.put(name, this.counters.get(name).sum());
+    }
+    return Metrics.create(phases.buildOrThrow(), counters.buildOrThrow());
+  }
+
+  /**
+   * Records a span that started before this profiler was created, e.g. for work that happened
+   * before it was known whether profiling was enabled.
+   */
+  public void record(String name, long startNanos, long endNanos) {
+    if (enabled) {
+      record(name, "phase", ImmutableMap.of(), startNanos, endNanos);
+    }
+  }
+
+  /**
+   * Records a span with the given category and arguments, e.g. a summary of work that was measured
+   * separately.
+   */
+  public void record(
+      String name,
+      String category,
+      ImmutableMap<String, String> args,
+      long startNanos,
+      long endNanos) {
+    if (!enabled) {
+      return;
+    }
+    Thread thread = Thread.currentThread();
+    threadNames.putIfAbsent(thread.getId(), thread.getName());
+    events.add(new Event(name, category, args, thread.getId(), startNanos, endNanos));
+  }
+
+  private static final class Event {
+    final String name;
+    final String category;
+    final ImmutableMap<String, String> args;
+    final long threadId;
+    final long startNanos;
+    final long endNanos;
+
+    Event(
+        String name,
+        String category,
+        ImmutableMap<String, String> args,
+        long threadId,
+        long startNanos,
+        long endNanos) {
+      this.name = name;
+      this.category = category;
+      this.args = args;
+      this.threadId = threadId;
+      this.startNanos = startNanos;
+      this.endNanos = endNanos;
+    }
+  }
+
+  /** Returns the names of the recorded spans, in the order they were completed. */
+  public ImmutableList<String> spanNames() {
+    ImmutableList.Builder<String> names = ImmutableList.builder();
+    for (Event event : events) {
+      names.add(event.name);
+    }
+    return names.build();
+  }
+
+  /** Writes the recorded spans as a JSON trace to the given file. */
+  public void writeTo(Path path) throws IOException {
+    try (Writer writer = Files.newBufferedWriter(path, UTF_8)) {
+      writeTo(writer);
+    }
+  }
+
+  /** Writes the recorded spans as a JSON trace. */
+  public void writeTo(Writer writer) throws IOException {
+    List<String> entries = new ArrayList<>();
+    Map<Long, String> names = new LinkedHashMap<>(threadNames);
+    for (Map.Entry<Long, String> e : names.entrySet()) {
+      entries.add(
+          new JsonObject()
+              .put("name", "thread_name")
+              .put("ph", "M")
+              .put("pid", 1)
+              .put("tid", e.getKey())
+              .putRaw("args", new JsonObject().put("name", e.getValue()).toString())
+              .toString());
+    }
+    for (Event event : events) {
+      JsonObject args = new JsonObject();
+      for (Map.Entry<String, String> e : event.args.entrySet()) {
+        args.put(e.getKey(), e.getValue());
+      }
+      entries.add(
+          new JsonObject()
+              .put("name", event.name)
+              .put("cat", event.category)
+              .put("ph", "X")
+              .put("ts", micros(event.startNanos - originNanos))
+              .put("dur", micros(event.endNanos - event.startNanos))
+              .put("pid", 1)
+              .put("tid", event.threadId)
+              .putRaw("args", args.toString())
+              .toString());
+    }
+    writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+    writer.write(String.join(",\n", entries));
+    writer.write("\n]}\n");
+  }
+
+  private static double micros(long nanos) {
+    return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+  }
+
+  /** A minimal JSON object writer, for the small set of value types used in traces. */
+  private static final class JsonObject {
+    private final StringBuilder sb = new StringBuilder("{");
+
+    @CanIgnoreReturnValue
+    JsonObject put(String key, String value) {
+      return putRaw(key, quote(value));
+    }
+
+    @CanIgnoreReturnValue
+    JsonObject put(String key, long value) {
+      return putRaw(key, Long.toString(value));
+    }
+
+    @CanIgnoreReturnValue
+    JsonObject put(String key, double value) {
+      return putRaw(key, String.format(Locale.ROOT, "%.3f", value));
+    }
+
+    @CanIgnoreReturnValue
+    JsonObject putRaw(String key, String value) {
+      if (sb.length() > 1) {
+        sb.append(',');
+      }
+      sb.append(quote(key)).append(':').append(value);
+      return this;
+    }
+
+    @Override
+    public String toString() {
+      return sb + "}";
+    }
+
+    private static String quote(String value) {
+      StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        switch (c) {
+          case '"':
+            result.append("\\\"");
+            break;
+          case '\\':
+            result.append("\\\\");
+            break;
+          case '\n':
+            result.append("\\n");
+            break;
+          case '\r':
+            result.append("\\r");
+            break;
+          case '\t':
+            result.append("\\t");
+            break;
+          default:
+            if (c < 0x20) {
+              result.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+              result.append(c);
+            }
+        }
+      }
+      return result.append('"').toString();
+    }
+  }
+}
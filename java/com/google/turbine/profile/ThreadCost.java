@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/** Measures the cost of work done by the current thread. */
+public final class ThreadCost {
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private static final boolean CPU_TIME_SUPPORTED =
+      THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported();
+
+  private static final boolean ALLOCATIONS_SUPPORTED =
+      THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean
+          && ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported();
+
+  /** The CPU time used by the current thread, or {@code 0} if it can't be measured. */
+  public static long cpuNanos() {
+    return CPU_TIME_SUPPORTED ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+  }
+
+  /** The bytes allocated by the current thread, or {@code -1} if they can't be measured. */
+  public static long allocatedBytes() {
+    return ALLOCATIONS_SUPPORTED
+        ? ((com.sun.management.ThreadMXBean) THREAD_MX_BEAN)
+            .getThreadAllocatedBytes(Thread.currentThread().getId())
+        : -1;
+  }
+
+  private ThreadCost() {}
+}
@@ -20,6 +20,7 @@ import static java.util.Objects.requireNonNull;
 
 import com.google.common.base.Verify;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.turbine.binder.bound.TypeBoundClass;
 import com.google.turbine.binder.env.Env;
 import com.google.turbine.binder.sym.ClassSymbol;
@@ -72,9 +73,10 @@ public class Canonicalize {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol sym,
       Type type) {
-    return new Canonicalize(source, position, env).canonicalize(sym, type);
+    return new Canonicalize(source, position, env, hierarchy).canonicalize(sym, type);
   }
 
   /** Canonicalize a qualified class type, excluding type arguments. */
@@ -82,19 +84,23 @@ public class Canonicalize {
       SourceFile source,
       int position,
       Env<ClassSymbol, TypeBoundClass> env,
+      Hierarchy hierarchy,
       ClassSymbol owner,
       ClassTy classTy) {
-    return new Canonicalize(source, position, env).canonicalizeClassTy(owner, classTy);
+    return new Canonicalize(source, position, env, hierarchy).canonicalizeClassTy(owner, classTy);
   }
 
   private final SourceFile source;
   private final int position;
   private final Env<ClassSymbol, TypeBoundClass> env;
+  private final Hierarchy hierarchy;
 
-  public Canonicalize(SourceFile source, int position, Env<ClassSymbol, TypeBoundClass> env) {
+  public Canonicalize(
+      SourceFile source, int position, Env<ClassSymbol, TypeBoundClass> env, Hierarchy hierarchy) {
     this.source = source;
     this.position = position;
     this.env = env;
+    this.hierarchy = hierarchy;
   }
 
   private Type canonicalize(ClassSymbol base, Type type) {
@@ -191,12 +197,12 @@ public class Canonicalize {
 
   // is s a subclass (not interface) of t?
   private boolean isSubclass(ClassSymbol s, ClassSymbol t) {
-    while (s != null) {
-      if (s.equals(t)) {
-        return true;
-      }
-      s = getInfo(s).superclass();
+    ImmutableSet<ClassSymbol> superclasses = hierarchy.superclasses(s);
+    if (superclasses.contains(t)) {
+      return true;
     }
+    // report an error if the search ended at a missing superclass
+    TypeBoundClass unused = getInfo(superclasses.asList().get(superclasses.size() - 1));
     return false;
   }
 
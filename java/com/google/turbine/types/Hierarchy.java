@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.types;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableSet;
+import com.google.turbine.binder.bound.HeaderBoundClass;
+import com.google.turbine.binder.env.Env;
+import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.model.TurbineVisibility;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Supertype closures and inherited member type lookups for the classes in a compilation.
+ *
+ * <p>The results are cached, so a single instance can be shared by the phases of a compilation
+ * that walk the class hierarchy. The cache assumes the hierarchy of the classes in the env doesn't
+ * change.
+ */
+public final class Hierarchy {
+
+  /** Creates a hierarchy for the classes in the given env. */
+  public static Hierarchy create(Env<ClassSymbol, ? extends HeaderBoundClass> env) {
+    return new Hierarchy(
+        env, new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+  }
+
+  /** The key for a cached member type lookup. */
+  @AutoValue
+  abstract static class MemberTypeKey {
+    abstract ClassSymbol sym();
+
+    abstract String name();
+
+    /**
+     * The package of the class the lookup is performed from, or {@code null} if it isn't
+     * performed from a class.
+     */
+    abstract @Nullable String originPackage();
+
+    static MemberTypeKey create(ClassSymbol sym, String name, @Nullable ClassSymbol origin) {
+      return new AutoValue_Hierarchy_MemberTypeKey(
+          sym, name, origin != null ? origin.packageName() : null);
+    }
+  }
+
+  private final Env<ClassSymbol, ? extends HeaderBoundClass> env;
+  private final ConcurrentMap<MemberTypeKey, Optional<ClassSymbol>> memberTypes;
+  private final ConcurrentMap<ClassSymbol, ImmutableSet<ClassSymbol>> superclasses;
+  private final ConcurrentMap<ClassSymbol, ImmutableSet<ClassSymbol>> supertypes;
+
+  private Hierarchy(
+      Env<ClassSymbol, ? extends HeaderBoundClass> env,
+      ConcurrentMap<MemberTypeKey, Optional<ClassSymbol>> memberTypes,
+      ConcurrentMap<ClassSymbol, ImmutableSet<ClassSymbol>> superclasses,
+      ConcurrentMap<ClassSymbol, ImmutableSet<ClassSymbol>> supertypes) {
+    this.env = env;
+    this.memberTypes = memberTypes;
+    this.superclasses = superclasses;
+    this.supertypes = supertypes;
+  }
+
+  /**
+   * Returns a hierarchy for the given env that shares this hierarchy's cache. The classes in the
+   * env must have the same supertypes and member types as the classes in this hierarchy's env,
+   * e.g. because they are later phases of binding the same classes.
+   */
+  public Hierarchy withEnv(Env<ClassSymbol, ? extends HeaderBoundClass> env) {
+    return new Hierarchy(env, memberTypes, superclasses, supertypes);
+  }
+
+  public Env<ClassSymbol, ? extends HeaderBoundClass> env() {
+    return env;
+  }
+
+  /**
+   * Performs JLS 6.5.5.2 qualified type name resolution of a type with the given simple name,
+   * qualified by the given symbol. The search considers members that are inherited from
+   * superclasses or interfaces.
+   */
+  public @Nullable ClassSymbol memberType(
+      @Nullable ClassSymbol origin, ClassSymbol sym, String name) {
+    MemberTypeKey key = MemberTypeKey.create(sym, name, origin);
+    Optional<ClassSymbol> cached = memberTypes.get(key);
+    if (cached != null) {
+      return cached.orElse(null);
+    }
+    MemberTypeSearch search = new MemberTypeSearch(env, origin, name);
+    ClassSymbol result = search.search(sym);
+    if (!search.dependsOnOrigin) {
+      // lookups are re-entrant, so this doesn't use computeIfAbsent
+      memberTypes.putIfAbsent(key, Optional.ofNullable(result));
+    }
+    return result;
+  }
+
+  /** An uncached {@link #memberType}, for use while the hierarchy is still being bound. */
+  public static @Nullable ClassSymbol memberType(
+      Env<ClassSymbol, ? extends HeaderBoundClass> env,
+      @Nullable ClassSymbol origin,
+      ClassSymbol sym,
+      String name) {
+    return new MemberTypeSearch(env, origin, name).search(sym);
+  }
+
+  private static class MemberTypeSearch {
+    private final Env<ClassSymbol, ? extends HeaderBoundClass> env;
+    private final @Nullable ClassSymbol origin;
+    private final String name;
+    private final Set<ClassSymbol> seen = new HashSet<>();
+
+    /** Whether the result depends on the identity of the origin, and not just its package. */
+    boolean dependsOnOrigin = false;
+
+    MemberTypeSearch(
+        Env<ClassSymbol, ? extends HeaderBoundClass> env,
+        @Nullable ClassSymbol origin,
+        String name) {
+      this.env = env;
+      this.origin = origin;
+      this.name = name;
+    }
+
+    @Nullable ClassSymbol search(ClassSymbol sym) {
+      if (!seen.add(sym)) {
+        // Optimize multiple-interface-inheritance, and don't get stuck in cycles.
+        return null;
+      }
+      HeaderBoundClass bound = env.get(sym);
+      if (bound == null) {
+        return null;
+      }
+      ClassSymbol result = bound.children().get(name);
+      if (result != null) {
+        return result;
+      }
+      if (bound.superclass() != null) {
+        result = search(bound.superclass());
+        if (result != null && visible(result)) {
+          return result;
+        }
+      }
+      for (ClassSymbol i : bound.interfaces()) {
+        result = search(i);
+        if (result != null && visible(result)) {
+          return result;
+        }
+      }
+      return null;
+    }
+
+    /** Is the given type visible when inherited into class origin? */
+    private boolean visible(ClassSymbol sym) {
+      TurbineVisibility visibility = TurbineVisibility.fromAccess(env.getNonNull(sym).access());
+      switch (visibility) {
+        case PUBLIC:
+        case PROTECTED:
+          return true;
+        case PACKAGE:
+          // origin can be null if we aren't in a package scope (e.g. we're processing a module
+          // declaration), in which case package-visible members aren't visible
+          return origin != null && sym.inSamePackageAs(origin);
+        case PRIVATE:
+          // Private members of lexically enclosing declarations are not handled,
+          // since this visibility check is only used for inherited members.
+          dependsOnOrigin = true;
+          return sym.equals(origin);
+      }
+      throw new AssertionError(visibility);
+    }
+  }
+
+  /**
+   * Returns the given class and its superclasses, in order. If a superclass is missing from the
+   * env, it is the last element.
+   */
+  public ImmutableSet<ClassSymbol> superclasses(ClassSymbol sym) {
+    ImmutableSet<ClassSymbol> result = superclasses.get(sym);
+    if (result != null) {
+      return result;
+    }
+    Set<ClassSymbol> chain = new LinkedHashSet<>();
+    ClassSymbol curr = sym;
+    // stop at cycles, which are reported during hierarchy binding
+    while (curr != null && chain.add(curr)) {
+      HeaderBoundClass info = env.get(curr);
+      if (info == null) {
+        break;
+      }
+      curr = info.superclass();
+    }
+    result = ImmutableSet.copyOf(chain);
+    superclasses.putIfAbsent(sym, result);
+    return result;
+  }
+
+  /** Returns true if {@code s} is {@code t}, or a subclass (not an interface) of {@code t}. */
+  public boolean isSubclass(ClassSymbol s, ClassSymbol t) {
+    return superclasses(s).contains(t);
+  }
+
+  /**
+   * Returns the given class and all of its transitive superclasses and superinterfaces, including
+   * ones that are missing from the env, in depth-first order.
+   */
+  public ImmutableSet<ClassSymbol> supertypes(ClassSymbol sym) {
+    ImmutableSet<ClassSymbol> result = supertypes.get(sym);
+    if (result != null) {
+      return result;
+    }
+    Set<ClassSymbol> closure = new LinkedHashSet<>();
+    addSupertypes(closure, sym);
+    result = ImmutableSet.copyOf(closure);
+    supertypes.putIfAbsent(sym, result);
+    return result;
+  }
+
+  private void addSupertypes(Set<ClassSymbol> closure, ClassSymbol sym) {
+    if (!closure.add(sym)) {
+      return;
+    }
+    HeaderBoundClass info = env.get(sym);
+    if (info == null) {
+      return;
+    }
+    if (info.superclass() != null) {
+      addSupertypes(closure, info.superclass());
+    }
+    for (ClassSymbol i : info.interfaces()) {
+      addSupertypes(closure, i);
+    }
+  }
+}
@@ -19,8 +19,9 @@ package com.google.turbine.zip;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 import com.google.common.primitives.UnsignedInts;
-import java.io.ByteArrayInputStream;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOError;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -32,10 +33,15 @@ import java.nio.charset.CharacterCodingException;
 import java.nio.charset.CharsetDecoder;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
 import java.util.zip.ZipException;
+import org.jspecify.annotations.Nullable;
 
 /**
  * A fast, minimal, and somewhat garbage zip implementation. This exists because graal <a
@@ -64,7 +70,8 @@ import java.util.zip.ZipException;
  *       supported.
  *   <li>UTF-8 is the only supported encoding.
  *   <li>STORED and DEFLATE are the only supported compression methods.
- *   <li>Zip files larger than Integer.MAX_VALUE bytes are not supported.
+ *   <li>Entries larger than 1GB are not supported in zip files larger than Integer.MAX_VALUE
+ *       bytes.
  *   <li>The only supported ZIP64 field is ENDTOT. This implementation assumes that the ZIP64 end
  *       header is present only if ENDTOT in EOCD header is 0xFFFF.
  * </ul>
@@ -101,20 +108,21 @@ public final class Zip {
 
   static final long ZIP64_MAGICVAL = 0xFFFFFFFFL;
 
+  /** The largest archive that can be read into a single heap buffer. */
+  private static final int MAX_HEAP_ARCHIVE_SIZE = Integer.MAX_VALUE - 8;
+
   /** Iterates over a zip archive. */
   static class ZipIterator implements Iterator<Entry> {
 
-    /** A reader for the backing storage. */
-    private final FileChannel chan;
+    /** The backing storage. */
+    private final Archive archive;
 
-    private final Path path;
     private int cdindex = 0;
-    private final MappedByteBuffer cd;
+    private final ByteBuffer cd;
     private final CharsetDecoder decoder = UTF_8.newDecoder();
 
-    ZipIterator(Path path, FileChannel chan, MappedByteBuffer cd) {
-      this.path = path;
-      this.chan = chan;
+    ZipIterator(Archive archive, ByteBuffer cd) {
+      this.archive = archive;
       this.cd = cd;
     }
 
@@ -127,11 +135,11 @@ public final class Zip {
     @Override
     public Entry next() {
       // TODO(cushon): technically we're supposed to throw NSEE
-      checkSignature(path, cd, cdindex, 1, 2, "CENSIG");
+      checkSignature(archive.path(), cd, cdindex, 1, 2, "CENSIG");
       int nameLength = cd.getChar(cdindex + CENNAM);
       int extLength = cd.getChar(cdindex + CENEXT);
       int commentLength = cd.getChar(cdindex + CENCOM);
-      Entry entry = new Entry(path, chan, string(cd, cdindex + CENHDR, nameLength), cd, cdindex);
+      Entry entry = new Entry(archive, string(cd, cdindex + CENHDR, nameLength), cd, cdindex);
       cdindex += CENHDR + nameLength + extLength + commentLength;
       return entry;
     }
@@ -154,25 +162,37 @@ public final class Zip {
 
     private final Path path;
     private final FileChannel chan;
-    private final MappedByteBuffer cd;
+    private final Archive archive;
+    private final ByteBuffer cd;
+    private volatile @Nullable NameTable nameTable;
 
     public ZipIterable(Path path) throws IOException {
+      this(path, /* map= */ true);
+    }
+
+    /**
+     * Opens the archive at the given path. If {@code map} is false the archive is read into memory
+     * instead of being mapped, so the file can be replaced once this iterable is closed, even on
+     * platforms that don't allow mapped files to be replaced.
+     */
+    public ZipIterable(Path path, boolean map) throws IOException {
       this.path = path;
       this.chan = FileChannel.open(path, StandardOpenOption.READ);
+      this.archive = new Archive(path, chan, map);
       // Locate the EOCD
       long size = chan.size();
       if (size < ENDHDR) {
         throw new ZipException("invalid zip archive");
       }
       long eocdOffset = size - ENDHDR;
-      MappedByteBuffer eocd = chan.map(MapMode.READ_ONLY, eocdOffset, ENDHDR);
+      ByteBuffer eocd = read(chan, eocdOffset, ENDHDR, map);
       eocd.order(ByteOrder.LITTLE_ENDIAN);
       int index = 0;
       int commentSize = 0;
       if (!isSignature(eocd, 0, 5, 6)) {
         // The archive may contain a zip file comment; keep looking for the EOCD.
         long start = Math.max(0, size - ENDHDR - 0xFFFF);
-        eocd = chan.map(MapMode.READ_ONLY, start, (size - start));
+        eocd = read(chan, start, (size - start), map);
         eocd.order(ByteOrder.LITTLE_ENDIAN);
         index = (int) ((size - start) - ENDHDR);
         while (index > 0) {
@@ -204,7 +224,7 @@ public final class Zip {
         // Note that zip reading is necessarily best-effort, since an archive could contain 0xFFFF
         // entries and the last entry's data could contain a ZIP64_ENDSIG. Some implementations
         // read the full EOCD records and compare them.
-        long zip64cdsize = zip64cdsize(chan, zip64eocdOffset);
+        long zip64cdsize = zip64cdsize(chan, zip64eocdOffset, map);
         if (zip64cdsize != -1) {
           eocdOffset = zip64eocdOffset;
           cdsize = zip64cdsize;
@@ -213,12 +233,11 @@ public final class Zip {
           // or there was a zip64 extensible data sector, so try going through the
           // locator. This approach doesn't work if data was prepended to the archive
           // without updating the offset in the locator.
-          MappedByteBuffer zip64loc =
-              chan.map(MapMode.READ_ONLY, size - ENDHDR - ZIP64_LOCHDR, ZIP64_LOCHDR);
+          ByteBuffer zip64loc = read(chan, size - ENDHDR - ZIP64_LOCHDR, ZIP64_LOCHDR, map);
           zip64loc.order(ByteOrder.LITTLE_ENDIAN);
           if (zip64loc.getInt(0) == ZIP64_LOCSIG) {
             zip64eocdOffset = zip64loc.getLong(8);
-            zip64cdsize = zip64cdsize(chan, zip64eocdOffset);
+            zip64cdsize = zip64cdsize(chan, zip64eocdOffset, map);
             if (zip64cdsize != -1) {
               eocdOffset = zip64eocdOffset;
               cdsize = zip64cdsize;
@@ -226,12 +245,12 @@ public final class Zip {
           }
         }
       }
-      this.cd = chan.map(MapMode.READ_ONLY, eocdOffset - cdsize, cdsize);
+      this.cd = read(chan, eocdOffset - cdsize, cdsize, map);
       cd.order(ByteOrder.LITTLE_ENDIAN);
     }
 
-    static long zip64cdsize(FileChannel chan, long eocdOffset) throws IOException {
-      MappedByteBuffer zip64eocd = chan.map(MapMode.READ_ONLY, eocdOffset, ZIP64_ENDHDR);
+    static long zip64cdsize(FileChannel chan, long eocdOffset, boolean map) throws IOException {
+      ByteBuffer zip64eocd = read(chan, eocdOffset, ZIP64_ENDHDR, map);
       zip64eocd.order(ByteOrder.LITTLE_ENDIAN);
       if (zip64eocd.getInt(0) == ZIP64_ENDSIG) {
         return zip64eocd.getLong(ZIP64_ENDSIZ);
@@ -241,7 +260,78 @@ public final class Zip {
 
     @Override
     public Iterator<Entry> iterator() {
-      return new ZipIterator(path, chan, cd);
+      return new ZipIterator(archive, cd);
+    }
+
+    /**
+     * Returns the entry with the given name, or {@code null} if the archive doesn't contain one.
+     *
+     * <p>The first lookup builds a hash table of the entries in the central directory, keyed by
+     * their UTF-8 encoded names. Building the table doesn't decode any names or create any entries,
+     * and lookups only create the entry they return. This is only cheaper than iterating for
+     * callers that need some of the entries of an archive and know their names, like incremental
+     * compilation copying unchanged classes from the previous output. Classpath binding needs the
+     * name of every class in a jar to build its top-level index, so it iterates instead.
+     */
+    public @Nullable Entry lookup(String name) {
+      byte[] key = name.getBytes(UTF_8);
+      NameTable table = nameTable();
+      int hash = NameTable.hash(key);
+      int mask = table.offsets.length - 1;
+      for (int i = NameTable.mix(hash) & mask; ; i = (i + 1) & mask) {
+        int offset = table.offsets[i];
+        if (offset == 0) {
+          return null;
+        }
+        int cdindex = offset - 1;
+        if (table.hashes[i] == hash && nameEquals(cdindex, key)) {
+          return new Entry(archive, name, cd, cdindex);
+        }
+      }
+    }
+
+    private boolean nameEquals(int cdindex, byte[] key) {
+      if (cd.getChar(cdindex + CENNAM) != key.length) {
+        return false;
+      }
+      int start = cdindex + CENHDR;
+      for (int i = 0; i < key.length; i++) {
+        if (cd.get(start + i) != key[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private NameTable nameTable() {
+      NameTable result = nameTable;
+      if (result == null) {
+        synchronized (this) {
+          result = nameTable;
+          if (result == null) {
+            result = NameTable.create(path, cd);
+            nameTable = result;
+          }
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Returns a read-only view of the archive's central directory, which includes the name, size,
+     * and CRC of every entry.
+     */
+    public ByteBuffer centralDirectory() {
+      return cd.asReadOnlyBuffer();
+    }
+
+    /**
+     * Maps (or reads) the whole archive into memory and closes the file, so the entries returned by
+     * this iterable remain readable without holding a file descriptor open.
+     */
+    public void detach() throws IOException {
+      archive.map();
+      close();
     }
 
     @Override
@@ -250,21 +340,280 @@ public final class Zip {
     }
   }
 
-  /** An entry in a zip archive. */
-  public static class Entry {
+  /**
+   * Returns the given range of the file, which is mapped into memory if {@code map} is true, and
+   * otherwise read into a heap buffer.
+   */
+  private static ByteBuffer read(FileChannel chan, long offset, long length, boolean map)
+      throws IOException {
+    if (map) {
+      return chan.map(MapMode.READ_ONLY, offset, length);
+    }
+    if (length > MAX_HEAP_ARCHIVE_SIZE) {
+      throw new ZipException("zip files larger than 2GB can't be read into memory");
+    }
+    ByteBuffer buf = ByteBuffer.allocate((int) length);
+    while (buf.hasRemaining()) {
+      if (chan.read(buf, offset + buf.position()) == -1) {
+        throw new EOFException();
+      }
+    }
+    buf.flip();
+    return buf.asReadOnlyBuffer();
+  }
+
+  /**
+   * An open-addressing hash table from the names of the entries in a central directory to the
+   * offsets of their headers.
+   */
+  private static final class NameTable {
+
+    /** The name hash of each slot. */
+    final int[] hashes;
+
+    /** The central directory offset of each slot's header, plus one; zero for empty slots. */
+    final int[] offsets;
+
+    private NameTable(int[] hashes, int[] offsets) {
+      this.hashes = hashes;
+      this.offsets = offsets;
+    }
+
+    static NameTable create(Path path, ByteBuffer cd) {
+      int count = 0;
+      for (int cdindex = 0; cdindex < cd.limit(); cdindex = nextHeader(cd, cdindex)) {
+        checkSignature(path, cd, cdindex, 1, 2, "CENSIG");
+        count++;
+      }
+      // keep the load factor at or below 1/2
+      int capacity = Integer.highestOneBit(Math.max(count, 1)) << 2;
+      int mask = capacity - 1;
+      int[] hashes = new int[capacity];
+      int[] offsets = new int[capacity];
+      for (int cdindex = 0; cdindex < cd.limit(); cdindex = nextHeader(cd, cdindex)) {
+        int hash = hash(cd, cdindex + CENHDR, cd.getChar(cdindex + CENNAM));
+        int i = mix(hash) & mask;
+        while (offsets[i] != 0) {
+          i = (i + 1) & mask;
+        }
+        hashes[i] = hash;
+        offsets[i] = cdindex + 1;
+      }
+      return new NameTable(hashes, offsets);
+    }
+
+    private static int nextHeader(ByteBuffer cd, int cdindex) {
+      return cdindex
+          + CENHDR
+          + cd.getChar(cdindex + CENNAM)
+          + cd.getChar(cdindex + CENEXT)
+          + cd.getChar(cdindex + CENCOM);
+    }
+
+    static int hash(byte[] name) {
+      int hash = 0;
+      for (byte b : name) {
+        hash = 31 * hash + b;
+      }
+      return hash;
+    }
+
+    static int hash(ByteBuffer cd, int start, int length) {
+      int hash = 0;
+      for (int i = 0; i < length; i++) {
+        hash = 31 * hash + cd.get(start + i);
+      }
+      return hash;
+    }
+
+    /** Spreads the high bits of the hash, which are otherwise ignored by the table's mask. */
+    static int mix(int hash) {
+      return hash ^ (hash >>> 16);
+    }
+  }
+
+  /**
+   * The file backing a zip archive. The whole file is mapped into memory once, the first time an
+   * entry's data is read, and the data of every entry is read from that mapping. Archives that
+   * aren't mapped are read into memory instead.
+   *
+   * <p>A single {@link MappedByteBuffer} can't be larger than {@code Integer.MAX_VALUE} bytes, so
+   * larger archives are mapped as a series of overlapping windows. Each window starts {@link
+   * #WINDOW_STRIDE} bytes after the previous one and is as large as a buffer can be, so any range
+   * of up to 1GB is contained in a single window.
+   */
+  public static final class Archive implements Closeable {
+
+    /** The distance between the starts of the windows of archives larger than 2GB. */
+    private static final long WINDOW_STRIDE = 1L << 30;
 
     private final Path path;
     private final FileChannel chan;
-    private final String name;
-    private final ByteBuffer cd;
-    private final int cdindex;
+    private final boolean map;
+    private volatile ByteBuffer @Nullable [] windows;
 
-    public Entry(Path path, FileChannel chan, String name, ByteBuffer cd, int cdindex) {
+    public Archive(Path path, FileChannel chan) {
+      this(path, chan, /* map= */ true);
+    }
+
+    Archive(Path path, FileChannel chan, boolean map) {
       this.path = path;
       this.chan = chan;
+      this.map = map;
+    }
+
+    /**
+     * Opens the archive at the given path and maps it into memory. The returned archive doesn't
+     * hold a file descriptor open.
+     */
+    public static Archive open(Path path) throws IOException {
+      try (FileChannel chan = FileChannel.open(path, StandardOpenOption.READ)) {
+        Archive archive = new Archive(path, chan);
+        archive.map();
+        return archive;
+      }
+    }
+
+    /** The path of the archive. */
+    public Path path() {
+      return path;
+    }
+
+    /**
+     * Returns a little-endian view of the given range of the archive, or {@code null} if the range
+     * extends past the end of the archive.
+     */
+    @Nullable ByteBuffer slice(long offset, long length) throws IOException {
+      ByteBuffer[] windows = map();
+      int last = windows.length - 1;
+      if (offset + length > last * WINDOW_STRIDE + windows[last].capacity()) {
+        return null;
+      }
+      int index = (int) Math.min(offset / WINDOW_STRIDE, last);
+      long windowStart = index * WINDOW_STRIDE;
+      ByteBuffer window = windows[index];
+      long end = offset - windowStart + length;
+      if (end > window.capacity()) {
+        throw new ZipException(
+            String.format(
+                "%s: entries larger than 1GB are not supported in zip files larger than 2GB",
+                path));
+      }
+      ByteBuffer result = window.duplicate();
+      result.position((int) (offset - windowStart));
+      result.limit((int) end);
+      return result.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps (or reads) the whole archive into memory, if it isn't already. The mapping remains valid
+     * after the file is closed.
+     */
+    @CanIgnoreReturnValue
+    private ByteBuffer[] map() throws IOException {
+      ByteBuffer[] result = windows;
+      if (result == null) {
+        synchronized (this) {
+          result = windows;
+          if (result == null) {
+            long size = chan.size();
+            List<ByteBuffer> mapped = new ArrayList<>();
+            for (long start = 0; ; start += WINDOW_STRIDE) {
+              long length = Math.min(size - start, Integer.MAX_VALUE);
+              mapped.add(read(chan, start, length, map));
+              if (start + length == size) {
+                break;
+              }
+            }
+            result = mapped.toArray(new ByteBuffer[0]);
+            windows = result;
+          }
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+      chan.close();
+    }
+  }
+
+  /**
+   * Idle inflaters for DEFLATE entries, which are reused instead of creating one for every entry
+   * and leaving its native memory to be freed when it is garbage collected.
+   *
+   * <p>The pool is bounded, and an inflater that is returned to a full pool is ended immediately.
+   * Inflaters aren't tied to threads, so the short-lived threads of a compilation's pool don't
+   * leave inflaters behind when they exit.
+   */
+  private static final BlockingQueue<Inflater> INFLATERS =
+      new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+  private static Inflater acquireInflater() {
+    Inflater inflater = INFLATERS.poll();
+    return inflater != null ? inflater : new Inflater(/* nowrap= */ true);
+  }
+
+  private static void releaseInflater(Inflater inflater) {
+    inflater.reset();
+    if (!INFLATERS.offer(inflater)) {
+      inflater.end();
+    }
+  }
+
+  /** An entry in a zip archive. */
+  public static class Entry {
+
+    private final Archive archive;
+    private final String name;
+    private final long offset;
+    private final int nameLength;
+    private final int extLength;
+    private final int compression;
+    private final long compressedSize;
+    private final long size;
+
+    public Entry(Archive archive, String name, ByteBuffer cd, int cdindex) {
+      this(
+          archive,
+          name,
+          UnsignedInts.toLong(cd.getInt(cdindex + CENOFF)),
+          cd.getChar(cdindex + CENNAM),
+          cd.getChar(cdindex + CENEXT),
+          cd.getChar(cdindex + CENHOW),
+          UnsignedInts.toLong(cd.getInt(cdindex + CENSIZ)),
+          UnsignedInts.toLong(cd.getInt(cdindex + CENLEN)));
+    }
+
+    /**
+     * Creates an entry from the values recorded for it in the central directory, e.g. from a
+     * previously saved index of the archive.
+     *
+     * @param offset the offset of the entry's local header
+     * @param nameLength the length of the UTF-8 encoded entry name
+     * @param extLength the length of the entry's extra field in the central directory
+     * @param compression the compression method
+     * @param compressedSize the compressed size of the entry data
+     * @param size the uncompressed size of the entry data
+     */
+    public Entry(
+        Archive archive,
+        String name,
+        long offset,
+        int nameLength,
+        int extLength,
+        int compression,
+        long compressedSize,
+        long size) {
+      this.archive = archive;
       this.name = name;
-      this.cd = cd;
-      this.cdindex = cdindex;
+      this.offset = offset;
+      this.nameLength = nameLength;
+      this.extLength = extLength;
+      this.compression = compression;
+      this.compressedSize = compressedSize;
+      this.size = size;
     }
 
     /** The entry name. */
@@ -272,89 +621,144 @@ public final class Zip {
       return name;
     }
 
+    /** The offset of the entry's local header. */
+    public long offset() {
+      return offset;
+    }
+
+    /** The length of the UTF-8 encoded entry name. */
+    public int nameLength() {
+      return nameLength;
+    }
+
+    /** The length of the entry's extra field in the central directory. */
+    public int extLength() {
+      return extLength;
+    }
+
+    /** The compression method. */
+    public int compression() {
+      return compression;
+    }
+
+    /** The compressed size of the entry data. */
+    public long compressedSize() {
+      return compressedSize;
+    }
+
+    /** The uncompressed size of the entry data. */
+    public long size() {
+      return size;
+    }
+
     /** The entry data. */
     public byte[] data() {
-      // Read the offset and variable lengths from the central directory and then try to map in the
-      // data section in one shot.
-      long offset = UnsignedInts.toLong(cd.getInt(cdindex + CENOFF));
-      if (offset == ZIP64_MAGICVAL) {
-        // TODO(cushon): read the offset from the 'Zip64 Extended Information Extra Field'
-        throw new AssertionError(
-            String.format("%s: %s requires missing zip64 support, please file a bug", path, name));
+      switch (compression) {
+        case 0x8:
+          return inflate(rawData(compressedSize));
+        case 0x0:
+          ByteBuffer raw = rawData(size);
+          byte[] bytes = new byte[raw.remaining()];
+          raw.get(bytes);
+          return bytes;
+        default:
+          throw unsupportedCompression();
       }
-      int nameLength = cd.getChar(cdindex + CENNAM);
-      int extLength = cd.getChar(cdindex + CENEXT);
-      int compression = cd.getChar(cdindex + CENHOW);
+    }
+
+    /**
+     * The entry data, as a read-only buffer. The data of STORED entries is not copied: the buffer
+     * is a view of the mapped archive.
+     */
+    public ByteBuffer buffer() {
       switch (compression) {
         case 0x8:
-          return getBytes(
-              offset,
-              nameLength,
-              extLength,
-              UnsignedInts.toLong(cd.getInt(cdindex + CENSIZ)),
-              /* deflate= */ true);
+          return ByteBuffer.wrap(data()).asReadOnlyBuffer();
         case 0x0:
-          return getBytes(
-              offset,
-              nameLength,
-              extLength,
-              UnsignedInts.toLong(cd.getInt(cdindex + CENLEN)),
-              /* deflate= */ false);
+          return rawData(size).slice();
         default:
-          throw new AssertionError(
-              String.format("unsupported compression mode: 0x%x", compression));
+          throw unsupportedCompression();
       }
     }
 
+    private AssertionError unsupportedCompression() {
+      return new AssertionError(String.format("unsupported compression mode: 0x%x", compression));
+    }
+
     /**
-     * Number of extra bytes to read for each file, to avoid re-mapping the data if the local header
-     * reports more extra field data than the central directory.
+     * Returns a view of the entry's data section in the mapped archive, using the offset and name
+     * length from the central directory, and the extra field length from the local header.
      */
-    static final int EXTRA_FIELD_SLACK = 128;
+    private ByteBuffer rawData(long dataSize) {
+      if (offset == ZIP64_MAGICVAL) {
+        // TODO(cushon): read the offset from the 'Zip64 Extended Information Extra Field'
+        throw new AssertionError(
+            String.format(
+                "%s: %s requires missing zip64 support, please file a bug", archive.path(), name));
+      }
+      if (dataSize > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("unsupported zip entry size: " + dataSize);
+      }
+      try {
+        ByteBuffer loc = archive.slice(offset, LOCHDR);
+        if (loc == null) {
+          throw new ZipException(String.format("%s: %s is truncated", archive.path(), name));
+        }
+        checkSignature(archive.path(), loc, 0, 3, 4, "LOCSIG");
+        long start = offset + LOCHDR + nameLength + loc.getChar(LOCEXT);
+        ByteBuffer data = archive.slice(start, dataSize);
+        if (data == null) {
+          throw new ZipException(String.format("%s: %s is truncated", archive.path(), name));
+        }
+        return data;
+      } catch (IOException e) {
+        throw new IOError(e);
+      }
+    }
 
-    private byte[] getBytes(
-        long offset, int nameLength, int cenExtLength, long size, boolean deflate) {
+    /**
+     * Inflates the entry's compressed data into an array of the uncompressed size recorded in the
+     * central directory.
+     */
+    private byte[] inflate(ByteBuffer compressed) {
       if (size > Integer.MAX_VALUE) {
         throw new IllegalArgumentException("unsupported zip entry size: " + size);
       }
+      Inflater inflater = acquireInflater();
       try {
-        MappedByteBuffer fc =
-            chan.map(
-                MapMode.READ_ONLY,
-                offset,
-                Math.min(
-                    LOCHDR + nameLength + cenExtLength + size + EXTRA_FIELD_SLACK,
-                    chan.size() - offset));
-        fc.order(ByteOrder.LITTLE_ENDIAN);
-        checkSignature(path, fc, /* index= */ 0, 3, 4, "LOCSIG");
-        int locExtLength = fc.getChar(LOCEXT);
-        if (locExtLength > cenExtLength + EXTRA_FIELD_SLACK) {
-          // If the local header's extra fields don't match the central directory and we didn't
-          // leave enough slac, re-map the data section with the correct extra field length.
-          fc = chan.map(MapMode.READ_ONLY, offset + LOCHDR + nameLength + locExtLength, size);
-          fc.order(ByteOrder.LITTLE_ENDIAN);
-        } else {
-          // Otherwise seek past the local header, name, and extra fields to the data.
-          fc.position(LOCHDR + nameLength + locExtLength);
-          fc.limit((int) (LOCHDR + nameLength + locExtLength + size));
-        }
+        inflater.setInput(compressed);
         byte[] bytes = new byte[(int) size];
-        fc.get(bytes);
-        if (deflate) {
-          bytes =
-              new InflaterInputStream(
-                      new ByteArrayInputStream(bytes), new Inflater(/* nowrap= */ true))
-                  .readAllBytes();
+        int n = 0;
+        boolean padded = false;
+        while (n < bytes.length) {
+          int inflated = inflater.inflate(bytes, n, bytes.length - n);
+          n += inflated;
+          if (inflated == 0) {
+            if (inflater.finished() || inflater.needsDictionary() || padded) {
+              break;
+            }
+            if (inflater.needsInput()) {
+              // the inflater may need a trailing padding byte to finish inflating 'nowrap' data
+              inflater.setInput(new byte[1]);
+              padded = true;
+            }
+          }
+        }
+        if (n != bytes.length) {
+          throw new ZipException(
+              String.format(
+                  "%s: %s inflated to %d bytes, expected %d", archive.path(), name, n, size));
         }
         return bytes;
-      } catch (IOException e) {
+      } catch (DataFormatException | ZipException e) {
         throw new IOError(e);
+      } finally {
+        releaseInflater(inflater);
       }
     }
   }
 
-  static void checkSignature(
-      Path path, MappedByteBuffer buf, int index, int i, int j, String name) {
+  static void checkSignature(Path path, ByteBuffer buf, int index, int i, int j, String name) {
     if (!isSignature(buf, index, i, j)) {
       throw new AssertionError(
           String.format(
@@ -363,7 +767,7 @@ public final class Zip {
     }
   }
 
-  static boolean isSignature(MappedByteBuffer buf, int index, int i, int j) {
+  static boolean isSignature(ByteBuffer buf, int index, int i, int j) {
     return (buf.get(index) == 'P')
         && (buf.get(index + 1) == 'K')
         && (buf.get(index + 2) == i)
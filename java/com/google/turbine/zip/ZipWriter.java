@@ -0,0 +1,387 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.zip;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.ZipException;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A minimal writer for jar files whose entries are all STORED, and all have the same timestamp.
+ *
+ * <p>Entries are streamed to the file as they are added, and only the central directory records are
+ * retained until the archive is finished. Each entry's CRC is computed as its data is written, on
+ * the thread that writes it.
+ *
+ * <p>The archive is only complete once {@link #finish} writes the central directory. Closing a
+ * writer that wasn't finished, e.g. because producing the entries failed, deletes the file, so a
+ * failed compilation doesn't leave behind a truncated archive that looks complete:
+ *
+ * <pre>{@code
+ * try (ZipWriter jar = new ZipWriter(path, timestamp)) {
+ *   jar.add(name, bytes);
+ *   jar.finish();
+ * }
+ * }</pre>
+ *
+ * <p>The output is byte-for-byte identical to what {@link java.util.jar.JarOutputStream} writes for
+ * the same STORED entries with {@link java.util.zip.ZipEntry#setTimeLocal}, including the jar magic
+ * extra field on the first entry and the ZIP64 end header for archives with at least {@code 0xFFFF}
+ * entries. Entries and archives larger than 4GB are not supported.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class ZipWriter implements Closeable {
+
+  private static final int LOCSIG = 0x04034b50;
+  private static final int CENSIG = 0x02014b50;
+  private static final int ENDSIG = 0x06054b50;
+
+  private static final int LOCCRC = 14; // offset of the crc and sizes in the LOC header
+
+  private static final int STORED_VERSION = 10;
+  private static final int ZIP64_VERSION = 45;
+  private static final int UTF8_FLAG = 0x800;
+  private static final int JAR_MAGIC = 0xCAFE;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /** The central directory record for an entry that has been written. */
+  private static final class CenRecord {
+    final byte[] name;
+    final int extraLength;
+    final long offset;
+    int crc;
+    int size;
+
+    CenRecord(byte[] name, int extraLength, long offset) {
+      this.name = name;
+      this.extraLength = extraLength;
+      this.offset = offset;
+    }
+  }
+
+  private final Path path;
+  private final FileChannel channel;
+  private final int dosTime;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private final List<CenRecord> records = new ArrayList<>();
+  private final CRC32 crc = new CRC32();
+
+  /** The file offset of the start of {@link #buffer}. */
+  private long flushed;
+
+  private @Nullable EntryOutputStream current;
+  private boolean closed;
+
+  /**
+   * Creates a writer for the given file, replacing its contents. All entries are written with the
+   * given local timestamp, which must be representable as an MS-DOS date and time.
+   */
+  public ZipWriter(Path path, LocalDateTime timestamp) throws IOException {
+    this.path = path;
+    this.dosTime = dosTime(timestamp);
+    this.channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  private static int dosTime(LocalDateTime time) {
+    int year = time.getYear() - 1980;
+    checkArgument(year >= 0 && year <= 0x7f, "timestamp out of range: %s", time);
+    return year << 25
+        | time.getMonthValue() << 21
+        | time.getDayOfMonth() << 16
+        | time.getHour() << 11
+        | time.getMinute() << 5
+        | time.getSecond() >> 1;
+  }
+
+  /** Adds an entry with the given contents. */
+  public void add(String name, byte[] bytes) throws IOException {
+    checkNoOpenEntry();
+    crc.reset();
+    crc.update(bytes, 0, bytes.length);
+    // the crc and size are known up-front, so the LOC header doesn't need to be patched
+    writeLocalHeader(name, (int) crc.getValue(), bytes.length);
+    put(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Starts an entry whose contents are written to the returned stream. The entry is finished when
+   * the stream is closed, which must happen before the next entry is added.
+   */
+  public OutputStream newEntry(String name) throws IOException {
+    checkNoOpenEntry();
+    crc.reset();
+    current = new EntryOutputStream(writeLocalHeader(name, 0, 0));
+    return current;
+  }
+
+  private void checkNoOpenEntry() {
+    checkState(!closed, "closed");
+    checkState(current == null, "the previous entry has not been closed");
+  }
+
+  /** Writes the LOC header for an entry, and records the entry for the central directory. */
+  @CanIgnoreReturnValue
+  private CenRecord writeLocalHeader(String name, int entryCrc, int size) throws IOException {
+    byte[] nameBytes = name.getBytes(UTF_8);
+    int extraLength = records.isEmpty() ? 4 : 0;
+    long offset = position();
+    if (offset >= Zip.ZIP64_MAGICVAL) {
+      throw new ZipException("archive too large");
+    }
+    CenRecord record = new CenRecord(nameBytes, extraLength, offset);
+    record.crc = entryCrc;
+    record.size = size;
+    records.add(record);
+    ensure(Zip.LOCHDR + nameBytes.length + extraLength);
+    buffer.putInt(LOCSIG);
+    buffer.putShort((short) STORED_VERSION);
+    buffer.putShort((short) UTF8_FLAG);
+    buffer.putShort((short) 0); // STORED
+    buffer.putInt(dosTime);
+    buffer.putInt(entryCrc);
+    buffer.putInt(size); // compressed size
+    buffer.putInt(size); // uncompressed size
+    buffer.putShort((short) nameBytes.length);
+    buffer.putShort((short) extraLength);
+    buffer.put(nameBytes);
+    if (extraLength > 0) {
+      buffer.putShort((short) JAR_MAGIC);
+      buffer.putShort((short) 0);
+    }
+    return record;
+  }
+
+  /** An entry whose contents are streamed, and whose LOC header is patched when it is closed. */
+  private final class EntryOutputStream extends OutputStream {
+    private final CenRecord record;
+    private long size;
+
+    EntryOutputStream(CenRecord record) {
+      this.record = record;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      checkState(current == this, "closed");
+      crc.update(b, off, len);
+      size += len;
+      put(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (current != this) {
+        return;
+      }
+      current = null;
+      if (size >= Zip.ZIP64_MAGICVAL) {
+        throw new ZipException("entry too large: " + new String(record.name, UTF_8));
+      }
+      record.crc = (int) crc.getValue();
+      record.size = (int) size;
+      patchLocalHeader(record);
+    }
+  }
+
+  private void patchLocalHeader(CenRecord record) throws IOException {
+    long position = record.offset + LOCCRC;
+    if (position >= flushed) {
+      int index = (int) (position - flushed);
+      buffer.putInt(index, record.crc);
+      buffer.putInt(index + 4, record.size);
+      buffer.putInt(index + 8, record.size);
+      return;
+    }
+    // the header has already been written, or it straddles the end of the written data
+    flush();
+    ByteBuffer patch = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+    patch.putInt(record.crc).putInt(record.size).putInt(record.size).flip();
+    while (patch.hasRemaining()) {
+      position += channel.write(patch, position);
+    }
+  }
+
+  /**
+   * Finishes any open entry, writes the central directory, and closes the file. If finishing the
+   * archive fails the file is deleted.
+   */
+  public void finish() throws IOException {
+    checkState(!closed, "closed");
+    boolean finished = false;
+    try {
+      if (current != null) {
+        current.close();
+      }
+      writeCentralDirectory();
+      flush();
+      finished = true;
+    } finally {
+      closed = true;
+      try {
+        channel.close();
+      } finally {
+        if (!finished) {
+          Files.deleteIfExists(path);
+        }
+      }
+    }
+  }
+
+  /** Closes the file, and deletes it if the archive wasn't {@link #finish}ed. */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    current = null;
+    try {
+      channel.close();
+    } finally {
+      Files.deleteIfExists(path);
+    }
+  }
+
+  private void writeCentralDirectory() throws IOException {
+    long cenOffset = position();
+    for (CenRecord record : records) {
+      ensure(Zip.CENHDR + record.name.length + record.extraLength);
+      buffer.putInt(CENSIG);
+      buffer.putShort((short) STORED_VERSION); // version made by
+      buffer.putShort((short) STORED_VERSION); // version needed to extract
+      buffer.putShort((short) UTF8_FLAG);
+      buffer.putShort((short) 0); // STORED
+      buffer.putInt(dosTime);
+      buffer.putInt(record.crc);
+      buffer.putInt(record.size); // compressed size
+      buffer.putInt(record.size); // uncompressed size
+      buffer.putShort((short) record.name.length);
+      buffer.putShort((short) record.extraLength);
+      buffer.putShort((short) 0); // comment length
+      buffer.putShort((short) 0); // disk number start
+      buffer.putShort((short) 0); // internal file attributes
+      buffer.putInt(0); // external file attributes
+      buffer.putInt((int) record.offset);
+      buffer.put(record.name);
+      if (record.extraLength > 0) {
+        buffer.putShort((short) JAR_MAGIC);
+        buffer.putShort((short) 0);
+      }
+    }
+    long cenEnd = position();
+    long cenSize = cenEnd - cenOffset;
+    if (cenEnd >= Zip.ZIP64_MAGICVAL) {
+      throw new ZipException("archive too large");
+    }
+    int count = records.size();
+    if (count >= Zip.ZIP64_MAGICCOUNT) {
+      ensure(Zip.ZIP64_ENDHDR + Zip.ZIP64_LOCHDR);
+      buffer.putInt(Zip.ZIP64_ENDSIG);
+      buffer.putLong(Zip.ZIP64_ENDHDR - 12); // size of the remaining record
+      buffer.putShort((short) ZIP64_VERSION); // version made by
+      buffer.putShort((short) ZIP64_VERSION); // version needed to extract
+      buffer.putInt(0); // number of this disk
+      buffer.putInt(0); // disk with the start of the central directory
+      buffer.putLong(count); // entries on this disk
+      buffer.putLong(count); // total entries
+      buffer.putLong(cenSize);
+      buffer.putLong(cenOffset);
+      buffer.putInt(Zip.ZIP64_LOCSIG);
+      buffer.putInt(0); // disk with the start of the ZIP64 end header
+      buffer.putLong(cenEnd);
+      buffer.putInt(1); // total number of disks
+    }
+    short total = (short) Math.min(count, Zip.ZIP64_MAGICCOUNT);
+    ensure(Zip.ENDHDR);
+    buffer.putInt(ENDSIG);
+    buffer.putShort((short) 0); // number of this disk
+    buffer.putShort((short) 0); // disk with the start of the central directory
+    buffer.putShort(total); // entries on this disk
+    buffer.putShort(total); // total entries
+    buffer.putInt((int) cenSize);
+    buffer.putInt((int) cenOffset);
+    buffer.putShort((short) 0); // comment length
+  }
+
+  /** Returns the file offset of the next byte to be written. */
+  private long position() {
+    return flushed + buffer.position();
+  }
+
+  /** Ensures there is room for at least {@code length} more bytes in {@link #buffer}. */
+  private void ensure(int length) throws IOException {
+    if (buffer.remaining() < length) {
+      flush();
+    }
+    checkState(buffer.remaining() >= length);
+  }
+
+  private void put(byte[] bytes, int offset, int length) throws IOException {
+    if (length <= buffer.remaining()) {
+      buffer.put(bytes, offset, length);
+      return;
+    }
+    flush();
+    if (length < buffer.capacity()) {
+      buffer.put(bytes, offset, length);
+      return;
+    }
+    // large writes go directly to the channel, without copying them into the buffer
+    ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+    while (wrapped.hasRemaining()) {
+      channel.write(wrapped);
+    }
+    flushed += length;
+  }
+
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      flushed += channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
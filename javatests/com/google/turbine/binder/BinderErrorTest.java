@@ -26,10 +26,12 @@ import com.google.common.collect.ImmutableMap;
 import com.google.turbine.binder.Processing.ProcessorInfo;
 import com.google.turbine.diag.TurbineError;
 import com.google.turbine.parse.Parser;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.tree.Tree.CompUnit;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
@@ -1049,6 +1051,31 @@ public class BinderErrorTest {
     assertThat(e).hasMessageThat().isEqualTo(lines(expected));
   }
 
+  // error reporting for parallel binding should be identical
+  @Test
+  public void testParallel() throws Exception {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      TurbineError e =
+          assertThrows(
+              Joiner.on('\n').join(source),
+              TurbineError.class,
+              () ->
+                  Binder.bind(
+                          ImmutableList.of(parseLines(source)),
+                          ClassPathBinder.bindClasspath(ImmutableList.of()),
+                          ProcessorInfo.empty(),
+                          TURBINE_BOOTCLASSPATH,
+                          /* moduleVersion= */ Optional.empty(),
+                          Profiler.disabled(),
+                          pool)
+                      .units());
+      assertThat(e).hasMessageThat().isEqualTo(lines(expected));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @SupportedAnnotationTypes("*")
   static class HelloWorldProcessor extends AbstractProcessor {
 
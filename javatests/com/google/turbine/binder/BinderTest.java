@@ -24,19 +24,26 @@ import static org.junit.Assert.assertThrows;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.Processing.ProcessorInfo;
 import com.google.turbine.binder.bound.SourceTypeBoundClass;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.diag.TurbineError;
 import com.google.turbine.lower.IntegrationTestSupport;
+import com.google.turbine.lower.Lower;
+import com.google.turbine.lower.Lower.LowerOptions;
 import com.google.turbine.model.TurbineElementType;
 import com.google.turbine.model.TurbineFlag;
 import com.google.turbine.parse.Parser;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.tree.Tree;
+import com.google.turbine.types.Hierarchy;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import org.junit.Rule;
@@ -282,6 +289,121 @@ public class BinderTest {
     assertThat(a.annotationMetadata().target()).containsExactly(TurbineElementType.TYPE_USE);
   }
 
+  @Test
+  public void parallel() throws Exception {
+    ImmutableList.Builder<Tree.CompUnit> units = ImmutableList.builder();
+    for (int i = 0; i < 200; i++) {
+      units.add(
+          parseLines(
+              "package p" + (i % 7) + ";",
+              "import java.util.List;",
+              "public class C"
+                  + i
+                  + (i > 0 ? " extends p" + ((i - 1) % 7) + ".C" + (i - 1) : "")
+                  + " implements Comparable<C"
+                  + i
+                  + "> {",
+              // constants that depend on constants in other classes, and a constant cycle
+              "  public static final int X = "
+                  + (i > 0 ? "p" + ((i - 1) % 7) + ".C" + (i - 1) + ".X + 1" : "0")
+                  + ";",
+              "  public static final String S = \"s\" + X;",
+              "  public static final int Y = Z + 1;",
+              "  public static final int Z = Y + 1;",
+              "  @Deprecated public List<? extends C" + i + "> f;",
+              "  public int compareTo(C" + i + " other) { return 0; }",
+              "  public static class Inner extends C" + i + " {}",
+              "}"));
+    }
+    ClassPath classpath = ClassPathBinder.bindClasspath(ImmutableList.of());
+
+    BindingResult sequential =
+        Binder.bind(
+            units.build(),
+            classpath,
+            ProcessorInfo.empty(),
+            TURBINE_BOOTCLASSPATH,
+            /* moduleVersion= */ Optional.empty(),
+            Profiler.disabled(),
+            /* pool= */ null);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    BindingResult parallel;
+    try {
+      parallel =
+          Binder.bind(
+              units.build(),
+              classpath,
+              ProcessorInfo.empty(),
+              TURBINE_BOOTCLASSPATH,
+              /* moduleVersion= */ Optional.empty(),
+              Profiler.disabled(),
+              pool);
+    } finally {
+      pool.shutdown();
+    }
+
+    assertThat(parallel.units().keySet())
+        .containsExactlyElementsIn(sequential.units().keySet())
+        .inOrder();
+    assertThat(getBoundClass(parallel.units(), "p3/C199").superclass())
+        .isEqualTo(new ClassSymbol("p2/C198"));
+    assertThat(lower(parallel)).isEqualTo(lower(sequential));
+  }
+
+  @Test
+  public void hierarchy() throws Exception {
+    ImmutableList<Tree.CompUnit> units =
+        ImmutableList.of(
+            parseLines(
+                "package a;", //
+                "public class A {",
+                "  protected static class M {}",
+                "  private static class P {}",
+                "}"),
+            parseLines(
+                "package a;", //
+                "public interface I {",
+                "  class N {}",
+                "}"),
+            parseLines(
+                "package b;", //
+                "public class B extends a.A implements a.I {",
+                "}"));
+
+    Hierarchy hierarchy =
+        Binder.bind(
+                units,
+                ClassPathBinder.bindClasspath(ImmutableList.of()),
+                TURBINE_BOOTCLASSPATH,
+                /* moduleVersion= */ Optional.empty())
+            .hierarchy();
+
+    ClassSymbol a = new ClassSymbol("a/A");
+    ClassSymbol b = new ClassSymbol("b/B");
+    ClassSymbol i = new ClassSymbol("a/I");
+    assertThat(hierarchy.superclasses(b)).containsExactly(b, a, ClassSymbol.OBJECT).inOrder();
+    assertThat(hierarchy.supertypes(b)).containsExactly(b, a, ClassSymbol.OBJECT, i).inOrder();
+    assertThat(hierarchy.isSubclass(b, a)).isTrue();
+    assertThat(hierarchy.isSubclass(b, i)).isFalse();
+
+    assertThat(hierarchy.memberType(b, b, "M")).isEqualTo(new ClassSymbol("a/A$M"));
+    assertThat(hierarchy.memberType(/* origin= */ null, b, "N"))
+        .isEqualTo(new ClassSymbol("a/I$N"));
+    // inherited private member types are only visible from the member type itself, so the
+    // result depends on more than the origin's package
+    ClassSymbol p = new ClassSymbol("a/A$P");
+    assertThat(hierarchy.memberType(p, b, "P")).isEqualTo(p);
+    assertThat(hierarchy.memberType(new ClassSymbol("a/Other"), b, "P")).isNull();
+    assertThat(hierarchy.memberType(b, b, "P")).isNull();
+  }
+
+  private static String lower(BindingResult bound) throws Exception {
+    return IntegrationTestSupport.dump(
+        Lower.lowerAll(
+                LowerOptions.createDefault(), bound.units(), bound.modules(), bound.classPathEnv())
+            .bytes());
+  }
+
   private Tree.CompUnit parseLines(String... lines) {
     return Parser.parse(Joiner.on('\n').join(lines));
   }
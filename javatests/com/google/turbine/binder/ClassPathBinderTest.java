@@ -21,6 +21,7 @@ import static com.google.common.collect.Iterables.getLast;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.MoreCollectors.onlyElement;
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.turbine.lower.IntegrationTestSupport.classFile;
 import static com.google.turbine.testing.TestClassPaths.TURBINE_BOOTCLASSPATH;
 import static com.google.turbine.testing.TestResources.getResourceBytes;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -51,6 +52,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import javax.tools.StandardJavaFileManager;
@@ -232,6 +234,92 @@ public class ClassPathBinderTest {
     assertThat(classPath.resource("foo/bar/Baz.class")).isNull();
   }
 
+  @Test
+  public void parallel() throws Exception {
+    Path a = temporaryFolder.newFile("a.jar").toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(a))) {
+      jos.putNextEntry(new JarEntry("foo/hello.txt"));
+      jos.write("a".getBytes(UTF_8));
+      jos.putNextEntry(new JarEntry("p/A.class"));
+      jos.write(classFile("p/A"));
+      jos.putNextEntry(new JarEntry("META-INF/TRANSITIVE/p/B.class"));
+      jos.write(classFile("p/B"));
+      jos.putNextEntry(new JarEntry("META-INF/TRANSITIVE/p/C.class"));
+      jos.write(classFile("p/C"));
+    }
+    Path b = temporaryFolder.newFile("b.jar").toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(b))) {
+      jos.putNextEntry(new JarEntry("foo/hello.txt"));
+      jos.write("b".getBytes(UTF_8));
+      jos.putNextEntry(new JarEntry("p/A.class"));
+      jos.write(classFile("p/A"));
+      jos.putNextEntry(new JarEntry("p/B.class"));
+      jos.write(classFile("p/B"));
+      jos.putNextEntry(new JarEntry("META-INF/TRANSITIVE/p/C.class"));
+      jos.write(classFile("p/C"));
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      ClassPath classPath =
+          ClassPathBinder.bindClasspath(ImmutableList.of(a, b), /* cache= */ null, pool);
+      Env<ClassSymbol, BytecodeBoundClass> env = classPath.env();
+      // the first jar that contains a class wins
+      assertThat(env.getNonNull(new ClassSymbol("p/A")).jarFile()).isEqualTo(a.toString());
+      // repackaged transitive classes are only used if no jar contains the class
+      assertThat(env.getNonNull(new ClassSymbol("p/B")).jarFile()).isEqualTo(b.toString());
+      assertThat(env.getNonNull(new ClassSymbol("p/C")).jarFile()).isEqualTo(a.toString());
+      assertThat(new String(classPath.resource("foo/hello.txt").get(), UTF_8)).isEqualTo("b");
+
+      Path first = temporaryFolder.newFile("FIRST").toPath();
+      Path second = temporaryFolder.newFile("SECOND").toPath();
+      IOException e =
+          assertThrows(
+              IOException.class,
+              () ->
+                  ClassPathBinder.bindClasspath(
+                      ImmutableList.of(a, first, second), /* cache= */ null, pool));
+      assertThat(e).hasMessageThat().contains("FIRST");
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void usage() throws Exception {
+    Path path = temporaryFolder.newFile("usage.jar").toPath();
+    byte[] a = classFile("p/A");
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      jos.putNextEntry(new JarEntry("p/A.class"));
+      jos.write(a);
+      jos.putNextEntry(new JarEntry("p/B.class"));
+      jos.write(classFile("p/B"));
+      jos.putNextEntry(new JarEntry("p/hello.txt"));
+      jos.write("hello".getBytes(UTF_8));
+    }
+    ClassPath classPath = ClassPathBinder.bindClasspath(ImmutableList.of(path));
+    assertThat(classPath.usage())
+        .containsExactly(
+            ClassPathUsage.create(
+                path.toString(),
+                /* entriesIndexed= */ 3,
+                /* entriesRead= */ 0,
+                /* bytesInflated= */ 0,
+                /* classesDecoded= */ 0));
+
+    assertThat(classPath.env().getNonNull(new ClassSymbol("p/A")).kind())
+        .isEqualTo(TurbineTyKind.CLASS);
+    assertThat(classPath.resource("p/hello.txt").get()).isEqualTo("hello".getBytes(UTF_8));
+    assertThat(classPath.usage())
+        .containsExactly(
+            ClassPathUsage.create(
+                path.toString(),
+                /* entriesIndexed= */ 3,
+                /* entriesRead= */ 2,
+                /* bytesInflated= */ a.length + "hello".length(),
+                /* classesDecoded= */ 1));
+  }
+
   @Test
   public void resourcesFileManager() throws Exception {
     Path path = temporaryFolder.newFile("tmp.jar").toPath();
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.turbine.lower.IntegrationTestSupport.classFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import com.google.turbine.binder.JarIndex.Kind;
+import com.google.turbine.binder.sym.ClassSymbol;
+import com.google.turbine.zip.Zip;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.objectweb.asm.Opcodes;
+
+@RunWith(JUnit4.class)
+public class JarIndexCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path createJar(String resource) throws IOException {
+    Path jar = temporaryFolder.newFile().toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(jar))) {
+      jos.putNextEntry(new JarEntry("a/A.class"));
+      jos.write(classFile("a/A"));
+      JarEntry stored = new JarEntry("META-INF/TRANSITIVE/b/B.class");
+      byte[] bytes = classFile("b/B");
+      stored.setMethod(ZipEntry.STORED);
+      stored.setSize(bytes.length);
+      stored.setCrc(Hashing.crc32().hashBytes(bytes).padToLong());
+      jos.putNextEntry(stored);
+      jos.write(bytes);
+      jos.putNextEntry(new JarEntry("a/resource.txt"));
+      jos.write(resource.getBytes(UTF_8));
+    }
+    return jar;
+  }
+
+  private static ImmutableList<String> describe(JarIndex index) {
+    ImmutableList.Builder<String> result = ImmutableList.builder();
+    for (int i = 0; i < index.size(); i++) {
+      Zip.Entry entry = index.entry(i);
+      assertThat(entry.name()).isEqualTo(index.name(i));
+      result.add(
+          index.kind(i)
+              + " "
+              + index.name(i)
+              + (index.kind(i) == Kind.RESOURCE ? "" : " " + index.binaryName(i))
+              + " "
+              + new String(entry.data(), UTF_8));
+    }
+    return result.build();
+  }
+
+  private ImmutableList<Path> cacheFiles(Path cacheDir) throws IOException {
+    try (Stream<Path> files = Files.list(cacheDir)) {
+      return files.collect(toImmutableList());
+    }
+  }
+
+  @Test
+  public void roundTrip() throws IOException {
+    Path jar = createJar("hello");
+    Path cacheDir = temporaryFolder.newFolder().toPath();
+    JarIndexCache cache = new JarIndexCache(cacheDir);
+
+    JarIndex fresh = cache.index(jar);
+    Path cacheFile = getOnlyElement(cacheFiles(cacheDir));
+    FileTime written = Files.getLastModifiedTime(cacheFile);
+    JarIndex cached = new JarIndexCache(cacheDir).index(jar);
+
+    assertThat(describe(cached)).containsExactlyElementsIn(describe(fresh)).inOrder();
+    assertThat(describe(JarIndex.read(jar))).containsExactlyElementsIn(describe(fresh)).inOrder();
+    assertThat(ImmutableList.of(cached.kind(0), cached.kind(1), cached.kind(2)))
+        .containsExactly(Kind.CLASS, Kind.TRANSITIVE_CLASS, Kind.RESOURCE)
+        .inOrder();
+    assertThat(ImmutableList.of(cached.binaryName(0), cached.binaryName(1)))
+        .containsExactly("a/A", "b/B")
+        .inOrder();
+    // the cache entry was reused, not rewritten
+    assertThat(Files.getLastModifiedTime(cacheFile)).isEqualTo(written);
+  }
+
+  @Test
+  public void invalidatedByChange() throws IOException {
+    Path jar = createJar("hello");
+    Path cacheDir = temporaryFolder.newFolder().toPath();
+    JarIndexCache cache = new JarIndexCache(cacheDir);
+    JarIndex unused = cache.index(jar);
+
+    Files.copy(createJar("goodbye, world"), jar, StandardCopyOption.REPLACE_EXISTING);
+
+    JarIndex index = cache.index(jar);
+    assertThat(describe(index)).contains("RESOURCE a/resource.txt goodbye, world");
+    assertThat(cacheFiles(cacheDir)).hasSize(1);
+  }
+
+  @Test
+  public void corruptCacheEntry() throws IOException {
+    Path jar = createJar("hello");
+    Path cacheDir = temporaryFolder.newFolder().toPath();
+    JarIndexCache cache = new JarIndexCache(cacheDir);
+    JarIndex fresh = cache.index(jar);
+
+    Path cacheFile = getOnlyElement(cacheFiles(cacheDir));
+    byte[] bytes = Files.readAllBytes(cacheFile);
+    Files.write(cacheFile, Arrays.copyOf(bytes, bytes.length - 10));
+
+    assertThat(describe(new JarIndexCache(cacheDir).index(jar)))
+        .containsExactlyElementsIn(describe(fresh))
+        .inOrder();
+    assertThat(Files.size(cacheFile)).isEqualTo(bytes.length);
+  }
+
+  @Test
+  public void unwritableCacheDirectory() throws IOException {
+    Path jar = createJar("hello");
+    // the cache 'directory' is a regular file, so no cache entries can be written
+    Path cacheDir = temporaryFolder.newFile().toPath();
+
+    JarIndex index = new JarIndexCache(cacheDir).index(jar);
+
+    assertThat(describe(index)).containsExactlyElementsIn(describe(JarIndex.read(jar))).inOrder();
+    assertThat(Files.isRegularFile(cacheDir)).isTrue();
+  }
+
+  @Test
+  public void bindClasspath() throws IOException {
+    Path jar = createJar("hello");
+    Path cacheDir = temporaryFolder.newFolder().toPath();
+    for (int i = 0; i < 2; i++) {
+      ClassPath classPath =
+          ClassPathBinder.bindClasspath(ImmutableList.of(jar), new JarIndexCache(cacheDir));
+      assertThat(classPath.env().get(new ClassSymbol("a/A")).access())
+          .isEqualTo(Opcodes.ACC_PUBLIC);
+      assertThat(classPath.env().get(new ClassSymbol("b/B"))).isNotNull();
+      assertThat(new String(classPath.resource("a/resource.txt").get(), UTF_8)).isEqualTo("hello");
+    }
+  }
+}
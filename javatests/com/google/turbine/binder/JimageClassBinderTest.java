@@ -20,6 +20,7 @@ import static com.google.common.base.StandardSystemProperty.JAVA_CLASS_VERSION;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.truth.Truth.assertThat;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.turbine.binder.bytecode.BytecodeBoundClass;
 import com.google.turbine.binder.lookup.LookupKey;
@@ -27,6 +28,13 @@ import com.google.turbine.binder.lookup.LookupResult;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.tree.Tree.Ident;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.FileSystems;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -78,4 +86,62 @@ public class JimageClassBinderTest {
     assertThat(((ClassSymbol) entrySym.sym()).binaryName()).isEqualTo("java/util/Map");
     assertThat(getOnlyElement(entrySym.remaining()).value()).isEqualTo("Entry");
   }
+
+  @Test
+  public void concurrentLookups() throws Exception {
+    if (Double.parseDouble(JAVA_CLASS_VERSION.value()) < 53) {
+      // only run on JDK 9 and later
+      return;
+    }
+    ClassPath binder =
+        JimageClassBinder.create(FileSystems.getFileSystem(URI.create("jrt:/")))
+        .new JimageClassPath();
+    ImmutableList<String> names =
+        ImmutableList.of(
+            "java/lang/Object",
+            "java/lang/String",
+            "java/util/Map",
+            "java/util/List",
+            "java/io/File",
+            "java/nio/file/Path",
+            "java/util/concurrent/Future",
+            "java/lang/annotation/Retention");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<List<Object>>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  List<Object> result = new ArrayList<>();
+                  for (String name : names) {
+                    ClassSymbol sym = new ClassSymbol(name);
+                    result.add(binder.env().get(sym));
+                    result.add(
+                        ImmutableList.copyOf(
+                            binder
+                                .index()
+                                .lookupPackage(Splitter.on('/').split(sym.packageName()))
+                                .classes()));
+                  }
+                  return result;
+                }));
+      }
+      List<Object> expected = futures.get(0).get();
+      assertThat(expected).doesNotContain(null);
+      for (Future<List<Object>> future : futures) {
+        List<Object> actual = future.get();
+        for (int i = 0; i < actual.size(); i++) {
+          if (i % 2 == 0) {
+            // every thread observes the same bound class
+            assertThat(actual.get(i)).isSameInstanceAs(expected.get(i));
+          } else {
+            assertThat(actual.get(i)).isEqualTo(expected.get(i));
+          }
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
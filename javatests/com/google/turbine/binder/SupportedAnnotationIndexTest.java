@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.turbine.binder.sym.ClassSymbol;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.TypeElement;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SupportedAnnotationIndexTest {
+
+  private static class TestProcessor extends AbstractProcessor {
+    private final ImmutableSet<String> supportedAnnotationTypes;
+
+    TestProcessor(String... supportedAnnotationTypes) {
+      this.supportedAnnotationTypes = ImmutableSet.copyOf(supportedAnnotationTypes);
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+      return supportedAnnotationTypes;
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      return false;
+    }
+  }
+
+  @Test
+  public void dispatch() {
+    Processor everything = new TestProcessor("*");
+    Processor exact = new TestProcessor("a.A", "a.Outer.Inner");
+    Processor prefix = new TestProcessor("a.*");
+    Processor module = new TestProcessor("m/b.B");
+    Processor regex = new TestProcessor("c\\.C[0-9]");
+    SupportedAnnotationIndex index =
+        SupportedAnnotationIndex.create(
+            ImmutableList.of(everything, exact, prefix, module, regex));
+
+    assertThat(index.processors(new ClassSymbol("a/A")))
+        .containsExactly(everything, exact, prefix)
+        .inOrder();
+    assertThat(index.processors(new ClassSymbol("a/Outer$Inner")))
+        .containsExactly(everything, exact, prefix)
+        .inOrder();
+    assertThat(index.processors(new ClassSymbol("a/b/B")))
+        .containsExactly(everything, prefix)
+        .inOrder();
+    assertThat(index.processors(new ClassSymbol("ab/B"))).containsExactly(everything);
+    assertThat(index.processors(new ClassSymbol("b/B")))
+        .containsExactly(everything, module)
+        .inOrder();
+    assertThat(index.processors(new ClassSymbol("c/C1")))
+        .containsExactly(everything, regex)
+        .inOrder();
+
+    assertThat(index.supportsEverything(everything)).isTrue();
+    assertThat(index.supportsEverything(prefix)).isFalse();
+  }
+}
@@ -38,9 +38,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.jspecify.annotations.Nullable;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -192,6 +197,40 @@ public class BytecodeBoundClassTest {
         .isTrue();
   }
 
+  @Test
+  public void decodedOnce() throws Exception {
+    String name = GenericInterfaces.class.getName().replace('.', '/');
+    String path = "/" + name + ".class";
+    AtomicInteger reads = new AtomicInteger();
+    BytecodeBoundClass c =
+        new BytecodeBoundClass(
+            new ClassSymbol(name),
+            () -> {
+              reads.incrementAndGet();
+              return toByteArrayOrDie(requireNonNull(getClass().getResourceAsStream(path), path));
+            },
+            CompoundEnv.of(TURBINE_BOOTCLASSPATH.env()),
+            "test.jar");
+    assertThat(reads.get()).isEqualTo(0);
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<Type>> futures = new ArrayList<>();
+    try {
+      for (int i = 0; i < 32; i++) {
+        futures.add(executor.submit(() -> getOnlyElement(c.interfaceTypes())));
+      }
+      for (Future<Type> future : futures) {
+        assertThat(((ClassTy) future.get()).sym()).isEqualTo(new ClassSymbol("java/util/List"));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(c.superclass()).isEqualTo(new ClassSymbol("java/lang/Object"));
+    assertThat(c.owner())
+        .isEqualTo(new ClassSymbol(BytecodeBoundClassTest.class.getName().replace('.', '/')));
+    assertThat(reads.get()).isEqualTo(1);
+  }
+
   private static byte[] toByteArrayOrDie(InputStream is) {
     try {
       return is.readAllBytes();
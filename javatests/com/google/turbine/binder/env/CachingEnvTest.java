@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder.env;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.turbine.binder.sym.ClassSymbol;
+import java.util.ArrayList;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CachingEnvTest {
+
+  private static final ClassSymbol A = new ClassSymbol("A");
+  private static final ClassSymbol B = new ClassSymbol("B");
+  private static final ClassSymbol C = new ClassSymbol("C");
+  private static final ClassSymbol MISSING = new ClassSymbol("Missing");
+
+  /** An env that records the symbols it is asked for. */
+  private static class RecordingEnv implements Env<ClassSymbol, String> {
+    final List<ClassSymbol> lookups = new ArrayList<>();
+    final ImmutableMap<ClassSymbol, String> map;
+
+    RecordingEnv(ImmutableMap<ClassSymbol, String> map) {
+      this.map = map;
+    }
+
+    @Override
+    public @Nullable String get(ClassSymbol sym) {
+      lookups.add(sym);
+      return map.get(sym);
+    }
+  }
+
+  @Test
+  public void layering() {
+    RecordingEnv first = new RecordingEnv(ImmutableMap.of(A, "first A", B, "first B"));
+    RecordingEnv second = new RecordingEnv(ImmutableMap.of(B, "second B", C, "second C"));
+    RecordingEnv third = new RecordingEnv(ImmutableMap.of(C, "third C"));
+    CompoundEnv<ClassSymbol, String> compound =
+        CompoundEnv.<ClassSymbol, String>of(first).append(CompoundEnv.of(second).append(third));
+    CachingEnv<ClassSymbol, String> caching = CachingEnv.of(compound);
+
+    for (ClassSymbol sym : new ClassSymbol[] {A, B, C, MISSING}) {
+      assertThat(caching.get(sym)).isEqualTo(compound.get(sym));
+    }
+    // envs that are appended later are searched first
+    assertThat(caching.get(A)).isEqualTo("first A");
+    assertThat(caching.get(B)).isEqualTo("second B");
+    assertThat(caching.get(C)).isEqualTo("third C");
+    assertThat(caching.get(MISSING)).isNull();
+  }
+
+  @Test
+  public void cached() {
+    RecordingEnv first = new RecordingEnv(ImmutableMap.of(A, "A"));
+    RecordingEnv second = new RecordingEnv(ImmutableMap.of(B, "B"));
+    CachingEnv<ClassSymbol, String> caching =
+        CachingEnv.of(CompoundEnv.<ClassSymbol, String>of(first).append(second));
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(caching.get(A)).isEqualTo("A");
+      assertThat(caching.get(B)).isEqualTo("B");
+      assertThat(caching.get(MISSING)).isNull();
+    }
+    // every env is only asked for each symbol once, including symbols that aren't found
+    assertThat(second.lookups).containsExactly(A, B, MISSING).inOrder();
+    assertThat(first.lookups).containsExactly(A, MISSING).inOrder();
+  }
+}
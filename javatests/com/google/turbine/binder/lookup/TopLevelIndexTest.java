@@ -103,6 +103,52 @@ public class TopLevelIndexTest {
     }
   }
 
+  @Test
+  public void packageClasses() {
+    TopLevelIndex index =
+        SimpleTopLevelIndex.of(
+            ImmutableList.of(
+                new ClassSymbol("p/C"),
+                new ClassSymbol("p/q/D"),
+                new ClassSymbol("p/A"),
+                new ClassSymbol("p/B$Inner"),
+                new ClassSymbol("Unnamed")));
+    assertThat(index.lookupPackage(ImmutableList.of("p")).classes())
+        .containsExactly(
+            new ClassSymbol("p/A"), new ClassSymbol("p/B$Inner"), new ClassSymbol("p/C"));
+    assertThat(index.lookupPackage(ImmutableList.of("p", "q")).classes())
+        .containsExactly(new ClassSymbol("p/q/D"));
+    assertThat(index.lookupPackage(ImmutableList.of()).classes())
+        .containsExactly(new ClassSymbol("Unnamed"));
+    assertThat(index.lookupPackage(ImmutableList.of("p", "A"))).isNull();
+  }
+
+  @Test
+  public void manyClasses() {
+    ImmutableList.Builder<ClassSymbol> syms = ImmutableList.builder();
+    for (int p = 0; p < 20; p++) {
+      for (int c = 0; c < 200; c++) {
+        syms.add(new ClassSymbol("pkg" + p + "/sub" + (c % 3) + "/C" + c));
+      }
+    }
+    TopLevelIndex index = SimpleTopLevelIndex.of(syms.build());
+    for (int p = 0; p < 20; p++) {
+      for (int c = 0; c < 200; c++) {
+        LookupResult result =
+            index
+                .scope()
+                .lookup(lookupKey(ImmutableList.of("pkg" + p, "sub" + (c % 3), "C" + c, "I")));
+        assertThat(result.sym())
+            .isEqualTo(new ClassSymbol("pkg" + p + "/sub" + (c % 3) + "/C" + c));
+        assertThat(getOnlyElement(result.remaining()).value()).isEqualTo("I");
+      }
+      assertThat(index.scope().lookup(lookupKey(ImmutableList.of("pkg" + p, "sub0", "C1"))))
+          .isNull();
+      assertThat(index.lookupPackage(ImmutableList.of("pkg" + p, "sub1")).classes()).hasSize(67);
+    }
+    assertThat(index.scope().lookup(lookupKey(ImmutableList.of("pkg20", "sub0", "C0")))).isNull();
+  }
+
   @Test
   public void emptyLookup() {
     LookupKey key = lookupKey(ImmutableList.of("java", "util", "List")).rest().rest();
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.binder.sym;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.testing.EqualsTester;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ClassSymbolTest {
+
+  @Test
+  public void intern() {
+    ClassSymbol sym = ClassSymbol.intern(new String("java/util/Map$Entry"));
+    assertThat(ClassSymbol.intern(new String("java/util/Map$Entry"))).isSameInstanceAs(sym);
+    assertThat(ClassSymbol.intern("java/lang/Object")).isSameInstanceAs(ClassSymbol.OBJECT);
+    assertThat(new ClassSymbol("java/util/Map$Entry")).isNotSameInstanceAs(sym);
+  }
+
+  @Test
+  public void equality() {
+    new EqualsTester()
+        .addEqualityGroup(
+            ClassSymbol.intern("java/util/Map"),
+            new ClassSymbol("java/util/Map"),
+            new ClassSymbol(new String("java/util/Map")))
+        .addEqualityGroup(new ClassSymbol("java/util/List"))
+        .addEqualityGroup(new ClassSymbol("Map"))
+        .testEquals();
+  }
+
+  @Test
+  public void names() {
+    ClassSymbol sym = new ClassSymbol("java/util/Map$Entry");
+    assertThat(sym.packageName()).isEqualTo("java/util");
+    assertThat(sym.simpleName()).isEqualTo("Map$Entry");
+    assertThat(sym.owner()).isEqualTo(new PackageSymbol("java/util"));
+
+    ClassSymbol unnamed = new ClassSymbol("Test");
+    assertThat(unnamed.packageName()).isEmpty();
+    assertThat(unnamed.simpleName()).isEqualTo("Test");
+  }
+
+  @Test
+  public void packages() {
+    ClassSymbol map = new ClassSymbol("java/util/Map");
+    assertThat(map.isInPackage("java/util")).isTrue();
+    assertThat(map.isInPackage("java")).isFalse();
+    assertThat(map.isInPackage("java/utilx")).isFalse();
+    assertThat(map.isInPackage("java/uti")).isFalse();
+    assertThat(map.isInPackage("")).isFalse();
+    assertThat(new ClassSymbol("Test").isInPackage("")).isTrue();
+    assertThat(new ClassSymbol("Test").isInPackage("Test")).isFalse();
+
+    assertThat(map.inSamePackageAs(new ClassSymbol("java/util/List"))).isTrue();
+    assertThat(map.inSamePackageAs(new ClassSymbol("java/util/concurrent/Future"))).isFalse();
+    assertThat(map.inSamePackageAs(new ClassSymbol("java/utilx/Map"))).isFalse();
+    assertThat(map.inSamePackageAs(new ClassSymbol("java/lang/Map"))).isFalse();
+    assertThat(map.inSamePackageAs(new ClassSymbol("Map"))).isFalse();
+    assertThat(new ClassSymbol("A").inSamePackageAs(new ClassSymbol("B"))).isTrue();
+  }
+}
@@ -732,6 +732,13 @@ public final class IntegrationTestSupport {
     }
   }
 
+  /** Returns a minimal class file for a public class with the given binary name. */
+  public static byte[] classFile(String name) {
+    ClassWriter cw = new ClassWriter(0);
+    cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, name, null, "java/lang/Object", null);
+    return cw.toByteArray();
+  }
+
   public static int getMajor() {
     return Runtime.version().feature();
   }
@@ -46,6 +46,7 @@ import com.google.turbine.model.TurbineTyKind;
 import com.google.turbine.options.LanguageVersion;
 import com.google.turbine.parse.Parser;
 import com.google.turbine.testing.AsmUtils;
+import com.google.turbine.tree.Tree;
 import com.google.turbine.type.Type;
 import com.google.turbine.type.Type.ClassTy;
 import com.google.turbine.type.Type.ClassTy.SimpleClassTy;
@@ -62,6 +63,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import org.junit.Rule;
@@ -287,6 +290,52 @@ public class LowerTest {
         .inOrder();
   }
 
+  @Test
+  public void parallelLowering() throws Exception {
+    ImmutableList.Builder<Tree.CompUnit> units = ImmutableList.builder();
+    for (int i = 0; i < 50; i++) {
+      units.add(
+          Parser.parse(
+              String.format(
+                  "package p; import java.util.*; public class T%d<X extends List<?>> extends"
+                      + " ArrayList<X> { class I%d { Map<String, X> m; } static final int C = %d;"
+                      + " }",
+                  i, i, i)));
+    }
+    BindingResult bound =
+        Binder.bind(
+            units.build(),
+            ClassPathBinder.bindClasspath(ImmutableList.of()),
+            TURBINE_BOOTCLASSPATH,
+            /* moduleVersion= */ Optional.empty());
+    Lower.Lowered sequential =
+        Lower.lowerAll(
+            Lower.LowerOptions.createDefault(),
+            bound.units(),
+            bound.modules(),
+            bound.classPathEnv());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    Lower.Lowered parallel;
+    try {
+      parallel =
+          Lower.lowerAll(
+              Lower.LowerOptions.createDefault(),
+              bound.units(),
+              bound.modules(),
+              bound.classPathEnv(),
+              executor);
+    } finally {
+      executor.shutdown();
+    }
+    assertThat(parallel.bytes().keySet())
+        .containsExactlyElementsIn(sequential.bytes().keySet())
+        .inOrder();
+    for (Map.Entry<String, byte[]> e : sequential.bytes().entrySet()) {
+      assertThat(parallel.bytes().get(e.getKey())).isEqualTo(e.getValue());
+    }
+    assertThat(parallel.symbols()).containsExactlyElementsIn(sequential.symbols()).inOrder();
+  }
+
   @Test
   public void wildArrayElement() throws Exception {
     IntegrationTestSupport.TestInput input =
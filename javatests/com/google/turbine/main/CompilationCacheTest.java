@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_HOME;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.Objects.requireNonNull;
+
+import com.google.turbine.binder.ClassPath;
+import com.google.turbine.binder.CtSymClassBinder;
+import com.google.turbine.binder.sym.ClassSymbol;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CompilationCacheTest {
+
+  @Test
+  public void hostJimageShared() throws IOException {
+    try (CompilationCache cache = new CompilationCache();
+        CompilationCache.Session session = new CompilationCache.Session()) {
+      ClassPath classPath = cache.jimage(Optional.empty(), session);
+      assertThat(cache.jimage(Optional.empty(), session)).isSameInstanceAs(classPath);
+    }
+  }
+
+  @Test
+  public void systemInvalidated() throws IOException {
+    String javaHome = requireNonNull(JAVA_HOME.value());
+    try (CompilationCache cache = new CompilationCache();
+        CompilationCache.Session session = new CompilationCache.Session()) {
+      ClassPath classPath = cache.jimage(Optional.of(javaHome), session);
+      assertThat(cache.jimage(Optional.of(javaHome), session)).isSameInstanceAs(classPath);
+
+      cache.invalidate(Paths.get(javaHome).resolve("lib/modules"));
+
+      // the session that is reading from the discarded classpath can still use it
+      assertThat(classPath.env().get(new ClassSymbol("java/lang/Object"))).isNotNull();
+      assertThat(cache.jimage(Optional.of(javaHome), session)).isNotSameInstanceAs(classPath);
+    }
+  }
+
+  @Test
+  public void ctSymInvalidated() throws IOException {
+    try (CompilationCache cache = new CompilationCache()) {
+      ClassPath classPath = cache.ctSym(11);
+      assertThat(classPath).isNotNull();
+      assertThat(cache.ctSym(11)).isSameInstanceAs(classPath);
+
+      Path ctSym = CtSymClassBinder.ctSymPath();
+      cache.invalidate(ctSym);
+
+      assertThat(cache.ctSym(11)).isNotSameInstanceAs(classPath);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_SPECIFICATION_VERSION;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.turbine.lower.IntegrationTestSupport.classFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class IncrementalTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path src;
+  private Path lib;
+  private Path output;
+  private Path state;
+  private Path profile;
+
+  @Before
+  public void setUp() throws IOException {
+    src = temporaryFolder.newFolder("src").toPath();
+    lib = temporaryFolder.newFile("lib.jar").toPath();
+    output = temporaryFolder.newFile("out.jar").toPath();
+    state = temporaryFolder.getRoot().toPath().resolve("out.state");
+    profile = temporaryFolder.getRoot().toPath().resolve("profile.json");
+
+    writeLib("p/Lib");
+    write("A.java", "package a;", "public class A {", "  public static final int K = 1;", "}");
+    write("B.java", "package a;", "public class B extends A {", "  public I i;", "}");
+    write("C.java", "package a;", "class C {", "  static final int X = A.K + 1;", "}");
+    write("D.java", "package a;", "class D {", "  int f() { return 1; }", "}");
+    write("I.java", "package a;", "interface I {}");
+  }
+
+  private void write(String name, String... lines) throws IOException {
+    MoreFiles.asCharSink(src.resolve(name), UTF_8).write(String.join("\n", lines) + "\n");
+  }
+
+  private void writeLib(String... classNames) throws IOException {
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(lib))) {
+      for (String className : classNames) {
+        JarEntry entry = new JarEntry(className + ".class");
+        entry.setTime(0);
+        jos.putNextEntry(entry);
+        jos.write(classFile(className));
+      }
+    }
+  }
+
+  private ImmutableList<String> args(Path output) throws IOException {
+    ImmutableList.Builder<String> args =
+        ImmutableList.<String>builder()
+            .add("--javacopts", "--release", JAVA_SPECIFICATION_VERSION.value(), "--")
+            .add("--classpath", lib.toString())
+            .add("--output", output.toString())
+            .add("--sources");
+    try (Stream<Path> files = Files.list(src)) {
+      files.sorted().forEach(f -> args.add(f.toString()));
+    }
+    return args.build();
+  }
+
+  /**
+   * Compiles incrementally, checks that the output is identical to a non-incremental compilation,
+   * and returns the number of classes that were lowered.
+   */
+  private int compile(String... extraArgs) throws IOException {
+    Main.compile(
+        ImmutableList.<String>builder()
+            .addAll(args(output))
+            .add("--incremental_state", state.toString())
+            .add("--profile", profile.toString())
+            .add(extraArgs)
+            .build(),
+        new CompilationCache());
+
+    Path expected = temporaryFolder.newFile().toPath();
+    Main.compile(args(expected), new CompilationCache());
+    assertThat(Files.readAllBytes(output)).isEqualTo(Files.readAllBytes(expected));
+
+    String trace = MoreFiles.asCharSource(profile, UTF_8).read();
+    Matcher matcher =
+        Pattern.compile("\"name\":\"relower\",\"cat\":\"incremental\".*\"classes\":\"(\\d+)\"")
+            .matcher(trace);
+    int classes = 0;
+    while (matcher.find()) {
+      classes += Integer.parseInt(matcher.group(1));
+    }
+    return classes;
+  }
+
+  private List<String> spans() throws IOException {
+    String trace = MoreFiles.asCharSource(profile, UTF_8).read();
+    Matcher matcher = Pattern.compile("\"name\":\"([^\"]*)\",\"cat\"").matcher(trace);
+    List<String> spans = new ArrayList<>();
+    while (matcher.find()) {
+      spans.add(matcher.group(1));
+    }
+    return spans;
+  }
+
+  @Test
+  public void incremental() throws IOException {
+    assertThat(compile()).isEqualTo(5);
+
+    // nothing changed: the compilation is skipped
+    assertThat(compile()).isEqualTo(0);
+    assertThat(spans()).doesNotContain("parse");
+
+    // a method body changed, which doesn't affect D's class file
+    write("D.java", "package a;", "class D {", "  int f() { return 2; }", "}");
+    assertThat(compile()).isEqualTo(1);
+    assertThat(spans()).contains("parse");
+
+    // A's API changed, so B (which extends it) is lowered again, but C isn't
+    write(
+        "A.java",
+        "package a;",
+        "public class A {",
+        "  public static final int K = 1;",
+        "  public void g() {}",
+        "}");
+    assertThat(compile()).isEqualTo(2);
+
+    // I's API changed, and B references it
+    write("I.java", "package a;", "interface I {", "  void h();", "}");
+    assertThat(compile()).isEqualTo(2);
+
+    // a constant value changed, so everything is lowered again
+    write(
+        "A.java",
+        "package a;",
+        "public class A {",
+        "  public static final int K = 2;",
+        "  public void g() {}",
+        "}");
+    assertThat(compile()).isEqualTo(5);
+    assertThat(compile()).isEqualTo(0);
+
+    // a class was added
+    write("E.java", "package a;", "class E extends p.Lib {}");
+    assertThat(compile()).isEqualTo(6);
+    assertThat(compile()).isEqualTo(0);
+
+    // the classpath changed
+    writeLib("p/Lib", "p/Lib2");
+    assertThat(compile()).isEqualTo(6);
+  }
+
+  @Test
+  public void inheritedMemberType() throws IOException {
+    write("T.java", "package a;", "class T {", "  static class Foo {}", "}");
+    write("U.java", "package a;", "class U {", "  static class Foo {}", "}");
+    write("Q.java", "package a;", "class Q extends T {}");
+    write("R.java", "package a;", "class R extends Q {}");
+    write("S.java", "package a;", "class S {", "  R.Foo f;", "}");
+    assertThat(compile()).isEqualTo(12);
+
+    // R.Foo now resolves to U.Foo, but S's class file only references T.Foo, and neither R nor its
+    // class file changed
+    write("Q.java", "package a;", "class Q extends U {}");
+    assertThat(compile()).isEqualTo(3);
+  }
+
+  @Test
+  public void annotationRetention() throws IOException {
+    write(
+        "N.java",
+        "package a;",
+        "import java.lang.annotation.Retention;",
+        "import java.lang.annotation.RetentionPolicy;",
+        "@Retention(RetentionPolicy.SOURCE)",
+        "@interface N {}");
+    write("U.java", "package a;", "class U {", "  void f(@N int x) {}", "}");
+    assertThat(compile()).isEqualTo(7);
+
+    // U's class file doesn't mention N while it has source retention, but it does now
+    write(
+        "N.java",
+        "package a;",
+        "import java.lang.annotation.Retention;",
+        "import java.lang.annotation.RetentionPolicy;",
+        "@Retention(RetentionPolicy.RUNTIME)",
+        "@interface N {}");
+    assertThat(compile()).isEqualTo(2);
+  }
+
+  @Test
+  public void runtimeOptions() throws IOException {
+    assertThat(compile()).isEqualTo(5);
+
+    // options that don't affect the output don't invalidate the state
+    assertThat(compile("--threads", "2")).isEqualTo(0);
+    assertThat(spans()).doesNotContain("parse");
+    assertThat(compile("--threads", "2", "--output_metrics", profile + ".metrics")).isEqualTo(0);
+    assertThat(spans()).doesNotContain("parse");
+  }
+
+  @Test
+  public void modifiedOutput() throws IOException {
+    assertThat(compile()).isEqualTo(5);
+    Files.write(output, new byte[0]);
+    assertThat(compile()).isEqualTo(5);
+  }
+
+  @Test
+  public void corruptState() throws IOException {
+    assertThat(compile()).isEqualTo(5);
+    Files.write(state, new byte[] {(byte) 0xff, 0x12, 0x34});
+    assertThat(compile()).isEqualTo(5);
+  }
+}
@@ -17,6 +17,7 @@
 package com.google.turbine.main;
 
 import static com.google.common.base.StandardSystemProperty.JAVA_CLASS_VERSION;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.extensions.proto.ProtoTruth.assertThat;
@@ -32,7 +33,9 @@ import com.google.protobuf.ExtensionRegistry;
 import com.google.turbine.diag.TurbineError;
 import com.google.turbine.options.LanguageVersion;
 import com.google.turbine.options.TurbineOptions;
+import com.google.turbine.profile.Metrics;
 import com.google.turbine.proto.ManifestProto;
+import com.google.turbine.proto.MetricsProto;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -45,10 +48,12 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Enumeration;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.jar.Attributes;
@@ -56,6 +61,8 @@ import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -140,6 +147,87 @@ public class MainTest {
     assertThat(data.keySet()).containsExactly("test/package-info.class");
   }
 
+  @Test
+  public void parallelParse() throws IOException {
+    ImmutableList.Builder<String> sources = ImmutableList.builder();
+    for (int i = 0; i < 20; i++) {
+      Path src = temporaryFolder.newFile("T" + i + ".java").toPath();
+      MoreFiles.asCharSink(src, UTF_8)
+          .write(
+              String.format(
+                  "package p; public class T%d { public static final int X = %d; }", i, i));
+      sources.add(src.toString());
+    }
+    Path srcjar = temporaryFolder.newFile("lib.srcjar").toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(srcjar))) {
+      for (int i = 0; i < 20; i++) {
+        jos.putNextEntry(new JarEntry("p/J" + i + ".java"));
+        jos.write(String.format("package p; class J%d extends T%d {}", i, i).getBytes(UTF_8));
+      }
+    }
+
+    Path sequential = temporaryFolder.newFile("sequential.jar").toPath();
+    Main.Result sequentialResult =
+        Main.compile(
+            optionsWithBootclasspath()
+                .setSources(sources.build())
+                .setSourceJars(ImmutableList.of(srcjar.toString()))
+                .setOutput(sequential.toString())
+                .build());
+    Path parallel = temporaryFolder.newFile("parallel.jar").toPath();
+    Main.Result parallelResult =
+        Main.compile(
+            optionsWithBootclasspath()
+                .setSources(sources.build())
+                .setSourceJars(ImmutableList.of(srcjar.toString()))
+                .setOutput(parallel.toString())
+                .setThreads(4)
+                .build());
+
+    assertThat(Files.readAllBytes(parallel)).isEqualTo(Files.readAllBytes(sequential));
+    assertThat(parallelResult.parseTimes().keySet())
+        .containsExactlyElementsIn(sequentialResult.parseTimes().keySet())
+        .inOrder();
+    assertThat(parallelResult.parseTimes()).hasSize(40);
+    assertThat(parallelResult.parseTimes()).containsKey(srcjar + "!/p/J0.java");
+  }
+
+  @Test
+  public void parallelParseError() throws IOException {
+    ImmutableList.Builder<String> sources = ImmutableList.builder();
+    for (int i = 0; i < 10; i++) {
+      Path src = temporaryFolder.newFile("T" + i + ".java").toPath();
+      MoreFiles.asCharSink(src, UTF_8).write(i < 5 ? "class T" + i + " {}" : "class T" + i + " {");
+      sources.add(src.toString());
+    }
+    Path output = temporaryFolder.newFile("output.jar").toPath();
+
+    TurbineError e =
+        assertThrows(
+            TurbineError.class,
+            () ->
+                Main.compile(
+                    optionsWithBootclasspath()
+                        .setSources(sources.build())
+                        .setOutput(output.toString())
+                        .setThreads(4)
+                        .build()));
+    // the error for the first file in input order is reported
+    assertThat(e).hasMessageThat().contains("T5.java");
+  }
+
+  @Test
+  public void invalidThreads() throws IOException {
+    Path output = temporaryFolder.newFile("output.jar").toPath();
+    UsageException expected =
+        assertThrows(
+            UsageException.class,
+            () ->
+                Main.compile(
+                    optionsWithBootclasspath().setOutput(output.toString()).setThreads(0).build()));
+    assertThat(expected).hasMessageThat().contains("--threads must be at least 1");
+  }
+
   private Map<String, byte[]> readJar(Path output) throws IOException {
     Map<String, byte[]> data = new LinkedHashMap<>();
     try (JarFile jf = new JarFile(output.toFile())) {
@@ -379,6 +467,104 @@ public class MainTest {
                 .build());
   }
 
+  @Test
+  public void profile() throws IOException {
+    Path src = temporaryFolder.newFile("Foo.java").toPath();
+    MoreFiles.asCharSink(src, UTF_8).write("package f; @Deprecated class Foo {}");
+
+    Path output = temporaryFolder.newFile("output.jar").toPath();
+    Path outputDeps = temporaryFolder.newFile("output.jdeps").toPath();
+    Path profile = temporaryFolder.newFile("profile.json").toPath();
+
+    Main.compile(
+        optionsWithBootclasspath()
+            .setSources(ImmutableList.of(src.toString()))
+            .setTargetLabel("//foo:foo")
+            .setOutput(output.toString())
+            .setOutputDeps(outputDeps.toString())
+            .setProcessors(ImmutableList.of(SourceGeneratingProcessor.class.getName()))
+            .setProfile(profile.toString())
+            .build());
+
+    String trace = MoreFiles.asCharSource(profile, UTF_8).read();
+    assertThat(trace).startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+    assertThat(trace).contains("\"overlap ms\":");
+    Matcher matcher = Pattern.compile("\"name\":\"([^\"]*)\",\"cat\"").matcher(trace);
+    Set<String> spans = new LinkedHashSet<>();
+    while (matcher.find()) {
+      spans.add(matcher.group(1));
+    }
+    assertThat(spans)
+        .containsAtLeast(
+            src.toString(),
+            "parse",
+            "bootclasspath",
+            "classpath",
+            "pipeline",
+            "bindSourceBoundClasses",
+            "bindPackages",
+            "bindHierarchy",
+            "bindTypes",
+            "constants",
+            "disambiguateTypeAnnotations",
+            "canonicalizeTypes",
+            "bindModules",
+            "round 1",
+            "round 2",
+            SourceGeneratingProcessor.class.getName(),
+            "bind",
+            "lower",
+            "deps",
+            "write output");
+  }
+
+  @Test
+  public void metrics() throws IOException {
+    Path src = temporaryFolder.newFile("Foo.java").toPath();
+    MoreFiles.asCharSink(src, UTF_8)
+        .write("package f; class Foo { static final int X = 1; static final int Y = X + 1; }");
+
+    Path output = temporaryFolder.newFile("output.jar").toPath();
+    Path outputMetrics = temporaryFolder.newFile("output.metrics").toPath();
+
+    Main.Result result =
+        Main.compile(
+            optionsWithBootclasspath()
+                .setSources(ImmutableList.of(src.toString()))
+                .setOutput(output.toString())
+                .setOutputMetrics(outputMetrics.toString())
+                .build());
+
+    Metrics metrics = result.metrics();
+    assertThat(metrics.phases().keySet())
+        .containsAtLeast("parse", "classpath", "bindTypes", "constants", "bind", "lower");
+    Metrics.Phase bindTypes = metrics.phases().get("bindTypes");
+    assertThat(bindTypes.count()).isEqualTo(1);
+    assertThat(bindTypes.wallTime()).isAtLeast(Duration.ZERO);
+    assertThat(metrics.counters())
+        .containsAtLeast(
+            "constant fields evaluated", 2L,
+            "classpath classes indexed", 0L,
+            "classpath classes completed", 0L);
+    assertThat(result.classpathUsage()).isEmpty();
+
+    MetricsProto.Metrics proto;
+    try (InputStream is = new BufferedInputStream(Files.newInputStream(outputMetrics))) {
+      proto = MetricsProto.Metrics.parseFrom(is, ExtensionRegistry.getEmptyRegistry());
+    }
+    assertThat(
+            proto.getPhaseList().stream()
+                .map(MetricsProto.Phase::getName)
+                .collect(toImmutableList()))
+        .containsAtLeastElementsIn(metrics.phases().keySet());
+    assertThat(proto.getCounterList())
+        .contains(
+            MetricsProto.Counter.newBuilder()
+                .setName("constant fields evaluated")
+                .setValue(2)
+                .build());
+  }
+
   private static ManifestProto.Manifest readManifestProto(Path manifestProtoOutput)
       throws IOException {
     ManifestProto.Manifest.Builder manifest = ManifestProto.Manifest.newBuilder();
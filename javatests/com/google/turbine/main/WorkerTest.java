@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.main;
+
+import static com.google.common.base.StandardSystemProperty.JAVA_SPECIFICATION_VERSION;
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.turbine.lower.IntegrationTestSupport.classFile;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.MoreFiles;
+import com.google.protobuf.ByteString;
+import com.google.turbine.proto.WorkerProtocol.Input;
+import com.google.turbine.proto.WorkerProtocol.WorkRequest;
+import com.google.turbine.proto.WorkerProtocol.WorkResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class WorkerTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static List<WorkResponse> run(Worker worker, WorkRequest... requests) throws IOException {
+    ByteArrayOutputStream in = new ByteArrayOutputStream();
+    for (WorkRequest request : requests) {
+      request.writeDelimitedTo(in);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    worker.run(new ByteArrayInputStream(in.toByteArray()), out);
+    List<WorkResponse> responses = new ArrayList<>();
+    InputStream is = new ByteArrayInputStream(out.toByteArray());
+    WorkResponse response;
+    while ((response = WorkResponse.parseDelimitedFrom(is)) != null) {
+      responses.add(response);
+    }
+    return responses;
+  }
+
+  private Path source(String name, String content) throws IOException {
+    Path path = temporaryFolder.newFile(name).toPath();
+    MoreFiles.asCharSink(path, UTF_8).write(content);
+    return path;
+  }
+
+  private static WorkRequest request(int id, Path source, Path output, String... extra) {
+    return WorkRequest.newBuilder()
+        .setRequestId(id)
+        .addArguments("--javacopts")
+        .addArguments("--release")
+        .addArguments(JAVA_SPECIFICATION_VERSION.value())
+        .addArguments("--")
+        .addArguments("--sources")
+        .addArguments(source.toString())
+        .addArguments("--output")
+        .addArguments(output.toString())
+        .addAllArguments(ImmutableList.copyOf(extra))
+        .build();
+  }
+
+  private static ImmutableList<String> entries(Path jar) throws IOException {
+    try (JarFile jf = new JarFile(jar.toFile())) {
+      return jf.stream().map(JarEntry::getName).collect(ImmutableList.toImmutableList());
+    }
+  }
+
+  @Test
+  public void multiplex() throws IOException {
+    List<WorkRequest> requests = new ArrayList<>();
+    List<Path> outputs = new ArrayList<>();
+    for (int i = 1; i <= 8; i++) {
+      Path output = temporaryFolder.newFile("out" + i + ".jar").toPath();
+      outputs.add(output);
+      requests.add(
+          request(i, source("T" + i + ".java", "class T" + i + " {}"), output, "--threads", "2"));
+    }
+    List<WorkResponse> responses = run(new Worker(4), requests.toArray(new WorkRequest[0]));
+
+    assertThat(responses.stream().map(WorkResponse::getRequestId))
+        .containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    for (WorkResponse response : responses) {
+      assertThat(response.getOutput()).isEmpty();
+      assertThat(response.getExitCode()).isEqualTo(0);
+    }
+    for (int i = 0; i < outputs.size(); i++) {
+      assertThat(entries(outputs.get(i))).contains("T" + (i + 1) + ".class");
+    }
+  }
+
+  @Test
+  public void errors() throws IOException {
+    Path output = temporaryFolder.newFile("out.jar").toPath();
+    List<WorkResponse> responses =
+        run(
+            new Worker(1),
+            request(0, source("Bad.java", "class Bad extends NoSuch {}"), output),
+            WorkRequest.newBuilder().addArguments("--threads").addArguments("0").build(),
+            request(0, source("Good.java", "class Good {}"), output));
+
+    assertThat(responses).hasSize(3);
+    assertThat(responses.get(0).getExitCode()).isEqualTo(1);
+    assertThat(responses.get(0).getOutput()).contains("could not resolve NoSuch");
+    assertThat(responses.get(1).getExitCode()).isEqualTo(1);
+    assertThat(responses.get(1).getOutput()).contains("at least one of --output");
+    assertThat(responses.get(2).getExitCode()).isEqualTo(0);
+  }
+
+  private static void writeJar(Path jar, String className, FileTime lastModified)
+      throws IOException {
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(jar))) {
+      JarEntry entry = new JarEntry(className + ".class");
+      entry.setTime(0);
+      jos.putNextEntry(entry);
+      jos.write(classFile(className));
+    }
+    Files.setLastModifiedTime(jar, lastModified);
+  }
+
+  @Test
+  public void invalidatedByDigest() throws IOException {
+    Path lib = temporaryFolder.newFile("lib.jar").toPath();
+    FileTime lastModified = FileTime.fromMillis(1_000_000);
+    writeJar(lib, "p/Lib", lastModified);
+    long size = Files.size(lib);
+    Path output = temporaryFolder.newFile("out.jar").toPath();
+    Worker worker = new Worker(1);
+
+    WorkResponse response =
+        run(
+                worker,
+                request(0, source("T.java", "class T extends p.Lib {}"), output).toBuilder()
+                    .addArguments("--classpath")
+                    .addArguments(lib.toString())
+                    .addInputs(
+                        Input.newBuilder()
+                            .setPath(lib.toString())
+                            .setDigest(ByteString.copyFromUtf8("1")))
+                    .build())
+            .get(0);
+    assertThat(response.getExitCode()).isEqualTo(0);
+
+    // rewrite the jar without changing its size or last-modified time
+    writeJar(lib, "p/Lic", lastModified);
+    assertThat(Files.size(lib)).isEqualTo(size);
+
+    response =
+        run(
+                worker,
+                request(0, source("U.java", "class U extends p.Lic {}"), output).toBuilder()
+                    .addArguments("--classpath")
+                    .addArguments(lib.toString())
+                    .addInputs(
+                        Input.newBuilder()
+                            .setPath(lib.toString())
+                            .setDigest(ByteString.copyFromUtf8("2")))
+                    .build())
+            .get(0);
+    assertThat(response.getOutput()).isEmpty();
+    assertThat(response.getExitCode()).isEqualTo(0);
+  }
+}
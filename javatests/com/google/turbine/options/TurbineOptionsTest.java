@@ -323,6 +323,41 @@ public class TurbineOptionsTest {
     assertThat(options.profile()).hasValue("turbine.prof");
   }
 
+  @Test
+  public void outputMetrics() throws Exception {
+    assertThat(TurbineOptionsParser.parse(BASE_ARGS).outputMetrics()).isEmpty();
+    TurbineOptions options =
+        TurbineOptionsParser.parse(
+            Iterables.concat(BASE_ARGS, ImmutableList.of("--output_metrics", "turbine.metrics")));
+    assertThat(options.outputMetrics()).hasValue("turbine.metrics");
+  }
+
+  @Test
+  public void classpathIndexCache() throws Exception {
+    assertThat(TurbineOptionsParser.parse(BASE_ARGS).classpathIndexCache()).isEmpty();
+    TurbineOptions options =
+        TurbineOptionsParser.parse(
+            Iterables.concat(BASE_ARGS, ImmutableList.of("--classpath_index_cache", "/tmp/index")));
+    assertThat(options.classpathIndexCache()).hasValue("/tmp/index");
+  }
+
+  @Test
+  public void incrementalState() throws Exception {
+    assertThat(TurbineOptionsParser.parse(BASE_ARGS).incrementalState()).isEmpty();
+    TurbineOptions options =
+        TurbineOptionsParser.parse(
+            Iterables.concat(BASE_ARGS, ImmutableList.of("--incremental_state", "out.state")));
+    assertThat(options.incrementalState()).hasValue("out.state");
+  }
+
+  @Test
+  public void threads() throws Exception {
+    assertThat(TurbineOptionsParser.parse(BASE_ARGS).threads()).isEqualTo(1);
+    TurbineOptions options =
+        TurbineOptionsParser.parse(Iterables.concat(BASE_ARGS, ImmutableList.of("--threads", "8")));
+    assertThat(options.threads()).isEqualTo(8);
+  }
+
   @Test
   public void unescape() throws Exception {
     String[] lines = {
@@ -141,6 +141,32 @@ public class ParseErrorTest {
                 "                           ^"));
   }
 
+  @Test
+  public void unterminatedStringInMethodBody() {
+    String input = "class T { void f() { String s = \"hello\nworld\"; } }";
+    TurbineError e = assertThrows(TurbineError.class, () -> Parser.parse(input));
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(
+            lines(
+                "<>:1: error: unterminated string literal", //
+                "class T { void f() { String s = \"hello",
+                "                                      ^"));
+  }
+
+  @Test
+  public void unclosedCommentInMethodBody() {
+    String input = "class T { void f() { /* } }";
+    TurbineError e = assertThrows(TurbineError.class, () -> Parser.parse(input));
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(
+            lines(
+                "<>:1: error: unclosed comment", //
+                "class T { void f() { /* } }",
+                "                     ^"));
+  }
+
   @Test
   public void emptyChar() {
     String input = "class T { char c = ''; }";
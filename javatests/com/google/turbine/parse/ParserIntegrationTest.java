@@ -77,6 +77,7 @@ public class ParserIntegrationTest {
       "record.input",
       "sealed.input",
       "arrays.input",
+      "bodies.input",
     };
   }
 
@@ -17,6 +17,7 @@
 package com.google.turbine.processing;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.MoreCollectors.onlyElement;
 import static com.google.common.truth.Truth.assertThat;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -33,16 +34,20 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.turbine.binder.Binder;
 import com.google.turbine.binder.Binder.BindingResult;
+import com.google.turbine.binder.Binder.ProcessorStatistics;
 import com.google.turbine.binder.ClassPathBinder;
 import com.google.turbine.binder.Processing;
 import com.google.turbine.binder.Processing.ProcessorInfo;
+import com.google.turbine.binder.bound.TypeBoundClass.FieldInfo;
 import com.google.turbine.binder.sym.ClassSymbol;
 import com.google.turbine.diag.SourceFile;
 import com.google.turbine.diag.TurbineDiagnostic;
 import com.google.turbine.diag.TurbineError;
 import com.google.turbine.diag.TurbineLog;
 import com.google.turbine.lower.IntegrationTestSupport;
+import com.google.turbine.model.Const;
 import com.google.turbine.parse.Parser;
+import com.google.turbine.profile.Profiler;
 import com.google.turbine.testing.TestClassPaths;
 import com.google.turbine.tree.Tree;
 import java.io.IOException;
@@ -945,4 +950,101 @@ public class ProcessingIntegrationTest {
         log.diagnostics().stream().map(TurbineDiagnostic::message).collect(toImmutableList());
     assertThat(messages).containsExactly("A(ERROR)");
   }
+
+  @SupportedAnnotationTypes("*")
+  public static class GenerateConstantProcessor extends AbstractProcessor {
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+      return SourceVersion.latestSupported();
+    }
+
+    private boolean first = true;
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+      if (first) {
+        try {
+          JavaFileObject file = processingEnv.getFiler().createSourceFile("Gen");
+          try (Writer writer = file.openWriter()) {
+            writer.write("class Gen { static final int X = 42; }");
+          }
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+        first = false;
+      }
+      return false;
+    }
+  }
+
+  @Test
+  public void incrementalRounds() throws IOException {
+    ImmutableList<Tree.CompUnit> units =
+        parseUnit(
+            "=== A.java ===", //
+            "class A {",
+            "  static final int Y = Gen.X + 1;",
+            "}",
+            "=== B.java ===",
+            "class B extends A {}",
+            "=== C.java ===",
+            "class C {",
+            "  static final int Z = 1;",
+            "}");
+    Profiler profiler = Profiler.metricsOnly();
+    BindingResult bound =
+        Binder.bind(
+            units,
+            ClassPathBinder.bindClasspath(ImmutableList.of()),
+            ProcessorInfo.create(
+                ImmutableList.of(new GenerateConstantProcessor()),
+                getClass().getClassLoader(),
+                ImmutableMap.of(),
+                SourceVersion.latestSupported()),
+            TestClassPaths.TURBINE_BOOTCLASSPATH,
+            Optional.empty(),
+            profiler,
+            /* pool= */ null);
+    assertThat(bound.units().keySet())
+        .containsExactly(
+            new ClassSymbol("A"),
+            new ClassSymbol("B"),
+            new ClassSymbol("C"),
+            new ClassSymbol("Gen"))
+        .inOrder();
+    FieldInfo y = getOnlyElement(bound.units().get(new ClassSymbol("A")).fields());
+    assertThat(y.value()).isEqualTo(new Const.IntValue(43));
+    // only A, which refers to the generated class, and B, which refers to A, are re-bound
+    assertThat(profiler.metrics().counters())
+        .containsAtLeast("classes reused", 1L, "classes rebound", 3L);
+  }
+
+  @Test
+  public void processorStatistics() throws IOException {
+    ImmutableList<Tree.CompUnit> units =
+        parseUnit(
+            "=== A.java ===", //
+            "class A {}");
+    BindingResult bound =
+        Binder.bind(
+            units,
+            ClassPathBinder.bindClasspath(ImmutableList.of()),
+            ProcessorInfo.create(
+                ImmutableList.of(new GenerateConstantProcessor()),
+                getClass().getClassLoader(),
+                ImmutableMap.of(),
+                SourceVersion.latestSupported()),
+            TestClassPaths.TURBINE_BOOTCLASSPATH,
+            Optional.empty(),
+            Profiler.metricsOnly(),
+            /* pool= */ null);
+    ProcessorStatistics statistics =
+        bound.statistics().processors().get(GenerateConstantProcessor.class.getCanonicalName());
+    assertThat(statistics.phases().keySet())
+        .containsExactly("init", "round 1", "round 2", "final round")
+        .inOrder();
+    assertThat(statistics.phases().get("round 1").count()).isEqualTo(1);
+    assertThat(statistics.filesGenerated()).isEqualTo(1);
+    assertThat(statistics.apiCalls()).containsExactly("Filer.createSourceFile", 1L);
+  }
 }
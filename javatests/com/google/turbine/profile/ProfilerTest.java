@@ -0,0 +1,168 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.profile;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.TruthJUnit.assume;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ProfilerTest {
+
+  private static String trace(Profiler profiler) throws IOException {
+    StringWriter writer = new StringWriter();
+    profiler.writeTo(writer);
+    return writer.toString();
+  }
+
+  @Test
+  public void disabled() throws IOException {
+    Profiler profiler = Profiler.disabled();
+    try (Profiler.Span unused = profiler.span("phase")) {}
+    profiler.record("options", 0, 1);
+    assertThat(profiler.enabled()).isFalse();
+    assertThat(profiler.spanNames()).isEmpty();
+    assertThat(trace(profiler)).isEqualTo("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n\n]}\n");
+  }
+
+  @Test
+  public void nestedSpans() throws IOException {
+    Profiler profiler = Profiler.create();
+    try (Profiler.Span outer = profiler.span("outer")) {
+      try (Profiler.Span inner =
+          profiler.span("a \"quoted\"\\name", "parse", ImmutableMap.of("file", "A.java\n"))) {}
+    }
+    assertThat(profiler.spanNames()).containsExactly("a \"quoted\"\\name", "outer").inOrder();
+
+    String trace = trace(profiler);
+    assertThat(trace).contains("\"name\":\"thread_name\",\"ph\":\"M\"");
+    assertThat(trace)
+        .contains("\"name\":\"a \\\"quoted\\\"\\\\name\",\"cat\":\"parse\",\"ph\":\"X\",\"ts\":");
+    assertThat(trace).contains("\"args\":{\"file\":\"A.java\\n\"}");
+    assertThat(trace).contains("\"name\":\"outer\",\"cat\":\"phase\",\"ph\":\"X\",\"ts\":");
+  }
+
+  @Test
+  public void metrics() throws IOException {
+    Profiler profiler = Profiler.metricsOnly();
+    for (int i = 0; i < 2; i++) {
+      try (Profiler.Span outer = profiler.span("outer")) {
+        try (Profiler.Span round = profiler.span("round", "processing", ImmutableMap.of())) {}
+        try (Profiler.Span file = profiler.span("A.java", "parse", ImmutableMap.of())) {}
+      }
+    }
+    profiler.count("things", 2);
+    profiler.count("things", 3);
+
+    assertThat(profiler.enabled()).isFalse();
+    assertThat(profiler.collectsMetrics()).isTrue();
+    assertThat(profiler.spanNames()).isEmpty();
+
+    Metrics metrics = profiler.metrics();
+    // phases are listed in the order they first finished, and spans of other categories aren't
+    // measured
+    assertThat(metrics.phases().keySet()).containsExactly("round", "outer").inOrder();
+    Metrics.Phase outer = metrics.phases().get("outer");
+    assertThat(outer.count()).isEqualTo(2);
+    assertThat(outer.wallTime()).isAtLeast(metrics.phases().get("round").wallTime());
+    assertThat(metrics.counters()).containsExactly("things", 5L);
+  }
+
+  @Test
+  public void metricsDisabled() {
+    Profiler profiler = Profiler.disabled();
+    try (Profiler.Span unused = profiler.span("phase")) {}
+    profiler.count("things", 1);
+    assertThat(profiler.collectsMetrics()).isFalse();
+    assertThat(profiler.metrics()).isEqualTo(Metrics.empty());
+  }
+
+  @Test
+  public void tasksChargedToSpan() throws Exception {
+    long cpuNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    Callable<Void> busy =
+        () -> {
+          long start = ThreadCost.cpuNanos();
+          byte[] unused = new byte[1 << 20];
+          while (ThreadCost.cpuNanos() - start < cpuNanos) {}
+          return null;
+        };
+    assume().that(ThreadCost.cpuNanos()).isGreaterThan(0L);
+
+    Profiler profiler = Profiler.metricsOnly();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try (Profiler.Span outer = profiler.span("outer")) {
+      try (Profiler.Span inner = profiler.span("inner")) {
+        executor.submit(Profiler.inCurrentSpan(busy)).get();
+      }
+      // a span started by a task on another thread is charged to the span that started the task
+      executor
+          .submit(
+              Profiler.inCurrentSpan(
+                  () -> {
+                    try (Profiler.Span nested = profiler.span("nested")) {
+                      return executor.submit(Profiler.inCurrentSpan(busy)).get();
+                    }
+                  }))
+          .get();
+    } finally {
+      executor.shutdown();
+    }
+    // tasks submitted outside a span aren't wrapped
+    assertThat(Profiler.inCurrentSpan(busy)).isSameInstanceAs(busy);
+
+    Metrics metrics = profiler.metrics();
+    assertThat(metrics.phases().keySet()).containsExactly("inner", "nested", "outer").inOrder();
+    Metrics.Phase inner = metrics.phases().get("inner");
+    Metrics.Phase outer = metrics.phases().get("outer");
+    assertThat(inner.cpuTime()).isAtLeast(Duration.ofNanos(cpuNanos));
+    assertThat(outer.cpuTime()).isAtLeast(Duration.ofNanos(2 * cpuNanos));
+    if (outer.allocatedBytes() >= 0) {
+      assertThat(inner.allocatedBytes()).isAtLeast(1L << 20);
+      assertThat(outer.allocatedBytes()).isAtLeast(2L << 20);
+    }
+  }
+
+  @Test
+  public void threads() throws Exception {
+    Profiler profiler = Profiler.create();
+    Thread thread =
+        new Thread(
+            () -> {
+              try (Profiler.Span unused = profiler.span("background")) {}
+            },
+            "worker-thread");
+    thread.start();
+    thread.join();
+    try (Profiler.Span unused = profiler.span("foreground")) {}
+
+    String trace = trace(profiler);
+    assertThat(trace).contains("\"args\":{\"name\":\"worker-thread\"}");
+    assertThat(trace).contains("\"args\":{\"name\":\"" + Thread.currentThread().getName() + "\"}");
+  }
+}
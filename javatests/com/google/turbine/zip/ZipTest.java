@@ -33,11 +33,17 @@ import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarOutputStream;
@@ -80,6 +86,120 @@ public class ZipTest {
     assertThat(actual(path)).isEqualTo(expected(path));
   }
 
+  @Test
+  public void compressionLargeEntries() throws IOException {
+    Path path = temporaryFolder.newFile("test.jar").toPath();
+    Random random = new Random(42);
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      for (int i = 0; i < 10; i++) {
+        jos.putNextEntry(new JarEntry("entry" + i));
+        // a mix of compressible and incompressible data
+        byte[] bytes = new byte[1 << (10 + i)];
+        random.nextBytes(bytes);
+        Arrays.fill(bytes, bytes.length / 2, bytes.length, (byte) i);
+        jos.write(bytes);
+      }
+      jos.putNextEntry(new JarEntry("empty"));
+    }
+    Map<String, Long> expected = expected(path);
+    List<Future<Map<String, Long>>> results = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> actual(path)));
+      }
+      for (Future<Map<String, Long>> result : results) {
+        assertThat(result.get()).isEqualTo(expected);
+      }
+    } catch (InterruptedException | ExecutionException e) {
+      throw new AssertionError(e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void buffer() throws IOException {
+    Path path = temporaryFolder.newFile("test.jar").toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      createEntry(jos, "stored", "hello".getBytes(UTF_8));
+      jos.putNextEntry(new JarEntry("deflated"));
+      jos.write("world".getBytes(UTF_8));
+    }
+    Map<String, ByteBuffer> buffers = new LinkedHashMap<>();
+    for (Zip.Entry e : new Zip.ZipIterable(path)) {
+      ByteBuffer buffer = e.buffer();
+      assertThat(buffer.isReadOnly()).isTrue();
+      assertThat(buffer).isEqualTo(ByteBuffer.wrap(e.data()));
+      buffers.put(e.name(), buffer);
+    }
+    assertThat(buffers.keySet()).containsExactly("stored", "deflated").inOrder();
+    // STORED entries are views of the mapped archive
+    assertThat(buffers.get("stored").isDirect()).isTrue();
+    assertThat(UTF_8.decode(buffers.get("stored")).toString()).isEqualTo("hello");
+    assertThat(UTF_8.decode(buffers.get("deflated")).toString()).isEqualTo("world");
+  }
+
+  @Test
+  public void unmapped() throws IOException {
+    Path path = temporaryFolder.newFile("test.jar").toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      createEntry(jos, "stored", "hello".getBytes(UTF_8));
+      jos.putNextEntry(new JarEntry("deflated"));
+      jos.write("world".getBytes(UTF_8));
+    }
+    Map<String, String> contents = new LinkedHashMap<>();
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(path, /* map= */ false)) {
+      for (Zip.Entry e : zip) {
+        ByteBuffer buffer = e.buffer();
+        assertThat(buffer.isReadOnly()).isTrue();
+        assertThat(buffer.isDirect()).isFalse();
+        contents.put(e.name(), UTF_8.decode(buffer).toString());
+      }
+      assertThat(zip.centralDirectory().isDirect()).isFalse();
+      assertThat(new String(zip.lookup("deflated").data(), UTF_8)).isEqualTo("world");
+    }
+    assertThat(contents).containsExactly("stored", "hello", "deflated", "world").inOrder();
+  }
+
+  @Test
+  public void lookup() throws IOException {
+    Path path = temporaryFolder.newFile("test.jar").toPath();
+    List<String> names = new ArrayList<>();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      for (int i = 0; i < 1000; i++) {
+        names.add("p/C" + i + ".class");
+      }
+      names.add("p/\u00e9t\u00e9.class");
+      names.add("p/\ud83d\ude00.txt");
+      names.add("p/");
+      for (String name : names) {
+        createEntry(jos, name, name.getBytes(UTF_8));
+      }
+    }
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(path)) {
+      for (String name : names) {
+        Zip.Entry entry = zip.lookup(name);
+        assertThat(entry).isNotNull();
+        assertThat(entry.name()).isEqualTo(name);
+        assertThat(new String(entry.data(), UTF_8)).isEqualTo(name);
+      }
+      assertThat(zip.lookup("p/C1000.class")).isNull();
+      assertThat(zip.lookup("p/C1.clas")).isNull();
+      assertThat(zip.lookup("p")).isNull();
+      assertThat(zip.lookup("")).isNull();
+    }
+  }
+
+  @Test
+  public void lookupEmpty() throws IOException {
+    Path path = temporaryFolder.newFile("test.jar").toPath();
+    try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(path))) {}
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(path)) {
+      assertThat(zip.lookup("hello")).isNull();
+    }
+  }
+
   private void testEntries(int entries) throws IOException {
     Path path = temporaryFolder.newFile("test.jar").toPath();
     try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
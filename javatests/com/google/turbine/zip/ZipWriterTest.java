@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 Google Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.turbine.zip;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertThrows;
+
+import com.google.common.hash.Hashing;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/** {@link ZipWriter}Test */
+@RunWith(JUnit4.class)
+public class ZipWriterTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2010, 1, 1, 0, 0, 0);
+
+  /** Writes the entries with {@link JarOutputStream}, the way turbine used to. */
+  private Path expected(Map<String, byte[]> entries) throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    try (JarOutputStream jos = new JarOutputStream(Files.newOutputStream(path))) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        byte[] bytes = entry.getValue();
+        JarEntry je = new JarEntry(entry.getKey());
+        je.setTimeLocal(TIMESTAMP);
+        je.setMethod(ZipEntry.STORED);
+        je.setSize(bytes.length);
+        je.setCrc(Hashing.crc32().hashBytes(bytes).padToLong());
+        jos.putNextEntry(je);
+        jos.write(bytes);
+      }
+    }
+    return path;
+  }
+
+  private static Map<String, byte[]> entries(int count, int size) {
+    Random random = new Random(42);
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    for (int i = 0; i < count; i++) {
+      byte[] bytes = new byte[random.nextInt(size)];
+      random.nextBytes(bytes);
+      entries.put("p/C" + i + ".class", bytes);
+    }
+    return entries;
+  }
+
+  @Test
+  public void identicalToJarOutputStream() throws IOException {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    entries.put("META-INF/", new byte[0]);
+    entries.put("META-INF/MANIFEST.MF", "Manifest-Version: 1.0\r\n".getBytes(UTF_8));
+    entries.put("π/Ω.class", "hello".getBytes(UTF_8));
+    entries.putAll(entries(100, 10_000));
+
+    Path path = temporaryFolder.newFile().toPath();
+    try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        writer.add(entry.getKey(), entry.getValue());
+      }
+      writer.finish();
+    }
+
+    assertThat(Files.readAllBytes(path)).isEqualTo(Files.readAllBytes(expected(entries)));
+  }
+
+  @Test
+  public void streamedEntries() throws IOException {
+    // large enough that some headers are flushed before the entry is finished
+    Map<String, byte[]> entries = entries(20, 200_000);
+
+    Path path = temporaryFolder.newFile().toPath();
+    try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+      int i = 0;
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        if (i++ % 2 == 0) {
+          writer.add(entry.getKey(), entry.getValue());
+          continue;
+        }
+        byte[] bytes = entry.getValue();
+        try (OutputStream os = writer.newEntry(entry.getKey())) {
+          for (int off = 0; off < bytes.length; off += 1000) {
+            os.write(bytes, off, Math.min(1000, bytes.length - off));
+          }
+        }
+      }
+      writer.finish();
+    }
+
+    assertThat(Files.readAllBytes(path)).isEqualTo(Files.readAllBytes(expected(entries)));
+    try (JarFile jf = new JarFile(path.toFile())) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        assertThat(jf.getInputStream(jf.getEntry(entry.getKey())).readAllBytes())
+            .isEqualTo(entry.getValue());
+      }
+    }
+  }
+
+  @Test
+  public void zip64() throws IOException {
+    Map<String, byte[]> entries = entries(70_000, 10);
+
+    Path path = temporaryFolder.newFile().toPath();
+    try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        writer.add(entry.getKey(), entry.getValue());
+      }
+      writer.finish();
+    }
+
+    assertThat(Files.readAllBytes(path)).isEqualTo(Files.readAllBytes(expected(entries)));
+    int count = 0;
+    try (Zip.ZipIterable zip = new Zip.ZipIterable(path)) {
+      for (Zip.Entry entry : zip) {
+        assertThat(entry.data()).isEqualTo(entries.get(entry.name()));
+        count++;
+      }
+    }
+    assertThat(count).isEqualTo(70_000);
+  }
+
+  @Test
+  public void unclosedEntry() throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+      OutputStream unused = writer.newEntry("a");
+      assertThrows(IllegalStateException.class, () -> writer.add("b", new byte[0]));
+    }
+  }
+
+  @Test
+  public void unfinished() throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    IOException e =
+        assertThrows(
+            IOException.class,
+            () -> {
+              try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+                writer.add("a", new byte[10]);
+                throw new IOException("failed");
+              }
+            });
+    assertThat(e).hasMessageThat().isEqualTo("failed");
+    assertThat(Files.exists(path)).isFalse();
+  }
+
+  @Test
+  public void finishClosesEntry() throws IOException {
+    Map<String, byte[]> entries = entries(1, 10);
+    Map.Entry<String, byte[]> entry = entries.entrySet().iterator().next();
+
+    Path path = temporaryFolder.newFile().toPath();
+    try (ZipWriter writer = new ZipWriter(path, TIMESTAMP)) {
+      writer.newEntry(entry.getKey()).write(entry.getValue());
+      writer.finish();
+    }
+
+    assertThat(Files.readAllBytes(path)).isEqualTo(Files.readAllBytes(expected(entries)));
+  }
+
+  @Test
+  public void timestampOutOfRange() throws IOException {
+    Path path = temporaryFolder.newFile().toPath();
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new ZipWriter(path, LocalDateTime.of(1970, 1, 1, 0, 0, 0)));
+  }
+}